@@ -0,0 +1,83 @@
+package kr.or.kosa.visang.common.config.redis;
+
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 Redis 코덱: 기존 Jackson(타입 정보 포함) vs 고정 스키마 바이너리
+ * 메시지당 바이트 수는 Setup 단계에서 출력한다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatMessageCodecBenchmark {
+
+    private static final String SESSION_ID = "c0f1e2d3-4b5a-6978-8a9b-0c1d2e3f4a5b";
+
+    @Param({"short", "long", "system"})
+    public String kind;
+
+    private final RedisSerializer<ChatMessage> jsonCodec = ChatMessageRedisSerializer.legacyJsonSerializer();
+    private final RedisSerializer<ChatMessage> binaryCodec = new ChatMessageRedisSerializer(true);
+    private ChatMessage message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (kind) {
+            case "short":
+                message = ChatMessage.createChatMessage(SESSION_ID, 1042L, "client", "홍길동", "네 확인했습니다.");
+                break;
+            case "long":
+                message = ChatMessage.createChatMessage(SESSION_ID, 1042L, "agent", "김상담",
+                        "계약서 3페이지의 중도 해지 조항을 함께 보시면, 가입 후 1년 이내 해지 시 납입 보험료의 일부만 "
+                                + "환급되며 환급률은 상품 설명서 12쪽 표에 정리되어 있습니다. 궁금하신 점은 편하게 말씀해 주세요.");
+                break;
+            default:
+                message = ChatMessage.createSystemMessage(SESSION_ID, 1042L, "상담이 종료되었습니다.");
+                message.setFileHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+                break;
+        }
+        message.setMessageId(88213L);
+        message.setTimestamp(LocalDateTime.of(2026, 5, 14, 15, 32, 7, 481_000_000));
+        json = jsonCodec.serialize(message);
+        binary = binaryCodec.serialize(message);
+        System.out.printf("%n[%s] bytes/message json=%d binary=%d (%.1f%%)%n",
+                kind, json.length, binary.length, binary.length * 100.0 / json.length);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() {
+        return jsonCodec.serialize(message);
+    }
+
+    @Benchmark
+    public ChatMessage jacksonDecode() {
+        return jsonCodec.deserialize(json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binaryCodec.serialize(message);
+    }
+
+    @Benchmark
+    public ChatMessage binaryDecode() {
+        return binaryCodec.deserialize(binary);
+    }
+}
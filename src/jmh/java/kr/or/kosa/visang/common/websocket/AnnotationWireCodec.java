@@ -0,0 +1,361 @@
+package kr.or.kosa.visang.common.websocket;
+
+import kr.or.kosa.visang.domain.contract.model.DrawMessage;
+import kr.or.kosa.visang.domain.contract.model.PdfPageMessage;
+import kr.or.kosa.visang.domain.contract.model.PdfScrollMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import kr.or.kosa.visang.domain.contract.model.TextMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 실시간 주석 메시지(드로잉/스크롤/페이지/텍스트) 바이너리 코덱
+ *
+ * 프레임 구조: [타입 태그 1byte][필드...]
+ * - 정수: zigzag varint
+ * - 문자열: varint 참조 (0=null, 1=방 ID, 2..=자주 쓰는 값 테이블, 그 외=길이+UTF-8 리터럴)
+ * - 스트로크 좌표: 첫 좌표는 절대값, 이후 좌표는 직전 좌표와의 차이
+ *
+ * 방 ID 는 목적지(/topic/room/{roomId}/..)에서 알 수 있으므로 sessionId 는 1byte 참조로 줄어든다.
+ * 상태가 없는 인코딩이라 전송 순서가 바뀌어도 각 프레임을 독립적으로 해석할 수 있다.
+ *
+ * 바이너리 프레임을 주고받는 클라이언트가 아직 없어 서버에는 포함하지 않고, JSON 대비 비용 비교(벤치마크)에만 쓴다.
+ */
+public final class AnnotationWireCodec {
+
+    public static final byte TAG_DRAW = 0x11;
+    public static final byte TAG_STROKE_BATCH = 0x12;
+    public static final byte TAG_SCROLL = 0x13;
+    public static final byte TAG_PAGE = 0x14;
+    public static final byte TAG_TEXT = 0x15;
+
+    // 문자열 참조 코드
+    private static final int STR_NULL = 0;
+    private static final int STR_ROOM = 1;
+    private static final int STR_TABLE_BASE = 2;
+
+    // 클라이언트가 보내는 type/mode/sender 값 (순서 변경 금지 - 바이너리 클라이언트를 만들 때 같은 순서의 표를 써야 함)
+    private static final List<String> WELL_KNOWN = List.of(
+            "pen", "highlight", "start", "move", "end", "text", "agent", "client");
+    private static final int STR_LITERAL = STR_TABLE_BASE + WELL_KNOWN.size();
+
+    private AnnotationWireCodec() {
+    }
+
+    /**
+     * 지원하는 메시지 타입인지 여부
+     */
+    public static boolean supports(Class<?> type) {
+        return type == DrawMessage.class || type == StrokeBatchMessage.class
+                || type == PdfScrollMessage.class || type == PdfPageMessage.class
+                || type == TextMessage.class;
+    }
+
+    /**
+     * 방 토픽 type(draw, scroll ...)과 JSON 내용으로 매핑할 메시지 클래스 결정
+     * @return 바이너리로 표현할 수 없는 type 이면 null
+     */
+    public static Class<?> payloadType(String destinationType, boolean hasPoints) {
+        if (destinationType == null) {
+            return null;
+        }
+        switch (destinationType) {
+            case "draw":
+                return hasPoints ? StrokeBatchMessage.class : DrawMessage.class;
+            case "draw/batch":
+                return StrokeBatchMessage.class;
+            case "scroll":
+                return PdfScrollMessage.class;
+            case "page":
+                return PdfPageMessage.class;
+            case "text":
+                return TextMessage.class;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 메시지 인코딩
+     * @param message 지원 타입의 메시지
+     * @param roomId 목적지 방 ID (sessionId 참조용, null 허용)
+     */
+    public static byte[] encode(Object message, String roomId) {
+        Writer out = new Writer(roomId);
+        if (message instanceof DrawMessage m) {
+            out.tag(TAG_DRAW);
+            out.string(m.getType());
+            out.string(m.getMode());
+            out.integer(m.getX());
+            out.integer(m.getY());
+            out.integer(m.getPageNumber());
+            out.integer(m.getLastX());
+            out.integer(m.getLastY());
+            out.integer(m.getCurrentX());
+            out.integer(m.getCurrentY());
+            out.integer(m.getPage());
+            out.string(m.getSessionId());
+            out.string(m.getSender());
+        } else if (message instanceof StrokeBatchMessage m) {
+            out.tag(TAG_STROKE_BATCH);
+            out.string(m.getType());
+            out.integer(m.getPage());
+            out.string(m.getSessionId());
+            out.string(m.getSender());
+            out.points(m.getPoints());
+        } else if (message instanceof PdfScrollMessage m) {
+            out.tag(TAG_SCROLL);
+            out.integer(m.getPageNumber());
+            out.integer(m.getScrollTop());
+            out.string(m.getSessionId());
+        } else if (message instanceof PdfPageMessage m) {
+            out.tag(TAG_PAGE);
+            out.integer(m.getPageNumber());
+            out.string(m.getSessionId());
+        } else if (message instanceof TextMessage m) {
+            out.tag(TAG_TEXT);
+            out.string(m.getType());
+            out.integer(m.getX());
+            out.integer(m.getY());
+            out.integer(m.getPageNumber());
+            out.integer(m.getPage());
+            out.string(m.getText());
+            out.string(m.getSessionId());
+            out.string(m.getSender());
+        } else {
+            throw new IllegalArgumentException("바이너리 인코딩 미지원 메시지: "
+                    + (message == null ? "null" : message.getClass().getName()));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 프레임 디코딩
+     * @param frame encode 로 만든 바이트 배열
+     * @param roomId 목적지 방 ID (방 ID 참조 복원용)
+     */
+    public static Object decode(byte[] frame, String roomId) {
+        Reader in = new Reader(frame, roomId);
+        byte tag = in.tag();
+        switch (tag) {
+            case TAG_DRAW: {
+                DrawMessage m = new DrawMessage();
+                m.setType(in.string());
+                m.setMode(in.string());
+                m.setX(in.integer());
+                m.setY(in.integer());
+                m.setPageNumber(in.integer());
+                m.setLastX(in.integer());
+                m.setLastY(in.integer());
+                m.setCurrentX(in.integer());
+                m.setCurrentY(in.integer());
+                m.setPage(in.integer());
+                m.setSessionId(in.string());
+                m.setSender(in.string());
+                return m;
+            }
+            case TAG_STROKE_BATCH: {
+                StrokeBatchMessage m = new StrokeBatchMessage();
+                m.setType(in.string());
+                m.setPage(in.integer());
+                m.setSessionId(in.string());
+                m.setSender(in.string());
+                m.setPoints(in.points());
+                return m;
+            }
+            case TAG_SCROLL: {
+                PdfScrollMessage m = new PdfScrollMessage();
+                m.setPageNumber(in.integer());
+                m.setScrollTop(in.integer());
+                m.setSessionId(in.string());
+                return m;
+            }
+            case TAG_PAGE: {
+                PdfPageMessage m = new PdfPageMessage();
+                m.setPageNumber(in.integer());
+                m.setSessionId(in.string());
+                return m;
+            }
+            case TAG_TEXT: {
+                TextMessage m = new TextMessage();
+                m.setType(in.string());
+                m.setX(in.integer());
+                m.setY(in.integer());
+                m.setPageNumber(in.integer());
+                m.setPage(in.integer());
+                m.setText(in.string());
+                m.setSessionId(in.string());
+                m.setSender(in.string());
+                return m;
+            }
+            default:
+                throw new IllegalArgumentException("알 수 없는 바이너리 메시지 태그: " + tag);
+        }
+    }
+
+    /**
+     * 바이너리 주석 프레임인지 첫 바이트로 판별
+     */
+    public static boolean isAnnotationFrame(byte[] frame) {
+        return frame != null && frame.length > 0
+                && frame[0] >= TAG_DRAW && frame[0] <= TAG_TEXT;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+        private final String roomId;
+
+        Writer(String roomId) {
+            this.roomId = roomId;
+        }
+
+        void tag(byte tag) {
+            buffer.write(tag);
+        }
+
+        void integer(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(STR_NULL);
+                return;
+            }
+            if (roomId != null && roomId.equals(value)) {
+                varint(STR_ROOM);
+                return;
+            }
+            int index = WELL_KNOWN.indexOf(value);
+            if (index >= 0) {
+                varint(STR_TABLE_BASE + index);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(STR_LITERAL);
+            varint(bytes.length);
+            buffer.write(bytes, 0, bytes.length);
+        }
+
+        void points(int[] points) {
+            if (points == null) {
+                varint(0);
+                return;
+            }
+            varint(points.length + 1);
+            int prevX = 0;
+            int prevY = 0;
+            for (int i = 0; i + 1 < points.length; i += 2) {
+                integer(points[i] - prevX);
+                integer(points[i + 1] - prevY);
+                prevX = points[i];
+                prevY = points[i + 1];
+            }
+            if (points.length % 2 != 0) {
+                integer(points[points.length - 1] - prevX);
+            }
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer.write(value);
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] frame;
+        private final String roomId;
+        private int position;
+
+        Reader(byte[] frame, String roomId) {
+            this.frame = Objects.requireNonNull(frame, "frame");
+            this.roomId = roomId;
+        }
+
+        byte tag() {
+            return next();
+        }
+
+        int integer() {
+            int raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String string() {
+            int code = varint();
+            if (code == STR_NULL) {
+                return null;
+            }
+            if (code == STR_ROOM) {
+                return roomId;
+            }
+            if (code > STR_ROOM && code < STR_LITERAL) {
+                return WELL_KNOWN.get(code - STR_TABLE_BASE);
+            }
+            if (code != STR_LITERAL) {
+                throw new IllegalArgumentException("잘못된 문자열 참조: " + code);
+            }
+            int length = varint();
+            if (length < 0 || position + length > frame.length) {
+                throw new IllegalArgumentException("문자열 길이가 프레임을 벗어남: " + length);
+            }
+            String value = new String(frame, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        int[] points() {
+            int count = varint();
+            if (count == 0) {
+                return null;
+            }
+            count -= 1;
+            if (count < 0 || count > frame.length - position) {
+                // 좌표 하나는 최소 1byte 이므로 남은 길이보다 많을 수 없다
+                throw new IllegalArgumentException("좌표 개수가 프레임을 벗어남: " + count);
+            }
+            int[] points = new int[count];
+            int prevX = 0;
+            int prevY = 0;
+            for (int i = 0; i + 1 < count; i += 2) {
+                prevX += integer();
+                prevY += integer();
+                points[i] = prevX;
+                points[i + 1] = prevY;
+            }
+            if (count % 2 != 0) {
+                points[count - 1] = prevX + integer();
+            }
+            return points;
+        }
+
+        int varint() {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = next();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("varint 가 너무 김");
+        }
+
+        private byte next() {
+            if (position >= frame.length) {
+                throw new IllegalArgumentException("프레임이 예상보다 짧음: length=" + frame.length);
+            }
+            return frame[position++];
+        }
+    }
+}
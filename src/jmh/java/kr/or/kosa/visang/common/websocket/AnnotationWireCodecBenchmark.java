@@ -0,0 +1,111 @@
+package kr.or.kosa.visang.common.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.or.kosa.visang.domain.contract.model.DrawMessage;
+import kr.or.kosa.visang.domain.contract.model.PdfScrollMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주석 메시지 바이너리 코덱 vs Jackson(JSON) 인코딩/디코딩 비용 비교
+ * 메시지당 바이트 수는 Setup 단계에서 출력하고, 바이너리 왕복 결과가 JSON 과 같은지도 함께 확인한다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnnotationWireCodecBenchmark {
+
+    private static final String ROOM_ID = "c0f1e2d3-4b5a-6978-8a9b-0c1d2e3f4a5b";
+
+    @Param({"draw", "stroke", "scroll"})
+    public String kind;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Object message;
+    private Class<?> messageType;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        switch (kind) {
+            case "draw": {
+                DrawMessage m = new DrawMessage();
+                m.setType("pen");
+                m.setLastX(412);
+                m.setLastY(633);
+                m.setCurrentX(415);
+                m.setCurrentY(636);
+                m.setPage(3);
+                m.setSessionId(ROOM_ID);
+                m.setSender("agent");
+                message = m;
+                break;
+            }
+            case "stroke": {
+                StrokeBatchMessage m = new StrokeBatchMessage();
+                m.setType("pen");
+                m.setPage(3);
+                m.setSessionId(ROOM_ID);
+                m.setSender("agent");
+                int[] points = new int[64];
+                for (int i = 0; i < points.length; i += 2) {
+                    points[i] = 400 + i;
+                    points[i + 1] = 600 + (i % 7);
+                }
+                m.setPoints(points);
+                message = m;
+                break;
+            }
+            default: {
+                PdfScrollMessage m = new PdfScrollMessage();
+                m.setPageNumber(3);
+                m.setScrollTop(1840);
+                m.setSessionId(ROOM_ID);
+                message = m;
+                break;
+            }
+        }
+        messageType = message.getClass();
+        json = objectMapper.writeValueAsBytes(message);
+        binary = AnnotationWireCodec.encode(message, ROOM_ID);
+        String roundTrip = objectMapper.writeValueAsString(AnnotationWireCodec.decode(binary, ROOM_ID));
+        if (!roundTrip.equals(objectMapper.writeValueAsString(message))) {
+            throw new IllegalStateException("바이너리 왕복 결과가 원본과 다릅니다: " + roundTrip);
+        }
+        System.out.printf("%n[%s] bytes/message json=%d binary=%d (%.1f%%)%n",
+                kind, json.length, binary.length, binary.length * 100.0 / json.length);
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public Object jacksonDecode() throws Exception {
+        return objectMapper.readValue(json, messageType);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return AnnotationWireCodec.encode(message, ROOM_ID);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return AnnotationWireCodec.decode(binary, ROOM_ID);
+    }
+}
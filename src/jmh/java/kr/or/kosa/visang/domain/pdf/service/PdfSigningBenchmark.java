@@ -0,0 +1,208 @@
+package kr.or.kosa.visang.domain.pdf.service;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.signatures.*;
+import kr.or.kosa.visang.common.config.key.KeystoreLoader;
+import kr.or.kosa.visang.domain.contract.model.ContractSingedDTO;
+import kr.or.kosa.visang.domain.pdf.enums.SignatureRole;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계약서 PDF 서명 처리량 (초당 서명 수): 기존 방식 vs 키/글꼴/도장 재사용 서명 엔진
+ *
+ * - legacy: 서명마다 키스토어 두 번 로드, 글꼴/도장 다시 읽기, 프로바이더 나열, PDF 두 번 파싱 (기존 signPdf 와 같은 순서)
+ * - engine: PdfSignerService 로 같은 직인 서명 하나 (메모리에 둔 키/글꼴/도장, 한 번 파싱, 증분 리비전)
+ * - partySignature: 직인이 찍힌 문서에 상담원 서명 리비전 하나를 덧붙임 (개별 서명 API 한 번)
+ * 키스토어와 샘플 PDF 는 Setup 에서 임시로 만들고, 출력은 파일 대신 메모리에 쓴다.
+ * 글꼴은 -Dsign.font=경로 로 지정 (없으면 legacy 는 Helvetica, engine 은 font-asian 한글 글꼴)
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PdfSigningBenchmark {
+
+    private static final String ALIAS = "contract-signing-key";
+    private static final String PASSWORD = "benchmark";
+    private static final String STAMP = "static/images/stamp/visang_stamp.png";
+
+    @Param({"3", "30"})
+    public int pages;
+
+    private final String fontPath = System.getProperty("sign.font", "fonts/malgun.ttf");
+    private Path keystore;
+    private byte[] pdf;
+    private ContractSingedDTO signedInfo;
+    private PdfSignerService engine;
+    // 회사 직인만 찍힌 문서 (개별 서명 대상)
+    private byte[] sealed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (Security.getProvider("BC") == null) {
+            Security.addProvider(new org.bouncycastle.jce.provider.BouncyCastleProvider());
+        }
+        keystore = createKeystore();
+        pdf = createPdf(pages);
+        signedInfo = new ContractSingedDTO();
+        signedInfo.setAgentName("김상담");
+        signedInfo.setClientName("홍길동");
+        engine = new PdfSignerService(keystore.toString(), PASSWORD, ALIAS, fontPath, STAMP);
+        ByteArrayOutputStream sealedOut = new ByteArrayOutputStream(pdf.length + 64 * 1024);
+        engine.sign(new ByteArrayInputStream(pdf), sealedOut, signedInfo);
+        sealed = sealedOut.toByteArray();
+        System.out.printf("%n[pages=%d] pdf=%d bytes, font=%s (%s)%n", pages, pdf.length, fontPath,
+                Files.exists(Paths.get(fontPath)) ? "found" : "missing, legacy=Helvetica / engine=HYGoThic-Medium");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(keystore);
+    }
+
+    @Benchmark
+    public int legacy(Blackhole bh) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pdf.length + 64 * 1024);
+        legacySign(new ByteArrayInputStream(pdf), out, bh);
+        return out.size();
+    }
+
+    @Benchmark
+    public int engine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pdf.length + 64 * 1024);
+        engine.sign(new ByteArrayInputStream(pdf), out, signedInfo);
+        return out.size();
+    }
+
+    @Benchmark
+    public int partySignature() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sealed.length + 64 * 1024);
+        engine.appendSignature(sealed, out, SignatureRole.AGENT, signedInfo);
+        return out.size();
+    }
+
+    // 기존 PdfSignerService.signPdf 의 처리 순서 (파일 출력만 메모리로 바꿈)
+    private void legacySign(InputStream inputStream, OutputStream out, Blackhole bh) throws Exception {
+        for (Provider provider : Security.getProviders()) {
+            bh.consume(provider.getName());
+        }
+        PrivateKey privateKey = KeystoreLoader.loadPrivateKey(keystore.toString(), PASSWORD, ALIAS);
+        Certificate[] certChain = KeystoreLoader.loadCertificateChain(keystore.toString(), PASSWORD, ALIAS);
+
+        byte[] pdfBytes = inputStream.readAllBytes();
+        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdfBytes)));
+        int totalPages = pdfDoc.getNumberOfPages();
+        pdfDoc.close();
+
+        PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(pdfBytes)), out, new StampingProperties());
+        PdfFont font = Files.exists(Paths.get(fontPath))
+                ? PdfFontFactory.createFont(fontPath, PdfEncodings.IDENTITY_H)
+                : PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        ImageData imageData;
+        try (InputStream is = new ClassPathResource(STAMP).getInputStream()) {
+            imageData = ImageDataFactory.create(StreamUtil.inputStreamToArray(is));
+        }
+
+        signer.getSignatureAppearance()
+                .setReason("계약서 전자서명")
+                .setLocation("서울")
+                .setPageRect(new Rectangle(300, 50, 250, 80))
+                .setPageNumber(totalPages)
+                .setLayer2Font(font)
+                .setLayer2FontSize(12f)
+                .setLayer2Text("전자서명자: VISANG" +
+                        "\n 상담원 : " + signedInfo.getAgentName() +
+                        "\n 계약자 : " + signedInfo.getClientName() +
+                        "\n 서명일 : " + java.time.LocalDate.now() +
+                        "\n 문서 무결성 검증됨")
+                .setSignatureGraphic(imageData)
+                .setRenderingMode(PdfSignatureAppearance.RenderingMode.GRAPHIC_AND_DESCRIPTION);
+        signer.setFieldName("Signature1");
+
+        IExternalSignature signature = new PrivateKeySignature(privateKey, "SHA256", "BC");
+        signer.signDetached(new BouncyCastleDigest(), signature, certChain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
+    private static Path createKeystore() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        X500Name subject = new X500Name("CN=VISANG Benchmark");
+        long now = System.currentTimeMillis();
+        Certificate cert = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(subject, BigInteger.ONE, new Date(now - 86_400_000L),
+                        new Date(now + 365 * 86_400_000L), subject, keyPair.getPublic())
+                        .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())));
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(ALIAS, keyPair.getPrivate(), PASSWORD.toCharArray(), new Certificate[]{cert});
+        Path file = Files.createTempFile("pdf-signing-benchmark", ".p12");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return file;
+    }
+
+    private static byte[] createPdf(int pages) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+            for (int i = 1; i <= pages; i++) {
+                if (i > 1) {
+                    document.add(new AreaBreak());
+                }
+                document.add(new Paragraph("Insurance contract page " + i));
+                document.add(new Paragraph("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(40)));
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -14,6 +14,11 @@ public class HashUtil {
         return bytesToHex(hash);
     }
 
+    public static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        return bytesToHex(md.digest(bytes));
+    }
+
     private static String bytesToHex(byte[] bytes) {
         StringBuilder sb = new StringBuilder();
         for (byte b : bytes) sb.append(String.format("%02x", b));
@@ -5,6 +5,7 @@ import org.springframework.core.io.ClassPathResource;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
@@ -21,19 +22,20 @@ public class KeystoreLoader {
         }
     }
 
-    public static PrivateKey loadPrivateKey(String path, String password, String alias) throws Exception {
+    // 키와 인증서 체인을 함께 쓸 때는 한 번만 읽어서 사용
+    public static KeyStore load(String path, String password) throws IOException, GeneralSecurityException {
         KeyStore keystore = KeyStore.getInstance("PKCS12");
         try (InputStream in = openKeystoreStream(path)) {
             keystore.load(in, password.toCharArray());
         }
-        return (PrivateKey) keystore.getKey(alias, password.toCharArray());
+        return keystore;
+    }
+
+    public static PrivateKey loadPrivateKey(String path, String password, String alias) throws Exception {
+        return (PrivateKey) load(path, password).getKey(alias, password.toCharArray());
     }
 
     public static Certificate[] loadCertificateChain(String path, String password, String alias) throws Exception {
-        KeyStore keystore = KeyStore.getInstance("PKCS12");
-        try (InputStream in = openKeystoreStream(path)) {
-            keystore.load(in, password.toCharArray());
-        }
-        return keystore.getCertificateChain(alias);
+        return load(path, password).getCertificateChain(alias);
     }
 }
@@ -0,0 +1,212 @@
+package kr.or.kosa.visang.common.config.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ChatMessage 전용 Redis 직렬화기 (고정 스키마 바이너리 + 기존 JSON 읽기 호환)
+ *
+ * 바이너리 구조: [0xC7][버전 1byte][필드 존재 비트 varint][존재하는 필드만 순서대로]
+ * - 숫자: varint (타임스탬프 초는 zigzag)
+ * - 문자열: varint 길이 + UTF-8
+ * - 클래스 이름 등 타입 정보는 저장하지 않는다.
+ *
+ * 읽기는 첫 바이트로 형식을 구분하므로 기존 JSON(activateDefaultTyping) 값도 그대로 읽힌다.
+ * 쓰기 형식은 app.redis.chat-codec 으로 고른다 (json 기본 / binary).
+ * 구버전 노드와 함께 도는 배포 중에는 json 으로 두고, 모든 노드가 올라간 뒤 binary 로 바꾼다.
+ */
+public class ChatMessageRedisSerializer implements RedisSerializer<ChatMessage> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION = 1;
+
+    // 필드 존재 비트
+    private static final int F_MESSAGE_ID = 1;
+    private static final int F_SESSION_ID = 1 << 1;
+    private static final int F_CONTRACT_ID = 1 << 2;
+    private static final int F_TYPE = 1 << 3;
+    private static final int F_SENDER = 1 << 4;
+    private static final int F_SENDER_NAME = 1 << 5;
+    private static final int F_CONTENT = 1 << 6;
+    private static final int F_FILE_HASH = 1 << 7;
+    private static final int F_TIMESTAMP = 1 << 8;
+    private static final int F_READ = 1 << 9;
+
+    private static final ChatMessage.MessageType[] TYPES = ChatMessage.MessageType.values();
+
+    private final boolean writeBinary;
+    private final RedisSerializer<ChatMessage> json;
+
+    public ChatMessageRedisSerializer(boolean writeBinary) {
+        this.writeBinary = writeBinary;
+        this.json = legacyJsonSerializer();
+    }
+
+    /**
+     * 기존 형식: 타입 정보를 포함한 Jackson JSON
+     */
+    public static Jackson2JsonRedisSerializer<ChatMessage> legacyJsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL
+        );
+        return new Jackson2JsonRedisSerializer<>(mapper, ChatMessage.class);
+    }
+
+    @Override
+    public byte[] serialize(ChatMessage msg) throws SerializationException {
+        if (msg == null) {
+            return new byte[0];
+        }
+        return writeBinary ? encode(msg) : json.serialize(msg);
+    }
+
+    @Override
+    public ChatMessage deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return json.deserialize(bytes);
+        }
+        return decode(bytes);
+    }
+
+    static byte[] encode(ChatMessage msg) {
+        int flags = 0;
+        if (msg.getMessageId() != null) flags |= F_MESSAGE_ID;
+        if (msg.getSessionId() != null) flags |= F_SESSION_ID;
+        if (msg.getContractId() != null) flags |= F_CONTRACT_ID;
+        if (msg.getType() != null) flags |= F_TYPE;
+        if (msg.getSender() != null) flags |= F_SENDER;
+        if (msg.getSenderName() != null) flags |= F_SENDER_NAME;
+        if (msg.getContent() != null) flags |= F_CONTENT;
+        if (msg.getFileHash() != null) flags |= F_FILE_HASH;
+        if (msg.getTimestamp() != null) flags |= F_TIMESTAMP;
+        if (msg.isRead()) flags |= F_READ;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + (msg.getContent() != null ? msg.getContent().length() * 3 : 0));
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarLong(out, flags);
+        if ((flags & F_MESSAGE_ID) != 0) writeVarLong(out, msg.getMessageId());
+        if ((flags & F_SESSION_ID) != 0) writeString(out, msg.getSessionId());
+        if ((flags & F_CONTRACT_ID) != 0) writeVarLong(out, msg.getContractId());
+        if ((flags & F_TYPE) != 0) out.write(msg.getType().ordinal());
+        if ((flags & F_SENDER) != 0) writeString(out, msg.getSender());
+        if ((flags & F_SENDER_NAME) != 0) writeString(out, msg.getSenderName());
+        if ((flags & F_CONTENT) != 0) writeString(out, msg.getContent());
+        if ((flags & F_FILE_HASH) != 0) writeString(out, msg.getFileHash());
+        if ((flags & F_TIMESTAMP) != 0) {
+            LocalDateTime t = msg.getTimestamp();
+            writeVarLong(out, zigzag(t.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(out, t.getNano());
+        }
+        return out.toByteArray();
+    }
+
+    static ChatMessage decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        in.pos = 1;
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new SerializationException("지원하지 않는 ChatMessage 코덱 버전: " + version);
+        }
+        try {
+            int flags = (int) in.readVarLong();
+            ChatMessage msg = new ChatMessage();
+            if ((flags & F_MESSAGE_ID) != 0) msg.setMessageId(in.readVarLong());
+            if ((flags & F_SESSION_ID) != 0) msg.setSessionId(in.readString());
+            if ((flags & F_CONTRACT_ID) != 0) msg.setContractId(in.readVarLong());
+            if ((flags & F_TYPE) != 0) msg.setType(TYPES[in.readByte()]);
+            if ((flags & F_SENDER) != 0) msg.setSender(in.readString());
+            if ((flags & F_SENDER_NAME) != 0) msg.setSenderName(in.readString());
+            if ((flags & F_CONTENT) != 0) msg.setContent(in.readString());
+            if ((flags & F_FILE_HASH) != 0) msg.setFileHash(in.readString());
+            if ((flags & F_TIMESTAMP) != 0) {
+                long seconds = unzigzag(in.readVarLong());
+                int nanos = (int) in.readVarLong();
+                msg.setTimestamp(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+            }
+            msg.setRead((flags & F_READ) != 0);
+            return msg;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("손상된 ChatMessage 바이너리 값", e);
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int pos;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            return bytes[pos++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+                shift += 7;
+                if (shift > 63) {
+                    throw new SerializationException("잘못된 varint");
+                }
+            }
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || pos + length > bytes.length) {
+                throw new SerializationException("잘못된 문자열 길이: " + length);
+            }
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
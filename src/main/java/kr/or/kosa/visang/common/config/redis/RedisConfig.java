@@ -15,7 +15,6 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -100,25 +99,20 @@ public class RedisConfig {
 //            }
 //        };
 //    }
+    /**
+     * 채팅 메시지 전용 Redis 템플릿
+     * - 값은 ChatMessageRedisSerializer 로 저장 (app.redis.chat-codec: json 기본, binary 는 명시했을 때만)
+     * - 어느 설정이든 두 형식을 모두 읽을 수 있다. 구버전 노드는 binary 를 읽지 못하므로
+     *   모든 노드를 올린 뒤에만 binary 로 바꾼다
+     */
     @Bean("chatRedisTemplate")
-    public RedisTemplate<String, ChatMessage> ChatredisTemplate(RedisConnectionFactory rc) {
-
-        // 1) ChatMessage 전용 Jackfon2JsonRedisSerializer 생성
-        Jackson2JsonRedisSerializer<ChatMessage> serializer =
-                new Jackson2JsonRedisSerializer<>(ChatMessage.class);
+    public RedisTemplate<String, ChatMessage> ChatredisTemplate(RedisConnectionFactory rc,
+                                                               @Value("${app.redis.chat-codec:json}") String chatCodec) {
 
-        // 2) LocalDateTime 처리를 위해 ObjectMapper 설정
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        // 타입 정보 포함이 필요하면 아래도 활성화
-        mapper.activateDefaultTyping(
-                LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.NON_FINAL
-        );
-        serializer.setObjectMapper(mapper);
+        boolean binary = "binary".equalsIgnoreCase(chatCodec.trim());
+        ChatMessageRedisSerializer serializer = new ChatMessageRedisSerializer(binary);
+        log.info("채팅 메시지 Redis 코덱: {}", binary ? "binary" : "json");
 
-        // 3) RedisTemplate 설정
         RedisTemplate<String, ChatMessage> temp = new RedisTemplate<>();
         temp.setConnectionFactory(rc);
         temp.setKeySerializer(new StringRedisSerializer());
@@ -128,4 +122,4 @@ public class RedisConfig {
         temp.afterPropertiesSet();
         return temp;
     }
-}
\ No newline at end of file
+}
@@ -192,10 +192,14 @@ public class SecurityConfig {
                 .requestMatchers("/agent/**").hasRole("AGENT")
                 // 관리자 페이지 접근 권한 설정
                 .requestMatchers("/admin/**").hasRole("ADMIN")
+                // 운영 지표 조회는 관리자만
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers("/app/**").permitAll()          // 클라이언트 → 서버로 메시지 보낼 때
                     .requestMatchers("/topic/**").permitAll()        // 서버 → 클라이언트로 메시지 보낼 때
                     // 다운로드용 파일 접근 허용
                     .requestMatchers("/files/**").permitAll()
+                    // 내보내기 작업 상태는 계약 당사자만 (컨트롤러에서 소속 확인)
+                    .requestMatchers("/api/chat/export/*/status").authenticated()
                     // 내보낸 채팅 이력 정보 조회 허용
                     .requestMatchers("/api/chat/export/**").permitAll()
 
@@ -0,0 +1,107 @@
+package kr.or.kosa.visang.common.file;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 파일 SHA-256 캐시
+ *
+ * 경로별로 (크기, 수정 시각, 파일 키) 를 함께 기억해 두고, 세 값이 그대로면 파일을 다시 읽지 않는다.
+ * 파일이 교체되거나 수정되면 값이 달라지므로 그때만 다시 해시한다.
+ */
+@Component
+public class FileHashCache {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 파일 SHA-256 (hex), 파일이 바뀌지 않았으면 캐시된 값
+     */
+    public String sha256(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes before = Files.readAttributes(key, BasicFileAttributes.class);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.matches(before)) {
+            return cached.sha256;
+        }
+
+        String hash = digest(key);
+        // 해시하는 사이 파일이 바뀌었으면 결과를 캐시하지 않음 (다음 요청에서 다시 계산)
+        BasicFileAttributes after = Files.readAttributes(key, BasicFileAttributes.class);
+        Entry entry = new Entry(before, hash);
+        if (entry.matches(after)) {
+            entries.put(key, entry);
+        } else {
+            entries.remove(key);
+        }
+        return hash;
+    }
+
+    /**
+     * 쓰면서 계산해 둔 해시를 등록 (방금 기록한 파일을 다시 읽지 않도록)
+     */
+    public void put(Path file, String sha256) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        entries.put(key, new Entry(Files.readAttributes(key, BasicFileAttributes.class), sha256));
+    }
+
+    public void invalidate(Path file) {
+        entries.remove(file.toAbsolutePath().normalize());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                md.update(buffer, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final FileTime lastModified;
+        // inode 등 (지원하지 않는 파일 시스템이면 null)
+        private final Object fileKey;
+        private final String sha256;
+
+        private Entry(BasicFileAttributes attrs, String sha256) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime();
+            this.fileKey = attrs.fileKey();
+            this.sha256 = sha256;
+        }
+
+        private boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size()
+                    && lastModified.equals(attrs.lastModifiedTime())
+                    && Objects.equals(fileKey, attrs.fileKey());
+        }
+    }
+}
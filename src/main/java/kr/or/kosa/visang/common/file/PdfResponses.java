@@ -0,0 +1,52 @@
+package kr.or.kosa.visang.common.file;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * PDF 응답 공통 헤더 (파일 해시 기반 ETag + 재검증 캐시)
+ *
+ * - ETag 는 저장된 SHA-256 해시이므로 내용이 같으면 노드/재기동과 무관하게 같다.
+ * - Cache-Control 은 private, no-cache: 브라우저가 보관하되 매번 재검증하고, 바뀌지 않았으면 304 로 본문 없이 끝난다.
+ * - 본문이 Resource 이면 Range 요청은 Spring MVC 가 206 (ResourceRegion) 으로 응답하므로
+ *   Content-Length 를 직접 지정하지 않는다.
+ */
+public final class PdfResponses {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private PdfResponses() {
+    }
+
+    public static String etag(String fileHash) {
+        return "\"" + fileHash + "\"";
+    }
+
+    /**
+     * If-None-Match 가 저장된 해시와 같으면 true (이때 응답 상태와 ETag 는 이미 설정됨)
+     * 파일 검증/로드 전에 호출해 재요청 비용을 없앤다.
+     */
+    public static boolean isNotModified(WebRequest request, String fileHash) {
+        return fileHash != null && !fileHash.isEmpty() && request.checkNotModified(etag(fileHash));
+    }
+
+    public static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    /**
+     * 200 응답 빌더 (해시가 있으면 ETag 포함)
+     */
+    public static ResponseEntity.BodyBuilder ok(String fileHash) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (fileHash != null && !fileHash.isEmpty()) {
+            builder.eTag(etag(fileHash));
+        }
+        return builder;
+    }
+}
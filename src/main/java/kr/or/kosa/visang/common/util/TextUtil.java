@@ -0,0 +1,29 @@
+package kr.or.kosa.visang.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 문자열 처리 유틸리티
+ */
+public final class TextUtil {
+
+    private TextUtil() {
+        throw new AssertionError("유틸리티 클래스는 인스턴스화할 수 없습니다.");
+    }
+
+    /**
+     * UTF-8 로 maxBytes 바이트 안에 들어가도록 글자 단위로 자른다.
+     * Oracle VARCHAR2(n) 은 기본이 바이트 길이라 한글(3바이트)은 글자 수로 자르면 넘칠 수 있다.
+     */
+    public static String truncateUtf8(String value, int maxBytes) {
+        if (value == null || value.length() * 3 <= maxBytes) {
+            return value;
+        }
+        CharBuffer in = CharBuffer.wrap(value);
+        // 넘치면 마지막으로 온전히 들어간 글자에서 멈춘다 (서로게이트 쌍은 나누지 않음)
+        StandardCharsets.UTF_8.newEncoder().encode(in, ByteBuffer.allocate(maxBytes), true);
+        return value.substring(0, in.position());
+    }
+}
@@ -0,0 +1,43 @@
+package kr.or.kosa.visang.common.websocket;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * 세션 송신 버퍼에 느린 클라이언트 정책을 적용하는 SubProtocolWebSocketHandler
+ * 기본 ConcurrentWebSocketSessionDecorator(한도 초과 시 항상 종료) 대신 SlowConsumerSessionDecorator 를 사용한다.
+ */
+public class BackpressureSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final SlowConsumerPolicy policy;
+    private final WebSocketSessionMetrics metrics;
+
+    public BackpressureSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                                   SubscribableChannel clientOutboundChannel,
+                                                   SlowConsumerPolicy policy,
+                                                   WebSocketSessionMetrics metrics) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        SlowConsumerSessionDecorator decorated =
+                new SlowConsumerSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(), policy, metrics);
+        metrics.register(decorated);
+        return decorated;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        try {
+            super.afterConnectionClosed(session, closeStatus);
+        } finally {
+            metrics.unregister(session.getId());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 단일 노드용 참여 세션 레지스트리 (잠금 없음)
+ * - 세션 → (방, 역할) 은 ConcurrentHashMap, 방별 참여 수는 원자적 카운터로 관리
+ * - 마지막 세션이 나가면 카운터를 닫힘 상태로 바꾼 뒤 제거하고, 닫힌 카운터에 들어오려던 입장은 새 카운터로 재시도
+ * - app.websocket.broker.mode 가 redis 가 아니면 항상 등록되고, simple 이 아닌 값(오타 등)은 기동 시 바로 거부한다
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!'${app.websocket.broker.mode:simple}'.equalsIgnoreCase('redis')")
+public class LocalRoomPresenceRegistry implements RoomPresenceRegistry {
+
+    private final Map<String, Member> sessions = new ConcurrentHashMap<>();
+    private final Map<String, RoomCounts> rooms = new ConcurrentHashMap<>();
+
+    public LocalRoomPresenceRegistry(@Value("${app.websocket.broker.mode:simple}") String mode) {
+        if (!"simple".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(
+                    "app.websocket.broker.mode 는 simple 또는 redis 만 지원합니다: '" + mode + "'");
+        }
+    }
+
+    @Override
+    public int join(String roomId, String stompSessionId, String role) {
+        if (sessions.putIfAbsent(stompSessionId, new Member(roomId, role)) != null) {
+            return count(roomId);
+        }
+        while (true) {
+            RoomCounts counts = rooms.computeIfAbsent(roomId, id -> new RoomCounts());
+            int total = counts.tryAdd(role);
+            if (total > 0) {
+                log.debug("방 입장: room={}, session={}, role={}, count={}", roomId, stompSessionId, role, total);
+                return total;
+            }
+            // 방금 닫힌 카운터 - 제거를 돕고 다시 시도
+            rooms.remove(roomId, counts);
+        }
+    }
+
+    @Override
+    public void leave(String stompSessionId) {
+        Member member = sessions.remove(stompSessionId);
+        if (member == null) {
+            return;
+        }
+        RoomCounts counts = rooms.get(member.roomId);
+        if (counts != null && counts.remove(member.role)) {
+            rooms.remove(member.roomId, counts);
+        }
+        log.debug("방 퇴장: room={}, session={}", member.roomId, stompSessionId);
+    }
+
+    @Override
+    public int count(String roomId) {
+        RoomCounts counts = rooms.get(roomId);
+        return counts != null ? Math.max(0, counts.total.get()) : 0;
+    }
+
+    @Override
+    public int count(String roomId, String role) {
+        RoomCounts counts = rooms.get(roomId);
+        AtomicInteger roleCount = counts != null ? counts.of(role) : null;
+        return roleCount != null && counts.total.get() > 0 ? roleCount.get() : 0;
+    }
+
+    private record Member(String roomId, String role) {
+    }
+
+    /**
+     * 방별 참여 수 (total 이 CLOSED 면 더 이상 사용하지 않는 카운터)
+     */
+    private static final class RoomCounts {
+        private static final int CLOSED = Integer.MIN_VALUE;
+
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger agents = new AtomicInteger();
+        private final AtomicInteger clients = new AtomicInteger();
+
+        // 입장 반영 후 참여 수, 닫힌 카운터면 0
+        int tryAdd(String role) {
+            int current;
+            do {
+                current = total.get();
+                if (current == CLOSED) {
+                    return 0;
+                }
+            } while (!total.compareAndSet(current, current + 1));
+
+            AtomicInteger roleCount = of(role);
+            if (roleCount != null) {
+                roleCount.incrementAndGet();
+            }
+            return current + 1;
+        }
+
+        // 퇴장 반영, 마지막 세션이 나가 카운터를 닫았으면 true
+        boolean remove(String role) {
+            AtomicInteger roleCount = of(role);
+            if (roleCount != null) {
+                roleCount.decrementAndGet();
+            }
+            return total.decrementAndGet() == 0 && total.compareAndSet(0, CLOSED);
+        }
+
+        AtomicInteger of(String role) {
+            if (ROLE_AGENT.equals(role)) {
+                return agents;
+            }
+            if (ROLE_CLIENT.equals(role)) {
+                return clients;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package kr.or.kosa.visang.common.websocket;
+
+import java.util.Set;
+
+/**
+ * 실시간 메시지 우선순위 분류
+ * - CRITICAL   : 도장/서명/상담 종료처럼 반드시 전달해야 하는 메시지 (버리거나 합치지 않음)
+ * - REPLACEABLE: 스크롤/페이지/드로잉 이동/ICE 후보처럼 자주 발생하고 다음 값으로 대체 가능한 메시지
+ * - NORMAL     : 그 외
+ */
+public enum MessagePriority {
+
+    CRITICAL,
+    NORMAL,
+    REPLACEABLE;
+
+    private static final Set<String> CRITICAL_TYPES = Set.of("stamp", "signature", "endConsult", "consultComplete");
+
+    // 최신 값만 의미가 있어 같은 목적지끼리 합칠 수 있는 type
+    private static final Set<String> LAST_VALUE_TYPES = Set.of("scroll", "page", "media");
+
+    // 밀리면 버릴 수 있는 type (LAST_VALUE_TYPES 포함)
+    private static final Set<String> SHEDDABLE_TYPES = Set.of("scroll", "page", "media", "draw");
+
+    private static final String RTC_TYPE = "rtc";
+    private static final String ICE_MARKER = "\"type\":\"ice\"";
+
+    /**
+     * 목적지와 본문으로 우선순위 결정
+     * @param destination /topic/.. 또는 /app/.. 목적지
+     * @param body JSON 본문 (rtc ICE 판별용, 모르면 null)
+     */
+    public static MessagePriority of(String destination, String body) {
+        String type = typeOf(destination);
+        if (type == null) {
+            return NORMAL;
+        }
+        if (CRITICAL_TYPES.contains(type)) {
+            return CRITICAL;
+        }
+        if (SHEDDABLE_TYPES.contains(type)) {
+            return REPLACEABLE;
+        }
+        if (RTC_TYPE.equals(type) && body != null && body.contains(ICE_MARKER)) {
+            return REPLACEABLE;
+        }
+        return NORMAL;
+    }
+
+    /**
+     * 같은 목적지의 이전 메시지를 최신 메시지로 대체해도 되는지 여부
+     */
+    public static boolean isLastValue(String destination) {
+        String type = typeOf(destination);
+        return type != null && LAST_VALUE_TYPES.contains(type);
+    }
+
+    // 방 토픽은 방 ID 뒤 type, 그 외(레거시 전역 토픽)는 마지막 경로
+    private static String typeOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        String topic = RoomDestinations.toTopic(destination);
+        String type = RoomDestinations.type(topic);
+        if (type != null) {
+            return type;
+        }
+        int slash = topic.lastIndexOf('/');
+        return slash < 0 ? topic : topic.substring(slash + 1);
+    }
+}
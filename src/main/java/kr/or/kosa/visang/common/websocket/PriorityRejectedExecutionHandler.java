@@ -0,0 +1,53 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * STOMP 채널 실행기 큐가 가득 찼을 때의 우선순위별 처리
+ * - REPLACEABLE: 버린다 (곧 다음 값이 온다)
+ * - CRITICAL / NORMAL: 호출 스레드에서 바로 처리해 유실 없이 발행 속도를 늦춘다
+ */
+@Slf4j
+public class PriorityRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final String channelName;
+    private final WebSocketSessionMetrics metrics;
+
+    public PriorityRejectedExecutionHandler(String channelName, WebSocketSessionMetrics metrics) {
+        this.channelName = channelName;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        MessagePriority priority = priorityOf(task);
+        metrics.recordRejected(channelName, priority);
+
+        if (priority == MessagePriority.REPLACEABLE) {
+            log.debug("{} 큐 포화로 대체 가능 메시지 삭제", channelName);
+            return;
+        }
+        if (!executor.isShutdown()) {
+            task.run();
+        }
+    }
+
+    static MessagePriority priorityOf(Runnable task) {
+        if (!(task instanceof MessageHandlingRunnable runnable)) {
+            return MessagePriority.NORMAL;
+        }
+        Message<?> message = runnable.getMessage();
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        // ICE 후보 여부는 rtc 본문으로만 알 수 있다
+        String body = destination != null && destination.endsWith("/rtc") && message.getPayload() instanceof byte[] bytes
+                ? new String(bytes, StandardCharsets.UTF_8) : null;
+        return MessagePriority.of(destination, body);
+    }
+}
@@ -0,0 +1,264 @@
+package kr.or.kosa.visang.common.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis Pub/Sub 기반 상담방 토픽 중계기
+ * - /topic/room/{roomId}/** 로 발행되는 메시지를 Redis 채널(ws:room:{roomId})로 전파
+ * - 다른 노드에서 받은 메시지는 로컬 SimpleBroker 로 다시 주입
+ * - 이 노드에 해당 방 구독자가 있을 때만 Redis 채널을 구독하므로 방 단위로 트래픽이 분리됨
+ *
+ * app.websocket.broker.mode=redis 일 때만 활성화된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.websocket.broker", name = "mode", havingValue = "redis")
+public class RedisRoomBrokerRelay implements ChannelInterceptor {
+
+    // Redis 채널 접두사
+    static final String CHANNEL_PREFIX = "ws:room:";
+
+    // 다른 노드에서 중계된 메시지 표시용 헤더 (재발행 루프 방지)
+    static final String RELAYED_HEADER = "visangRelayedFrom";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final MessageChannel brokerChannel;
+    private final String nodeId;
+    private final RedisMessageListenerContainer container;
+    private final MessageListener listener = this::onRedisMessage;
+
+    // roomId → 로컬 구독 키(sessionId:subscriptionId) 목록
+    private final Map<String, Set<String>> localSubscriptions = new HashMap<>();
+    // 구독 키 → roomId (UNSUBSCRIBE / DISCONNECT 시 역조회)
+    private final Map<String, String> subscriptionRooms = new HashMap<>();
+    private final Object subscriptionLock = new Object();
+
+    public RedisRoomBrokerRelay(RedisConnectionFactory connectionFactory,
+                                @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                                @Value("${app.websocket.broker.node-id:}") String nodeId) {
+        this.connectionFactory = connectionFactory;
+        this.brokerChannel = brokerChannel;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+    }
+
+    @PostConstruct
+    void start() {
+        container.afterPropertiesSet();
+        container.start();
+        log.info("Redis 방 토픽 중계기 시작: nodeId={}", nodeId);
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        container.stop();
+        container.destroy();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * clientInboundChannel / brokerChannel 로 들어오는 방 토픽 메시지를 Redis 로 발행
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        if (headers.containsKey(RELAYED_HEADER)) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String roomId = RoomDestinations.roomId(destination);
+        if (roomId == null || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        publish(roomId, destination, contentType != null ? contentType.toString() : "", payload);
+        return message;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        addLocalSubscription(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        removeLocalSubscription(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    /**
+     * 로컬 구독 등록 - 방의 첫 구독자라면 Redis 채널 구독 시작
+     */
+    void addLocalSubscription(String sessionId, String subscriptionId, String destination) {
+        String roomId = RoomDestinations.roomId(destination);
+        if (roomId == null || sessionId == null) {
+            return;
+        }
+        String key = sessionId + ":" + subscriptionId;
+        synchronized (subscriptionLock) {
+            if (subscriptionRooms.putIfAbsent(key, roomId) != null) {
+                return;
+            }
+            Set<String> keys = localSubscriptions.computeIfAbsent(roomId, id -> new HashSet<>());
+            keys.add(key);
+            if (keys.size() == 1) {
+                container.addMessageListener(listener, new ChannelTopic(CHANNEL_PREFIX + roomId));
+                log.debug("Redis 방 채널 구독 시작: room={}, nodeId={}", roomId, nodeId);
+            }
+        }
+    }
+
+    /**
+     * 로컬 구독 해제 - 방의 마지막 구독자라면 Redis 채널 구독 해제
+     */
+    void removeLocalSubscription(String sessionId, String subscriptionId) {
+        synchronized (subscriptionLock) {
+            release(sessionId + ":" + subscriptionId);
+        }
+    }
+
+    void removeSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        String prefix = sessionId + ":";
+        synchronized (subscriptionLock) {
+            Iterator<String> it = subscriptionRooms.keySet().iterator();
+            while (it.hasNext()) {
+                String key = it.next();
+                if (key.startsWith(prefix)) {
+                    String roomId = subscriptionRooms.get(key);
+                    it.remove();
+                    detach(roomId, key);
+                }
+            }
+        }
+    }
+
+    boolean isSubscribed(String roomId) {
+        synchronized (subscriptionLock) {
+            return localSubscriptions.containsKey(roomId);
+        }
+    }
+
+    private void release(String key) {
+        String roomId = subscriptionRooms.remove(key);
+        if (roomId != null) {
+            detach(roomId, key);
+        }
+    }
+
+    private void detach(String roomId, String key) {
+        Set<String> keys = localSubscriptions.get(roomId);
+        if (keys == null) {
+            return;
+        }
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            localSubscriptions.remove(roomId);
+            container.removeMessageListener(listener, new ChannelTopic(CHANNEL_PREFIX + roomId));
+            log.debug("Redis 방 채널 구독 해제: room={}, nodeId={}", roomId, nodeId);
+        }
+    }
+
+    private void publish(String roomId, String destination, String contentType, byte[] payload) {
+        byte[] channel = (CHANNEL_PREFIX + roomId).getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel, encode(nodeId, destination, contentType, payload));
+        } catch (Exception e) {
+            // 중계 실패는 로컬 전달에 영향을 주지 않는다
+            log.warn("Redis 방 토픽 발행 실패: room={}, destination={}, error={}", roomId, destination, e.getMessage());
+        }
+    }
+
+    private void onRedisMessage(org.springframework.data.redis.connection.Message redisMessage, byte[] pattern) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(redisMessage.getBody()))) {
+            String origin = in.readUTF();
+            if (nodeId.equals(origin)) {
+                return;
+            }
+            String destination = in.readUTF();
+            String contentType = in.readUTF();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(destination);
+            if (!contentType.isEmpty()) {
+                accessor.setContentType(MimeType.valueOf(contentType));
+            }
+            accessor.setHeader(RELAYED_HEADER, origin);
+            brokerChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        } catch (IOException e) {
+            log.warn("Redis 방 토픽 메시지 해석 실패: {}", e.getMessage());
+        }
+    }
+
+    static byte[] encode(String origin, String destination, String contentType, byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(origin);
+            out.writeUTF(destination);
+            out.writeUTF(contentType);
+            out.writeInt(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("중계 메시지 인코딩 실패", e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,122 @@
+package kr.or.kosa.visang.common.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 다중 노드용 참여 세션 레지스트리 (Redis SET)
+ * - presence:room:{roomId} / presence:room:{roomId}:{role} 에 {nodeId}:{stompSessionId} 를 담고 SCARD 로 참여 수 조회
+ * - 이 노드 세션의 방/역할은 로컬 맵에 두어 연결 해제 시 Redis 조회 없이 제거
+ * - 노드가 비정상 종료되어 남은 항목은 키 TTL(ttl-hours)로 정리된다
+ *
+ * app.websocket.broker.mode=redis 일 때만 활성화된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.websocket.broker", name = "mode", havingValue = "redis")
+public class RedisRoomPresenceRegistry implements RoomPresenceRegistry {
+
+    static final String KEY_PREFIX = "presence:room:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    private final Duration ttl;
+
+    // 이 노드의 STOMP 세션 → (방, 역할)
+    private final Map<String, Member> sessions = new ConcurrentHashMap<>();
+
+    public RedisRoomPresenceRegistry(StringRedisTemplate redisTemplate,
+                                     RedisRoomBrokerRelay roomBrokerRelay,
+                                     @Value("${app.websocket.presence.ttl-hours:12}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = roomBrokerRelay.getNodeId();
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    @Override
+    public int join(String roomId, String stompSessionId, String role) {
+        Member member = new Member(roomId, role, nodeId + ":" + stompSessionId);
+        if (sessions.putIfAbsent(stompSessionId, member) != null) {
+            return count(roomId);
+        }
+        try {
+            String roomKey = KEY_PREFIX + roomId;
+            redisTemplate.opsForSet().add(roomKey, member.value);
+            redisTemplate.expire(roomKey, ttl);
+            String roleKey = roleKey(roomId, role);
+            if (roleKey != null) {
+                redisTemplate.opsForSet().add(roleKey, member.value);
+                redisTemplate.expire(roleKey, ttl);
+            }
+        } catch (Exception e) {
+            log.error("방 입장 기록 실패: room={}, session={}", roomId, stompSessionId, e);
+        }
+        return count(roomId);
+    }
+
+    @Override
+    public void leave(String stompSessionId) {
+        Member member = sessions.remove(stompSessionId);
+        if (member != null) {
+            remove(member);
+        }
+    }
+
+    @Override
+    public int count(String roomId) {
+        return size(KEY_PREFIX + roomId);
+    }
+
+    @Override
+    public int count(String roomId, String role) {
+        String roleKey = roleKey(roomId, role);
+        return roleKey != null ? size(roleKey) : 0;
+    }
+
+    // 노드 종료 시 이 노드 세션을 먼저 정리
+    @PreDestroy
+    void shutdown() {
+        sessions.values().forEach(this::remove);
+        sessions.clear();
+    }
+
+    private void remove(Member member) {
+        try {
+            redisTemplate.opsForSet().remove(KEY_PREFIX + member.roomId, member.value);
+            String roleKey = roleKey(member.roomId, member.role);
+            if (roleKey != null) {
+                redisTemplate.opsForSet().remove(roleKey, member.value);
+            }
+        } catch (Exception e) {
+            log.error("방 퇴장 기록 실패: room={}, member={}", member.roomId, member.value, e);
+        }
+    }
+
+    private int size(String key) {
+        try {
+            Long size = redisTemplate.opsForSet().size(key);
+            return size != null ? size.intValue() : 0;
+        } catch (Exception e) {
+            log.error("방 참여 수 조회 실패: key={}", key, e);
+            return 0;
+        }
+    }
+
+    private static String roleKey(String roomId, String role) {
+        if (ROLE_AGENT.equals(role) || ROLE_CLIENT.equals(role)) {
+            return KEY_PREFIX + roomId + ":" + role;
+        }
+        return null;
+    }
+
+    private record Member(String roomId, String role, String value) {
+    }
+}
@@ -0,0 +1,62 @@
+package kr.or.kosa.visang.common.websocket;
+
+/**
+ * 상담방 단위 STOMP 목적지(/topic/room/{roomId}/{type}) 유틸리티
+ */
+public final class RoomDestinations {
+
+    public static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    public static final String APP_ROOM_PREFIX = "/app/room/";
+
+    private RoomDestinations() {
+    }
+
+    /**
+     * 방 토픽 목적지 생성
+     * @param roomId 방(세션) ID
+     * @param type 메시지 종류 (draw, page, scroll ...)
+     * @return /topic/room/{roomId}/{type}
+     */
+    public static String topic(String roomId, String type) {
+        return ROOM_TOPIC_PREFIX + roomId + "/" + type;
+    }
+
+    /**
+     * /topic/room/{roomId}/... 에서 roomId 추출
+     * @return 방 토픽이 아니면 null
+     */
+    public static String roomId(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        int start = ROOM_TOPIC_PREFIX.length();
+        int end = destination.indexOf('/', start);
+        String roomId = end < 0 ? destination.substring(start) : destination.substring(start, end);
+        return roomId.isEmpty() ? null : roomId;
+    }
+
+    /**
+     * /topic/room/{roomId}/{type} 에서 type 추출 (draw, pdf/join 등)
+     * @return 방 토픽이 아니거나 type 이 없으면 null
+     */
+    public static String type(String destination) {
+        if (roomId(destination) == null) {
+            return null;
+        }
+        int slash = destination.indexOf('/', ROOM_TOPIC_PREFIX.length());
+        if (slash < 0 || slash == destination.length() - 1) {
+            return null;
+        }
+        return destination.substring(slash + 1);
+    }
+
+    /**
+     * /app/room/{roomId}/.. 를 /topic/room/{roomId}/.. 형태로 변환 (그 외 목적지는 그대로)
+     */
+    public static String toTopic(String destination) {
+        if (destination != null && destination.startsWith(APP_ROOM_PREFIX)) {
+            return ROOM_TOPIC_PREFIX + destination.substring(APP_ROOM_PREFIX.length());
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,252 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 방 이벤트 순번 + 최근 이벤트 링 버퍼
+ * - /topic/room/{roomId}/** 로 나가는 모든 MESSAGE 에 방 단위로 단조 증가하는 순번(room-seq 헤더)을 붙인다
+ * - 방마다 최근 capacity 개(본문 합계 max-bytes 이하, 문자 수 기준)의 이벤트를 보관해, 재연결한 클라이언트에 빠진 구간만 다시 보낸다
+ * - 순번은 노드 안에서만 유효하다. 로그가 새로 만들어지면(재시작, 유휴 정리, 다른 노드) epoch 가 바뀌고
+ *   클라이언트는 방 스냅샷으로 전체 동기화한다.
+ */
+@Slf4j
+@Component
+public class RoomEventLog implements ChannelInterceptor {
+
+    public static final String SEQ_HEADER = "room-seq";
+
+    // 세션에 묶인 WebRTC 신호는 다시 보내지 않는다 (순번은 부여)
+    private static final Set<String> NOT_REPLAYED = Set.of("rtc");
+
+    // 방 로그가 이만큼 새로 만들어질 때마다 유휴 방 정리
+    private static final int SWEEP_INTERVAL = 64;
+
+    private final int capacity;
+    private final int maxBytes;
+    private final long idleMillis;
+    private final String epochPrefix = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, RoomLog> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger createdSinceSweep = new AtomicInteger();
+    private final AtomicLong epochCounter = new AtomicLong();
+
+    public RoomEventLog(@Value("${app.websocket.room-history.capacity:512}") int capacity,
+                        @Value("${app.websocket.room-history.max-bytes:1048576}") int maxBytes,
+                        @Value("${app.websocket.room-history.idle-timeout-minutes:120}") long idleMinutes) {
+        this.capacity = Math.max(1, capacity);
+        this.maxBytes = Math.max(1, maxBytes);
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
+
+    /**
+     * clientInboundChannel / brokerChannel 로 들어오는 방 토픽 메시지에 순번 부여
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String roomId = RoomDestinations.roomId(destination);
+        if (roomId == null || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getFirstNativeHeader(SEQ_HEADER) != null) {
+            return message;
+        }
+
+        String json = isReplayable(destination, accessor) ? new String(payload, StandardCharsets.UTF_8) : null;
+        long seq = room(roomId).append(destination, json);
+        accessor.setNativeHeader(SEQ_HEADER, Long.toString(seq));
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    /**
+     * 현재 epoch / 마지막 순번 (스냅샷에 함께 실어 보냄)
+     */
+    public RoomResumeMessage position(String roomId) {
+        RoomLog roomLog = room(roomId);
+        RoomResumeMessage position = new RoomResumeMessage();
+        position.setSessionId(roomId);
+        synchronized (roomLog) {
+            position.setEpoch(roomLog.epoch);
+            position.setSeq(roomLog.lastSeq);
+            position.setComplete(true);
+        }
+        return position;
+    }
+
+    /**
+     * lastSeq 이후 이벤트 조회
+     * epoch 가 다르거나 구간 일부가 이미 밀려났으면 complete=false (이벤트 없음)
+     */
+    public RoomResumeMessage resume(String roomId, String epoch, long lastSeq) {
+        RoomLog roomLog = room(roomId);
+        RoomResumeMessage resume = new RoomResumeMessage();
+        resume.setSessionId(roomId);
+        synchronized (roomLog) {
+            resume.setEpoch(roomLog.epoch);
+            resume.setSeq(roomLog.lastSeq);
+            if (!roomLog.epoch.equals(epoch) || lastSeq < roomLog.evictedSeq || lastSeq > roomLog.lastSeq) {
+                resume.setComplete(false);
+                return resume;
+            }
+            resume.setComplete(true);
+            resume.setEvents(lastValuesOnly(roomLog.since(lastSeq)));
+        }
+        return resume;
+    }
+
+    /**
+     * 상담 종료 등으로 방이 닫히면 로그 삭제
+     */
+    public void remove(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    private RoomLog room(String roomId) {
+        RoomLog roomLog = rooms.get(roomId);
+        if (roomLog != null) {
+            roomLog.lastAccess = System.currentTimeMillis();
+            return roomLog;
+        }
+        roomLog = rooms.computeIfAbsent(roomId,
+                id -> new RoomLog(epochPrefix + "-" + epochCounter.incrementAndGet(), capacity, maxBytes));
+        if (createdSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            createdSinceSweep.set(0);
+            sweepIdleRooms();
+        }
+        return roomLog;
+    }
+
+    private void sweepIdleRooms() {
+        long threshold = System.currentTimeMillis() - idleMillis;
+        int before = rooms.size();
+        rooms.entrySet().removeIf(entry -> entry.getValue().lastAccess < threshold);
+        if (rooms.size() < before) {
+            log.debug("유휴 방 이벤트 로그 정리: {} → {}", before, rooms.size());
+        }
+    }
+
+    // JSON 본문인 방 이벤트만 보관
+    private static boolean isReplayable(String destination, SimpMessageHeaderAccessor accessor) {
+        if (NOT_REPLAYED.contains(RoomDestinations.type(destination))) {
+            return false;
+        }
+        return accessor.getContentType() == null || accessor.getContentType().getSubtype().contains("json");
+    }
+
+    // scroll / page / media 처럼 최신 값만 의미 있는 목적지는 마지막 이벤트만 남긴다
+    private static List<RoomResumeMessage.Event> lastValuesOnly(List<RoomResumeMessage.Event> events) {
+        Map<String, Long> lastSeqByDestination = new LinkedHashMap<>();
+        for (RoomResumeMessage.Event event : events) {
+            if (MessagePriority.isLastValue(event.getDestination())) {
+                lastSeqByDestination.put(event.getDestination(), event.getSeq());
+            }
+        }
+        if (lastSeqByDestination.isEmpty()) {
+            return events;
+        }
+        List<RoomResumeMessage.Event> result = new ArrayList<>(events.size());
+        for (RoomResumeMessage.Event event : events) {
+            Long last = lastSeqByDestination.get(event.getDestination());
+            if (last == null || last == event.getSeq()) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 방 단위 링 버퍼 (이 객체로 동기화)
+     */
+    private static final class RoomLog {
+        private final String epoch;
+        private final RoomResumeMessage.Event[] ring;
+        private final int maxBytes;
+        private int head;
+        private int size;
+        private int bytes;
+
+        // 마지막으로 부여한 순번 / 링 버퍼에서 밀려난 마지막 순번
+        private long lastSeq;
+        private long evictedSeq;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        RoomLog(String epoch, int capacity, int maxBytes) {
+            this.epoch = epoch;
+            this.ring = new RoomResumeMessage.Event[capacity];
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized long append(String destination, String payload) {
+            long seq = ++lastSeq;
+            if (payload == null) {
+                return seq;
+            }
+            if (payload.length() > maxBytes) {
+                // 한 건이 한도보다 크면 보관하지 않고 이전 구간 전체를 이어받기 불가로 처리
+                clear();
+                evictedSeq = seq;
+                return seq;
+            }
+            while (size == ring.length || bytes + payload.length() > maxBytes) {
+                evictOldest();
+            }
+            ring[(head + size) % ring.length] = new RoomResumeMessage.Event(seq, destination, payload);
+            size++;
+            bytes += payload.length();
+            return seq;
+        }
+
+        List<RoomResumeMessage.Event> since(long after) {
+            List<RoomResumeMessage.Event> events = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                RoomResumeMessage.Event event = ring[(head + i) % ring.length];
+                if (event.getSeq() > after) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+
+        private void evictOldest() {
+            RoomResumeMessage.Event oldest = ring[head];
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            size--;
+            bytes -= oldest.getPayload().length();
+            evictedSeq = oldest.getSeq();
+        }
+
+        private void clear() {
+            while (size > 0) {
+                evictOldest();
+            }
+        }
+    }
+}
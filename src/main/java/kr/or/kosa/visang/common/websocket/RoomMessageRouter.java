@@ -0,0 +1,76 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 레거시 전역 토픽(/topic/page, /topic/draw ...) 호환용 방 단위 라우터
+ * - 메시지에 방 ID(sessionId)가 있으면 해당 방 토픽으로 전송
+ * - 없으면 발신 STOMP 세션이 구독 중인 방을 찾아 전송
+ * - 둘 다 알 수 없을 때만 레거시 전역 토픽으로 전송
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomMessageRouter {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // STOMP 세션 ID → 구독 중인 방 ID
+    private final Map<String, String> sessionRooms = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String roomId = RoomDestinations.roomId(accessor.getDestination());
+        if (roomId != null && accessor.getSessionId() != null) {
+            sessionRooms.put(accessor.getSessionId(), roomId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionRooms.remove(event.getSessionId());
+    }
+
+    /**
+     * 방 ID 결정
+     * @param roomHint 메시지에 포함된 방 ID (없으면 null)
+     * @param stompSessionId 발신 STOMP 세션 ID
+     * @return 방 ID (알 수 없으면 null)
+     */
+    public String resolveRoom(String roomHint, String stompSessionId) {
+        if (StringUtils.hasText(roomHint)) {
+            return roomHint;
+        }
+        return stompSessionId != null ? sessionRooms.get(stompSessionId) : null;
+    }
+
+    /**
+     * 레거시 /sync/* 메시지를 방 토픽으로 전송
+     * @param roomHint 메시지에 포함된 방 ID (없으면 null)
+     * @param stompSessionId 발신 STOMP 세션 ID
+     * @param type 방 토픽 종류 (/topic/room/{roomId}/{type})
+     * @param payload 전송할 메시지
+     * @param legacyDestination 방을 알 수 없을 때 사용할 전역 토픽
+     */
+    public void route(String roomHint, String stompSessionId, String type, Object payload, String legacyDestination) {
+        String roomId = resolveRoom(roomHint, stompSessionId);
+        if (roomId != null) {
+            messagingTemplate.convertAndSend(RoomDestinations.topic(roomId, type), payload);
+            return;
+        }
+        log.warn("방 ID를 확인할 수 없어 전역 토픽으로 전송: destination={}, stompSession={}", legacyDestination, stompSessionId);
+        messagingTemplate.convertAndSend(legacyDestination, payload);
+    }
+}
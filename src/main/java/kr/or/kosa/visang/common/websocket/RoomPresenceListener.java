@@ -0,0 +1,45 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+/**
+ * STOMP 세션 이벤트로 참여 세션 레지스트리 갱신
+ * - CONNECT 헤더(sessionId, role)로 입장, 헤더가 없으면 첫 방 토픽 구독 시 입장
+ * - 연결 해제(명시적 종료, 탭 종료, 하트비트 만료)는 모두 SessionDisconnectEvent 로 퇴장 처리
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomPresenceListener {
+
+    private final RoomPresenceRegistry presenceRegistry;
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String roomId = accessor.getFirstNativeHeader("sessionId");
+        if (StringUtils.hasText(roomId) && accessor.getSessionId() != null) {
+            presenceRegistry.join(roomId, accessor.getSessionId(), accessor.getFirstNativeHeader("role"));
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String roomId = RoomDestinations.roomId(accessor.getDestination());
+        if (roomId != null && accessor.getSessionId() != null) {
+            presenceRegistry.join(roomId, accessor.getSessionId(), null);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        presenceRegistry.leave(event.getSessionId());
+    }
+}
@@ -0,0 +1,35 @@
+package kr.or.kosa.visang.common.websocket;
+
+/**
+ * 상담방 참여 세션 레지스트리
+ * STOMP 연결/해제 이벤트(RoomPresenceListener)로 갱신되며, 참여 수는 방 단위 카운터로 바로 조회한다.
+ */
+public interface RoomPresenceRegistry {
+
+    String ROLE_AGENT = "agent";
+    String ROLE_CLIENT = "client";
+
+    /**
+     * 세션 입장 (이미 등록된 세션이면 무시)
+     * @param roomId 방 ID
+     * @param stompSessionId STOMP 세션 ID
+     * @param role 역할 (agent / client, 모르면 null)
+     * @return 입장 후 방 참여 세션 수
+     */
+    int join(String roomId, String stompSessionId, String role);
+
+    /**
+     * 세션 퇴장 (등록되지 않은 세션이면 무시)
+     */
+    void leave(String stompSessionId);
+
+    /**
+     * 방 참여 세션 수
+     */
+    int count(String roomId);
+
+    /**
+     * 방의 역할별 참여 세션 수
+     */
+    int count(String roomId, String role);
+}
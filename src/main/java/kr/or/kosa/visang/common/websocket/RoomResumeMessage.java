@@ -0,0 +1,41 @@
+package kr.or.kosa.visang.common.websocket;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 재연결 이어받기 응답
+ * complete 가 false 면 요청한 순번 이후 이벤트가 이미 링 버퍼에서 밀려났거나 epoch 가 달라
+ * 클라이언트가 방 스냅샷으로 전체 동기화해야 한다.
+ */
+@Getter
+@Setter
+public class RoomResumeMessage {
+    private String type = "room_resume";
+    private String sessionId;
+    private String epoch;
+    private long seq;
+    private boolean complete;
+    private List<Event> events = new ArrayList<>();
+
+    /**
+     * 다시 보낼 방 이벤트 (payload 는 원본 JSON 그대로)
+     */
+    @Getter
+    public static class Event {
+        private final long seq;
+        private final String destination;
+        @JsonRawValue
+        private final String payload;
+
+        public Event(long seq, String destination, String payload) {
+            this.seq = seq;
+            this.destination = destination;
+            this.payload = payload;
+        }
+    }
+}
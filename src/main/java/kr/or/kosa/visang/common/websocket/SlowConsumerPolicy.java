@@ -0,0 +1,17 @@
+package kr.or.kosa.visang.common.websocket;
+
+/**
+ * 송신 버퍼가 한도를 넘은(느린) 클라이언트 세션 처리 정책
+ * 어떤 정책이든 MessagePriority.CRITICAL 프레임은 버리지 않는다.
+ */
+public enum SlowConsumerPolicy {
+
+    /** 대체 가능한(REPLACEABLE) 프레임, 그 다음 오래된 프레임 순으로 버린다 */
+    DROP,
+
+    /** 같은 목적지의 최신 값만 남기는 프레임(scroll, page, media)을 먼저 합치고, 그래도 넘치면 DROP 과 같이 버린다 */
+    COALESCE,
+
+    /** 대체 가능한 프레임을 합치고 버려도 한도를 넘으면 세션을 끊는다 (클라이언트 재연결 유도) */
+    DISCONNECT
+}
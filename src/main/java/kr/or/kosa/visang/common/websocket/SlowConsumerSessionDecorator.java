@@ -0,0 +1,345 @@
+package kr.or.kosa.visang.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션별 송신 버퍼 + 느린 클라이언트 정책 적용 데코레이터
+ *
+ * ConcurrentWebSocketSessionDecorator 와 같은 방식으로 한 스레드만 실제 전송하고 나머지는 버퍼에 쌓는다.
+ * 버퍼는 하나의 FIFO 로 유지해 전송 순서를 바꾸지 않고, 한도 초과 시 MessagePriority 에 따라 골라서 제거만 한다.
+ * - CRITICAL 프레임(STOMP MESSAGE 가 아닌 제어 프레임 포함)은 한도 초과 시에도 버리지 않고 제자리에 남긴다.
+ * - 버퍼가 한도를 넘으면 REPLACEABLE 프레임을 먼저 합치거나(COALESCE/DISCONNECT) 버린 뒤
+ *   SlowConsumerPolicy 에 따라 오래된 일반 프레임을 버리거나(DROP, COALESCE) 세션을 끊는다(DISCONNECT).
+ * 전송 시간 한도 초과는 연결 자체가 멈춘 것으로 보고 정책과 관계없이 세션을 끊는다.
+ */
+@Slf4j
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final String MESSAGE_COMMAND = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final SlowConsumerPolicy policy;
+    // 버리거나 합친 프레임을 그 시점에 바로 기록 (null 이면 세션 내부 카운트만)
+    private final WebSocketSessionMetrics metrics;
+
+    // 전송 대기 프레임 (추가된 순서대로 전송)
+    private final ConcurrentLinkedDeque<Frame> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final AtomicInteger bufferCount = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+    private volatile boolean closeInProgress;
+
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock closeLock = new ReentrantLock();
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                        SlowConsumerPolicy policy) {
+        this(delegate, sendTimeLimit, bufferSizeLimit, policy, null);
+    }
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                        SlowConsumerPolicy policy, WebSocketSessionMetrics metrics) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    public SlowConsumerPolicy getPolicy() {
+        return policy;
+    }
+
+    /** 전송 대기 중인 프레임 수 */
+    public int getBufferCount() {
+        return bufferCount.get();
+    }
+
+    /** 전송 대기 중인 바이트 수 */
+    public int getBufferSize() {
+        return bufferSize.get();
+    }
+
+    /** 한도 초과로 버린 프레임 수 */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /** 최신 값으로 합쳐진(대체된) 프레임 수 */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /** 현재 전송이 진행된 시간(ms), 전송 중이 아니면 0 */
+    public long getTimeSinceSendStarted() {
+        long start = sendStartTime;
+        return start > 0 ? System.currentTimeMillis() - start : 0;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (shouldNotSend()) {
+            return;
+        }
+        Frame frame = Frame.of(message);
+        buffer.add(frame);
+        bufferSize.addAndGet(message.getPayloadLength());
+        bufferCount.incrementAndGet();
+
+        do {
+            if (!tryFlushMessageBuffer()) {
+                checkSessionLimits();
+                break;
+            }
+        }
+        while (!isBufferEmpty() && !shouldNotSend());
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closeLock.lock();
+        try {
+            if (closeInProgress) {
+                return;
+            }
+            if (!CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                try {
+                    checkSessionLimits();
+                } catch (SessionLimitExceededException ex) {
+                    // 이미 한도를 넘었으면 아래에서 닫는다
+                }
+                if (limitExceeded) {
+                    status = CloseStatus.SESSION_NOT_RELIABLE;
+                }
+            }
+            closeInProgress = true;
+            super.close(status);
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    private boolean isBufferEmpty() {
+        return buffer.isEmpty();
+    }
+
+    private boolean shouldNotSend() {
+        return limitExceeded || closeInProgress;
+    }
+
+    private boolean tryFlushMessageBuffer() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            // 꺼내기 전에 확인해야 꺼낸 프레임이 전송도 반환(release)도 안 된 채 사라지지 않는다
+            while (!shouldNotSend()) {
+                Frame frame = buffer.poll();
+                if (frame == null) {
+                    break;
+                }
+                release(frame);
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(frame.message);
+                sendStartTime = 0;
+            }
+        } finally {
+            sendStartTime = 0;
+            flushLock.unlock();
+        }
+        return true;
+    }
+
+    private void checkSessionLimits() {
+        if (shouldNotSend() || !closeLock.tryLock()) {
+            return;
+        }
+        try {
+            if (getTimeSinceSendStarted() > sendTimeLimit) {
+                limitExceeded(String.format("세션 %s 전송 시간 %d(ms)가 한도 %d(ms)를 초과",
+                        getId(), getTimeSinceSendStarted(), sendTimeLimit));
+            } else if (getBufferSize() > bufferSizeLimit) {
+                switch (policy) {
+                    case DISCONNECT:
+                        coalesce();
+                        shed(MessagePriority.REPLACEABLE);
+                        if (getBufferSize() > bufferSizeLimit) {
+                            limitExceeded(String.format("세션 %s 송신 버퍼 %d(bytes)가 한도 %d(bytes)를 초과",
+                                    getId(), getBufferSize(), bufferSizeLimit));
+                        }
+                        break;
+                    case COALESCE:
+                        coalesce();
+                        shed(MessagePriority.REPLACEABLE);
+                        shed(MessagePriority.NORMAL);
+                        break;
+                    case DROP:
+                    default:
+                        shed(MessagePriority.REPLACEABLE);
+                        shed(MessagePriority.NORMAL);
+                        break;
+                }
+            }
+        } finally {
+            closeLock.unlock();
+        }
+    }
+
+    /**
+     * 같은 목적지의 최신 값 프레임이 뒤에 있으면 앞의 프레임을 제거
+     */
+    private void coalesce() {
+        Set<String> seen = new HashSet<>();
+        List<Frame> superseded = new ArrayList<>();
+        Iterator<Frame> it = buffer.descendingIterator();
+        while (it.hasNext()) {
+            Frame frame = it.next();
+            if (frame.lastValue && !seen.add(frame.destination)) {
+                superseded.add(frame);
+            }
+        }
+        int removed = 0;
+        for (Frame frame : superseded) {
+            if (buffer.removeFirstOccurrence(frame)) {
+                release(frame);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            coalescedCount.addAndGet(removed);
+            if (metrics != null) {
+                metrics.recordCoalesced(policy, removed);
+            }
+            log.debug("느린 세션 프레임 병합: session={}, coalesced={}", getId(), removed);
+        }
+    }
+
+    /**
+     * 한도 아래로 내려갈 때까지 해당 우선순위 프레임을 오래된 것부터 제거 (CRITICAL 은 건너뛰고 순서는 유지)
+     */
+    private void shed(MessagePriority priority) {
+        int dropped = 0;
+        Iterator<Frame> it = buffer.iterator();
+        while (getBufferSize() > bufferSizeLimit && it.hasNext()) {
+            Frame frame = it.next();
+            if (frame.priority == MessagePriority.CRITICAL) {
+                continue;
+            }
+            // NORMAL 단계에서는 남은 REPLACEABLE 도 함께 정리
+            if (frame.priority != priority && priority != MessagePriority.NORMAL) {
+                continue;
+            }
+            if (buffer.removeFirstOccurrence(frame)) {
+                release(frame);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedCount.addAndGet(dropped);
+            if (metrics != null) {
+                metrics.recordDropped(policy, dropped);
+            }
+            log.debug("느린 세션 프레임 삭제: session={}, priority={}, dropped={}", getId(), priority, dropped);
+        }
+    }
+
+    private void release(Frame frame) {
+        bufferSize.addAndGet(-frame.message.getPayloadLength());
+        bufferCount.decrementAndGet();
+    }
+
+    private void limitExceeded(String reason) {
+        limitExceeded = true;
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    /**
+     * 인코딩된 STOMP MESSAGE 프레임에서 destination 헤더 추출
+     */
+    static String destinationOf(WebSocketMessage<?> message) {
+        return destinationOf(textOf(message));
+    }
+
+    private static String destinationOf(String text) {
+        if (text == null) {
+            return null;
+        }
+        int headerEnd = text.indexOf("\n\n");
+        int start = text.indexOf(DESTINATION_HEADER);
+        if (start < 0 || (headerEnd >= 0 && start > headerEnd)) {
+            return null;
+        }
+        start += DESTINATION_HEADER.length();
+        int end = text.indexOf('\n', start);
+        return end < 0 ? text.substring(start) : text.substring(start, end);
+    }
+
+    // 텍스트 프레임은 전체, 바이너리 프레임은 헤더 확인용 앞부분만 문자열로 변환
+    private static String textOf(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            return text.getPayload();
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer payload = binary.getPayload().duplicate();
+            byte[] bytes = new byte[Math.min(payload.remaining(), 512)];
+            payload.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    /**
+     * 버퍼에 쌓이는 프레임 (목적지/우선순위는 추가 시 한 번만 계산)
+     */
+    private static final class Frame {
+        private final WebSocketMessage<?> message;
+        private final String destination;
+        private final MessagePriority priority;
+        private final boolean lastValue;
+
+        private Frame(WebSocketMessage<?> message, String destination, MessagePriority priority) {
+            this.message = message;
+            this.destination = destination;
+            this.priority = priority;
+            this.lastValue = destination != null && MessagePriority.isLastValue(destination);
+        }
+
+        static Frame of(WebSocketMessage<?> message) {
+            String text = textOf(message);
+            // CONNECTED/RECEIPT/ERROR/하트비트처럼 MESSAGE 가 아닌 프레임은 프로토콜 제어용이라 버리지 않는다
+            if (text == null || !text.startsWith(MESSAGE_COMMAND)) {
+                return new Frame(message, null, MessagePriority.CRITICAL);
+            }
+            String destination = destinationOf(text);
+            String body = message instanceof TextMessage text ? text.getPayload() : null;
+            return new Frame(message, destination, MessagePriority.of(destination, body));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package kr.or.kosa.visang.common.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket 세션별 송신 큐 지표
+ * - websocket.sessions.outbound.queued.messages / queued.bytes (전체 세션 합계)
+ * - websocket.sessions.outbound.queued.max / send.elapsed.max (전체 세션 중 최대값)
+ * - websocket.session.outbound.dropped / coalesced (policy 태그, 프레임을 버리거나 합친 시점에 누적)
+ * - websocket.channel.rejected (channel, priority 태그, 채널 실행기 큐 포화 횟수)
+ */
+@Slf4j
+@Component
+public class WebSocketSessionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    // sessionId → 세션 데코레이터
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    public WebSocketSessionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("websocket.sessions.outbound.queued.messages", this, WebSocketSessionMetrics::totalQueuedMessages)
+                .description("전체 세션의 송신 대기 프레임 수 합계")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.outbound.queued.bytes", this, WebSocketSessionMetrics::totalQueuedBytes)
+                .description("전체 세션의 송신 대기 바이트 수 합계")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.outbound.queued.max", this, WebSocketSessionMetrics::maxQueuedMessages)
+                .description("세션별 송신 대기 프레임 수 중 최대값")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.outbound.send.elapsed.max", this, WebSocketSessionMetrics::maxSendElapsed)
+                .description("진행 중인 전송 시간 중 최대값")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.active", sessions, Map::size)
+                .description("송신 큐를 가진 WebSocket 세션 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 세션 연결 시 등록
+     */
+    public void register(SlowConsumerSessionDecorator session) {
+        sessions.put(session.getId(), session);
+    }
+
+    /**
+     * 세션 종료 시 해제
+     */
+    public void unregister(String sessionId) {
+        SlowConsumerSessionDecorator session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        if (session.getDroppedCount() > 0 || session.getCoalescedCount() > 0) {
+            log.info("느린 세션 종료: session={}, dropped={}, coalesced={}",
+                    sessionId, session.getDroppedCount(), session.getCoalescedCount());
+        }
+    }
+
+    /**
+     * 송신 버퍼 한도 초과로 버린 프레임 수 기록 (느린 세션이 살아 있는 동안에도 바로 보이도록 삭제 시점에 호출)
+     */
+    public void recordDropped(SlowConsumerPolicy policy, int count) {
+        Counter.builder("websocket.session.outbound.dropped")
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * 최신 값으로 합쳐진 프레임 수 기록 (병합 시점에 호출)
+     */
+    public void recordCoalesced(SlowConsumerPolicy policy, int count) {
+        Counter.builder("websocket.session.outbound.coalesced")
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * 채널 실행기 큐 포화 기록 (PriorityRejectedExecutionHandler)
+     */
+    public void recordRejected(String channel, MessagePriority priority) {
+        Counter.builder("websocket.channel.rejected")
+                .tag("channel", channel)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 현재 연결된 세션 목록 (운영 중 조회용)
+     */
+    public Collection<SlowConsumerSessionDecorator> getSessions() {
+        return sessions.values();
+    }
+
+    private double totalQueuedMessages() {
+        long total = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            total += session.getBufferCount();
+        }
+        return total;
+    }
+
+    private double totalQueuedBytes() {
+        long total = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            total += session.getBufferSize();
+        }
+        return total;
+    }
+
+    private double maxSendElapsed() {
+        long max = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getTimeSinceSendStarted());
+        }
+        return max;
+    }
+
+    private double maxQueuedMessages() {
+        int max = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getBufferCount());
+        }
+        return max;
+    }
+}
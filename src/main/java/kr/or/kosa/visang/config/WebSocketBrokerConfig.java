@@ -0,0 +1,36 @@
+package kr.or.kosa.visang.config;
+
+import kr.or.kosa.visang.common.websocket.BackpressureSubProtocolWebSocketHandler;
+import kr.or.kosa.visang.common.websocket.SlowConsumerPolicy;
+import kr.or.kosa.visang.common.websocket.WebSocketSessionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * STOMP 메시지 브로커 기반 설정 (@EnableWebSocketMessageBroker 대체)
+ * 세션 송신 버퍼에 느린 클라이언트 정책을 적용하기 위해 SubProtocolWebSocketHandler 만 교체하고,
+ * 나머지 설정은 WebSocketConfig(WebSocketMessageBrokerConfigurer)에서 그대로 위임받는다.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+	// 송신 버퍼 한도 초과 세션 처리: drop / coalesce / disconnect
+	@Value("${app.websocket.slow-consumer.policy:coalesce}")
+	private String slowConsumerPolicy;
+
+	@Autowired
+	private WebSocketSessionMetrics webSocketSessionMetrics;
+
+	@Override
+	@Bean
+	public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+														AbstractSubscribableChannel clientOutboundChannel) {
+		return new BackpressureSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel,
+				SlowConsumerPolicy.valueOf(slowConsumerPolicy.trim().toUpperCase()), webSocketSessionMetrics);
+	}
+}
@@ -1,15 +1,60 @@
 package kr.or.kosa.visang.config;
 
+import kr.or.kosa.visang.common.websocket.PriorityRejectedExecutionHandler;
+import kr.or.kosa.visang.common.websocket.RedisRoomBrokerRelay;
+import kr.or.kosa.visang.common.websocket.RoomEventLog;
+import kr.or.kosa.visang.common.websocket.WebSocketSessionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
 
+// 브로커 기반 설정은 WebSocketBrokerConfig 에서 활성화
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+	// app.websocket.broker.mode=redis 일 때만 존재 (다중 노드 방 토픽 중계)
+	@Autowired(required = false)
+	private RedisRoomBrokerRelay roomBrokerRelay;
+
+	// 방 이벤트 순번 부여 / 재연결 이어받기용 최근 이벤트 보관
+	@Autowired
+	private RoomEventLog roomEventLog;
+
+	// 채널 큐 포화 시 우선순위별 처리 지표
+	@Autowired
+	private WebSocketSessionMetrics webSocketSessionMetrics;
+
+	// 클라이언트 → 서버 메시지 처리 스레드 풀
+	@Value("${app.websocket.inbound.core-pool-size:8}")
+	private int inboundCorePoolSize;
+	@Value("${app.websocket.inbound.max-pool-size:16}")
+	private int inboundMaxPoolSize;
+	@Value("${app.websocket.inbound.queue-capacity:1000}")
+	private int inboundQueueCapacity;
+
+	// 서버 → 클라이언트 메시지 전송 스레드 풀
+	@Value("${app.websocket.outbound.core-pool-size:8}")
+	private int outboundCorePoolSize;
+	@Value("${app.websocket.outbound.max-pool-size:16}")
+	private int outboundMaxPoolSize;
+	@Value("${app.websocket.outbound.queue-capacity:1000}")
+	private int outboundQueueCapacity;
+
+	// 세션별 전송 한도
+	@Value("${app.websocket.transport.send-time-limit-ms:10000}")
+	private int sendTimeLimit;
+	@Value("${app.websocket.transport.send-buffer-size-limit:524288}")
+	private int sendBufferSizeLimit;
+	@Value("${app.websocket.transport.message-size-limit:65536}")
+	private int messageSizeLimit;
+
 	@Override
 	public void registerStompEndpoints(StompEndpointRegistry registry) {
 		registry.addEndpoint("/ws") // 클라이언트에서 SockJS로 연결할 경로
@@ -18,12 +63,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 				.setInterceptors(new HttpSessionHandshakeInterceptor());
 	}
 
+	@Override
+	public void configureClientInboundChannel(ChannelRegistration registration) {
+		registration.taskExecutor(priorityExecutor("clientInboundChannel"))
+				.corePoolSize(inboundCorePoolSize)
+				.maxPoolSize(inboundMaxPoolSize)
+				.queueCapacity(inboundQueueCapacity);
+
+		// 클라이언트가 /topic/room/** 으로 직접 SEND 하는 메시지에도 순번 부여
+		registration.interceptors(roomEventLog);
+
+		// 클라이언트가 /topic/room/** 으로 직접 SEND 하는 메시지도 다른 노드로 중계
+		if (roomBrokerRelay != null) {
+			registration.interceptors(roomBrokerRelay);
+		}
+	}
+
+	@Override
+	public void configureClientOutboundChannel(ChannelRegistration registration) {
+		registration.taskExecutor(priorityExecutor("clientOutboundChannel"))
+				.corePoolSize(outboundCorePoolSize)
+				.maxPoolSize(outboundMaxPoolSize)
+				.queueCapacity(outboundQueueCapacity);
+	}
 
+	@Override
+	public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+		// 버퍼 한도를 넘은 세션은 app.websocket.slow-consumer.policy 에 따라 처리 (WebSocketBrokerConfig)
+		registration.setSendTimeLimit(sendTimeLimit)
+				.setSendBufferSizeLimit(sendBufferSizeLimit)
+				.setMessageSizeLimit(messageSizeLimit);
+	}
 
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry registry) {
 		registry.enableSimpleBroker("/topic");
 		registry.setApplicationDestinationPrefixes("/app");
+
+		// @SendTo / SimpMessagingTemplate / 다른 노드에서 중계된 방 토픽 메시지에 순번 부여
+		registry.configureBrokerChannel().interceptors(roomEventLog);
+
+		// @SendTo / SimpMessagingTemplate 로 발행되는 방 토픽 중계
+		if (roomBrokerRelay != null) {
+			registry.configureBrokerChannel().interceptors(roomBrokerRelay);
+		}
+	}
+
+	// 큐가 가득 차면 대체 가능한 메시지는 버리고, 도장/서명 등 나머지는 호출 스레드에서 처리
+	private ThreadPoolTaskExecutor priorityExecutor(String channelName) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(channelName + "-");
+		executor.setRejectedExecutionHandler(new PriorityRejectedExecutionHandler(channelName, webSocketSessionMetrics));
+		return executor;
 	}
 
 }
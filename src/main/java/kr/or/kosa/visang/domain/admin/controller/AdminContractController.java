@@ -1,6 +1,8 @@
 package kr.or.kosa.visang.domain.admin.controller;
 
 import kr.or.kosa.visang.common.config.security.CustomUserDetails;
+import kr.or.kosa.visang.common.file.PdfResponses;
+import kr.or.kosa.visang.domain.chat.model.ChatSearchResult;
 import kr.or.kosa.visang.domain.chat.service.ChatService;
 import kr.or.kosa.visang.domain.contract.enums.ContractStatus;
 import kr.or.kosa.visang.domain.contract.model.Contract;
@@ -10,6 +12,7 @@ import kr.or.kosa.visang.domain.contract.service.ContractService;
 import kr.or.kosa.visang.domain.contractTemplate.service.ContractTemplateService;
 import kr.or.kosa.visang.domain.page.model.PageRequest;
 import kr.or.kosa.visang.domain.page.model.PageResult;
+import kr.or.kosa.visang.domain.pdf.model.PdfFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
@@ -22,9 +25,11 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.File;
+import java.util.List;
 
 @Slf4j
 @Controller
@@ -86,13 +91,18 @@ public class AdminContractController {
     }
 
     @GetMapping("/files/{templateId}/preview")
-    public ResponseEntity<Resource> previewPdf(@PathVariable Long templateId) {
+    public ResponseEntity<Resource> previewPdf(@PathVariable Long templateId, WebRequest webRequest) {
         try {
-            Resource pdf = contractTemplateService.getTemplateResource(templateId);
+            // 저장된 해시와 같으면 파일 검증 없이 304
+            if (PdfResponses.isNotModified(webRequest, contractTemplateService.getTemplateHash(templateId))) {
+                return PdfResponses.notModified();
+            }
+            PdfFile template = contractTemplateService.getVerifiedTemplate(templateId);
+            Resource pdf = template.getResource();
             if( pdf == null || !pdf.exists() ) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "PDF 파일을 찾을 수 없습니다.");
             }
-            return ResponseEntity.ok()
+            return PdfResponses.ok(template.getFileHash())
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(pdf);
         } catch (SecurityException e) {
@@ -108,14 +118,18 @@ public class AdminContractController {
     }
 
     @GetMapping("/files/{contractId}/download")
-    public ResponseEntity<Resource> downloadPdf(@PathVariable Long contractId) {
+    public ResponseEntity<Resource> downloadPdf(@PathVariable Long contractId, WebRequest webRequest) {
         try {
-            Resource pdf = contractTemplateService.getTemplateResource(contractId);
+            if (PdfResponses.isNotModified(webRequest, contractTemplateService.getTemplateHash(contractId))) {
+                return PdfResponses.notModified();
+            }
+            PdfFile template = contractTemplateService.getVerifiedTemplate(contractId);
+            Resource pdf = template.getResource();
 
             if (pdf == null || !pdf.exists()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "파일을 찾을 수 없습니다.");
             }
-            return ResponseEntity.ok()
+            return PdfResponses.ok(template.getFileHash())
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contract_template.pdf\"")
                     .body(pdf);
@@ -132,7 +146,9 @@ public class AdminContractController {
     }
 
     @GetMapping("/files/signed/{contractId}/preview")
-    public ResponseEntity<Resource> previewSignedPdf(@PathVariable Long contractId) {
+    public ResponseEntity<Resource> previewSignedPdf(@PathVariable Long contractId,
+                                                     @RequestParam(defaultValue = "false") boolean reverify,
+                                                     WebRequest webRequest) {
         System.out.println("contractId ID: " + contractId + "signed pdf preview");
 
 
@@ -142,13 +158,19 @@ public class AdminContractController {
 
             System.out.println("PDF ID: " + pdfId + "signed pdf preview");
 
-            Resource SignedPdf = contractTemplateService.getSignedPdfResource(pdfId);
+            // 저장된 해시와 같으면 해시/서명 검증 없이 304 (reverify=true 면 감사용으로 서명을 다시 검증)
+            String fileHash = contractTemplateService.getSignedPdfHash(pdfId);
+            if (!reverify && PdfResponses.isNotModified(webRequest, fileHash)) {
+                return PdfResponses.notModified();
+            }
+
+            Resource SignedPdf = contractTemplateService.getSignedPdfResource(pdfId, reverify);
             System.out.println("SignedPdf: " + SignedPdf + "signed pdf preview");
 
             if( SignedPdf == null || !SignedPdf.exists() ) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "PDF 파일을 찾을 수 없습니다.");
             }
-            return ResponseEntity.ok()
+            return PdfResponses.ok(fileHash)
                     .contentType(MediaType.APPLICATION_PDF)
                     .body(SignedPdf);
         } catch (SecurityException e) {
@@ -164,17 +186,24 @@ public class AdminContractController {
     }
 
     @GetMapping("/files/signed/{contractId}/download")
-    public ResponseEntity<Resource> downloadSignedPdf(@PathVariable Long contractId) {
+    public ResponseEntity<Resource> downloadSignedPdf(@PathVariable Long contractId,
+                                                      @RequestParam(defaultValue = "false") boolean reverify,
+                                                      WebRequest webRequest) {
         try {
             // 계약 ID로 PDF ID 조회
             Long pdfId = contractService.getPdfIdByContractId(contractId);
 
-            Resource SignedPdf = contractTemplateService.getSignedPdfResource(pdfId);
+            String fileHash = contractTemplateService.getSignedPdfHash(pdfId);
+            if (!reverify && PdfResponses.isNotModified(webRequest, fileHash)) {
+                return PdfResponses.notModified();
+            }
+
+            Resource SignedPdf = contractTemplateService.getSignedPdfResource(pdfId, reverify);
 
             if (SignedPdf == null || !SignedPdf.exists()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "파일을 찾을 수 없습니다.");
             }
-            return ResponseEntity.ok()
+            return PdfResponses.ok(fileHash)
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contract_template.pdf\"")
                     .body(SignedPdf);
@@ -190,6 +219,17 @@ public class AdminContractController {
         }
     }
 
+    /**
+     * 상담 채팅 전문 검색 API (계약 ID와 일치 위치)
+     */
+    @GetMapping("/chat/search")
+    @ResponseBody
+    public List<ChatSearchResult> searchChat(@AuthenticationPrincipal CustomUserDetails admin,
+                                             @RequestParam("q") String query,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        return chatService.searchTranscripts(admin.getCompanyId(), query, limit);
+    }
+
     /**
      * 채팅 파일 다운로드 API
      */
@@ -1,6 +1,10 @@
 package kr.or.kosa.visang.domain.chat.controller;
 
+import kr.or.kosa.visang.common.config.security.CustomUserDetails;
+import kr.or.kosa.visang.domain.chat.model.ChatExportJob;
+import kr.or.kosa.visang.domain.chat.service.ChatExportJobService;
 import kr.or.kosa.visang.domain.chat.service.ChatService;
+import kr.or.kosa.visang.domain.contract.service.ContractService;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
@@ -8,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.File;
@@ -17,9 +22,31 @@ import java.io.File;
 public class ChatExportController {
 
     private final ChatService chatService;
+    private final ChatExportJobService chatExportJobService;
+    private final ContractService contractService;
 
-    public ChatExportController(ChatService chatService) {
+    public ChatExportController(ChatService chatService, ChatExportJobService chatExportJobService,
+                                ContractService contractService) {
         this.chatService = chatService;
+        this.chatExportJobService = chatExportJobService;
+        this.contractService = contractService;
+    }
+
+    /**
+     * 내보내기 작업 상태 조회 (PENDING, RUNNING, DONE, FAILED)
+     * 담당 상담원, 계약 고객, 같은 회사 관리자만 조회할 수 있다.
+     */
+    @GetMapping("/export/{roomId}/status")
+    public ResponseEntity<ChatExportJob> getExportStatus(@AuthenticationPrincipal CustomUserDetails user,
+                                                         @PathVariable("roomId") Long roomId) {
+        if (!contractService.canAccess(roomId, user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+        }
+        ChatExportJob job = chatExportJobService.getLatest(roomId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        return ResponseEntity.ok(job);
     }
 
     @GetMapping("/export/{roomId}")
@@ -40,7 +67,8 @@ public class ChatExportController {
                 .attachment()
                 .filename(file.getName())
                 .build());
-        headers.setContentType(MediaType.TEXT_PLAIN);
+        headers.setContentType(file.getName().endsWith(".gz")
+                ? MediaType.parseMediaType("application/gzip") : MediaType.TEXT_PLAIN);
 
         return new ResponseEntity<>(resource, headers, HttpStatus.OK);
     }
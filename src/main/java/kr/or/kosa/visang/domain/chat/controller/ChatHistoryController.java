@@ -0,0 +1,84 @@
+package kr.or.kosa.visang.domain.chat.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.or.kosa.visang.common.config.security.CustomUserDetails;
+import kr.or.kosa.visang.domain.chat.model.ChatHistoryPage;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.service.ChatService;
+import kr.or.kosa.visang.domain.contract.service.ContractService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 채팅 기록 조회 API (chat_id 키셋 페이지)
+ * 담당 상담원, 계약 고객, 같은 회사 관리자만 조회할 수 있다.
+ */
+@RestController
+@RequestMapping("/api/chat/history")
+@RequiredArgsConstructor
+public class ChatHistoryController {
+
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final ContractService contractService;
+
+    /**
+     * 한 페이지 조회
+     * - after: 이 chat_id 다음부터 (처음부터 읽을 때는 0)
+     * - before: 이 chat_id 이전부터 (둘 다 없으면 최신 페이지, 방 재입장 시 사용)
+     */
+    @GetMapping("/{roomId}")
+    public ResponseEntity<ChatHistoryPage> getHistory(@AuthenticationPrincipal CustomUserDetails user,
+                                                      @PathVariable("roomId") Long roomId,
+                                                      @RequestParam(value = "after", required = false) Long after,
+                                                      @RequestParam(value = "before", required = false) Long before,
+                                                      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (!contractService.canAccess(roomId, user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(chatService.getHistory(roomId, after, before, limit));
+    }
+
+    /**
+     * 전체 기록을 JSON 배열로 스트리밍 (페이지 단위로 읽어 바로 내보냄)
+     */
+    @GetMapping("/{roomId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamHistory(@AuthenticationPrincipal CustomUserDetails user,
+                                                               @PathVariable("roomId") Long roomId) {
+        if (!contractService.canAccess(roomId, user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                chatService.forEachHistoryPage(roomId, page -> {
+                    try {
+                        for (ChatMessage msg : page) {
+                            generator.writeObject(msg);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
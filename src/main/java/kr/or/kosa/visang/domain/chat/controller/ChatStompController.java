@@ -2,6 +2,7 @@ package kr.or.kosa.visang.domain.chat.controller;
 
 import kr.or.kosa.visang.common.config.security.CustomUserDetails;
 import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.service.ChatExportJobService;
 import kr.or.kosa.visang.domain.chat.service.ChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class ChatStompController {
 
     private final SimpMessagingTemplate template;
     private final ChatService chatService;
+    private final ChatExportJobService chatExportJobService;
 
     /**
      * 레거시 채팅 메시지 전송 (기존 시스템과의 호환성을 위해 유지)
@@ -90,8 +92,8 @@ public class ChatStompController {
                 Long roomId = message.getContractId();
                 String name = user.getName();
 
-                // 1) Redis - 파일 - chat.export_filepath 업데이트
-                chatService.endAndExport(roomId, name);
+                // 1) Redis - 파일 - chat.export_filepath 업데이트 (비동기 작업)
+                chatExportJobService.enqueue(roomId, name);
 
                 ChatMessage endMsg = new ChatMessage();
                 endMsg.setContractId(roomId);
@@ -0,0 +1,16 @@
+package kr.or.kosa.visang.domain.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 채팅 기록 내보내기 결과
+ * 해시는 파일을 쓰면서 함께 계산한 디스크상 바이트(gzip 이면 압축본)의 SHA-256 이다.
+ */
+@Getter
+@AllArgsConstructor
+public class ChatExportFile {
+    private final String filePath;
+    private final String sha256;
+    private final long messageCount;
+}
@@ -0,0 +1,35 @@
+package kr.or.kosa.visang.domain.chat.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 기록 내보내기 작업 (chat_export_job 아웃박스 행)
+ */
+@Data
+public class ChatExportJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private Long jobId;
+    private Long contractId;
+    private String requestedBy;
+
+    /**
+     * 작업 상태 (PENDING, RUNNING, DONE, FAILED)
+     */
+    private String status;
+
+    private int attempts;
+    private String lastError;
+    private String filePath;
+    private String fileHash;
+    private String lockedBy;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
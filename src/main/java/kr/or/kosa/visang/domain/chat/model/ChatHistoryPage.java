@@ -0,0 +1,19 @@
+package kr.or.kosa.visang.domain.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 채팅 기록 키셋 페이지
+ * messages 는 항상 chat_id 오름차순이고, nextCursor 는 같은 방향으로 다음 페이지를 요청할 때 쓸 chat_id 이다.
+ * (after 조회면 마지막 chat_id, before 조회면 첫 chat_id)
+ */
+@Getter
+@AllArgsConstructor
+public class ChatHistoryPage {
+    private final List<ChatMessage> messages;
+    private final Long nextCursor;
+    private final boolean hasMore;
+}
@@ -0,0 +1,43 @@
+package kr.or.kosa.visang.domain.chat.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 채팅 전문 검색 결과 (계약 단위)
+ * hitCount 는 전체 일치 수, hits 는 최근 메시지부터 일부만 담는다.
+ */
+@Getter
+public class ChatSearchResult {
+
+    private final Long contractId;
+    private int hitCount;
+    private final List<Hit> hits = new ArrayList<>();
+
+    public ChatSearchResult(Long contractId) {
+        this.contractId = contractId;
+    }
+
+    public void addHit(LocalDateTime messageTime, int offset, int maxHits) {
+        hitCount++;
+        if (hits.size() < maxHits) {
+            hits.add(new Hit(messageTime, offset));
+        }
+    }
+
+    /**
+     * 일치 위치: 메시지 전송 시각과 메시지 내용 안의 시작 위치(문자 단위)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+        private final LocalDateTime messageTime;
+        private final int offset;
+    }
+}
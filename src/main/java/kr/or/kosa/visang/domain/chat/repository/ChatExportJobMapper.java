@@ -0,0 +1,30 @@
+package kr.or.kosa.visang.domain.chat.repository;
+
+import kr.or.kosa.visang.domain.chat.model.ChatExportJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface ChatExportJobMapper {
+
+    void insertJob(ChatExportJob job);
+
+    // 같은 계약에 대기/실행 중인 작업 수
+    int countActiveByContractId(@Param("contractId") Long contractId);
+
+    ChatExportJob findLatestByContractId(@Param("contractId") Long contractId);
+
+    // 실행할 차례가 된 작업 (대기 중이거나, 실행 중인 채로 staleSeconds 넘게 멈춘 작업)
+    List<ChatExportJob> findRunnable(@Param("staleSeconds") long staleSeconds, @Param("limit") int limit);
+
+    // 선점 성공 시 1 (다른 노드가 먼저 가져갔으면 0)
+    int claim(@Param("jobId") Long jobId, @Param("worker") String worker, @Param("staleSeconds") long staleSeconds);
+
+    int markDone(@Param("jobId") Long jobId, @Param("worker") String worker,
+                 @Param("filePath") String filePath, @Param("fileHash") String fileHash);
+
+    int markRetry(@Param("jobId") Long jobId, @Param("worker") String worker, @Param("status") String status,
+                  @Param("lastError") String lastError, @Param("delaySeconds") long delaySeconds);
+}
@@ -12,9 +12,27 @@ public interface ChatMapper {
 
     void insertMessage(ChatMessage msg);
 
+    // Redis Stream 에서 꺼낸 메시지 저장 (BATCH 실행기로 묶어서 호출)
+    void insertStreamMessage(ChatMessage msg);
+
     String getChatExportFilePathByContractId(@Param("contractId") Long contractId);
 
-    List<ChatMessage> findByContractId(Long roomId);
+    // chat_id 기준 다음 페이지 조회 (afterId 다음부터 오름차순 limit 건, 내보내기/관리자 열람)
+    List<ChatMessage> findPageByContractId(@Param("contractId") Long contractId,
+                                           @Param("afterId") Long afterId,
+                                           @Param("limit") int limit);
+
+    // chat_id 기준 이전 페이지 조회 (beforeId 이전부터 내림차순 limit 건, beforeId 가 없으면 최신부터)
+    List<ChatMessage> findPageBeforeByContractId(@Param("contractId") Long contractId,
+                                                 @Param("beforeId") Long beforeId,
+                                                 @Param("limit") int limit);
+
+    // 전문 검색 색인 갱신용 (afterId 다음부터 일반 채팅만 chat_id 오름차순 limit 건)
+    List<ChatMessage> findSearchableAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // 전문 검색 결과 중 회사 소속 계약만 남기기
+    List<Long> filterContractIdsByCompany(@Param("companyId") Long companyId,
+                                          @Param("contractIds") List<Long> contractIds);
 
     void updateExportPath(Map<String, Object> params);
 
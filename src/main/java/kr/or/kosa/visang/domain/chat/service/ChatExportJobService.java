@@ -0,0 +1,80 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.common.util.TextUtil;
+import kr.or.kosa.visang.domain.chat.model.ChatExportFile;
+import kr.or.kosa.visang.domain.chat.model.ChatExportJob;
+import kr.or.kosa.visang.domain.chat.repository.ChatExportJobMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 채팅 기록 내보내기 작업 (DB 아웃박스)
+ *
+ * 상담 종료 트랜잭션 안에서는 chat_export_job 에 행만 추가하고,
+ * 실제 Redis 정리 / 파일 쓰기 / 기록 저장은 ChatExportWorker 가 요청 스레드 밖에서 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatExportJobService {
+
+    private static final int MAX_ERROR_BYTES = 1000;
+
+    private final ChatExportJobMapper chatExportJobMapper;
+    private final ChatService chatService;
+
+    /**
+     * 내보내기 작업 등록 (같은 계약에 대기/실행 중인 작업이 있으면 그 작업을 그대로 사용)
+     */
+    @Transactional
+    public ChatExportJob enqueue(Long contractId, String requestedBy) {
+        if (chatExportJobMapper.countActiveByContractId(contractId) > 0) {
+            log.info("이미 진행 중인 채팅 내보내기 작업이 있습니다. contractId: {}", contractId);
+            return chatExportJobMapper.findLatestByContractId(contractId);
+        }
+        ChatExportJob job = new ChatExportJob();
+        job.setContractId(contractId);
+        job.setRequestedBy(requestedBy);
+        job.setStatus(ChatExportJob.PENDING);
+        chatExportJobMapper.insertJob(job);
+        log.info("채팅 내보내기 작업 등록. jobId: {}, contractId: {}", job.getJobId(), contractId);
+        return job;
+    }
+
+    /* 계약의 가장 최근 내보내기 작업 (상태 조회용) */
+    public ChatExportJob getLatest(Long contractId) {
+        return chatExportJobMapper.findLatestByContractId(contractId);
+    }
+
+    /**
+     * 내보낸 파일 기록과 작업 완료를 한 트랜잭션으로 처리
+     * 그 사이 작업을 다른 노드가 가져갔으면(선점 만료) 기록을 되돌린다.
+     */
+    @Transactional
+    public void complete(ChatExportJob job, String worker, ChatExportFile export) {
+        chatService.recordExport(job.getContractId(), job.getRequestedBy(), export);
+        if (chatExportJobMapper.markDone(job.getJobId(), worker, export.getFilePath(), export.getSha256()) == 0) {
+            throw new IllegalStateException("작업 선점이 만료되었습니다. jobId: " + job.getJobId());
+        }
+    }
+
+    /**
+     * 실패 기록: 시도 횟수가 남았으면 지연 후 재시도(PENDING), 아니면 FAILED
+     */
+    public void fail(ChatExportJob job, String worker, Exception cause, int maxAttempts, long delaySeconds) {
+        boolean retry = job.getAttempts() < maxAttempts;
+        // last_error 는 VARCHAR2(1000) 바이트 길이
+        String message = TextUtil.truncateUtf8(cause.getClass().getSimpleName() + ": " + cause.getMessage(),
+                MAX_ERROR_BYTES);
+        chatExportJobMapper.markRetry(job.getJobId(), worker,
+                retry ? ChatExportJob.PENDING : ChatExportJob.FAILED, message, retry ? delaySeconds : 0);
+        if (retry) {
+            log.warn("채팅 내보내기 실패, {}초 후 재시도. jobId: {}, attempts: {}, error: {}",
+                    delaySeconds, job.getJobId(), job.getAttempts(), message);
+        } else {
+            log.error("채팅 내보내기 최종 실패. jobId: {}, attempts: {}", job.getJobId(), job.getAttempts(), cause);
+        }
+    }
+}
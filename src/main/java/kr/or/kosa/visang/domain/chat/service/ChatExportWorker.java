@@ -0,0 +1,161 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.domain.chat.model.ChatExportFile;
+import kr.or.kosa.visang.domain.chat.model.ChatExportJob;
+import kr.or.kosa.visang.domain.chat.repository.ChatExportJobMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 내보내기 작업 실행기
+ *
+ * poll-interval-ms 마다 실행할 차례가 된 작업을 빈 워커 수만큼 선점(UPDATE ... WHERE status)해
+ * 고정 크기 풀에서 실행한다. 파일 쓰기는 트랜잭션 밖에서 하고, 기록 저장과 완료 처리만 짧은 트랜잭션으로 묶는다.
+ * 실행 중인 채로 stale-seconds 넘게 갱신이 없는 작업(노드 비정상 종료)은 다른 노드가 다시 가져간다.
+ */
+@Slf4j
+@Component
+public class ChatExportWorker {
+
+    private final ChatExportJobMapper chatExportJobMapper;
+    private final ChatExportJobService chatExportJobService;
+    private final ChatService chatService;
+
+    private final int workers;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long retryDelaySeconds;
+    private final long staleSeconds;
+    private final String workerId;
+
+    private final Semaphore permits;
+    private final ExecutorService pool;
+    private final ScheduledExecutorService scheduler;
+
+    public ChatExportWorker(ChatExportJobMapper chatExportJobMapper,
+                            ChatExportJobService chatExportJobService,
+                            ChatService chatService,
+                            @Value("${app.chat.export.workers:2}") int workers,
+                            @Value("${app.chat.export.poll-interval-ms:1000}") long pollIntervalMs,
+                            @Value("${app.chat.export.max-attempts:5}") int maxAttempts,
+                            @Value("${app.chat.export.retry-delay-seconds:30}") long retryDelaySeconds,
+                            @Value("${app.chat.export.stale-seconds:600}") long staleSeconds) {
+        this.chatExportJobMapper = chatExportJobMapper;
+        this.chatExportJobService = chatExportJobService;
+        this.chatService = chatService;
+        this.workers = Math.max(1, workers);
+        this.pollIntervalMs = Math.max(100, pollIntervalMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelaySeconds = Math.max(1, retryDelaySeconds);
+        this.staleSeconds = Math.max(60, staleSeconds);
+        this.workerId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.permits = new Semaphore(this.workers);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread thread = new Thread(r, "chat-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-export-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("채팅 내보내기 워커 시작: worker={}, workers={}, pollIntervalMs={}", workerId, workers, pollIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        pool.shutdown();
+        try {
+            // 실행 중인 작업은 마치게 두고, 못 마친 작업은 stale-seconds 뒤 다른 노드가 가져간다
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("채팅 내보내기 작업 조회 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 빈 워커 수만큼 작업을 선점해 실행
+     */
+    void poll() {
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<ChatExportJob> jobs = chatExportJobMapper.findRunnable(staleSeconds, free);
+        for (ChatExportJob job : jobs) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            if (chatExportJobMapper.claim(job.getJobId(), workerId, staleSeconds) == 0) {
+                // 다른 노드가 먼저 가져감
+                permits.release();
+                continue;
+            }
+            job.setAttempts(job.getAttempts() + 1);
+            pool.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    void run(ChatExportJob job) {
+        Long contractId = job.getContractId();
+        try {
+            log.info("채팅 내보내기 시작. jobId: {}, contractId: {}, attempt: {}", job.getJobId(), contractId, job.getAttempts());
+            // 1) Redis 에 남은 기록 저장 → 2) 파일 생성 (트랜잭션 밖)
+            chatService.deleteFromRedis(contractId);
+            ChatExportFile export = chatService.exportFile(contractId);
+            // 3) 기록 저장 + 작업 완료 (짧은 트랜잭션)
+            chatExportJobService.complete(job, workerId, export);
+            log.info("채팅 내보내기 완료. jobId: {}, 파일: {}, 메시지 수: {}",
+                    job.getJobId(), export.getFilePath(), export.getMessageCount());
+        } catch (Exception e) {
+            // 재시도 간격은 시도마다 두 배 (최대 1시간)
+            long delay = Math.min(3600, retryDelaySeconds << Math.min(job.getAttempts() - 1, 16));
+            chatExportJobService.fail(job, workerId, e, maxAttempts, delay);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "chat-export";
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.model.ChatSearchResult;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 채팅 내용 전문 검색용 역색인 (메모리)
+ *
+ * - 공백을 제외한 글자 2-gram 으로 색인한다. 한국어는 띄어쓰기가 일정하지 않으므로
+ *   "계약 해지" 와 "계약해지" 가 같은 문구로 검색된다.
+ * - 색인 항목은 (문서, 공백 제외 위치, 원문 위치) 이고, 검색어의 모든 2-gram 이 연속 위치에 있는 문서만 찾는다.
+ * - 문서(메시지)는 chat 테이블에서 읽는다. 기동 시 처음부터 읽어 색인을 만들고, 이후 catch-up-interval-ms 마다
+ *   chat_id 가 커진 행을 이어서 읽으므로 어느 노드가 저장한 메시지든 모든 노드에서 검색된다.
+ * - chat_id 는 시퀀스 순서라도 커밋 순서와 다를 수 있어, 최근 settle-seconds 동안 본 chat_id 는 기억해 두고
+ *   그 구간은 매번 다시 읽으며 중복만 건너뛴다.
+ * - 색인은 디스크에 남기지 않으므로 노드가 기동할 때마다 chat 테이블 전체(CHAT 유형)를 batch-size 씩 다시 읽는다.
+ *   기동 직후 이 읽기가 끝날 때까지는 오래된 메시지가 검색되지 않고, 노드 수만큼 DB 에 전체 조회가 발생한다.
+ * - 힙 사용량은 색인 항목 수(max-entries, 항목당 int 3개)로 제한한다. 넘으면 가장 오래된 메시지부터
+ *   색인에서 빼고(chat.search.index.evictions), 빠진 메시지는 검색되지 않는다.
+ */
+@Slf4j
+@Component
+public class ChatSearchIndex {
+
+    static final int MIN_QUERY_LENGTH = 2;
+    private static final int MAX_CONTENT_LENGTH = 32 * 1024;
+
+    private final ChatMapper chatMapper;
+    private final int maxHitsPerContract;
+    private final long catchUpIntervalMs;
+    private final long settleMs;
+    private final int batchSize;
+    private final long maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 2-gram → (doc, 공백 제외 위치, 원문 위치) 를 이어 붙인 배열 (doc, 위치 오름차순)
+    private final Map<Integer, Postings> postings = new HashMap<>();
+    // 문서별 정보는 docBase 부터 (인덱스 = doc - docBase), docBase 이전 문서는 색인에서 빠짐
+    private long[] docContract = new long[1024];
+    private long[] docTime = new long[1024];
+    private int[] docEntries = new int[1024];
+    private int docBase;
+    private int docCount;
+    private long entryCount;
+
+    // 이 chat_id 이하는 모두 색인됨 (커밋이 늦은 행이 더는 없다고 보는 경계)
+    private long settledChatId;
+    // settledChatId 보다 큰, 이미 색인한 chat_id
+    private final Set<Long> recentChatIds = new HashSet<>();
+    // (읽은 시각, 그때까지 본 최대 chat_id) 기록, settle-seconds 가 지나면 settledChatId 로 올린다
+    private final Deque<long[]> seenHistory = new ArrayDeque<>();
+    private long maxSeenChatId;
+
+    private final ScheduledExecutorService scheduler;
+    private final Counter evictions;
+
+    public ChatSearchIndex(ChatMapper chatMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.chat.search.max-hits-per-contract:20}") int maxHitsPerContract,
+                           @Value("${app.chat.search.catch-up-interval-ms:2000}") long catchUpIntervalMs,
+                           @Value("${app.chat.search.settle-seconds:60}") long settleSeconds,
+                           @Value("${app.chat.search.batch-size:1000}") int batchSize,
+                           @Value("${app.chat.search.max-entries:8000000}") long maxEntries) {
+        this.chatMapper = chatMapper;
+        this.maxHitsPerContract = Math.max(1, maxHitsPerContract);
+        this.catchUpIntervalMs = Math.max(100, catchUpIntervalMs);
+        this.settleMs = Math.max(0, settleSeconds) * 1000;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.evictions = Counter.builder("chat.search.index.evictions")
+                .description("색인 항목 수 제한으로 색인에서 뺀 메시지 수").register(meterRegistry);
+        Gauge.builder("chat.search.index.entries", this, ChatSearchIndex::entries)
+                .description("색인 항목 수 (항목당 int 3개)").register(meterRegistry);
+        Gauge.builder("chat.search.index.messages", this, ChatSearchIndex::size).register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        // 첫 실행이 chat 테이블 전체를 읽으므로 기동을 막지 않도록 백그라운드에서 시작
+        log.info("채팅 검색 색인: chat 테이블 전체를 읽어 색인을 만듭니다 (최대 항목 수 {})", maxEntries);
+        scheduler.scheduleWithFixedDelay(this::catchUpSafely, 0, catchUpIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void catchUpSafely() {
+        try {
+            int added = catchUp();
+            if (added > 0) {
+                log.debug("채팅 검색 색인 추가: {}건 (전체 {}건)", added, size());
+            }
+        } catch (Exception e) {
+            log.warn("채팅 검색 색인 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * chat 테이블에서 아직 색인하지 않은 메시지를 읽어 색인, 새로 색인한 건수 반환
+     * (단일 스레드에서만 호출)
+     */
+    int catchUp() {
+        long cursor = settledChatId;
+        int added = 0;
+        while (true) {
+            List<ChatMessage> page = chatMapper.findSearchableAfter(cursor, batchSize);
+            List<ChatMessage> fresh = new ArrayList<>(page.size());
+            for (ChatMessage msg : page) {
+                cursor = Math.max(cursor, msg.getMessageId());
+                if (recentChatIds.add(msg.getMessageId())) {
+                    fresh.add(msg);
+                }
+            }
+            addAll(fresh);
+            added += fresh.size();
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        settle(cursor, System.currentTimeMillis());
+        return added;
+    }
+
+    // settle-seconds 전에 본 최대 chat_id 까지는 늦게 커밋될 행이 없다고 보고 경계를 올린다
+    private void settle(long cursor, long now) {
+        maxSeenChatId = Math.max(maxSeenChatId, cursor);
+        seenHistory.addLast(new long[]{now, maxSeenChatId});
+        long settled = settledChatId;
+        while (!seenHistory.isEmpty() && seenHistory.peekFirst()[0] <= now - settleMs) {
+            settled = Math.max(settled, seenHistory.pollFirst()[1]);
+        }
+        if (settled > settledChatId) {
+            settledChatId = settled;
+            long boundary = settled;
+            recentChatIds.removeIf(id -> id <= boundary);
+        }
+    }
+
+    /**
+     * 메시지 색인 (일반 채팅만)
+     */
+    public void addAll(List<ChatMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ChatMessage msg : messages) {
+                if (msg == null || msg.getContractId() == null || msg.getContent() == null
+                        || msg.getType() != ChatMessage.MessageType.CHAT) {
+                    continue;
+                }
+                long time = msg.getTimestamp() != null
+                        ? msg.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : System.currentTimeMillis();
+                String content = msg.getContent();
+                if (content.length() > MAX_CONTENT_LENGTH) {
+                    content = content.substring(0, MAX_CONTENT_LENGTH);
+                }
+                index(msg.getContractId(), time, content);
+            }
+            if (entryCount > maxEntries) {
+                evictOldest();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문구 검색: 계약별 일치 위치 (최근 메시지 순, 계약마다 최대 max-hits-per-contract 개)
+     */
+    public Map<Long, ChatSearchResult> search(String query) {
+        Map<Long, ChatSearchResult> results = new LinkedHashMap<>();
+        int[] grams = grams(query);
+        if (grams.length == 0) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            int rarest = 0;
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return results;
+                }
+                if (lists[i].size < lists[rarest].size) {
+                    rarest = i;
+                }
+            }
+            // 가장 드문 2-gram 의 위치마다 나머지 2-gram 이 이어지는지 확인 (최근 문서부터)
+            Postings base = lists[rarest];
+            for (int e = base.size - 1; e >= 0; e--) {
+                int doc = base.doc(e);
+                int start = base.pos(e) - rarest;
+                if (start < 0 || !matchesAt(lists, rarest, doc, start)) {
+                    continue;
+                }
+                int originalOffset = rarest == 0 ? base.offset(e) : lists[0].offsetAt(doc, start);
+                ChatSearchResult result = results.computeIfAbsent(docContract[doc - docBase], ChatSearchResult::new);
+                result.addHit(toDateTime(docTime[doc - docBase]), originalOffset, maxHitsPerContract);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 색인된 메시지 수 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - docBase;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 색인 항목 수 */
+    public long entries() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 항목 수가 max-entries 의 3/4 이하가 될 때까지 오래된 메시지부터 색인에서 뺀다 (쓰기 잠금 안에서 호출)
+    private void evictOldest() {
+        long target = maxEntries - maxEntries / 4;
+        int newBase = docBase;
+        long remaining = entryCount;
+        while (newBase < docCount && remaining > target) {
+            remaining -= docEntries[newBase - docBase];
+            newBase++;
+        }
+        int evicted = newBase - docBase;
+        if (evicted == 0) {
+            return;
+        }
+        int base = newBase;
+        postings.values().removeIf(list -> list.trimBefore(base) == 0);
+        int live = docCount - newBase;
+        System.arraycopy(docContract, evicted, docContract, 0, live);
+        System.arraycopy(docTime, evicted, docTime, 0, live);
+        System.arraycopy(docEntries, evicted, docEntries, 0, live);
+        docBase = newBase;
+        entryCount = remaining;
+        evictions.increment(evicted);
+        log.warn("채팅 검색 색인 항목 수 제한({}) 초과: 오래된 메시지 {}건을 색인에서 뺌 (남은 메시지 {}건, 항목 {}개)",
+                maxEntries, evicted, live, remaining);
+    }
+
+    private static boolean matchesAt(Postings[] lists, int skip, int doc, int start) {
+        for (int i = 0; i < lists.length; i++) {
+            if (i != skip && lists[i].indexOf(doc, start + i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(long contractId, long time, String content) {
+        int live = docCount - docBase;
+        if (live == docContract.length) {
+            docContract = Arrays.copyOf(docContract, live * 2);
+            docTime = Arrays.copyOf(docTime, live * 2);
+            docEntries = Arrays.copyOf(docEntries, live * 2);
+        }
+        int doc = docCount++;
+        docContract[live] = contractId;
+        docTime[live] = time;
+
+        int prevChar = -1;
+        int prevOffset = -1;
+        int pos = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if (prevChar >= 0) {
+                postings.computeIfAbsent(gram((char) prevChar, c), k -> new Postings()).add(doc, pos, prevOffset);
+                pos++;
+            }
+            prevChar = c;
+            prevOffset = i;
+        }
+        docEntries[live] = pos;
+        entryCount += pos;
+    }
+
+    // 검색어를 색인과 같은 방식(공백 제외, 소문자)으로 2-gram 목록으로 변환
+    static int[] grams(String query) {
+        if (query == null) {
+            return new int[0];
+        }
+        StringBuilder normalized = new StringBuilder(query.length());
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        if (normalized.length() < MIN_QUERY_LENGTH) {
+            return new int[0];
+        }
+        int[] grams = new int[normalized.length() - 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(normalized.charAt(i), normalized.charAt(i + 1));
+        }
+        return grams;
+    }
+
+    private static int gram(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 한 2-gram 의 색인 항목 (doc, pos, offset 3개씩, doc → pos 오름차순으로만 추가됨)
+     */
+    private static final class Postings {
+        private int[] data = new int[6];
+        private int size;
+
+        void add(int doc, int pos, int offset) {
+            if ((size + 1) * 3 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int i = size * 3;
+            data[i] = doc;
+            data[i + 1] = pos;
+            data[i + 2] = offset;
+            size++;
+        }
+
+        // doc 이 base 보다 작은 앞쪽 항목을 버리고 남은 항목 수 반환
+        int trimBefore(int base) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (doc(mid) < base) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low > 0) {
+                System.arraycopy(data, low * 3, data, 0, (size - low) * 3);
+                size -= low;
+                // 많이 줄었으면 배열도 줄여 힙을 돌려준다
+                if (data.length > 6 && size * 3 * 4 < data.length) {
+                    data = Arrays.copyOf(data, Math.max(6, size * 3 * 2));
+                }
+            }
+            return size;
+        }
+
+        int doc(int entry) {
+            return data[entry * 3];
+        }
+
+        int pos(int entry) {
+            return data[entry * 3 + 1];
+        }
+
+        int offset(int entry) {
+            return data[entry * 3 + 2];
+        }
+
+        int offsetAt(int doc, int pos) {
+            int entry = indexOf(doc, pos);
+            return entry < 0 ? -1 : offset(entry);
+        }
+
+        // (doc, pos) 항목 위치 이진 탐색, 없으면 -1
+        int indexOf(int doc, int pos) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int d = doc(mid);
+                int cmp = d != doc ? Integer.compare(d, doc) : Integer.compare(pos(mid), pos);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package kr.or.kosa.visang.domain.chat.service;
 
-import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.domain.chat.model.ChatExportFile;
+import kr.or.kosa.visang.domain.chat.model.ChatHistoryPage;
 import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.model.ChatSearchResult;
 import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,15 +15,26 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
@@ -30,141 +43,241 @@ public class ChatService {
 
     private final ChatMapper chatMapper;
     private final RedisTemplate<String, ChatMessage> redis;
+    private final ChatStreamWriteBehind chatStreamWriteBehind;
+    private final ChatSearchIndex chatSearchIndex;
+    private final ChatWriteAheadLog chatWriteAheadLog;
     
+    // 내보내기 시 한 번에 읽는 메시지 수 / 파일 버퍼 크기
+    private static final int EXPORT_PAGE_SIZE = 500;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    // 기록 조회 API 한 페이지 최대 건수
+    private static final int HISTORY_MAX_LIMIT = 200;
+    private static final int SEARCH_MAX_CANDIDATES = 1000;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter LINE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     @Value("${file.upload-dir.chat:./upload/chat}")
     private String chatUploadDir;
 
-    @Transactional
-    public List<ChatMessage> getHistory(Long roomId) {
-        return chatMapper.findByContractId(roomId);
+    @Value("${app.chat.export.gzip:false}")
+    private boolean exportGzip;
+
+    /* 키셋 페이지 조회: afterId 가 있으면 그 다음(오래된 → 최신), 없으면 beforeId 이전(없으면 최신) 페이지 */
+    public ChatHistoryPage getHistory(Long roomId, Long afterId, Long beforeId, int limit) {
+        int size = Math.max(1, Math.min(limit, HISTORY_MAX_LIMIT));
+        // 한 건 더 읽어 다음 페이지 여부 판단
+        if (afterId != null) {
+            List<ChatMessage> rows = chatMapper.findPageByContractId(roomId, afterId, size + 1);
+            boolean hasMore = rows.size() > size;
+            List<ChatMessage> page = hasMore ? rows.subList(0, size) : rows;
+            Long cursor = page.isEmpty() ? afterId : page.get(page.size() - 1).getMessageId();
+            return new ChatHistoryPage(page, cursor, hasMore);
+        }
+        List<ChatMessage> rows = chatMapper.findPageBeforeByContractId(roomId, beforeId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ChatMessage> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        Collections.reverse(page);
+        Long cursor = page.isEmpty() ? beforeId : page.get(0).getMessageId();
+        return new ChatHistoryPage(page, cursor, hasMore);
     }
 
-    public void saveMessageToRedis(ChatMessage msg) {
-        String key = "chat:room:" + msg.getContractId();
-        redis.opsForList().rightPush(key, msg);
+    /* 전체 기록을 페이지 단위로 읽어 순서대로 전달 (스트리밍 응답용, 한 번에 한 페이지만 메모리에 둔다) */
+    public void forEachHistoryPage(Long roomId, Consumer<List<ChatMessage>> consumer) {
+        long afterId = 0;
+        while (true) {
+            List<ChatMessage> page = chatMapper.findPageByContractId(roomId, afterId, EXPORT_PAGE_SIZE);
+            if (page.isEmpty()) {
+                return;
+            }
+            consumer.accept(page);
+            if (page.size() < EXPORT_PAGE_SIZE) {
+                return;
+            }
+            afterId = page.get(page.size() - 1).getMessageId();
+        }
     }
 
-    /* Redis에서 대화 이력 꺼내고 삭제하기*/
-    public List<ChatMessage> deleteFromRedis(Long roomId) {
-        String key = "chat:room:" + roomId;
+    /* 방 스트림에 추가 → ChatStreamWriteBehind 가 주기적으로 chat 테이블에 일괄 저장
+       (Redis 가 실패하거나 느리면 로컬 WAL 에 기록하고, 복구되면 WAL 이 스트림으로 다시 넣는다) */
+    public void saveMessageToRedis(ChatMessage msg) {
+        if (chatWriteAheadLog.appendIfActive(msg)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chatStreamWriteBehind.append(msg);
+        } catch (RuntimeException e) {
+            log.warn("채팅 Redis 저장 실패, 로컬 WAL 에 기록: contractId={}, {}", msg.getContractId(), e.getMessage());
+            chatWriteAheadLog.append(msg);
+            return;
+        }
+        chatWriteAheadLog.onRedisLatency(System.nanoTime() - start);
+    }
 
-        List<ChatMessage> msgs = redis.opsForList().range(key, 0, -1);
-        redis.delete(key);
-        return msgs != null ? msgs : Collections.emptyList();
+    /* Redis에 남은 대화를 DB로 내리기 */
+    public void deleteFromRedis(Long roomId) {
+        // 로컬 WAL 에 남은 메시지를 먼저 스트림에 넣어야 내보내기에 빠지지 않는다
+        if (chatWriteAheadLog.isActive() && !chatWriteAheadLog.replay()) {
+            throw new IllegalStateException("로컬 WAL 채팅 메시지 재전송 실패: contractId=" + roomId);
+        }
+        // 이전 버전에서 리스트(chat:room:{id})에 쌓인 메시지는 페이지 단위로 스트림에 옮긴다
+        String legacyKey = "chat:room:" + roomId;
+        for (long start = 0; ; start += EXPORT_PAGE_SIZE) {
+            List<ChatMessage> page = redis.opsForList().range(legacyKey, start, start + EXPORT_PAGE_SIZE - 1);
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            page.forEach(chatStreamWriteBehind::append);
+        }
+        redis.delete(legacyKey);
 
+        chatStreamWriteBehind.flushRoom(roomId);
     }
 
-    /* 파일로 내보내고, 파일 경로 반환 */
-    public String exportFile(Long roomId, List<ChatMessage> msgHistory) {
+    /* 파일로 내보내고, 파일 경로와 해시 반환 (DB 이력을 페이지 단위로 읽어 한 번에 기록, 푸터의 메시지 수는 실제 기록한 줄 수) */
+    public ChatExportFile exportFile(Long roomId) {
         // 현재 시간으로 파일명 생성
         LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-        String timestamp = now.format(formatter);
-        String fileName = "chat_" + roomId + "_" + timestamp + ".txt";
+        String timestamp = now.format(FILE_NAME_FORMAT);
+        String fileName = "chat_" + roomId + "_" + timestamp + (exportGzip ? ".txt.gz" : ".txt");
 
         // 설정된 절대경로 사용
         Path dir = Paths.get(chatUploadDir);
         Path path = dir.resolve(fileName);
 
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        long total = 0;
         try {
             // 디렉토리가 없으면 생성
             Files.createDirectories(dir);
             log.info("채팅 파일 저장 경로: {}", path.toAbsolutePath());
 
-            // 파일에 쓰기
-            try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            // 파일 바이트가 쓰이는 대로 해시 계산 (gzip 이면 압축된 바이트 기준)
+            OutputStream out = new DigestOutputStream(Files.newOutputStream(path), digest);
+            if (exportGzip) {
+                out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+            }
+            try (BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
                 // 헤더 정보 추가
                 writer.write("=== 온라인 상담 채팅 기록 ===");
                 writer.newLine();
                 writer.write("계약 ID: " + roomId);
                 writer.newLine();
-                writer.write("생성 시간: " + now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                writer.newLine();
-                writer.write("총 메시지 수: " + msgHistory.size());
+                writer.write("생성 시간: " + now.format(LINE_TIME_FORMAT));
                 writer.newLine();
                 writer.write("================================");
                 writer.newLine();
                 writer.newLine();
 
-                // 채팅 메시지 작성
-                for (ChatMessage msg : msgHistory) {
-                    if (msg.getTimestamp() != null && msg.getSender() != null && msg.getContent() != null) {
-                        String formattedTime = msg.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-                        String senderName = msg.getSenderName() != null ? msg.getSenderName() : 
-                                           ("agent".equals(msg.getSender()) ? "상담원" : "고객");
-                        
-                        writer.write(String.format("[%s] %s: %s", formattedTime, senderName, msg.getContent()));
-                        writer.newLine();
+                // 채팅 메시지 작성 (페이지 크기만큼만 메모리에 올리고, 실제로 기록한 줄만 셈)
+                long afterId = 0;
+                while (true) {
+                    List<ChatMessage> page = chatMapper.findPageByContractId(roomId, afterId, EXPORT_PAGE_SIZE);
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    for (ChatMessage msg : page) {
+                        if (writeLine(writer, msg)) {
+                            total++;
+                        }
+                    }
+                    afterId = page.get(page.size() - 1).getMessageId();
+                    if (page.size() < EXPORT_PAGE_SIZE) {
+                        break;
                     }
                 }
-                
-                // 푸터 정보 추가
+
+                // 푸터 정보 추가 (메시지 수는 다 쓴 뒤에야 알 수 있으므로 끝에 기록)
+                writer.newLine();
+                writer.write("총 메시지 수: " + total);
                 writer.newLine();
                 writer.write("=== 채팅 기록 끝 ===");
-                
-                log.info("채팅 파일 저장 완료: {} (메시지 수: {})", path.toAbsolutePath(), msgHistory.size());
             }
+            log.info("채팅 파일 저장 완료: {} (메시지 수: {})", path.toAbsolutePath(), total);
         } catch (IOException e) {
             log.error("채팅 기록 파일 생성 실패: {}", path.toAbsolutePath(), e);
             throw new RuntimeException("상담 기록 파일 생성 실패: " + path, e);
         }
-        return path.toAbsolutePath().toString();
+        return new ChatExportFile(path.toAbsolutePath().toString(), HexFormat.of().formatHex(digest.digest()), total);
+    }
+
+    // 필수 값이 빠진 메시지는 건너뛰고 false 를 반환
+    private static boolean writeLine(BufferedWriter writer, ChatMessage msg) throws IOException {
+        if (msg.getTimestamp() == null || msg.getSender() == null || msg.getContent() == null) {
+            return false;
+        }
+        String senderName = msg.getSenderName() != null ? msg.getSenderName() :
+                ("agent".equals(msg.getSender()) ? "상담원" : "고객");
+        writer.write('[');
+        LINE_TIME_FORMAT.formatTo(msg.getTimestamp(), writer);
+        writer.write("] ");
+        writer.write(senderName);
+        writer.write(": ");
+        writer.write(msg.getContent());
+        writer.newLine();
+        return true;
     }
 
 
+    /* 상담 채팅 전문 검색 (관리자 회사 소속 계약만, 최근 메시지 순) */
+    public List<ChatSearchResult> searchTranscripts(Long companyId, String query, int limit) {
+        Map<Long, ChatSearchResult> matches = chatSearchIndex.search(query);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 회사 소속 여부를 먼저 거른 뒤 자른다 (IN 절 한도 1000 건씩 나눠 확인, 최근 순서 유지)
+        int size = Math.max(1, Math.min(limit, SEARCH_MAX_CANDIDATES));
+        List<Long> candidates = new ArrayList<>(matches.keySet());
+        List<ChatSearchResult> results = new ArrayList<>(size);
+        for (int from = 0; from < candidates.size() && results.size() < size; from += SEARCH_MAX_CANDIDATES) {
+            List<Long> chunk = candidates.subList(from, Math.min(candidates.size(), from + SEARCH_MAX_CANDIDATES));
+            Set<Long> allowed = new HashSet<>(chatMapper.filterContractIdsByCompany(companyId, chunk));
+            for (Long contractId : chunk) {
+                if (allowed.contains(contractId)) {
+                    results.add(matches.get(contractId));
+                    if (results.size() >= size) {
+                        break;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
     /* 다운로드 링크 만들 때 호출 */
     public String getExportPath(Long roomId) {
         return chatMapper.getExportPath(roomId);
     }
 
+    /* 내보낸 파일을 END 시스템 메시지(해시 포함)와 export_filepath 로 기록 (ChatExportJobService 에서 호출) */
     @Transactional
-    public void endAndExport(Long roomId, String username) throws IOException, NoSuchAlgorithmException {
-        log.info("=== 채팅 기록 내보내기 시작 ===");
-        log.info("계약 ID: {}", roomId);
-        log.info("사용자: {}", username);
-        log.info("설정된 채팅 저장 경로: {}", chatUploadDir);
-        
-        // 1) Redis 기록 꺼내고
-        List<ChatMessage> history = deleteFromRedis(roomId);
-        log.info("Redis에서 가져온 채팅 메시지 수: {}", history.size());
-        
-        if (history.isEmpty()) {
-            log.warn("Redis에 저장된 채팅 기록이 없습니다. contractId: {}", roomId);
-        } else {
-            log.info("채팅 기록 샘플:");
-            for (int i = 0; i < Math.min(3, history.size()); i++) {
-                ChatMessage msg = history.get(i);
-                log.info("  [{}] {}: {}", msg.getTimestamp(), msg.getSender(), 
-                        msg.getContent() != null ? msg.getContent().substring(0, Math.min(50, msg.getContent().length())) : "null");
-            }
-        }
-
-        // 2) 파일 생성
-        String filePath = exportFile(roomId, history);
-        log.info("생성된 파일 경로: {}", filePath);
-
-        String hash = HashUtil.sha256(filePath);
-
-
-        // 3) END 메시지 INSERT → chatId 자동 채워짐
+    public Long recordExport(Long roomId, String username, ChatExportFile export) {
+        // 1) END 메시지 INSERT → chatId 자동 채워짐
         ChatMessage endMsg = ChatMessage.builder()
                 .contractId(roomId)
                 .sender(username)
                 .content("통화를 종료하고 이력을 파일로 저장했습니다.")
                 .type(ChatMessage.MessageType.SYSTEM)
                 .timestamp(LocalDateTime.now())
-                .fileHash(hash)
+                .fileHash(export.getSha256())
                 .build();
         chatMapper.insertMessage(endMsg);
         log.info("시스템 메시지 DB 저장 완료. 메시지 ID: {}", endMsg.getMessageId());
-        // 4) INSERT된 chat_id 로만 UPDATE
+        // 2) INSERT된 chat_id 로만 UPDATE
         Long newChatId = endMsg.getMessageId();
         chatMapper.updateExportPathByChatId(Map.of(
                 "chatId", newChatId,
-                "filePath", filePath
+                "filePath", export.getFilePath()
         ));
-        log.info("파일 경로 DB 업데이트 완료. 채팅 ID: {}, 파일 경로: {}", newChatId, filePath);
-        log.info("=== 채팅 기록 내보내기 완료 ===");
+        log.info("파일 경로 DB 업데이트 완료. 채팅 ID: {}, 파일 경로: {}", newChatId, export.getFilePath());
+        return newChatId;
     }
 
     public File getChatFile(Long contractId) {
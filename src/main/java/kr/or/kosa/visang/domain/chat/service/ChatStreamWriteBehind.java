@@ -0,0 +1,496 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅 메시지 Redis Stream 적재 + chat 테이블 일괄 저장(write-behind)
+ *
+ * - 메시지는 방별 스트림(chat:stream:{contractId})에 XADD 한다.
+ * - 소비자 그룹(chat-writer)으로 스트림을 읽어 batch-size 개 또는 flush-interval-ms 주기마다
+ *   MyBatis BATCH 실행기로 한 번에 INSERT 하고 XACK 한다.
+ * - 저장(확인)된 메시지는 바로 스트림에서 잘라낸다(XTRIM MINID). Redis 에는 아직 저장되지 않은 최근 메시지만 남고,
+ *   지난 메시지는 chat 테이블에서 읽는다. 어떤 노드의 미확인 메시지보다 앞쪽만 자르므로 저장 전 메시지는 지워지지 않는다.
+ * - 여러 노드가 같은 그룹을 읽으므로 메시지는 한 노드에서만 저장된다.
+ * - 실제로 INSERT 된 메시지만 확인한다. 행 오류로 실패한 메시지는 미확인으로 남겨 다시 시도하고,
+ *   max-attempts 번 전달되어도 실패하면 dead-letter 스트림(chat:dead-letter)으로 옮긴 뒤 확인한다.
+ * - 방 종료 시에는 다른 노드/죽은 노드의 미확인 메시지까지 가져와(XCLAIM) 저장하고, 그룹의 미확인이 0 일 때만 스트림을 지운다.
+ * - INSERT 후 XACK 전에 노드가 죽으면 재기동 시 미확인(pending) 메시지를 다시 저장하므로 중복 행이 생길 수 있다.
+ */
+@Slf4j
+@Component
+public class ChatStreamWriteBehind {
+
+    static final String STREAM_PREFIX = "chat:stream:";
+    static final String STREAMS_KEY = "chat:streams";
+    static final String GROUP = "chat-writer";
+    static final String FIELD = "msg";
+    static final String DEAD_LETTER_KEY = "chat:dead-letter";
+    // 방 종료 시 한 번에 가져올 미확인 메시지 수
+    private static final int CLAIM_PAGE = 1000;
+    private static final byte[] MINID = "MINID".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] APPROXIMATE = "~".getBytes(StandardCharsets.US_ASCII);
+
+    private final RedisTemplate<String, ChatMessage> redis;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final String consumerName;
+    private final int maxAttempts;
+    private final long flushTimeoutMs;
+
+    // 이 노드가 읽는 스트림 키 (그룹 생성 완료)
+    private final Set<String> streams = ConcurrentHashMap.newKeySet();
+    // 주기 저장과 방 종료 시 즉시 저장이 같은 메시지를 나눠 가지지 않도록 직렬화
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    // 기동 직후나 저장 실패 뒤에는 이 소비자의 미확인 메시지부터 다시 읽는다
+    private volatile boolean recoverPending = true;
+
+    public ChatStreamWriteBehind(RedisTemplate<String, ChatMessage> redis,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 SqlSessionFactory sqlSessionFactory,
+                                 @Value("${app.chat.stream.batch-size:200}") int batchSize,
+                                 @Value("${app.chat.stream.flush-interval-ms:500}") long flushIntervalMs,
+                                 @Value("${app.chat.stream.consumer:}") String consumerName,
+                                 @Value("${app.chat.stream.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.chat.stream.flush-timeout-ms:10000}") long flushTimeoutMs) {
+        this.redis = redis;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(10, flushIntervalMs);
+        this.consumerName = consumerName == null || consumerName.isBlank() ? hostName() : consumerName;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.flushTimeoutMs = Math.max(this.flushIntervalMs, flushTimeoutMs);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            Set<String> known = stringRedisTemplate.opsForSet().members(STREAMS_KEY);
+            if (known != null) {
+                known.forEach(this::ensureGroup);
+            }
+        } catch (DataAccessException e) {
+            log.warn("채팅 스트림 목록 조회 실패, 새 메시지부터 처리합니다: {}", e.getMessage());
+        }
+        scheduler.scheduleWithFixedDelay(this::drainSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("채팅 write-behind 시작: consumer={}, batchSize={}, flushIntervalMs={}",
+                consumerName, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainSafely();
+    }
+
+    /**
+     * 메시지를 방 스트림에 추가 (저장은 비동기)
+     */
+    public void append(ChatMessage msg) {
+        String key = streamKey(msg.getContractId());
+        if (!streams.contains(key)) {
+            ensureGroup(key);
+        }
+        MapRecord<String, String, ChatMessage> record = StreamRecords.newRecord()
+                .in(key)
+                .ofMap(Collections.singletonMap(FIELD, msg));
+        redis.opsForStream().add(record);
+    }
+
+    /**
+     * 방의 스트림에 남은 메시지를 즉시 DB에 저장하고 스트림을 정리 (상담 종료 시)
+     * 다른 소비자에게 전달된 미확인 메시지도 가져와 저장하며, 그룹의 미확인 메시지가 0 이 될 때만 스트림을 지운다.
+     *
+     * @throws IllegalStateException flush-timeout-ms 안에 미확인 메시지를 모두 처리하지 못했을 때
+     */
+    public void flushRoom(Long contractId) {
+        String key = streamKey(contractId);
+        drainLock.lock();
+        try {
+            if (streams.contains(key) || Boolean.TRUE.equals(redis.hasKey(key))) {
+                ensureGroup(key);
+                long deadline = System.currentTimeMillis() + flushTimeoutMs;
+                while (true) {
+                    // 다른 노드(또는 죽은 노드)의 미확인 메시지 → 이 소비자의 미확인 메시지 → 새 메시지 순으로 저장
+                    claimPending(key);
+                    drainPending(key);
+                    while (!drainStream(key, ReadOffset.lastConsumed()).isEmpty()) {
+                        // 계속 비움
+                    }
+                    long pending = pendingCount(key);
+                    if (pending == 0) {
+                        break;
+                    }
+                    if (System.currentTimeMillis() >= deadline) {
+                        // 저장하지 못한 메시지가 남아 있으면 스트림을 지우지 않는다
+                        throw new IllegalStateException("채팅 메시지 저장 실패: contractId=" + contractId + ", 미확인 " + pending + "건");
+                    }
+                    sleep(Math.min(flushIntervalMs, 200));
+                }
+            }
+            streams.remove(key);
+            redis.delete(key);
+            stringRedisTemplate.opsForSet().remove(STREAMS_KEY, key);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 주기 저장: 스트림별로 batch-size 만큼씩 읽어 저장
+     */
+    void drain() {
+        drainLock.lock();
+        try {
+            boolean recovering = recoverPending;
+            recoverPending = false;
+            for (String key : streams) {
+                if (recovering) {
+                    drainPending(key);
+                    continue;
+                }
+                while (drainStream(key, ReadOffset.lastConsumed()).size() >= batchSize && !recoverPending) {
+                    // 밀린 메시지가 많으면 이번 주기에 이어서 저장
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Exception e) {
+            recoverPending = true;
+            log.error("채팅 스트림 저장 실패, 다음 주기에 재시도: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 이 소비자의 미확인 메시지를 처음부터 끝까지 다시 읽어 저장
+     */
+    private void drainPending(String key) {
+        ReadOffset offset = ReadOffset.from("0");
+        while (true) {
+            List<MapRecord<String, String, ChatMessage>> records = drainStream(key, offset);
+            if (records.isEmpty()) {
+                return;
+            }
+            offset = ReadOffset.from(records.get(records.size() - 1).getId());
+        }
+    }
+
+    /**
+     * 한 스트림에서 최대 batch-size 개를 읽어 저장하고 확인 처리, 읽은 레코드 반환
+     */
+    private List<MapRecord<String, String, ChatMessage>> drainStream(String key, ReadOffset offset) {
+        StreamOperations<String, String, ChatMessage> ops = redis.opsForStream();
+        List<MapRecord<String, String, ChatMessage>> records;
+        try {
+            records = ops.read(Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(batchSize),
+                    StreamOffset.create(key, offset));
+        } catch (DataAccessException e) {
+            if (causeMessage(e).contains("NOGROUP")) {
+                // 다른 노드에서 방이 종료되어 스트림이 삭제됨
+                streams.remove(key);
+                return List.of();
+            }
+            throw e;
+        }
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+
+        Map<RecordId, ChatMessage> batch = new LinkedHashMap<>();
+        List<RecordId> done = new ArrayList<>();
+        for (MapRecord<String, String, ChatMessage> record : records) {
+            if (record.getValue() == null || record.getValue().isEmpty()) {
+                // 미확인 목록에만 남고 스트림에서는 이미 지워진 항목 (저장할 내용 없음)
+                done.add(record.getId());
+                continue;
+            }
+            batch.put(record.getId(), record.getValue().get(FIELD));
+        }
+        Map<RecordId, Exception> rejected = new LinkedHashMap<>();
+        done.addAll(insert(batch, rejected));
+        done.addAll(deadLetter(key, batch, rejected));
+        if (!done.isEmpty()) {
+            ops.acknowledge(key, GROUP, done.toArray(new RecordId[0]));
+            trimSaved(ops, key, records.get(records.size() - 1).getId());
+        }
+        if (done.size() < records.size()) {
+            // 저장하지 못한 메시지는 미확인으로 남겨 다음 주기에 다시 읽는다
+            recoverPending = true;
+        }
+        return records;
+    }
+
+    /**
+     * BATCH 실행기로 한 번에 INSERT, 실패하면 한 건씩 다시 시도해 저장된 레코드 ID 반환
+     * 행 자체의 오류로 실패한 메시지는 rejected 에 담는다. (DB 연결 오류는 담지 않고 미확인으로 남겨 다음 주기에 재시도)
+     */
+    private List<RecordId> insert(Map<RecordId, ChatMessage> batch, Map<RecordId, Exception> rejected) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        if (!batch.containsValue(null)) {
+            try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+                ChatMapper mapper = session.getMapper(ChatMapper.class);
+                for (ChatMessage msg : batch.values()) {
+                    mapper.insertStreamMessage(msg);
+                }
+                session.flushStatements();
+                session.commit();
+                log.debug("채팅 메시지 일괄 저장: {}건", batch.size());
+                return new ArrayList<>(batch.keySet());
+            } catch (Exception e) {
+                log.warn("채팅 메시지 일괄 저장 실패, 한 건씩 재시도: {}", e.getMessage());
+            }
+        }
+
+        List<RecordId> saved = new ArrayList<>();
+        for (Map.Entry<RecordId, ChatMessage> entry : batch.entrySet()) {
+            if (entry.getValue() == null) {
+                rejected.put(entry.getKey(), new IllegalStateException("메시지를 역직렬화할 수 없음"));
+                continue;
+            }
+            try (SqlSession session = sqlSessionFactory.openSession(true)) {
+                session.getMapper(ChatMapper.class).insertStreamMessage(entry.getValue());
+                saved.add(entry.getKey());
+            } catch (Exception e) {
+                if (isConnectionFailure(e)) {
+                    log.warn("채팅 메시지 저장 중 DB 연결 실패, 다음 주기에 재시도: {}", e.getMessage());
+                    break;
+                }
+                rejected.put(entry.getKey(), e);
+                log.warn("채팅 메시지 저장 실패: id={}, {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * max-attempts 번 이상 전달되고도 저장하지 못한 메시지를 dead-letter 스트림으로 옮김, 옮긴 레코드 ID 반환
+     * (옮기지 못하면 미확인으로 남긴다)
+     */
+    private List<RecordId> deadLetter(String key, Map<RecordId, ChatMessage> batch, Map<RecordId, Exception> rejected) {
+        if (rejected.isEmpty()) {
+            return List.of();
+        }
+        StreamOperations<String, String, ChatMessage> ops = redis.opsForStream();
+        @SuppressWarnings("unchecked")
+        RedisSerializer<ChatMessage> serializer = (RedisSerializer<ChatMessage>) redis.getHashValueSerializer();
+        List<RecordId> moved = new ArrayList<>();
+        for (Map.Entry<RecordId, Exception> entry : rejected.entrySet()) {
+            RecordId id = entry.getKey();
+            long deliveries = deliveryCount(ops, key, id);
+            if (deliveries < maxAttempts) {
+                continue;
+            }
+            ChatMessage msg = batch.get(id);
+            String error = entry.getValue().getClass().getSimpleName() + ": " + causeMessage(entry.getValue());
+            Map<byte[], byte[]> fields = new LinkedHashMap<>();
+            fields.put(bytes("stream"), bytes(key));
+            fields.put(bytes("id"), bytes(id.getValue()));
+            fields.put(bytes("deliveries"), bytes(String.valueOf(deliveries)));
+            fields.put(bytes("error"), bytes(error));
+            fields.put(bytes("consumer"), bytes(consumerName));
+            if (msg != null && serializer != null) {
+                fields.put(bytes(FIELD), serializer.serialize(msg));
+            }
+            try {
+                stringRedisTemplate.execute((RedisCallback<Object>) connection ->
+                        connection.streamCommands().xAdd(MapRecord.create(bytes(DEAD_LETTER_KEY), fields)));
+            } catch (DataAccessException e) {
+                log.error("채팅 dead-letter 기록 실패, 미확인으로 남김: stream={}, id={} ({})", key, id, e.getMessage());
+                continue;
+            }
+            moved.add(id);
+            log.error("채팅 메시지 {}회 저장 실패, dead-letter 로 이동: stream={}, id={}, message={}, error={}",
+                    deliveries, key, id, msg, error);
+        }
+        return moved;
+    }
+
+    // 이 소비자의 미확인 목록에 기록된 전달 횟수 (조회 실패 시 1)
+    private long deliveryCount(StreamOperations<String, String, ChatMessage> ops, String key, RecordId id) {
+        PendingMessages pending = ops.pending(key, Consumer.from(GROUP, consumerName),
+                Range.closed(id.getValue(), id.getValue()), 1L);
+        if (pending == null || pending.isEmpty()) {
+            return 1;
+        }
+        return pending.get(0).getTotalDeliveryCount();
+    }
+
+    /**
+     * 다른 소비자에게 전달된 채 확인되지 않은 메시지를 이 소비자로 가져옴 (XPENDING → XCLAIM)
+     * 살아 있는 노드가 처리 중일 수 있으므로 저장 주기의 두 배 이상 멈춰 있던 메시지만 가져온다.
+     */
+    private void claimPending(String key) {
+        StreamOperations<String, String, ChatMessage> ops = redis.opsForStream();
+        PendingMessages pending = ops.pending(key, GROUP, Range.unbounded(), CLAIM_PAGE);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        List<RecordId> others = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (!consumerName.equals(message.getConsumerName())) {
+                others.add(message.getId());
+            }
+        }
+        if (others.isEmpty()) {
+            return;
+        }
+        List<MapRecord<String, String, ChatMessage>> claimed = ops.claim(key, GROUP, consumerName,
+                Duration.ofMillis(flushIntervalMs * 2), others.toArray(new RecordId[0]));
+        log.info("다른 소비자의 미확인 채팅 메시지 가져옴: stream={}, 대상 {}건, 가져옴 {}건",
+                key, others.size(), claimed == null ? 0 : claimed.size());
+    }
+
+    private long pendingCount(String key) {
+        PendingMessagesSummary summary = redis.opsForStream().pending(key, GROUP);
+        return summary == null ? 0 : summary.getTotalPendingMessages();
+    }
+
+    // 커넥션을 얻지 못하거나 끊긴 경우 (행 자체의 문제가 아님)
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("채팅 메시지 저장 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 저장된 메시지를 스트림에서 제거: 미확인 메시지 중 가장 오래된 것(없으면 방금 읽은 마지막 다음)보다 앞쪽을 자른다
+     * (~ 근사 트림이라 Redis 내부 노드 단위로 잘리며, 최근 수십 건은 남을 수 있다)
+     */
+    private void trimSaved(StreamOperations<String, String, ChatMessage> ops, String key, RecordId lastRead) {
+        RecordId minId = RecordId.of(lastRead.getTimestamp(), lastRead.getSequence() + 1);
+        PendingMessagesSummary pending = ops.pending(key, GROUP);
+        if (pending != null && pending.getTotalPendingMessages() > 0 && pending.minMessageId() != null) {
+            RecordId oldestPending = RecordId.of(pending.minMessageId());
+            if (compare(oldestPending, minId) < 0) {
+                minId = oldestPending;
+            }
+        }
+        byte[] minIdBytes = minId.getValue().getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> connection.execute("XTRIM",
+                key.getBytes(StandardCharsets.UTF_8), MINID, APPROXIMATE, minIdBytes));
+    }
+
+    private static int compare(RecordId a, RecordId b) {
+        int cmp = Long.compare(a.getTimestamp(), b.getTimestamp());
+        return cmp != 0 ? cmp : Long.compare(a.getSequence(), b.getSequence());
+    }
+
+    private void ensureGroup(String key) {
+        try {
+            redis.opsForStream().createGroup(key, ReadOffset.from("0"), GROUP);
+        } catch (DataAccessException e) {
+            if (!causeMessage(e).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        if (streams.add(key)) {
+            stringRedisTemplate.opsForSet().add(STREAMS_KEY, key);
+        }
+    }
+
+    static String streamKey(Long contractId) {
+        return STREAM_PREFIX + contractId;
+    }
+
+    private static String causeMessage(Exception e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null ? message : "";
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "chat-writer";
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.common.config.redis.ChatMessageRedisSerializer;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Redis 장애/지연 시 채팅 메시지를 받아 두는 노드 로컬 WAL (메모리 매핑 추가 전용 파일)
+ *
+ * - Redis 저장이 실패하거나 latency-budget-ms 를 넘기면 WAL 모드로 바뀌고, cooldown-ms 동안 새 메시지는 WAL 에만 기록한다.
+ *   (순서를 지키기 위해 WAL 에 재전송할 메시지가 남아 있는 동안에도 계속 WAL 에 쓴다)
+ * - 재전송 스레드가 기록 순서대로 방 스트림(ChatStreamWriteBehind)에 다시 넣고, 이후 저장은 기존 write-behind 가 맡는다.
+ * - 세그먼트 파일 구조: [헤더 16byte: 매직, 버전, 재전송 완료 위치][레코드...]
+ *   레코드: [길이 int][CRC32 int][ChatMessage 바이너리]. 길이를 마지막에 써서 쓰다 만 레코드는 길이 0 으로 남는다.
+ * - 재전송 위치는 헤더에 기록하므로 재기동 후 이어서 보낸다. Redis 추가와 위치 기록 사이에 죽으면 중복 행이 생길 수 있다.
+ * - 매핑된 페이지는 OS 가 디스크로 내리므로 프로세스가 죽어도 남지만, 서버 전원 장애까지 보장하지는 않는다.
+ */
+@Slf4j
+@Component
+public class ChatWriteAheadLog {
+
+    static final String FILE_PREFIX = "chat-wal-";
+    static final String FILE_SUFFIX = ".log";
+    private static final int MAGIC = 0x4357414C; // "CWAL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int REPLAY_POS_OFFSET = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int REPLAY_BATCH = 100;
+
+    private final ChatStreamWriteBehind chatStreamWriteBehind;
+    private final Path dir;
+    private final int segmentBytes;
+    private final long latencyBudgetNanos;
+    private final long cooldownMs;
+    private final long replayIntervalMs;
+    private final ChatMessageRedisSerializer codec = new ChatMessageRedisSerializer(true);
+
+    // 세그먼트 목록과 쓰기 위치 보호 (오래된 것 → 최신, 마지막이 쓰기 대상)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    // 재전송은 한 번에 하나만
+    private final ReentrantLock replayLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean active;
+    private volatile long retryAt;
+    private long nextSeq = 1;
+
+    public ChatWriteAheadLog(ChatStreamWriteBehind chatStreamWriteBehind,
+                             @Value("${app.chat.wal.dir:./upload/chat-wal}") String dir,
+                             @Value("${app.chat.wal.segment-bytes:8388608}") int segmentBytes,
+                             @Value("${app.chat.wal.latency-budget-ms:200}") long latencyBudgetMs,
+                             @Value("${app.chat.wal.cooldown-ms:5000}") long cooldownMs,
+                             @Value("${app.chat.wal.replay-interval-ms:1000}") long replayIntervalMs) {
+        this.chatStreamWriteBehind = chatStreamWriteBehind;
+        this.dir = Paths.get(dir);
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, latencyBudgetMs));
+        this.cooldownMs = Math.max(0, cooldownMs);
+        this.replayIntervalMs = Math.max(10, replayIntervalMs);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-wal-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        lock.lock();
+        try {
+            long pending = 0;
+            for (Path file : files) {
+                Segment segment = Segment.load(file);
+                if (segment == null) {
+                    log.error("채팅 WAL 세그먼트 헤더가 올바르지 않아 건너뜀: {}", file.toAbsolutePath());
+                    continue;
+                }
+                nextSeq = Math.max(nextSeq, segment.seq + 1);
+                if (segment.replayPos >= segment.writePos) {
+                    segment.delete();
+                    continue;
+                }
+                pending += segment.writePos - segment.replayPos;
+                segments.addLast(segment);
+            }
+            if (!segments.isEmpty()) {
+                active = true;
+                log.warn("채팅 WAL 에 재전송할 메시지가 남아 있음: {} 바이트 ({} 세그먼트)", pending, segments.size());
+            }
+        } finally {
+            lock.unlock();
+        }
+        scheduler.scheduleWithFixedDelay(this::replaySafely, replayIntervalMs, replayIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("채팅 WAL 준비: {} (latencyBudgetMs={}, cooldownMs={})",
+                dir.toAbsolutePath(), TimeUnit.NANOSECONDS.toMillis(latencyBudgetNanos), cooldownMs);
+    }
+
+    @PreDestroy
+    void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(replayIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segments.forEach(segment -> segment.buf.force());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * WAL 모드면 WAL 에 기록하고 true, 아니면 false (호출자가 Redis 에 저장)
+     */
+    public boolean appendIfActive(ChatMessage msg) {
+        if (!active) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (!active) {
+                return false;
+            }
+            write(msg);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Redis 저장 실패: WAL 모드로 바꾸고 기록
+     */
+    public void append(ChatMessage msg) {
+        lock.lock();
+        try {
+            activate();
+            write(msg);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Redis 저장에 걸린 시간 확인, 예산을 넘기면 cooldown 동안 WAL 로 돌린다
+     */
+    public void onRedisLatency(long elapsedNanos) {
+        if (elapsedNanos > latencyBudgetNanos) {
+            log.warn("채팅 Redis 저장 지연 {}ms, {}ms 동안 로컬 WAL 사용",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), cooldownMs);
+            activate();
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * WAL 에 남은 메시지를 기록 순서대로 방 스트림에 다시 넣는다. 모두 보냈으면 true
+     */
+    public boolean replay() {
+        replayLock.lock();
+        try {
+            while (true) {
+                Segment segment;
+                List<ChatMessage> batch = new ArrayList<>(REPLAY_BATCH);
+                List<Integer> ends = new ArrayList<>(REPLAY_BATCH);
+                lock.lock();
+                try {
+                    segment = segments.peekFirst();
+                    if (segment == null) {
+                        deactivateIfCooledDown();
+                        return true;
+                    }
+                    if (segment.replayPos >= segment.writePos) {
+                        if (segment != segments.peekLast()) {
+                            segments.pollFirst();
+                            segment.delete();
+                            continue;
+                        }
+                        deactivateIfCooledDown();
+                        return true;
+                    }
+                    int pos = segment.replayPos;
+                    while (pos < segment.writePos && batch.size() < REPLAY_BATCH) {
+                        int length = segment.buf.getInt(pos);
+                        byte[] payload = new byte[length];
+                        segment.buf.get(pos + RECORD_HEADER_BYTES, payload);
+                        pos += RECORD_HEADER_BYTES + length;
+                        batch.add(codec.deserialize(payload));
+                        ends.add(pos);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                int sent = 0;
+                try {
+                    for (ChatMessage msg : batch) {
+                        chatStreamWriteBehind.append(msg);
+                        sent++;
+                    }
+                } catch (RuntimeException e) {
+                    if (sent > 0) {
+                        markReplayed(segment, ends.get(sent - 1));
+                    }
+                    retryAt = System.currentTimeMillis() + cooldownMs;
+                    log.warn("채팅 WAL 재전송 실패, {}ms 후 재시도: {}", cooldownMs, e.getMessage());
+                    return false;
+                }
+                markReplayed(segment, ends.get(ends.size() - 1));
+                log.info("채팅 WAL 메시지 {}건 재전송", sent);
+            }
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private void replaySafely() {
+        try {
+            if (active && System.currentTimeMillis() >= retryAt) {
+                replay();
+            }
+        } catch (Exception e) {
+            log.error("채팅 WAL 재전송 중 오류", e);
+        }
+    }
+
+    // lock 보유 상태에서 호출
+    private void activate() {
+        retryAt = System.currentTimeMillis() + cooldownMs;
+        active = true;
+    }
+
+    // lock 보유 상태에서 호출: 다 보냈고 cooldown 이 지났으면 Redis 로 복귀하고 세그먼트 정리
+    private void deactivateIfCooledDown() {
+        if (!active || System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        while (!segments.isEmpty()) {
+            segments.pollFirst().delete();
+        }
+        active = false;
+        log.info("채팅 WAL 재전송 완료, Redis 저장으로 복귀");
+    }
+
+    private void markReplayed(Segment segment, int pos) {
+        lock.lock();
+        try {
+            segment.replayPos = pos;
+            segment.buf.putInt(REPLAY_POS_OFFSET, pos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 보유 상태에서 호출
+    private void write(ChatMessage msg) {
+        byte[] payload = codec.serialize(msg);
+        int needed = RECORD_HEADER_BYTES + payload.length;
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.writePos + needed > segment.buf.capacity()) {
+            segment = roll(needed);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int pos = segment.writePos;
+        segment.buf.putInt(pos + 4, (int) crc.getValue());
+        segment.buf.put(pos + RECORD_HEADER_BYTES, payload);
+        // 길이를 마지막에 기록해야 재기동 시 온전한 레코드만 읽힌다
+        segment.buf.putInt(pos, payload.length);
+        segment.writePos = pos + needed;
+    }
+
+    private Segment roll(int needed) {
+        Path file = dir.resolve(String.format("%s%020d%s", FILE_PREFIX, nextSeq, FILE_SUFFIX));
+        try {
+            Segment segment = Segment.create(file, nextSeq, Math.max(segmentBytes, HEADER_BYTES + needed));
+            nextSeq++;
+            segments.addLast(segment);
+            log.info("채팅 WAL 세그먼트 생성: {}", file.toAbsolutePath());
+            return segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("채팅 WAL 세그먼트 생성 실패: " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 메모리 매핑된 세그먼트 파일 하나
+     */
+    private static final class Segment {
+        private final long seq;
+        private final Path path;
+        private final MappedByteBuffer buf;
+        private int writePos;
+        private int replayPos;
+
+        private Segment(long seq, Path path, MappedByteBuffer buf) {
+            this.seq = seq;
+            this.path = path;
+            this.buf = buf;
+        }
+
+        static Segment create(Path path, long seq, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(seq, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                segment.buf.putInt(0, MAGIC);
+                segment.buf.putInt(4, VERSION);
+                segment.buf.putInt(REPLAY_POS_OFFSET, HEADER_BYTES);
+                segment.writePos = HEADER_BYTES;
+                segment.replayPos = HEADER_BYTES;
+                return segment;
+            }
+        }
+
+        // 기존 파일을 열어 쓰기/재전송 위치 복구, 헤더가 맞지 않으면 null
+        static Segment load(Path path) throws IOException {
+            String name = path.getFileName().toString();
+            long seq;
+            try {
+                seq = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                    return null;
+                }
+                Segment segment = new Segment(seq, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+                if (segment.buf.getInt(0) != MAGIC || segment.buf.getInt(4) != VERSION) {
+                    return null;
+                }
+                segment.writePos = segment.scan();
+                segment.replayPos = Math.max(HEADER_BYTES, Math.min(segment.buf.getInt(REPLAY_POS_OFFSET), segment.writePos));
+                return segment;
+            }
+        }
+
+        // CRC 가 맞는 레코드가 끝나는 위치 (그 뒤는 쓰다 만 레코드이므로 지운다)
+        private int scan() {
+            int pos = HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            while (pos + RECORD_HEADER_BYTES <= buf.capacity()) {
+                int length = buf.getInt(pos);
+                if (length <= 0 || length > buf.capacity() - pos - RECORD_HEADER_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buf.get(pos + RECORD_HEADER_BYTES, payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != buf.getInt(pos + 4)) {
+                    break;
+                }
+                pos += RECORD_HEADER_BYTES + length;
+            }
+            if (pos + 4 <= buf.capacity()) {
+                buf.putInt(pos, 0);
+            }
+            return pos;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("채팅 WAL 세그먼트 삭제 실패: {} ({})", path.toAbsolutePath(), e.getMessage());
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import kr.or.kosa.visang.domain.contract.model.Contract;
 import kr.or.kosa.visang.domain.contract.model.ContractDetail;
 import kr.or.kosa.visang.domain.contract.model.EndContractMessage;
 import kr.or.kosa.visang.domain.contract.service.ContractService;
+import kr.or.kosa.visang.domain.contract.service.ContractSessionService;
+import kr.or.kosa.visang.common.websocket.RoomEventLog;
 import kr.or.kosa.visang.common.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +25,8 @@ public class ConsultationController {
     
     private final ContractService contractService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ContractSessionService contractSessionService;
+    private final RoomEventLog roomEventLog;
     
     /**
      * 상담방 생성 또는 참여
@@ -102,13 +106,13 @@ public class ConsultationController {
                     endMessage.setContractId(contractId);
                     endMessage.setRedirectUrl("/");
                     
-                    // 전역 상담 종료 토픽으로 메시지 전송 (모든 사용자에게)
-                    messagingTemplate.convertAndSend("/topic/endConsult", endMessage);
-                    
-                    // 특정 세션 ID가 있는 경우 해당 방에도 메시지 전송
+                    // 세션 ID가 있으면 해당 방에만 전송하고, 없을 때만 전역 토픽으로 전송 (레거시 호환)
                     if (sessionId != null && !sessionId.trim().isEmpty()) {
+                        endMessage.setSessionId(sessionId);
                         messagingTemplate.convertAndSend("/topic/room/" + sessionId + "/endConsult", endMessage);
                         log.info("세션별 상담 종료 메시지 전송 완료 - 세션 ID: {}", sessionId);
+                    } else {
+                        messagingTemplate.convertAndSend("/topic/endConsult", endMessage);
                     }
                     
                     log.info("상담 종료 WebSocket 메시지 전송 완료 - 계약 ID: {}", contractId);
@@ -117,6 +121,12 @@ public class ConsultationController {
                     // WebSocket 전송 실패해도 상담 종료는 성공으로 처리
                 }
                 
+                // 종료 알림을 보낸 뒤 방 동기화 상태 / 이벤트 로그 정리
+                if (sessionId != null && !sessionId.trim().isEmpty()) {
+                    contractSessionService.removeSessionData(sessionId);
+                    roomEventLog.remove(sessionId);
+                }
+                
                 response.put("success", true);
                 response.put("message", "상담이 성공적으로 종료되었습니다.");
                 response.put("contractId", contractId);
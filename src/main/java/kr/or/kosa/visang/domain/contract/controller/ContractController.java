@@ -1,11 +1,14 @@
 package kr.or.kosa.visang.domain.contract.controller;
 
+import kr.or.kosa.visang.common.file.PdfResponses;
+import kr.or.kosa.visang.common.websocket.RoomPresenceRegistry;
 import kr.or.kosa.visang.domain.contract.model.Contract;
 import kr.or.kosa.visang.domain.contract.model.VoiceRecord;
 import kr.or.kosa.visang.domain.contract.service.ContractService;
 import kr.or.kosa.visang.domain.contract.service.VoiceRecordService;
 import kr.or.kosa.visang.domain.contractTemplate.model.ContractTemplate;
 import kr.or.kosa.visang.domain.contractTemplate.service.ContractTemplateService;
+import kr.or.kosa.visang.domain.pdf.model.PdfFile;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
@@ -15,6 +18,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -42,6 +46,9 @@ public class ContractController {
     @Autowired
     private ContractTemplateService contractTemplateService;
     
+    @Autowired
+    private RoomPresenceRegistry roomPresenceRegistry;
+    
     // 템플릿 파일 업로드 경로 (application.properties에서 설정 가능)
     @Value("${contract.template.upload.dir:#{null}}")
     private String templateUploadDir;
@@ -143,7 +150,7 @@ public class ContractController {
      * 계약 ID를 통해 연결된 템플릿의 PDF 파일을 직접 제공
      */
     @GetMapping("/contract/{contractId}/template-pdf")
-    public ResponseEntity<?> getContractTemplatePdfDirectly(@PathVariable Long contractId) {
+    public ResponseEntity<?> getContractTemplatePdfDirectly(@PathVariable Long contractId, WebRequest webRequest) {
         try {
             log.info("계약 템플릿 PDF 직접 요청: contractId={}", contractId);
             
@@ -161,13 +168,16 @@ public class ContractController {
                 return createDefaultPdfResponse("이 계약에는 연결된 템플릿이 없습니다. 기본 템플릿을 제공합니다.");
             }
             
-            // 템플릿 PDF 데이터 가져오기 시도
+            // 템플릿 PDF 데이터 가져오기 시도 (저장된 해시와 같으면 파일 검증 없이 304)
             try {
-                Resource pdfResource = contractTemplateService.getTemplateResource(templateId);
-                return ResponseEntity.ok()
+                if (PdfResponses.isNotModified(webRequest, contractTemplateService.getTemplateHash(templateId))) {
+                    return PdfResponses.notModified();
+                }
+                PdfFile template = contractTemplateService.getVerifiedTemplate(templateId);
+                return PdfResponses.ok(template.getFileHash())
                         .contentType(MediaType.APPLICATION_PDF)
                         .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"template_" + templateId + ".pdf\"")
-                        .body(pdfResource);
+                        .body(template.getResource());
             } catch (Exception e) {
                 log.warn("템플릿 PDF 리소스 가져오기 실패, 기본 PDF 생성: {}", e.getMessage());
                 return createDefaultPdfResponse("템플릿 PDF를 가져오는 데 실패했습니다. 기본 템플릿을 제공합니다.");
@@ -253,11 +263,9 @@ public class ContractController {
         try {
             log.info("세션 참가자 상태 조회 요청: sessionId={}", sessionId);
             
-            // 여기서는 양쪽 참가자가 입장했는지 확인하는 로직이 필요
-            // 실제 구현에서는 WebSocket 세션 관리나 데이터베이스를 통해 확인해야 함
-            // 테스트를 위해 임시로 항상 true 반환
-            boolean agentJoined = true;
-            boolean clientJoined = true;
+            // WebSocket 연결 기준 역할별 참여 세션 수로 확인
+            boolean agentJoined = roomPresenceRegistry.count(sessionId, RoomPresenceRegistry.ROLE_AGENT) > 0;
+            boolean clientJoined = roomPresenceRegistry.count(sessionId, RoomPresenceRegistry.ROLE_CLIENT) > 0;
             
             response.put("success", true);
             response.put("sessionId", sessionId);
@@ -1,19 +1,36 @@
 package kr.or.kosa.visang.domain.contract.controller;
 
+import kr.or.kosa.visang.common.websocket.RoomEventLog;
+import kr.or.kosa.visang.common.websocket.RoomMessageRouter;
+import kr.or.kosa.visang.common.websocket.RoomResumeMessage;
 import kr.or.kosa.visang.domain.contract.model.EndContractMessage;
 import kr.or.kosa.visang.domain.contract.model.UserJoinMessage;
 import kr.or.kosa.visang.domain.contract.model.*;
 import kr.or.kosa.visang.domain.contract.service.ContractService;
+import kr.or.kosa.visang.domain.contract.service.ContractSessionService;
+import kr.or.kosa.visang.domain.contract.service.DrawStrokeCoalescer;
+import kr.or.kosa.visang.domain.contract.service.LastValueSyncCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * PDF 동기화 STOMP 컨트롤러
+ * - /app/room/{roomId}/... : 방 단위 메시지 (해당 방 참여자에게만 전송)
+ * - /app/sync/...          : 레거시 호환용. 방을 확인할 수 있으면 방 토픽으로, 아니면 전역 토픽으로 전송
+ * - PDF/페이지/주석 메시지는 ContractSessionService 에 기록되어 /app/room/{roomId}/snapshot 구독 시 한 번에 전달
+ * - 재연결 시 /app/room/{roomId}/resume 구독으로 마지막 순번(room-seq) 이후 이벤트만 다시 받는다
+ */
 @Controller
 public class PdfSyncController {
     
@@ -22,23 +39,45 @@ public class PdfSyncController {
     @Autowired
     private ContractService contractService;
 
+    @Autowired
+    private RoomMessageRouter roomMessageRouter;
+
+    @Autowired
+    private DrawStrokeCoalescer drawStrokeCoalescer;
+
+    @Autowired
+    private LastValueSyncCoalescer lastValueSyncCoalescer;
+
+    @Autowired
+    private ContractSessionService contractSessionService;
+
+    @Autowired
+    private RoomEventLog roomEventLog;
+
     @MessageMapping("/sync/page")
-    @SendTo("/topic/page")
-    public PdfPageMessage syncPage(PdfPageMessage message) {
+    public void syncPage(PdfPageMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("페이지 동기화 메시지 수신: 페이지 {}", message.getPageNumber());
-        return message;
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            contractSessionService.recordPage(roomId, message.getPageNumber());
+            lastValueSyncCoalescer.submit(roomId, "page", headerAccessor.getSessionId(), message);
+            return;
+        }
+        roomMessageRouter.route(null, null, "page", message, "/topic/page");
     }
 
     @MessageMapping("/sync/pdf")
-    @SendTo("/topic/pdfPath")
-    public PdfPathMessage syncPdfPath(PdfPathMessage message) {
+    public void syncPdfPath(PdfPathMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("PDF 경로 동기화 메시지 수신: {}", message.getUrl());
-        return message;
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            contractSessionService.recordPdf(roomId, message.getUrl());
+        }
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "pdfPath", message, "/topic/pdfPath");
     }
 
     @MessageMapping("/sync/draw")
-    @SendTo("/topic/draw")
-    public DrawMessage syncDraw(DrawMessage message) {
+    public void syncDraw(DrawMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("드로잉 동기화 메시지 수신: 타입={}, 세션={}", message.getType(), message.getSessionId());
         
         // 페이지 필드 동기화 (page 필드를 pageNumber로 매핑)
@@ -46,33 +85,51 @@ public class PdfSyncController {
             message.setPageNumber(message.getPage());
         }
         
-        return message;
+        // 방을 알 수 있으면 이동 이벤트를 묶어서 전송
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            drawStrokeCoalescer.append(roomId, message);
+            return;
+        }
+        roomMessageRouter.route(null, null, "draw", message, "/topic/draw");
     }
 
     @MessageMapping("/sync/scroll")
-    @SendTo("/topic/scroll")
-    public PdfScrollMessage syncScroll(PdfScrollMessage message) {
-        logger.info("스크롤 동기화 메시지 수신: 페이지 {}", message.getPageNumber());
-        return message;
+    public void syncScroll(PdfScrollMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        logger.debug("스크롤 동기화 메시지 수신: 페이지 {}", message.getPageNumber());
+        // 방을 알 수 있으면 최신 값만 남겨 전송
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            lastValueSyncCoalescer.submit(roomId, "scroll", headerAccessor.getSessionId(), message);
+            return;
+        }
+        roomMessageRouter.route(null, null, "scroll", message, "/topic/scroll");
     }
 
     @MessageMapping("/sync/stamp")
-    @SendTo("/topic/stamp")
-    public StampMessage syncStamp(StampMessage message) {
+    public void syncStamp(StampMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("도장 동기화 메시지 수신: 페이지 {}", message.getPageNumber());
-        return message;
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            contractSessionService.recordStamp(roomId, message.getPageNumber(),
+                    annotationOf(message.getX(), message.getY(), message.getPageNumber(), message.getImage()));
+        }
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "stamp", message, "/topic/stamp");
     }
 
     @MessageMapping("/sync/signature")
-    @SendTo("/topic/signature")
-    public SignatureMessage syncSignature(SignatureMessage message) {
+    public void syncSignature(SignatureMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("서명 동기화 메시지 수신");
-        return message;
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            contractSessionService.recordSignature(roomId, message.getPageNumber(),
+                    annotationOf(message.getX(), message.getY(), message.getPageNumber(), message.getImage()));
+        }
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "signature", message, "/topic/signature");
     }
 
     @MessageMapping("/sync/text")
-    @SendTo("/topic/text")
-    public TextMessage syncText(TextMessage message) {
+    public void syncText(TextMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("텍스트 동기화 메시지 수신: 텍스트=\"{}\", 세션={}", message.getText(), message.getSessionId());
         
         // 페이지 필드 동기화 (page 필드를 pageNumber로 매핑)
@@ -80,63 +137,73 @@ public class PdfSyncController {
             message.setPageNumber(message.getPage());
         }
         
-        return message;
+        String roomId = roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId());
+        if (roomId != null) {
+            contractSessionService.recordText(roomId, message);
+        }
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "text", message, "/topic/text");
     }
 
     @MessageMapping("/sync/userJoin")
-    @SendTo("/topic/userJoin")
-    public UserJoinMessage syncUserJoin(UserJoinMessage message) {
+    public void syncUserJoin(UserJoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
         logger.info("사용자 입장 메시지 수신: 타입={}, 세션={}", message.getUserType(), message.getSessionId());
-        return message;
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "userJoin", message, "/topic/userJoin");
     }
 
     @MessageMapping("/sync/endConsult")
-    @SendTo("/topic/endConsult")
-    public EndContractMessage syncEndConsult(EndContractMessage message) {
+    public void syncEndConsult(EndContractMessage message, SimpMessageHeaderAccessor headerAccessor) {
         // 상담 종료는 ConsultationController에서 이미 처리되므로 여기서는 상태 업데이트 하지 않음
         logger.info("상담 종료 WebSocket 메시지 처리: 계약 ID={}", message.getContractId());
         
         // 클라이언트에게 메인 페이지로 리다이렉션하라는 메시지를 보냄
         message.setRedirectUrl("/");
-        return message;
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "endConsult", message, "/topic/endConsult");
+        clearRoom(roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId()));
     }
 
     @MessageMapping("/sync/consultComplete")
-    @SendTo("/topic/consultComplete")
-    public EndContractMessage syncConsultComplete(EndContractMessage message) {
+    public void syncConsultComplete(EndContractMessage message, SimpMessageHeaderAccessor headerAccessor) {
         // 상담 완료는 ConsultationController에서 이미 처리되므로 여기서는 상태 업데이트 하지 않음
         logger.info("상담 완료 WebSocket 메시지 처리: 계약 ID={}", message.getContractId());
         
         // 클라이언트에게 메인 페이지로 리다이렉션하라는 메시지를 보냄
         message.setRedirectUrl("/");
-        return message;
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "consultComplete", message, "/topic/consultComplete");
+        clearRoom(roomMessageRouter.resolveRoom(message.getSessionId(), headerAccessor.getSessionId()));
     }
     
     // PDF 요청 메시지 처리
     @MessageMapping("/sync/requestPdf")
-    @SendTo("/topic/requestPdf")
-    public RequestPdfMessage syncRequestPdf(RequestPdfMessage message) {
-        return message;
+    public void syncRequestPdf(RequestPdfMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "requestPdf", message, "/topic/requestPdf");
     }
     
     // 현재 페이지 정보 요청 처리
     @MessageMapping("/sync/requestCurrentPage")
-    @SendTo("/topic/requestCurrentPage")
-    public RequestPageMessage syncRequestCurrentPage(RequestPageMessage message) {
-        return message;
+    public void syncRequestCurrentPage(RequestPageMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        roomMessageRouter.route(message.getSessionId(), headerAccessor.getSessionId(), "requestCurrentPage", message, "/topic/requestCurrentPage");
     }
 
+    // 이동 이벤트는 DrawStrokeCoalescer 가 묶어서 /topic/room/{roomId}/draw 로 전송
     @MessageMapping("/room/{roomId}/draw")
-    @SendTo("/topic/room/{roomId}/draw")
-    public DrawMessage roomDraw(DrawMessage message) {
-        logger.info("방 단위 드로잉 메시지 수신: 세션={}", message.getSessionId());
-        return message;
+    public void roomDraw(@DestinationVariable String roomId, DrawMessage message) {
+        logger.debug("방 단위 드로잉 메시지 수신: 세션={}", message.getSessionId());
+        drawStrokeCoalescer.append(roomId, message);
+    }
+    
+    // 클라이언트에서 묶어 보낸 스트로크 처리
+    @MessageMapping("/room/{roomId}/draw/batch")
+    public void roomDrawBatch(@DestinationVariable String roomId, StrokeBatchMessage message) {
+        logger.debug("방 단위 드로잉 묶음 수신: 세션={}, 좌표 수={}",
+                roomId, message.getPoints() != null ? message.getPoints().length / 2 : 0);
+        drawStrokeCoalescer.append(roomId, message);
     }
     
     @MessageMapping("/room/{roomId}/text")
     @SendTo("/topic/room/{roomId}/text")
-    public TextMessage roomText(TextMessage message) {
+    public TextMessage roomText(@DestinationVariable String roomId, TextMessage message) {
         logger.info("방 단위 텍스트 메시지 수신: 세션={}", message.getSessionId());
+        contractSessionService.recordText(roomId, message);
         return message;
     }
     
@@ -146,6 +213,7 @@ public class PdfSyncController {
     public Map<String, Object> roomStamp(@DestinationVariable String roomId, Map<String, Object> stampData) {
         logger.info("방 단위 도장 메시지 수신: 세션={}, 페이지={}", 
                 roomId, stampData.get("page"));
+        contractSessionService.recordStamp(roomId, pageOf(stampData), stampData);
         return stampData;
     }
     
@@ -155,9 +223,90 @@ public class PdfSyncController {
     public Map<String, Object> roomSignature(@DestinationVariable String roomId, Map<String, Object> signatureData) {
         logger.info("방 단위 서명 메시지 수신: 세션={}, 페이지={}", 
                 roomId, signatureData.get("page"));
+        contractSessionService.recordSignature(roomId, pageOf(signatureData), signatureData);
         return signatureData;
     }
     
+    // 특정 방 페이지 동기화 메시지 처리 (발신자별 최신 값만 전송)
+    @MessageMapping("/room/{roomId}/page")
+    public void roomPage(@DestinationVariable String roomId, Map<String, Object> pageData,
+                         SimpMessageHeaderAccessor headerAccessor) {
+        logger.debug("방 단위 페이지 메시지 수신: 세션={}, 페이지={}", roomId, pageData.get("page"));
+        contractSessionService.recordPage(roomId, pageOf(pageData));
+        lastValueSyncCoalescer.submit(roomId, "page", headerAccessor.getSessionId(), pageData);
+    }
+    
+    // 특정 방 스크롤 동기화 메시지 처리 (발신자별 최신 값만 전송)
+    @MessageMapping("/room/{roomId}/scroll")
+    public void roomScroll(@DestinationVariable String roomId, Map<String, Object> scrollData,
+                           SimpMessageHeaderAccessor headerAccessor) {
+        logger.debug("방 단위 스크롤 메시지 수신: 세션={}", roomId);
+        lastValueSyncCoalescer.submit(roomId, "scroll", headerAccessor.getSessionId(), scrollData);
+    }
+    
+    // 특정 방 PDF 변경 메시지 처리
+    @MessageMapping("/room/{roomId}/pdf")
+    @SendTo("/topic/room/{roomId}/pdf")
+    public Map<String, Object> roomPdf(@DestinationVariable String roomId, Map<String, Object> pdfData) {
+        logger.info("방 단위 PDF 메시지 수신: 세션={}, URL={}", roomId, pdfData.get("pdfUrl"));
+        Object pdfUrl = pdfData.get("pdfUrl");
+        if (pdfUrl != null) {
+            contractSessionService.recordPdf(roomId, pdfUrl.toString());
+        }
+        return pdfData;
+    }
+    
+    // 특정 방 사용자 입장 메시지 처리
+    @MessageMapping("/room/{roomId}/userJoin")
+    @SendTo("/topic/room/{roomId}/userJoin")
+    public UserJoinMessage roomUserJoin(@DestinationVariable String roomId, UserJoinMessage message) {
+        logger.info("방 단위 사용자 입장 메시지 수신: 세션={}, 타입={}", roomId, message.getUserType());
+        message.setSessionId(roomId);
+        return message;
+    }
+    
+    // 특정 방 상담 종료 메시지 처리
+    // 반환값(@SendTo)으로 보내면 방을 정리한 뒤 전송되어 새 이벤트 로그가 열리므로, 먼저 보내고 정리한다
+    @MessageMapping("/room/{roomId}/endConsult")
+    public void roomEndConsult(@DestinationVariable String roomId, EndContractMessage message) {
+        logger.info("방 단위 상담 종료 메시지 처리: 세션={}, 계약 ID={}", roomId, message.getContractId());
+        message.setSessionId(roomId);
+        if (message.getRedirectUrl() == null) {
+            message.setRedirectUrl("/");
+        }
+        roomMessageRouter.route(roomId, null, "endConsult", message, "/topic/endConsult");
+        clearRoom(roomId);
+    }
+    
+    // 특정 방 상담 완료 메시지 처리
+    // 반환값(@SendTo)으로 보내면 방을 정리한 뒤 전송되어 새 이벤트 로그가 열리므로, 먼저 보내고 정리한다
+    @MessageMapping("/room/{roomId}/consultComplete")
+    public void roomConsultComplete(@DestinationVariable String roomId, EndContractMessage message) {
+        logger.info("방 단위 상담 완료 메시지 처리: 세션={}, 계약 ID={}", roomId, message.getContractId());
+        message.setSessionId(roomId);
+        if (message.getRedirectUrl() == null) {
+            message.setRedirectUrl("/");
+        }
+        roomMessageRouter.route(roomId, null, "consultComplete", message, "/topic/consultComplete");
+        clearRoom(roomId);
+    }
+    
+    // 특정 방 PDF 요청 메시지 처리
+    @MessageMapping("/room/{roomId}/requestPdf")
+    @SendTo("/topic/room/{roomId}/requestPdf")
+    public RequestPdfMessage roomRequestPdf(@DestinationVariable String roomId, RequestPdfMessage message) {
+        message.setSessionId(roomId);
+        return message;
+    }
+    
+    // 특정 방 현재 페이지 요청 메시지 처리
+    @MessageMapping("/room/{roomId}/requestCurrentPage")
+    @SendTo("/topic/room/{roomId}/requestCurrentPage")
+    public RequestPageMessage roomRequestCurrentPage(@DestinationVariable String roomId, RequestPageMessage message) {
+        message.setSessionId(roomId);
+        return message;
+    }
+    
     // 특정 방 입장 메시지 처리 (PDF 동기화 전용)
     @MessageMapping("/room/{roomId}/pdf/join")
     @SendTo("/topic/room/{roomId}/pdf/join")
@@ -167,7 +316,30 @@ public class PdfSyncController {
         return joinData;
     }
     
-    // 특정 방 동기화 요청 메시지 처리
+    // 입장(재연결) 시 방 상태 스냅샷 - 구독한 세션에만 한 번 응답하고 이후는 방 토픽으로 받는다
+    @SubscribeMapping("/room/{roomId}/snapshot")
+    public RoomSnapshotMessage roomSnapshot(@DestinationVariable String roomId) {
+        // 순번을 먼저 읽어 스냅샷 이후 이벤트가 이어받기 구간에서 빠지지 않도록 한다
+        RoomResumeMessage position = roomEventLog.position(roomId);
+        RoomSnapshotMessage snapshot = contractSessionService.snapshot(roomId);
+        snapshot.setEpoch(position.getEpoch());
+        snapshot.setSeq(position.getSeq());
+        logger.info("방 스냅샷 전송: 세션={}, 페이지 수={}", roomId, snapshot.getPages().size());
+        return snapshot;
+    }
+    
+    // 재연결 이어받기 - last-seq 이후 이벤트만 응답, 이어받을 수 없으면 complete=false
+    @SubscribeMapping("/room/{roomId}/resume")
+    public RoomResumeMessage roomResume(@DestinationVariable String roomId,
+                                        @Header(name = "room-epoch", required = false) String epoch,
+                                        @Header(name = "last-seq", required = false) Long lastSeq) {
+        RoomResumeMessage resume = roomEventLog.resume(roomId, epoch, lastSeq != null ? lastSeq : -1);
+        logger.info("방 이어받기: 세션={}, 요청 순번={}, 현재 순번={}, 이벤트 수={}, 완료={}",
+                roomId, lastSeq, resume.getSeq(), resume.getEvents().size(), resume.isComplete());
+        return resume;
+    }
+    
+    // 특정 방 동기화 요청 메시지 처리 (스냅샷을 지원하지 않는 이전 클라이언트용)
     @MessageMapping("/room/{roomId}/sync")
     @SendTo("/topic/room/{roomId}/sync")
     public Map<String, Object> roomSync(@DestinationVariable String roomId, Map<String, Object> syncData) {
@@ -175,4 +347,39 @@ public class PdfSyncController {
                 roomId, syncData.get("sender"));
         return syncData;
     }
+
+    // 상담 종료/완료 시 방 동기화 상태와 이벤트 로그 정리 (방을 알 수 없으면 유휴 정리에 맡김)
+    private void clearRoom(String roomId) {
+        if (roomId == null) {
+            return;
+        }
+        contractSessionService.removeSessionData(roomId);
+        roomEventLog.remove(roomId);
+    }
+
+    // 레거시 도장/서명 메시지를 방 토픽 메시지와 같은 필드(x, y, page, imageData)로 변환해 스냅샷에 기록
+    private static Map<String, Object> annotationOf(int x, int y, int page, String image) {
+        Map<String, Object> annotation = new LinkedHashMap<>();
+        annotation.put("x", x);
+        annotation.put("y", y);
+        annotation.put("page", page);
+        annotation.put("imageData", image);
+        return annotation;
+    }
+
+    // 클라이언트 메시지의 page 필드 (숫자 또는 문자열)
+    private static int pageOf(Map<String, Object> data) {
+        Object page = data.get("page");
+        if (page instanceof Number number) {
+            return number.intValue();
+        }
+        if (page != null) {
+            try {
+                return Integer.parseInt(page.toString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package kr.or.kosa.visang.domain.contract.controller;
 
+import kr.or.kosa.visang.common.config.security.CustomUserDetails;
 import kr.or.kosa.visang.domain.contract.model.PdfDTO;
+import kr.or.kosa.visang.domain.contract.model.PdfSignJob;
+import kr.or.kosa.visang.domain.contract.service.ContractService;
 import kr.or.kosa.visang.domain.contract.service.PdfService;
+import kr.or.kosa.visang.domain.contract.service.PdfSignJobService;
+import kr.or.kosa.visang.domain.pdf.enums.SignatureRole;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
@@ -15,10 +22,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class PdfUploadController {
@@ -29,6 +38,12 @@ public class PdfUploadController {
     @Autowired
     private PdfService pdfService;
 
+    @Autowired
+    private PdfSignJobService pdfSignJobService;
+
+    @Autowired
+    private ContractService contractService;
+
     @PostMapping("/upload/temp")
     @ResponseBody
     public ResponseEntity<?> handleFileUpload(@RequestParam("file") MultipartFile file,
@@ -50,9 +65,8 @@ public class PdfUploadController {
             // 항상 동일한 서비스 메서드 사용
             pdfDTO = pdfService.uploadPdf(file, contractId);
 
-            // 응답 URL에 타임스탬프 추가
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String fileUrl = "/files/pdf/" + pdfDTO.getFilePath() + "?t=" + timestamp + "&nocache=" + Math.random();
+            // 파일명이 내용 해시이므로 캐시 무효화용 쿼리 없이 그대로 사용 (ETag 재검증 → 304)
+            String fileUrl = "/files/pdf/" + pdfDTO.getFilePath();
 
             System.out.println("PDF 업로드 성공: URL=" + fileUrl);
 
@@ -75,29 +89,97 @@ public class PdfUploadController {
         }
     }
 
+    /**
+     * 최종 PDF 서명 요청: 서명은 PdfSignWorker 가 처리하고 여기서는 작업 ID 만 돌려준다 (202)
+     * 완료 여부는 statusUrl 조회 또는 /topic/room/{sessionId}/pdf/signed 구독으로 확인
+     */
     @PostMapping("/upload/final")
     @ResponseBody
     public ResponseEntity<?> finalFileUpload(@RequestParam("file") MultipartFile file,
-                                             @RequestParam(value = "contractId", required = false) Long contractId) {
+                                             @RequestParam(value = "contractId", required = false) Long contractId,
+                                             @RequestParam(value = "sessionId", required = false) String sessionId) {
         String fileName = StringUtils.cleanPath(file.getOriginalFilename());
         System.out.println("PDF 업로드 요청: 파일명=" + fileName + ", 크기=" + file.getSize() + " bytes");
 
         try {
-            // PDF DTO 생성
-            PdfDTO pdfDTO;
-            
-            // 항상 동일한 서비스 메서드 사용
-            pdfDTO = pdfService.uploadFinalPdf(file, contractId);
-            
-            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN)
-                    .body("업로드 성공: " + pdfDTO.getFilePath() + "?fileId=" + pdfDTO.getPdfId() + "&timestamp=" + System.currentTimeMillis());
-            
+            PdfSignJob job = pdfSignJobService.enqueue(file, contractId, sessionId);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("jobId", job.getJobId());
+            body.put("status", job.getStatus());
+            body.put("statusUrl", "/upload/final/" + job.getJobId());
+            return ResponseEntity.accepted().body(body);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("업로드 실패: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .body("업로드 실패: " + e.getMessage());
         } catch (IOException e) {
             System.err.println("PDF 업로드 실패: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.badRequest().body("업로드 실패: " + e.getMessage());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 서명 작업 상태 조회 (PENDING, RUNNING, DONE, FAILED)
+     * 작업 ID 는 순번이므로 해당 계약의 상담원, 고객, 같은 회사 관리자만 조회할 수 있다.
+     */
+    @GetMapping("/upload/final/{jobId}")
+    @ResponseBody
+    public ResponseEntity<PdfSignJob> finalFileUploadStatus(@AuthenticationPrincipal CustomUserDetails user,
+                                                            @PathVariable Long jobId) {
+        PdfSignJob job = pdfSignJobService.get(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        if (!contractService.canAccess(job.getContractId(), user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(job);
+    }
+
+    /**
+     * 상담원/계약자 개별 서명: 로그인한 본인의 서명 필드를 서명 PDF 에 증분으로 덧붙인다
+     * (상담원 → AgentSignature, 고객 → ClientSignature, 회사 직인은 최종 업로드 때 이미 찍힘)
+     */
+    @PostMapping("/api/pdfs/{pdfId}/sign")
+    @ResponseBody
+    public ResponseEntity<?> signAsParty(@AuthenticationPrincipal CustomUserDetails user,
+                                         @PathVariable Long pdfId) {
+        SignatureRole role = user == null ? null
+                : "AGENT".equals(user.getRole()) ? SignatureRole.AGENT
+                : "USER".equals(user.getRole()) ? SignatureRole.CLIENT
+                : null;
+        if (role == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("상담원 또는 계약자만 서명할 수 있습니다.");
+        }
+        PdfDTO pdf = pdfService.getPdfById(pdfId);
+        if (pdf == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("서명 PDF를 찾을 수 없습니다.");
+        }
+        if (!contractService.canAccess(pdf.getContractId(), user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("해당 계약에 대한 권한이 없습니다.");
+        }
+
+        try {
+            PdfDTO signed = pdfService.signAsParty(pdfId, role);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("pdfId", signed.getPdfId());
+            body.put("role", role.name());
+            body.put("fileHash", signed.getFileHash());
+            body.put("signatureVerified", signed.getSignatureVerified());
+            return ResponseEntity.ok(body);
+        } catch (IllegalStateException | SecurityException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("서명 실패: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("서명 실패: " + e.getMessage());
+        } catch (IOException | GeneralSecurityException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("서명 실패: " + e.getMessage());
         }
     }
 
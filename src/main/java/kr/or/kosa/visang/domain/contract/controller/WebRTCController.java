@@ -1,14 +1,15 @@
 package kr.or.kosa.visang.domain.contract.controller;
 
+import kr.or.kosa.visang.common.websocket.RoomPresenceRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -20,27 +21,30 @@ public class WebRTCController {
     
     private static final Logger logger = LoggerFactory.getLogger(WebRTCController.class);
     
-    // roomId별 참가자를 추적하기 위한 맵
-    private static final Map<String, Integer> roomParticipants = new HashMap<>();
-    
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
+    // 방별 참가자 수 (STOMP 연결/해제 이벤트로 갱신)
+    @Autowired
+    private RoomPresenceRegistry roomPresenceRegistry;
+    
     /**
      * WebRTC 시그널링 메시지 처리
      * 클라이언트에서 보낸 시그널링 메시지를 다른 클라이언트로 전달합니다.
      */
     @MessageMapping("/room/{roomId}/rtc")
-    public void handleWebRTCMessage(@DestinationVariable String roomId, Map<String, Object> message) {
+    public void handleWebRTCMessage(@DestinationVariable String roomId, Map<String, Object> message,
+                                    SimpMessageHeaderAccessor headerAccessor) {
         String type = (String) message.get("type");
         
         if (roomId != null) {
             logger.debug("WebRTC {} 메시지 수신 (룸: {})", type, roomId);
             
-            // join 메시지 처리 - 참가자 카운팅
+            // join 메시지 처리 - 연결 시 등록되지 않은 세션이면 여기서 등록 (이미 등록된 세션은 무시)
             if ("join".equals(type)) {
-                int count = roomParticipants.getOrDefault(roomId, 0) + 1;
-                roomParticipants.put(roomId, count);
+                Object sender = message.get("sender");
+                int count = roomPresenceRegistry.join(roomId, headerAccessor.getSessionId(),
+                        sender != null ? sender.toString() : null);
                 logger.debug("룸 {} 참가자 수: {}", roomId, count);
                 
                 // join 응답에 현재 참가자 수 추가
@@ -48,15 +52,9 @@ public class WebRTCController {
                 message.put("timestamp", System.currentTimeMillis());
             }
             
-            // leave 메시지 처리 - 참가자 카운트 감소
-            if ("leave".equals(type) && roomParticipants.containsKey(roomId)) {
-                int count = Math.max(0, roomParticipants.get(roomId) - 1);
-                if (count > 0) {
-                    roomParticipants.put(roomId, count);
-                } else {
-                    roomParticipants.remove(roomId);
-                }
-                logger.debug("룸 {} 참가자 수 업데이트: {}", roomId, count);
+            // leave 메시지 처리 - 참가자 수는 연결 해제(SessionDisconnectEvent) 시 감소
+            if ("leave".equals(type)) {
+                logger.debug("룸 {} 참가자 수: {}", roomId, roomPresenceRegistry.count(roomId));
             }
             
             // offer/answer/ice 메시지 상세 로깅
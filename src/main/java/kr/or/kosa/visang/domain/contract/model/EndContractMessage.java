@@ -4,6 +4,7 @@ public class EndContractMessage {
     private String message;
     private Long contractId;
     private String redirectUrl;
+    private String sessionId; // 방(세션) ID - 방 단위 라우팅용
 
     public EndContractMessage() {
     }
@@ -40,4 +41,12 @@ public class EndContractMessage {
     public void setRedirectUrl(String redirectUrl) {
         this.redirectUrl = redirectUrl;
     }
-} 
\ No newline at end of file
+    
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+}
@@ -0,0 +1,45 @@
+package kr.or.kosa.visang.domain.contract.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 페이지에 누적된 주석(드로잉 스트로크, 텍스트, 도장, 서명)
+ * 방 스냅샷에 페이지 단위로 담겨 늦게 들어온 참여자에게 전달된다.
+ */
+@Getter
+@Setter
+public class PageAnnotations {
+    private int page;
+    private List<StrokeBatchMessage> strokes = new ArrayList<>();
+    private List<TextMessage> texts = new ArrayList<>();
+    private List<Map<String, Object>> stamps = new ArrayList<>();
+    private List<Map<String, Object>> signatures = new ArrayList<>();
+
+    public PageAnnotations() {
+    }
+
+    public PageAnnotations(int page) {
+        this.page = page;
+    }
+
+    public boolean isEmpty() {
+        return strokes.isEmpty() && texts.isEmpty() && stamps.isEmpty() && signatures.isEmpty();
+    }
+
+    /**
+     * 스냅샷 전송용 복사본 (목록만 복사, 원소는 기록 이후 변경되지 않음)
+     */
+    public PageAnnotations copy() {
+        PageAnnotations copy = new PageAnnotations(page);
+        copy.strokes = new ArrayList<>(strokes);
+        copy.texts = new ArrayList<>(texts);
+        copy.stamps = new ArrayList<>(stamps);
+        copy.signatures = new ArrayList<>(signatures);
+        return copy;
+    }
+}
@@ -11,4 +11,6 @@ public class PdfDTO {
     private String fileHash;      // file_hash
     private Date createdAt;       // created_at
     private Long contractId;      // contract_id
+    private Boolean signatureVerified; // sig_verified (null: 미검증)
+    private Date signatureVerifiedAt;  // sig_verified_at
 } 
\ No newline at end of file
@@ -7,4 +7,5 @@ import lombok.Setter;
 @Setter
 public class PdfPageMessage {
     private int pageNumber;
+    private String sessionId; // 방(세션) ID - 방 단위 라우팅용
 }
@@ -8,4 +8,5 @@ import lombok.Setter;
 public class PdfScrollMessage {
     private int pageNumber;
     private int scrollTop;
+    private String sessionId; // 방(세션) ID - 방 단위 라우팅용
 }
@@ -0,0 +1,44 @@
+package kr.or.kosa.visang.domain.contract.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 최종 PDF 서명 작업 (pdf_sign_job 행)
+ */
+@Data
+public class PdfSignJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private Long jobId;
+    private Long contractId;
+    // 완료 알림을 보낼 상담방 (/topic/room/{roomId}/pdf/signed, 없으면 알림 없음)
+    private String roomId;
+
+    /**
+     * 작업 상태 (PENDING, RUNNING, DONE, FAILED)
+     */
+    private String status;
+
+    private int attempts;
+    private String lastError;
+    // 서명 전 원본 PDF (input_data BLOB, 등록 시에만 채우고 워커는 findInput 으로 따로 읽음)
+    @JsonIgnore
+    @ToString.Exclude
+    private byte[] inputData;
+    private String originalName;
+    // 완료 시 생성된 pdf 행
+    private Long pdfId;
+    private String filePath;
+    private String lockedBy;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
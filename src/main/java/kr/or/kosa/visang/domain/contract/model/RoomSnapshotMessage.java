@@ -0,0 +1,28 @@
+package kr.or.kosa.visang.domain.contract.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 방 상태 스냅샷
+ * 입장(재연결)한 참여자가 /app/room/{roomId}/snapshot 을 구독하면 본인에게만 한 번 전달된다.
+ */
+@Getter
+@Setter
+public class RoomSnapshotMessage {
+    private String type = "room_snapshot";
+    private String sessionId;
+    private String pdfUrl;
+    private int currentPage;
+    private long timestamp;
+
+    // 스냅샷 시점의 방 이벤트 epoch / 순번 (재연결 시 이어받기 기준)
+    private String epoch;
+    private long seq;
+
+    // 주석이 있는 페이지만 페이지 번호 순으로 담는다
+    private List<PageAnnotations> pages = new ArrayList<>();
+}
@@ -10,6 +10,7 @@ public class SignatureMessage {
     private int y;
     private int pageNumber;
     private String image; // base64 string
+    private String sessionId; // 방(세션) ID - 방 단위 라우팅용
     
     // 기본 생성자
     public SignatureMessage() {
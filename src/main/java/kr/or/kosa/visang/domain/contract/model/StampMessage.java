@@ -10,4 +10,5 @@ public class StampMessage {
     private int y;
     private int pageNumber;
     private String image; // base64 string
+    private String sessionId; // 방(세션) ID - 방 단위 라우팅용
 }
@@ -0,0 +1,20 @@
+package kr.or.kosa.visang.domain.contract.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 드로잉 스트로크 묶음 메시지
+ * 연속된 포인터 이동을 하나의 좌표 배열로 묶어 전송한다.
+ */
+@Getter
+@Setter
+public class StrokeBatchMessage {
+    private String type;  // 'pen' 또는 'highlight'
+    private int page;
+    private String sessionId;
+    private String sender;
+
+    // [x0, y0, x1, y1, ...] - 첫 좌표가 시작점, 이후 좌표를 순서대로 잇는다
+    private int[] points;
+}
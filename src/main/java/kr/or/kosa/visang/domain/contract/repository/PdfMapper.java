@@ -4,6 +4,7 @@ import kr.or.kosa.visang.domain.contract.model.ContractSingedDTO;
 import kr.or.kosa.visang.domain.contract.model.PdfDTO;
 import kr.or.kosa.visang.domain.pdf.model.PDF;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
 
@@ -21,6 +22,15 @@ public interface PdfMapper {
     int insertPdf(PdfDTO pdf);
 
     PDF getPathAndHash(Long pdfId);
+
+    // 서명 검증 결과 기록
+    int updateSignatureVerification(@Param("pdfId") Long pdfId, @Param("verified") boolean verified);
+    
+    // 개별 서명 추가 전 행 잠금 (SELECT ... FOR UPDATE)
+    PDF lockPathAndHash(Long pdfId);
+
+    // 서명을 덧붙인 뒤 해시 + 검증 결과 갱신
+    int updateSignedFile(@Param("pdfId") Long pdfId, @Param("fileHash") String fileHash, @Param("verified") boolean verified);
     
     // PDF 정보 업데이트
     int updatePdf(PdfDTO pdf);
@@ -0,0 +1,33 @@
+package kr.or.kosa.visang.domain.contract.repository;
+
+import kr.or.kosa.visang.domain.contract.model.PdfSignJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface PdfSignJobMapper {
+
+    void insertJob(PdfSignJob job);
+
+    PdfSignJob findById(@Param("jobId") Long jobId);
+
+    // 서명 전 원본 PDF (선점한 워커만 읽음, 완료/최종 실패 시 비워짐)
+    byte[] findInput(@Param("jobId") Long jobId);
+
+    // 대기/실행 중인 작업 수 (등록 상한 확인용)
+    int countActive();
+
+    // 실행할 차례가 된 작업 (대기 중이거나, 실행 중인 채로 staleSeconds 넘게 멈춘 작업)
+    List<PdfSignJob> findRunnable(@Param("staleSeconds") long staleSeconds, @Param("limit") int limit);
+
+    // 선점 성공 시 1 (다른 노드가 먼저 가져갔으면 0)
+    int claim(@Param("jobId") Long jobId, @Param("worker") String worker, @Param("staleSeconds") long staleSeconds);
+
+    int markDone(@Param("jobId") Long jobId, @Param("worker") String worker,
+                 @Param("pdfId") Long pdfId, @Param("filePath") String filePath);
+
+    int markRetry(@Param("jobId") Long jobId, @Param("worker") String worker, @Param("status") String status,
+                  @Param("lastError") String lastError, @Param("delaySeconds") long delaySeconds);
+}
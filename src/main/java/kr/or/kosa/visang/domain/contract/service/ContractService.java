@@ -9,6 +9,7 @@ import kr.or.kosa.visang.domain.contract.model.Contract;
 import kr.or.kosa.visang.domain.contract.repository.ContractMapper;
 import kr.or.kosa.visang.domain.page.model.PageRequest;
 import kr.or.kosa.visang.domain.page.model.PageResult;
+import kr.or.kosa.visang.common.config.security.CustomUserDetails;
 import kr.or.kosa.visang.common.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,7 +18,7 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
-import kr.or.kosa.visang.domain.chat.service.ChatService;
+import kr.or.kosa.visang.domain.chat.service.ChatExportJobService;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -35,7 +36,7 @@ public class ContractService {
     private final ContractMapper contractMapper;
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine templateEngine;
-    private final ChatService chatService;
+    private final ChatExportJobService chatExportJobService;
 
     // 모든 계약 조회
     public List<Contract> getAllContracts() {
@@ -456,11 +457,11 @@ public class ContractService {
             System.out.println("계약 ID: " + contractId);
             System.out.println("메모: " + memo);
             
-            // 1. 채팅 기록을 Redis에서 DB로 저장
+            // 1. 채팅 기록 내보내기 작업 등록 (파일 저장은 ChatExportWorker 가 비동기로 처리)
             try {
-                System.out.println("채팅 기록 저장 시작 - 계약 ID: " + contractId);
-                chatService.endAndExport(contractId, "시스템");
-                System.out.println("채팅 기록 저장 완료");
+                System.out.println("채팅 기록 내보내기 작업 등록 - 계약 ID: " + contractId);
+                chatExportJobService.enqueue(contractId, "시스템");
+                System.out.println("채팅 기록 내보내기 작업 등록 완료");
             } catch (Exception chatException) {
                 System.err.println("채팅 기록 저장 실패: " + chatException.getMessage());
                 // 채팅 기록 저장 실패해도 상담 종료는 계속 진행
@@ -664,6 +665,30 @@ public class ContractService {
                 || (contract.getClientId() != null && contract.getClientId().equals(userId));
     }
 
+    /**
+     * 계약 접근 권한 확인: 담당 상담원, 계약 고객, 같은 회사 관리자만 허용
+     */
+    public boolean canAccess(Long contractId, CustomUserDetails user) {
+        if (contractId == null || user == null || user.getRole() == null) {
+            return false;
+        }
+        Contract contract = contractMapper.selectContractById(contractId);
+        if (contract == null) {
+            return false;
+        }
+        switch (user.getRole()) {
+            case "AGENT":
+                return user.getAgentId() != null && user.getAgentId().equals(contract.getAgentId());
+            case "USER":
+                return user.getClientId() != null && user.getClientId().equals(contract.getClientId());
+            case "ADMIN":
+                return user.getCompanyId() != null && contract.getCompanyId() != null
+                        && String.valueOf(user.getCompanyId()).equals(contract.getCompanyId());
+            default:
+                return false;
+        }
+    }
+
     /**
      * 고객의 오늘 계약 조회
      * @param clientId 고객 ID
@@ -1,17 +1,49 @@
 package kr.or.kosa.visang.domain.contract.service;
 
+import kr.or.kosa.visang.domain.contract.model.PageAnnotations;
+import kr.or.kosa.visang.domain.contract.model.RoomSnapshotMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import kr.or.kosa.visang.domain.contract.model.TextMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 계약 세션(방)별 PDF 동기화 상태 저장소
+ * - 방 토픽으로 나간 PDF/페이지/주석 메시지를 페이지 단위로 누적
+ * - 늦게 들어오거나 재연결한 참여자는 상대 브라우저를 거치지 않고 snapshot 한 번으로 상태를 받는다
+ * - 상담 종료 시 removeSessionData 로 지우고, 종료 신호 없이 버려진 방은 RoomEventLog 와 같은 유휴 시간이 지나면 정리한다
+ */
+@Slf4j
 @Service
 public class ContractSessionService {
     
+    // 페이지 번호 상한 (잘못된 값으로 배열이 커지는 것 방지)
+    static final int MAX_PAGES = 1000;
+    
+    // 페이지당 항목 상한 (초과 시 오래된 항목부터 제거)
+    static final int MAX_STROKES_PER_PAGE = 2000;
+    static final int MAX_ITEMS_PER_PAGE = 200;
+    
+    // 방 상태가 이만큼 새로 만들어질 때마다 유휴 방 정리
+    private static final int SWEEP_INTERVAL = 64;
+    
     // 모든 계약 세션 데이터를 저장하는 맵
     // Key: 계약 세션 ID, Value: 세션 데이터
     private final Map<String, ContractSessionData> sessionDataMap = new ConcurrentHashMap<>();
+    private final AtomicInteger createdSinceSweep = new AtomicInteger();
+    private final long idleMillis;
+    
+    public ContractSessionService(@Value("${app.websocket.room-history.idle-timeout-minutes:120}") long idleMinutes) {
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
     
     /**
      * 계약 세션 데이터 저장
@@ -31,7 +63,9 @@ public class ContractSessionService {
      * 계약 세션 데이터 삭제
      */
     public void removeSessionData(String sessionId) {
-        sessionDataMap.remove(sessionId);
+        if (sessionDataMap.remove(sessionId) != null) {
+            log.debug("방 동기화 상태 삭제: room={}", sessionId);
+        }
     }
     
     /**
@@ -41,64 +75,206 @@ public class ContractSessionService {
         return sessionDataMap.containsKey(sessionId);
     }
     
+    /**
+     * 새 PDF 기록 (이전 PDF 의 주석은 모두 버린다, 같은 URL 재전송은 무시)
+     */
+    public void recordPdf(String sessionId, String pdfUrl) {
+        if (pdfUrl == null || pdfUrl.isBlank()) {
+            return;
+        }
+        data(sessionId).resetPdf(pdfUrl);
+    }
+    
+    /**
+     * 현재 페이지 기록
+     */
+    public void recordPage(String sessionId, int page) {
+        if (isValidPage(page)) {
+            data(sessionId).setCurrentPage(page);
+        }
+    }
+    
+    /**
+     * 서버에서 묶어 전송한 드로잉 스트로크 기록
+     */
+    public void recordStroke(String sessionId, StrokeBatchMessage stroke) {
+        if (isValidPage(stroke.getPage())) {
+            logEviction(sessionId, stroke.getPage(), "스트로크", MAX_STROKES_PER_PAGE, data(sessionId).addStroke(stroke));
+        }
+    }
+    
+    /**
+     * 텍스트 기록
+     */
+    public void recordText(String sessionId, TextMessage text) {
+        int page = text.getPage() > 0 ? text.getPage() : text.getPageNumber();
+        if (isValidPage(page)) {
+            logEviction(sessionId, page, "텍스트", MAX_ITEMS_PER_PAGE, data(sessionId).addText(page, text));
+        }
+    }
+    
+    /**
+     * 도장 기록
+     */
+    public void recordStamp(String sessionId, int page, Map<String, Object> stamp) {
+        if (isValidPage(page)) {
+            logEviction(sessionId, page, "도장", MAX_ITEMS_PER_PAGE, data(sessionId).addStamp(page, stamp));
+        }
+    }
+    
+    /**
+     * 서명 기록
+     */
+    public void recordSignature(String sessionId, int page, Map<String, Object> signature) {
+        if (isValidPage(page)) {
+            logEviction(sessionId, page, "서명", MAX_ITEMS_PER_PAGE, data(sessionId).addSignature(page, signature));
+        }
+    }
+    
+    /**
+     * 방 상태 스냅샷 (기록이 없으면 빈 스냅샷)
+     */
+    public RoomSnapshotMessage snapshot(String sessionId) {
+        ContractSessionData data = sessionDataMap.get(sessionId);
+        if (data != null) {
+            data.lastAccess = System.currentTimeMillis();
+        }
+        RoomSnapshotMessage snapshot = data != null ? data.snapshot() : new RoomSnapshotMessage();
+        snapshot.setSessionId(sessionId);
+        snapshot.setTimestamp(System.currentTimeMillis());
+        return snapshot;
+    }
+    
+    private ContractSessionData data(String sessionId) {
+        ContractSessionData data = sessionDataMap.get(sessionId);
+        if (data != null) {
+            data.lastAccess = System.currentTimeMillis();
+            return data;
+        }
+        data = sessionDataMap.computeIfAbsent(sessionId, id -> new ContractSessionData());
+        if (createdSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            createdSinceSweep.set(0);
+            sweepIdleRooms(System.currentTimeMillis());
+        }
+        return data;
+    }
+    
+    void sweepIdleRooms(long now) {
+        long threshold = now - idleMillis;
+        int before = sessionDataMap.size();
+        sessionDataMap.entrySet().removeIf(entry -> entry.getValue().lastAccess < threshold);
+        if (sessionDataMap.size() < before) {
+            log.debug("유휴 방 동기화 상태 정리: {} → {}", before, sessionDataMap.size());
+        }
+    }
+    
+    // 페이지당 상한으로 오래된 항목이 빠지면 스냅샷에서도 사라지므로 방마다 처음 한 번은 경고, 이후는 debug
+    private static void logEviction(String sessionId, int page, String kind, int limit, int evictions) {
+        if (evictions == 0) {
+            return;
+        }
+        if (evictions == 1) {
+            log.warn("방 동기화 상태 페이지당 {} 상한({}) 초과: 오래된 항목을 스냅샷에서 제거 (room={}, page={})",
+                    kind, limit, sessionId, page);
+        } else {
+            log.debug("방 동기화 상태 {} 제거: room={}, page={}, 누적 제거 {}건", kind, sessionId, page, evictions);
+        }
+    }
+    
+    private static boolean isValidPage(int page) {
+        return page >= 1 && page <= MAX_PAGES;
+    }
+    
     /**
      * 계약 세션 데이터 클래스
+     * 페이지 번호를 그대로 배열 인덱스로 사용한다 (Integer 박싱/해시 없이 필요한 만큼만 늘림).
+     * 한 방의 기록/스냅샷은 이 객체로 동기화된다.
      */
     public static class ContractSessionData {
         private String pdfUrl;
-        private Map<Integer, Object> drawingData = new HashMap<>();
-        private Map<Integer, Object> stampData = new HashMap<>();
-        private Map<Integer, Object> signatureData = new HashMap<>();
-        private Map<Integer, Object> textData = new HashMap<>();
-        private Integer currentPage;
+        private int currentPage;
+        private PageAnnotations[] pages = new PageAnnotations[8];
+        // 마지막 기록/조회 시각 (유휴 방 정리용)
+        private volatile long lastAccess = System.currentTimeMillis();
+        // 페이지당 상한으로 제거한 항목 수 (로그용)
+        private int evictions;
         
-        // Getters and Setters
-        public String getPdfUrl() {
+        public synchronized String getPdfUrl() {
             return pdfUrl;
         }
         
-        public void setPdfUrl(String pdfUrl) {
-            this.pdfUrl = pdfUrl;
+        public synchronized int getCurrentPage() {
+            return currentPage;
         }
         
-        public Map<Integer, Object> getDrawingData() {
-            return drawingData;
+        public synchronized void setCurrentPage(int currentPage) {
+            this.currentPage = currentPage;
         }
         
-        public void setDrawingData(Map<Integer, Object> drawingData) {
-            this.drawingData = drawingData;
+        /**
+         * 해당 페이지 주석 (없으면 null)
+         */
+        public synchronized PageAnnotations getPage(int page) {
+            return page < pages.length && pages[page] != null ? pages[page].copy() : null;
         }
         
-        public Map<Integer, Object> getStampData() {
-            return stampData;
+        synchronized void resetPdf(String pdfUrl) {
+            if (pdfUrl.equals(this.pdfUrl)) {
+                return;
+            }
+            this.pdfUrl = pdfUrl;
+            this.currentPage = 1;
+            Arrays.fill(pages, null);
         }
         
-        public void setStampData(Map<Integer, Object> stampData) {
-            this.stampData = stampData;
+        synchronized int addStroke(StrokeBatchMessage stroke) {
+            return append(page(stroke.getPage()).getStrokes(), stroke, MAX_STROKES_PER_PAGE);
         }
         
-        public Map<Integer, Object> getSignatureData() {
-            return signatureData;
+        synchronized int addText(int page, TextMessage text) {
+            return append(page(page).getTexts(), text, MAX_ITEMS_PER_PAGE);
         }
         
-        public void setSignatureData(Map<Integer, Object> signatureData) {
-            this.signatureData = signatureData;
+        synchronized int addStamp(int page, Map<String, Object> stamp) {
+            return append(page(page).getStamps(), stamp, MAX_ITEMS_PER_PAGE);
         }
         
-        public Map<Integer, Object> getTextData() {
-            return textData;
+        synchronized int addSignature(int page, Map<String, Object> signature) {
+            return append(page(page).getSignatures(), signature, MAX_ITEMS_PER_PAGE);
         }
         
-        public void setTextData(Map<Integer, Object> textData) {
-            this.textData = textData;
+        synchronized RoomSnapshotMessage snapshot() {
+            RoomSnapshotMessage snapshot = new RoomSnapshotMessage();
+            snapshot.setPdfUrl(pdfUrl);
+            snapshot.setCurrentPage(currentPage);
+            for (PageAnnotations annotations : pages) {
+                if (annotations != null && !annotations.isEmpty()) {
+                    snapshot.getPages().add(annotations.copy());
+                }
+            }
+            return snapshot;
         }
         
-        public Integer getCurrentPage() {
-            return currentPage;
+        private PageAnnotations page(int page) {
+            if (page >= pages.length) {
+                pages = Arrays.copyOf(pages, Math.min(MAX_PAGES + 1, Math.max(page + 1, pages.length * 2)));
+            }
+            PageAnnotations annotations = pages[page];
+            if (annotations == null) {
+                annotations = new PageAnnotations(page);
+                pages[page] = annotations;
+            }
+            return annotations;
         }
         
-        public void setCurrentPage(Integer currentPage) {
-            this.currentPage = currentPage;
+        // 항목 추가, 상한을 넘겨 오래된 항목을 뺐으면 이 방의 누적 제거 수, 아니면 0 반환
+        private <T> int append(List<T> items, T item, int limit) {
+            items.add(item);
+            if (items.size() <= limit) {
+                return 0;
+            }
+            items.remove(0);
+            return ++evictions;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.common.websocket.RoomDestinations;
+import kr.or.kosa.visang.domain.contract.model.DrawMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 드로잉 이동 이벤트 병합 서비스
+ * - 방/발신자별로 coalesce-window-ms 동안 들어온 선분을 하나의 StrokeBatchMessage 로 묶어 전송
+ * - 이어지지 않는 선분(새 스트로크, 페이지/도구 변경)이 들어오면 즉시 이전 묶음을 전송
+ * - 전송한 묶음은 방 스냅샷용으로 ContractSessionService 에 기록
+ */
+@Slf4j
+@Service
+public class DrawStrokeCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ContractSessionService contractSessionService;
+    private final long windowMillis;
+    private final int maxPoints;
+    private final ScheduledExecutorService scheduler;
+
+    // roomId:sender → 전송 대기 중인 스트로크
+    private final ConcurrentHashMap<String, PendingStroke> pending = new ConcurrentHashMap<>();
+
+    public DrawStrokeCoalescer(SimpMessagingTemplate messagingTemplate,
+                               ContractSessionService contractSessionService,
+                               @Value("${app.websocket.draw.coalesce-window-ms:16}") long windowMillis,
+                               @Value("${app.websocket.draw.max-batch-points:256}") int maxPoints) {
+        this.messagingTemplate = messagingTemplate;
+        this.contractSessionService = contractSessionService;
+        this.windowMillis = windowMillis;
+        this.maxPoints = Math.max(2, maxPoints);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "draw-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        pending.keySet().forEach(key -> {
+            PendingStroke stroke = pending.remove(key);
+            if (stroke != null) {
+                send(stroke);
+            }
+        });
+    }
+
+    /**
+     * 단일 선분(lastX,lastY → currentX,currentY) 추가
+     */
+    public void append(String roomId, DrawMessage message) {
+        int page = message.getPage() > 0 ? message.getPage() : message.getPageNumber();
+        int[] segment = {message.getLastX(), message.getLastY(), message.getCurrentX(), message.getCurrentY()};
+        append(roomId, message.getSender(), message.getSessionId(), message.getType(), page, segment);
+    }
+
+    /**
+     * 클라이언트에서 이미 묶어 보낸 좌표 배열 추가
+     */
+    public void append(String roomId, StrokeBatchMessage batch) {
+        int[] points = batch.getPoints();
+        if (points == null || points.length < 2) {
+            return;
+        }
+        append(roomId, batch.getSender(), batch.getSessionId(), batch.getType(), batch.getPage(),
+                points.length % 2 == 0 ? points : Arrays.copyOf(points, points.length - 1));
+    }
+
+    private void append(String roomId, String sender, String sessionId, String type, int page, int[] points) {
+        String key = roomId + ":" + sender;
+        List<PendingStroke> ready = new ArrayList<>(2);
+
+        pending.compute(key, (k, stroke) -> {
+            if (stroke != null && !stroke.continues(type, page, points[0], points[1])) {
+                ready.add(stroke);
+                stroke = null;
+            }
+            if (stroke == null) {
+                PendingStroke created = new PendingStroke(roomId, sender, sessionId, type, page, points);
+                if (windowMillis > 0) {
+                    scheduler.schedule(() -> flush(k, created), windowMillis, TimeUnit.MILLISECONDS);
+                }
+                stroke = created;
+            } else {
+                stroke.extend(points);
+            }
+            if (windowMillis <= 0 || stroke.size() >= maxPoints) {
+                ready.add(stroke);
+                return null;
+            }
+            return stroke;
+        });
+
+        ready.forEach(this::send);
+    }
+
+    private void flush(String key, PendingStroke stroke) {
+        // 이미 다른 경로로 전송된 스트로크면 무시
+        if (pending.remove(key, stroke)) {
+            send(stroke);
+        }
+    }
+
+    private void send(PendingStroke stroke) {
+        StrokeBatchMessage message = stroke.toMessage();
+        contractSessionService.recordStroke(stroke.roomId, message);
+        try {
+            messagingTemplate.convertAndSend(RoomDestinations.topic(stroke.roomId, "draw"), message);
+        } catch (Exception e) {
+            log.error("드로잉 묶음 전송 실패: room={}", stroke.roomId, e);
+        }
+    }
+
+    /**
+     * 전송 대기 중인 스트로크 (pending.compute 안에서만 변경됨)
+     */
+    private static final class PendingStroke {
+        private final String roomId;
+        private final String sender;
+        private final String sessionId;
+        private final String type;
+        private final int page;
+        private int[] points;
+        private int size;
+
+        PendingStroke(String roomId, String sender, String sessionId, String type, int page, int[] initial) {
+            this.roomId = roomId;
+            this.sender = sender;
+            this.sessionId = sessionId;
+            this.type = type;
+            this.page = page;
+            this.points = Arrays.copyOf(initial, Math.max(32, initial.length * 2));
+            this.size = initial.length;
+        }
+
+        boolean continues(String nextType, int nextPage, int startX, int startY) {
+            return Objects.equals(type, nextType) && page == nextPage
+                    && points[size - 2] == startX && points[size - 1] == startY;
+        }
+
+        // 시작점은 이전 끝점과 같으므로 생략하고 이어 붙인다
+        void extend(int[] more) {
+            int add = more.length - 2;
+            if (size + add > points.length) {
+                points = Arrays.copyOf(points, Math.max(points.length * 2, size + add));
+            }
+            System.arraycopy(more, 2, points, size, add);
+            size += add;
+        }
+
+        int size() {
+            return size / 2;
+        }
+
+        StrokeBatchMessage toMessage() {
+            StrokeBatchMessage message = new StrokeBatchMessage();
+            message.setType(type);
+            message.setPage(page);
+            message.setSessionId(sessionId);
+            message.setSender(sender);
+            message.setPoints(Arrays.copyOf(points, size));
+            return message;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.common.websocket.RoomDestinations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스크롤 / 페이지 동기화 최신 값 병합 서비스
+ * - 방/종류/발신자별로 전송 대기 값은 최대 하나만 두고, 창(window-ms) 안에 들어온 값은 최신 값으로 덮어씀
+ * - 창이 끝나면 마지막 값 하나만 /topic/room/{roomId}/{type} 으로 전송
+ * 발신 속도와 관계없이 발신자당 초당 (1000 / window-ms) 프레임 이하로 제한된다.
+ */
+@Slf4j
+@Service
+public class LastValueSyncCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // roomId:type:sender → 전송 대기 중인 최신 값
+    private final ConcurrentHashMap<String, PendingValue> pending = new ConcurrentHashMap<>();
+
+    public LastValueSyncCoalescer(SimpMessagingTemplate messagingTemplate,
+                                  @Value("${app.websocket.sync.coalesce-window-ms:50}") long windowMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sync-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        pending.keySet().forEach(this::flush);
+    }
+
+    /**
+     * 최신 값 제출
+     * @param roomId 방 ID
+     * @param type 방 토픽 종류 (scroll, page)
+     * @param sender 발신자 구분 값 (STOMP 세션 ID)
+     * @param payload 전송할 메시지
+     */
+    public void submit(String roomId, String type, String sender, Object payload) {
+        if (windowMillis <= 0) {
+            send(roomId, type, payload);
+            return;
+        }
+        String key = roomId + ":" + type + ":" + sender;
+        boolean[] created = new boolean[1];
+
+        pending.compute(key, (k, value) -> {
+            if (value == null) {
+                created[0] = true;
+                return new PendingValue(roomId, type, payload);
+            }
+            value.payload = payload;
+            value.replaced++;
+            return value;
+        });
+
+        // 창의 첫 값에서만 전송 예약 (이후 값은 덮어쓰기만 함)
+        if (created[0]) {
+            scheduler.schedule(() -> flush(key), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(String key) {
+        PendingValue value = pending.remove(key);
+        if (value == null) {
+            return;
+        }
+        if (value.replaced > 0) {
+            log.debug("동기화 값 병합: room={}, type={}, replaced={}", value.roomId, value.type, value.replaced);
+        }
+        send(value.roomId, value.type, value.payload);
+    }
+
+    private void send(String roomId, String type, Object payload) {
+        try {
+            messagingTemplate.convertAndSend(RoomDestinations.topic(roomId, type), payload);
+        } catch (Exception e) {
+            log.error("동기화 값 전송 실패: room={}, type={}", roomId, type, e);
+        }
+    }
+
+    /**
+     * 전송 대기 중인 값 (pending.compute 안에서만 변경됨)
+     */
+    private static final class PendingValue {
+        private final String roomId;
+        private final String type;
+        private Object payload;
+        private int replaced;
+
+        PendingValue(String roomId, String type, Object payload) {
+            this.roomId = roomId;
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+}
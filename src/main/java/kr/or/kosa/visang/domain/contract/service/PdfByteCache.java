@@ -0,0 +1,305 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 임시 업로드 PDF 캐시 (바이트 예산 기준 LRU + 선택적 디스크 계층)
+ *
+ * - 메모리: 항목 수가 아니라 바이트 합계(max-bytes)로 제한하고, 넘치면 가장 오래 안 쓴 PDF 부터 내보낸다.
+ * - 디스크: spill-dir 을 설정하면 메모리에서 밀려난 PDF 를 파일로 옮겨 spill-max-bytes 까지 보관하고,
+ *   다시 조회되면 메모리로 올린다. 디스크 예산도 넘치면 LRU 로 삭제한다. (비워 두면 메모리에서 밀려나는 즉시 버림)
+ * - 지표: pdf.cache.requests (result=hit/miss, tier 태그), pdf.cache.evictions (tier 태그), pdf.cache.bytes / entries (tier 태그)
+ */
+@Slf4j
+@Component
+public class PdfByteCache {
+
+    private static final String SPILL_SUFFIX = ".pdfcache";
+
+    private final long maxBytes;
+    private final Path spillDir;
+    private final long spillMaxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 접근 순서 LinkedHashMap: 첫 항목이 가장 오래 안 쓴 항목
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(64, 0.75f, true);
+    // 디스크로 옮기는 중인 항목 (그 사이 조회가 빈손으로 돌아가지 않도록)
+    private final Map<String, byte[]> spilling = new ConcurrentHashMap<>();
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter memoryEvictions;
+    private final Counter diskEvictions;
+
+    public PdfByteCache(MeterRegistry meterRegistry,
+                        @Value("${app.pdf.cache.max-bytes:268435456}") long maxBytes,
+                        @Value("${app.pdf.cache.spill-dir:./upload/pdf-cache}") String spillDir,
+                        @Value("${app.pdf.cache.spill-max-bytes:2147483648}") long spillMaxBytes) {
+        this.maxBytes = Math.max(1, maxBytes);
+        this.spillDir = spillDir == null || spillDir.isBlank() ? null : Paths.get(spillDir);
+        this.spillMaxBytes = Math.max(0, spillMaxBytes);
+
+        this.memoryHits = requests(meterRegistry, "hit", "memory");
+        this.diskHits = requests(meterRegistry, "hit", "disk");
+        this.misses = requests(meterRegistry, "miss", "none");
+        this.memoryEvictions = Counter.builder("pdf.cache.evictions").tag("tier", "memory")
+                .description("메모리 예산 초과로 내보낸 PDF 수").register(meterRegistry);
+        this.diskEvictions = Counter.builder("pdf.cache.evictions").tag("tier", "disk")
+                .description("디스크 예산 초과로 삭제한 PDF 수").register(meterRegistry);
+        Gauge.builder("pdf.cache.bytes", this, PdfByteCache::getMemoryBytes).tag("tier", "memory")
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.cache.bytes", this, PdfByteCache::getDiskBytes).tag("tier", "disk")
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.cache.entries", this, cache -> cache.entries(cache.memory)).tag("tier", "memory")
+                .register(meterRegistry);
+        Gauge.builder("pdf.cache.entries", this, cache -> cache.entries(cache.disk)).tag("tier", "disk")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (spillDir == null) {
+            log.info("PDF 캐시: 메모리 {} 바이트, 디스크 계층 사용 안 함", maxBytes);
+            return;
+        }
+        Files.createDirectories(spillDir);
+        // 이전 실행에서 남은 파일은 색인이 없으므로 정리
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spillDir, "*" + SPILL_SUFFIX)) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+        log.info("PDF 캐시: 메모리 {} 바이트, 디스크 {} 바이트 ({})", maxBytes, spillMaxBytes, spillDir.toAbsolutePath());
+    }
+
+    /**
+     * PDF 저장 (같은 키가 있으면 교체)
+     */
+    public void put(String key, byte[] data) {
+        List<Map.Entry<String, byte[]>> evicted;
+        lock.lock();
+        try {
+            removeLocked(key);
+            if (data.length > maxBytes) {
+                // 메모리 예산보다 큰 PDF 는 바로 디스크로 (디스크 계층이 없으면 보관하지 않음)
+                log.warn("PDF 가 캐시 메모리 예산보다 큼: {} ({} bytes > {})", key, data.length, maxBytes);
+                evicted = List.of(Map.entry(key, data));
+                spilling.put(key, data);
+            } else {
+                memory.put(key, data);
+                memoryBytes += data.length;
+                evicted = evictMemoryLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+        spill(evicted);
+    }
+
+    /**
+     * PDF 조회, 없으면 null
+     */
+    public byte[] get(String key) {
+        Long size;
+        lock.lock();
+        try {
+            byte[] data = memory.get(key);
+            if (data != null) {
+                memoryHits.increment();
+                return data;
+            }
+            size = disk.get(key);
+        } finally {
+            lock.unlock();
+        }
+        byte[] data = spilling.get(key);
+        if (data != null) {
+            memoryHits.increment();
+            return data;
+        }
+        if (size == null) {
+            misses.increment();
+            return null;
+        }
+        try {
+            data = Files.readAllBytes(spillPath(key));
+        } catch (IOException e) {
+            log.warn("PDF 캐시 디스크 읽기 실패: {} ({})", key, e.getMessage());
+            remove(key);
+            misses.increment();
+            return null;
+        }
+        diskHits.increment();
+        if (data.length <= maxBytes) {
+            // 다시 쓰이는 PDF 는 메모리로 올림
+            put(key, data);
+        }
+        return data;
+    }
+
+    public void remove(String key) {
+        lock.lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMemoryBytes() {
+        lock.lock();
+        try {
+            return memoryBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDiskBytes() {
+        lock.lock();
+        try {
+            return diskBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int entries(Map<String, ?> tier) {
+        lock.lock();
+        try {
+            return tier.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeLocked(String key) {
+        spilling.remove(key);
+        byte[] old = memory.remove(key);
+        if (old != null) {
+            memoryBytes -= old.length;
+        }
+        Long size = disk.remove(key);
+        if (size != null) {
+            diskBytes -= size;
+            deleteSpillFile(key);
+        }
+    }
+
+    // 메모리 예산을 넘는 만큼 LRU 항목을 꺼내 spilling 으로 옮김
+    private List<Map.Entry<String, byte[]>> evictMemoryLocked() {
+        List<Map.Entry<String, byte[]>> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            it.remove();
+            memoryBytes -= eldest.getValue().length;
+            memoryEvictions.increment();
+            evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+            spilling.put(eldest.getKey(), eldest.getValue());
+        }
+        return evicted;
+    }
+
+    // 잠금 밖에서 파일 기록 후 디스크 색인에 등록
+    private void spill(List<Map.Entry<String, byte[]>> evicted) {
+        for (Map.Entry<String, byte[]> entry : evicted) {
+            String key = entry.getKey();
+            byte[] data = entry.getValue();
+            try {
+                if (spillDir == null || data.length > spillMaxBytes) {
+                    log.info("PDF 캐시에서 제거: {} ({} bytes)", key, data.length);
+                    continue;
+                }
+                try {
+                    Files.write(spillPath(key), data);
+                } catch (IOException e) {
+                    log.warn("PDF 캐시 디스크 기록 실패, 제거: {} ({})", key, e.getMessage());
+                    continue;
+                }
+                lock.lock();
+                try {
+                    if (spilling.get(key) != data || memory.containsKey(key)) {
+                        // 옮기는 사이 교체/삭제/재적재됨
+                        if (!disk.containsKey(key)) {
+                            deleteSpillFile(key);
+                        }
+                        continue;
+                    }
+                    disk.put(key, (long) data.length);
+                    diskBytes += data.length;
+                    evictDiskLocked();
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                spilling.remove(key, data);
+            }
+        }
+    }
+
+    private void evictDiskLocked() {
+        Iterator<Map.Entry<String, Long>> it = disk.entrySet().iterator();
+        while (diskBytes > spillMaxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            diskBytes -= eldest.getValue();
+            diskEvictions.increment();
+            deleteSpillFile(eldest.getKey());
+        }
+    }
+
+    private void deleteSpillFile(String key) {
+        try {
+            Files.deleteIfExists(spillPath(key));
+        } catch (IOException e) {
+            log.warn("PDF 캐시 디스크 파일 삭제 실패: {} ({})", key, e.getMessage());
+        }
+    }
+
+    // 키(파일명)를 그대로 경로로 쓰지 않고 고정 형식 이름으로 변환
+    private Path spillPath(String key) {
+        CRC32 crc = new CRC32();
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        crc.update(bytes);
+        String safe = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (safe.length() > 100) {
+            safe = safe.substring(0, 100);
+        }
+        return spillDir.resolve(safe + "-" + HexFormat.of().toHexDigits((int) crc.getValue()) + SPILL_SUFFIX);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("pdf.cache.requests")
+                .tag("result", result)
+                .tag("tier", tier)
+                .description("임시 PDF 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+}
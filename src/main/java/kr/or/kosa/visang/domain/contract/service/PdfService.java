@@ -1,10 +1,16 @@
 package kr.or.kosa.visang.domain.contract.service;
 
 import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.common.file.FileHashCache;
+import kr.or.kosa.visang.common.file.PdfResponses;
 import kr.or.kosa.visang.domain.contract.model.ContractSingedDTO;
 import kr.or.kosa.visang.domain.contract.model.PdfDTO;
 import kr.or.kosa.visang.domain.contract.repository.PdfMapper;
+import kr.or.kosa.visang.domain.pdf.enums.SignatureRole;
+import kr.or.kosa.visang.domain.pdf.model.PDF;
+import kr.or.kosa.visang.domain.pdf.service.PdfSignatureVerifier;
 import kr.or.kosa.visang.domain.pdf.service.PdfSignerService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
@@ -14,42 +20,52 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @Service
 public class PdfService {
     
     @Value("${file.upload-dir.pdf}")
     private String uploadDirPdf;
 
-    @Value("${server.ssl.key-store}")
-    private String keyStorePath;
-
-    @Value("${server.ssl.key-store-password}")
-    private String keyStorePassword;
-
     @Value("${file.upload-dir.signed-pdf}")
     private String signedPdfPath;
     
-    // 실제 DB에 저장된 PDF의 메모리 캐시 (선택적으로 사용)
-    private static final Map<String, byte[]> pdfMemoryCache = new HashMap<>();
-    
     @Autowired
     private PdfMapper pdfMapper;
+
+    // 임시 업로드 PDF 캐시 (바이트 예산 LRU + 디스크 계층)
+    @Autowired
+    private PdfByteCache pdfCache;
+
+    @Autowired
+    private PdfSignatureVerifier pdfSignatureVerifier;
+
+    // 키/글꼴/도장 이미지를 메모리에 두고 재사용하는 서명 엔진
+    @Autowired
+    private PdfSignerService pdfSignerService;
+
+    @Autowired
+    private FileHashCache fileHashCache;
     
     // PDF 조회
     public PdfDTO getPdfById(Long pdfId) {
@@ -77,45 +93,26 @@ public class PdfService {
             System.out.println("프리픽스 제거 후 파일명: " + fileName);
         }
         
-        // 메모리 캐시에서 확인
-        if (pdfMemoryCache.containsKey(fileName)) {
-            System.out.println("메모리 캐시에서 PDF 파일 찾음: " + fileName);
-            byte[] pdfData = pdfMemoryCache.get(fileName);
-            ByteArrayResource resource = new ByteArrayResource(pdfData);
-            
-            // 캐시 방지를 위한 랜덤 값
-            String etag = "\"" + UUID.randomUUID().toString() + "\"";
-            
-            return ResponseEntity.ok()
+        // 캐시에서 확인 (임시 PDF 파일명은 내용 해시이므로 그대로 ETag 로 쓴다)
+        byte[] pdfData = pdfCache.get(fileName);
+        if (pdfData != null) {
+            System.out.println("캐시에서 PDF 파일 찾음: " + fileName);
+            return PdfResponses.ok(contentHash(fileName, pdfData))
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline;filename=" + fileName)
-                    .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate, max-age=0")
-                    .header(HttpHeaders.PRAGMA, "no-cache")
-                    .header(HttpHeaders.EXPIRES, "0")
-                    .header(HttpHeaders.ETAG, etag)
                     .contentType(MediaType.APPLICATION_PDF)
-                    .contentLength(pdfData.length)
-                    .body(resource);
+                    .body(new ByteArrayResource(pdfData));
         }
         
-        // 2. 파일 시스템에서 확인 (최종 PDF용 - 메모리에서 찾지 못한 경우)
+        // 2. 파일 시스템에서 확인 (최종 PDF용 - 메모리에서 찾지 못한 경우, 수정 시각으로 재검증)
         try {
             Path filePath = Paths.get(uploadDirPdf, fileName);
             if (Files.exists(filePath)) {
                 System.out.println("파일 시스템에서 PDF 파일 찾음: " + filePath);
-                FileSystemResource resource = new FileSystemResource(filePath);
-
-                // 캐시 방지를 위한 랜덤 값
-                String etag = "\"" + UUID.randomUUID().toString() + "\"";
-
-                return ResponseEntity.ok()
+                return PdfResponses.ok(null)
+                        .lastModified(Files.getLastModifiedTime(filePath).toMillis())
                         .header(HttpHeaders.CONTENT_DISPOSITION, "inline;filename=" + fileName)
-                        .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate, max-age=0")
-                        .header(HttpHeaders.PRAGMA, "no-cache")
-                        .header(HttpHeaders.EXPIRES, "0")
-                        .header(HttpHeaders.ETAG, etag)
                         .contentType(MediaType.APPLICATION_PDF)
-                        .contentLength(Files.size(filePath))
-                        .body(resource);
+                        .body(new FileSystemResource(filePath));
             }
         } catch (Exception e) {
             System.err.println("파일 시스템에서 PDF 파일 읽기 오류: " + e.getMessage());
@@ -134,17 +131,24 @@ public class PdfService {
         // 고유한 파일명 생성
         String originalFilename = file.getOriginalFilename();
         String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID() + fileExtension;
 
         // 파일 내용 읽기
         byte[] fileBytes = file.getBytes();
 
+        // 내용 해시를 파일명으로 사용 (같은 내용이면 같은 URL, ETag 도 이 값)
+        String uniqueFilename;
+        try {
+            uniqueFilename = HashUtil.sha256(fileBytes) + fileExtension;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
         // 파일명으로 원본 PDF와 최종 PDF 구분
         boolean isFinalPdf = originalFilename.contains("상담문서_");
 
         // 모든 PDF는 메모리에 저장
         System.out.println("PDF 메모리 캐시에 저장: " + uniqueFilename + " (" + fileBytes.length + " bytes)");
-        pdfMemoryCache.put(uniqueFilename, fileBytes);
+        pdfCache.put(uniqueFilename, fileBytes);
 
 
         // PDF 정보 객체 생성
@@ -163,48 +167,118 @@ public class PdfService {
         return pdfDTO;
     };
     
-    // PDF 업로드 및 저장 (메모리 + 파일 시스템 사용)
-    public PdfDTO uploadFinalPdf(MultipartFile file, Long contractId) throws IOException, NoSuchAlgorithmException {
-        System.out.println("PdfService.uploadPdf: 파일명=" + file.getOriginalFilename() + ", 계약ID=" + contractId);
-
-        // 업로드된 PDF 파일(MultipartFile)을 InputStream으로 변환
-        InputStream inputStreamPDF = file.getInputStream();
-
-        String outputFileName = createOutputFileName(file.getOriginalFilename(), contractId);
+    /**
+     * 최종 PDF 서명 후 signed-pdf 디렉터리에 기록하고 DB 에 넣을 정보를 돌려준다 (insert 는 호출한 쪽에서)
+     * 해시는 파일을 쓰면서 계산하고, 전자서명 검증은 여기서 한 번만 수행해 결과를 함께 담는다.
+     * 요청 스레드가 아니라 PdfSignWorker 에서 호출된다.
+     */
+    public PdfDTO signFinalPdf(InputStream input, String originalFilename, Long contractId)
+            throws IOException, GeneralSecurityException {
+        log.info("최종 PDF 서명: 파일명={}, 계약ID={}", originalFilename, contractId);
+
+        String outputFileName = createOutputFileName(originalFilename, contractId);
+        Path signedFilePath = Paths.get(signedPdfPath).resolve(outputFileName);
 
-        try {
-            ContractSingedDTO contractSignedDTO = pdfMapper.selectSignedContractInfoByContractId(contractId);
-
-            PdfSignerService.signPdf(
-                    inputStreamPDF,     // 원본 PDF
-                    outputFileName,
-                    keyStorePath,           // 생성한 키스토어
-                    keyStorePassword,                    // 비밀번호
-                    "contract-signing-key",            // alias
-                    signedPdfPath,
-                    contractSignedDTO
-            );
-            System.out.println("✅ 서명 완료: contract-signed.pdf");
-        } catch (Exception e) {
-            System.err.println("서명 중 오류 발생: " + e.getMessage());
+        ContractSingedDTO contractSignedDTO = pdfMapper.selectSignedContractInfoByContractId(contractId);
+        if (contractSignedDTO == null) {
+            throw new IllegalArgumentException("계약 정보를 찾을 수 없습니다. contractId=" + contractId);
         }
-
-        Path signedFilePath = Paths.get(signedPdfPath).resolve(outputFileName);
-        String hash = HashUtil.sha256(signedFilePath.toString());
+        String hash = pdfSignerService.signPdf(input, signedFilePath, contractSignedDTO);
+        log.info("서명 완료: {}", outputFileName);
 
         //DB 저장 주소
         String dbFilePath = "files/signed_pdf/" + outputFileName;
-        
+
         // PDF 정보 객체 생성
         PdfDTO pdfDTO = new PdfDTO();
         pdfDTO.setFilePath(dbFilePath);
         pdfDTO.setFileHash(hash);
         pdfDTO.setCreatedAt(new Date());
         pdfDTO.setContractId(contractId);
-        pdfMapper.insertPdf(pdfDTO);
+        // 서명 검증은 여기서 한 번만 수행하고 결과를 해시와 함께 저장 (조회 시에는 해시만 확인)
+        pdfDTO.setSignatureVerified(pdfSignatureVerifier.verify(signedFilePath));
+        pdfDTO.setSignatureVerifiedAt(new Date());
+        return pdfDTO;
+    }
 
+    /**
+     * 상담원/계약자 개별 서명: 저장된 서명 PDF 에 본인 서명 필드를 증분으로 덧붙이고
+     * 같은 트랜잭션에서 pdf.file_hash / sig_verified 를 갱신한다.
+     * 트랜잭션이 롤백되면 파일을 서명 전 크기로 잘라 이전 리비전으로 되돌린다. (증분 서명은 기존 바이트 뒤에만 쓰므로)
+     *
+     * @throws IllegalArgumentException PDF 가 없거나 회사 직인을 요청했을 때
+     * @throws IllegalStateException 이미 서명했을 때
+     * @throws SecurityException 저장된 해시와 파일이 다를 때
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public PdfDTO signAsParty(Long pdfId, SignatureRole role) throws IOException, GeneralSecurityException {
+        if (role == SignatureRole.COMPANY_SEAL) {
+            throw new IllegalArgumentException("회사 직인은 최종 업로드 때만 찍습니다.");
+        }
+        // 행 잠금: 두 사람이 동시에 서명해도 한쪽 리비전이 덮이지 않도록
+        PDF pdf = pdfMapper.lockPathAndHash(pdfId);
+        if (pdf == null) {
+            throw new IllegalArgumentException("서명 PDF를 찾을 수 없습니다. pdfId=" + pdfId);
+        }
+        Path file = Paths.get(signedPdfPath).resolve(Paths.get(pdf.getFilePath()).getFileName());
+        if (!fileHashCache.sha256(file).equals(pdf.getFileHash())) {
+            throw new SecurityException("계약서 파일이 위변조되었습니다. 해시 불일치 pdfId=" + pdfId);
+        }
+        ContractSingedDTO contractSignedDTO = pdfMapper.selectSignedContractInfoByContractId(pdf.getContractId());
+        if (contractSignedDTO == null) {
+            throw new IllegalArgumentException("계약 정보를 찾을 수 없습니다. contractId=" + pdf.getContractId());
+        }
+
+        long previousSize = Files.size(file);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    restoreRevision(file, previousSize);
+                    fileHashCache.invalidate(file);
+                }
+            }
+        });
+
+        // 새 리비전만 파일 끝에 덧붙이고, 앞선 서명이 검증돼 있으면 새 서명 필드만 검증
+        String hash = pdfSignerService.appendSignature(file, role, contractSignedDTO);
+        fileHashCache.put(file, hash);
+        boolean verified = Boolean.TRUE.equals(pdf.getSignatureVerified())
+                ? pdfSignatureVerifier.verifyLatest(file, role.getFieldName())
+                : pdfSignatureVerifier.verify(file);
+        pdfMapper.updateSignedFile(pdfId, hash, verified);
+        log.info("개별 서명 추가: pdfId={}, role={}, valid={}", pdfId, role, verified);
+
+        PdfDTO pdfDTO = new PdfDTO();
+        pdfDTO.setPdfId(pdfId);
+        pdfDTO.setContractId(pdf.getContractId());
+        pdfDTO.setFilePath(pdf.getFilePath());
+        pdfDTO.setFileHash(hash);
+        pdfDTO.setSignatureVerified(verified);
+        pdfDTO.setSignatureVerifiedAt(new Date());
         return pdfDTO;
     }
+
+    // 덧붙인 리비전 제거 (서명 전 크기로 자름)
+    private static void restoreRevision(Path file, long size) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+                log.warn("개별 서명 저장 실패, 이전 리비전으로 되돌림: {}", file);
+            }
+        } catch (IOException e) {
+            log.error("개별 서명 되돌리기 실패: {} ({})", file, e.getMessage());
+        }
+    }
+
+    // signFinalPdf 가 기록한 서명 파일 삭제 (DB 저장 실패 시 정리용)
+    public void deleteSignedFile(PdfDTO pdf) {
+        try {
+            Files.deleteIfExists(Paths.get(signedPdfPath).resolve(Paths.get(pdf.getFilePath()).getFileName()));
+        } catch (IOException e) {
+            log.warn("서명 파일 삭제 실패: {} ({})", pdf.getFilePath(), e.getMessage());
+        }
+    }
     
     // PDF 정보 업데이트
     public int updatePdf(PdfDTO pdf) {
@@ -216,7 +290,7 @@ public class PdfService {
         PdfDTO pdf = getPdfById(pdfId);
         if (pdf != null) {
             // 메모리 캐시에서 삭제
-            pdfMemoryCache.remove(pdf.getFilePath());
+            pdfCache.remove(pdf.getFilePath());
             
             // DB에서 삭제
             return pdfMapper.deletePdf(pdfId);
@@ -224,6 +298,20 @@ public class PdfService {
         return 0;
     }
 
+    // 임시 PDF 키(해시 + 확장자)에서 해시 추출, 형식이 다르면 내용으로 계산
+    private static String contentHash(String fileName, byte[] data) {
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        if (base.length() == 64 && base.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            return base;
+        }
+        try {
+            return HashUtil.sha256(data);
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
     private String createOutputFileName(String originalFileName, Long contractId) {
         if (originalFileName == null || originalFileName.isEmpty()) {
             throw new IllegalArgumentException("Original file name cannot be null or empty");
@@ -231,7 +319,7 @@ public class PdfService {
         if (contractId == null || contractId <= 0) {
             throw new IllegalArgumentException("Contract ID must be a positive number");
         }
-        System.out.println("Creating output file name for contract ID: " + contractId + ", original file name: " + originalFileName);
+        log.debug("서명 파일명 생성: contractId={}, originalFileName={}", contractId, originalFileName);
 
         // 파일 이름에서 확장자 추출
         String extension = originalFileName.substring(originalFileName.lastIndexOf("."));
@@ -0,0 +1,136 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import kr.or.kosa.visang.common.util.TextUtil;
+import kr.or.kosa.visang.domain.contract.model.PdfDTO;
+import kr.or.kosa.visang.domain.contract.model.PdfSignJob;
+import kr.or.kosa.visang.domain.contract.repository.PdfMapper;
+import kr.or.kosa.visang.domain.contract.repository.PdfSignJobMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 최종 PDF 서명 작업 (DB 아웃박스)
+ *
+ * /upload/final 요청 스레드에서는 원본을 pdf_sign_job 행(input_data BLOB)에 담아 추가만 한다.
+ * 어느 노드의 워커가 선점하든 원본을 읽을 수 있도록 노드 로컬 디스크에는 두지 않는다.
+ * 서명 / 해시 / 검증 / pdf 행 저장은 PdfSignWorker 가 코어 수로 제한된 풀에서 처리한다.
+ */
+@Slf4j
+@Service
+public class PdfSignJobService {
+
+    private static final int MAX_ERROR_BYTES = 1000;
+    // pdf_id 는 MAX+1 로 정해지므로 워커끼리 겹치면 다시 시도
+    private static final int INSERT_ATTEMPTS = 3;
+
+    private final PdfSignJobMapper pdfSignJobMapper;
+    private final PdfMapper pdfMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxActive;
+
+    public PdfSignJobService(PdfSignJobMapper pdfSignJobMapper,
+                             PdfMapper pdfMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.pdf.sign.max-active:500}") int maxActive) {
+        this.pdfSignJobMapper = pdfSignJobMapper;
+        this.pdfMapper = pdfMapper;
+        this.eventPublisher = eventPublisher;
+        this.maxActive = Math.max(1, maxActive);
+    }
+
+    /**
+     * 서명 작업 등록
+     *
+     * @throws IllegalArgumentException 계약 ID 가 없을 때
+     * @throws RejectedExecutionException 대기 중인 작업이 max-active 이상일 때
+     */
+    public PdfSignJob enqueue(MultipartFile file, Long contractId, String roomId) throws IOException {
+        if (contractId == null || contractId <= 0) {
+            throw new IllegalArgumentException("계약 ID가 필요합니다.");
+        }
+        if (pdfSignJobMapper.countActive() >= maxActive) {
+            throw new RejectedExecutionException("서명 대기 중인 문서가 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        PdfSignJob job = new PdfSignJob();
+        job.setContractId(contractId);
+        job.setRoomId(roomId);
+        job.setInputData(file.getBytes());
+        job.setOriginalName(file.getOriginalFilename());
+        job.setStatus(PdfSignJob.PENDING);
+        pdfSignJobMapper.insertJob(job);
+        // 응답/이벤트에 원본을 들고 다니지 않음
+        job.setInputData(null);
+        log.info("PDF 서명 작업 등록. jobId: {}, contractId: {}, size: {}", job.getJobId(), contractId, file.getSize());
+        // 다음 조회 주기를 기다리지 않고 워커를 깨움
+        eventPublisher.publishEvent(new Enqueued(job.getJobId()));
+        return job;
+    }
+
+    public PdfSignJob get(Long jobId) {
+        return pdfSignJobMapper.findById(jobId);
+    }
+
+    /**
+     * pdf 행 저장과 작업 완료를 한 트랜잭션으로 처리
+     * 그 사이 작업을 다른 노드가 가져갔으면(선점 만료) 저장을 되돌린다.
+     */
+    @Transactional
+    public void complete(PdfSignJob job, String worker, PdfDTO pdf) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                pdfMapper.insertPdf(pdf);
+                break;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("pdf_id 충돌, 다시 저장. jobId: {}, attempt: {}", job.getJobId(), attempt);
+            }
+        }
+        if (pdfSignJobMapper.markDone(job.getJobId(), worker, pdf.getPdfId(), pdf.getFilePath()) == 0) {
+            throw new IllegalStateException("작업 선점이 만료되었습니다. jobId: " + job.getJobId());
+        }
+        job.setStatus(PdfSignJob.DONE);
+        job.setPdfId(pdf.getPdfId());
+        job.setFilePath(pdf.getFilePath());
+        job.setLastError(null);
+    }
+
+    /**
+     * 실패 기록: 시도 횟수가 남았으면 지연 후 재시도(PENDING), 아니면 FAILED
+     *
+     * @return 재시도 예정이면 true
+     */
+    public boolean fail(PdfSignJob job, String worker, Exception cause, int maxAttempts, long delaySeconds) {
+        boolean retry = job.getAttempts() < maxAttempts;
+        // last_error 는 VARCHAR2(1000) 바이트 길이
+        String message = TextUtil.truncateUtf8(cause.getClass().getSimpleName() + ": " + cause.getMessage(),
+                MAX_ERROR_BYTES);
+        pdfSignJobMapper.markRetry(job.getJobId(), worker,
+                retry ? PdfSignJob.PENDING : PdfSignJob.FAILED, message, retry ? delaySeconds : 0);
+        job.setStatus(retry ? PdfSignJob.PENDING : PdfSignJob.FAILED);
+        job.setLastError(message);
+        if (retry) {
+            log.warn("PDF 서명 실패, {}초 후 재시도. jobId: {}, attempts: {}, error: {}",
+                    delaySeconds, job.getJobId(), job.getAttempts(), message);
+        } else {
+            log.error("PDF 서명 최종 실패. jobId: {}, attempts: {}", job.getJobId(), job.getAttempts(), cause);
+        }
+        return retry;
+    }
+
+    /**
+     * 작업 등록 알림 (PdfSignWorker 가 받아 바로 조회)
+     */
+    public record Enqueued(Long jobId) {
+    }
+}
@@ -0,0 +1,214 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import kr.or.kosa.visang.common.websocket.RoomDestinations;
+import kr.or.kosa.visang.domain.contract.model.PdfDTO;
+import kr.or.kosa.visang.domain.contract.model.PdfSignJob;
+import kr.or.kosa.visang.domain.contract.repository.PdfSignJobMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 최종 PDF 서명 작업 실행기
+ *
+ * 서명은 CPU 작업이므로 동시 실행 수를 코어 수(workers=0) 또는 설정값으로 제한한다.
+ * poll-interval-ms 마다, 그리고 작업이 등록되는 즉시 빈 워커 수만큼 선점(UPDATE ... WHERE status)해 실행한다.
+ * 실패하면 지연 후 재시도하고, 끝나면(DONE/FAILED) 상담방 토픽 /topic/room/{roomId}/pdf/signed 로 알린다.
+ */
+@Slf4j
+@Component
+public class PdfSignWorker {
+
+    private final PdfSignJobMapper pdfSignJobMapper;
+    private final PdfSignJobService pdfSignJobService;
+    private final PdfService pdfService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final int workers;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long retryDelaySeconds;
+    private final long staleSeconds;
+    private final String workerId;
+
+    private final Semaphore permits;
+    private final ExecutorService pool;
+    private final ScheduledExecutorService scheduler;
+
+    public PdfSignWorker(PdfSignJobMapper pdfSignJobMapper,
+                         PdfSignJobService pdfSignJobService,
+                         PdfService pdfService,
+                         SimpMessagingTemplate messagingTemplate,
+                         @Value("${app.pdf.sign.workers:0}") int workers,
+                         @Value("${app.pdf.sign.poll-interval-ms:1000}") long pollIntervalMs,
+                         @Value("${app.pdf.sign.max-attempts:3}") int maxAttempts,
+                         @Value("${app.pdf.sign.retry-delay-seconds:5}") long retryDelaySeconds,
+                         @Value("${app.pdf.sign.stale-seconds:300}") long staleSeconds) {
+        this.pdfSignJobMapper = pdfSignJobMapper;
+        this.pdfSignJobService = pdfSignJobService;
+        this.pdfService = pdfService;
+        this.messagingTemplate = messagingTemplate;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.pollIntervalMs = Math.max(100, pollIntervalMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelaySeconds = Math.max(1, retryDelaySeconds);
+        this.staleSeconds = Math.max(60, staleSeconds);
+        this.workerId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.permits = new Semaphore(this.workers);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread thread = new Thread(r, "pdf-sign-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pdf-sign-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("PDF 서명 워커 시작: worker={}, workers={}, pollIntervalMs={}", workerId, workers, pollIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        pool.shutdown();
+        try {
+            // 실행 중인 서명은 마치게 두고, 못 마친 작업은 stale-seconds 뒤 다른 노드가 가져간다
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 작업이 등록되면 조회 주기를 기다리지 않고 바로 선점
+    @EventListener
+    public void onEnqueued(PdfSignJobService.Enqueued event) {
+        try {
+            scheduler.execute(this::pollSafely);
+        } catch (RejectedExecutionException e) {
+            log.debug("종료 중이라 즉시 실행 생략. jobId: {}", event.jobId());
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("PDF 서명 작업 조회 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 빈 워커 수만큼 작업을 선점해 실행
+     */
+    void poll() {
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        List<PdfSignJob> jobs = pdfSignJobMapper.findRunnable(staleSeconds, free);
+        for (PdfSignJob job : jobs) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            if (pdfSignJobMapper.claim(job.getJobId(), workerId, staleSeconds) == 0) {
+                // 다른 노드가 먼저 가져감
+                permits.release();
+                continue;
+            }
+            job.setAttempts(job.getAttempts() + 1);
+            job.setStatus(PdfSignJob.RUNNING);
+            pool.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    void run(PdfSignJob job) {
+        PdfDTO signed = null;
+        try {
+            log.info("PDF 서명 시작. jobId: {}, contractId: {}, attempt: {}", job.getJobId(), job.getContractId(), job.getAttempts());
+            long start = System.nanoTime();
+            // 1) 서명 + 파일 기록 + 검증 (트랜잭션 밖)
+            byte[] input = pdfSignJobMapper.findInput(job.getJobId());
+            if (input == null) {
+                throw new IllegalStateException("서명 대기 원본이 없습니다. jobId: " + job.getJobId());
+            }
+            try (InputStream in = new ByteArrayInputStream(input)) {
+                signed = pdfService.signFinalPdf(in, job.getOriginalName(), job.getContractId());
+            }
+            // 2) pdf 행 저장 + 작업 완료 (짧은 트랜잭션)
+            pdfSignJobService.complete(job, workerId, signed);
+            log.info("PDF 서명 완료. jobId: {}, pdfId: {}, {} ms",
+                    job.getJobId(), signed.getPdfId(), (System.nanoTime() - start) / 1_000_000);
+            notifyRoom(job);
+        } catch (Exception e) {
+            if (signed != null) {
+                // 다음 시도에서 새 파일을 만들므로 이번 결과는 정리
+                pdfService.deleteSignedFile(signed);
+            }
+            // 재시도 간격은 시도마다 두 배 (최대 10분)
+            long delay = Math.min(600, retryDelaySeconds << Math.min(job.getAttempts() - 1, 16));
+            if (!pdfSignJobService.fail(job, workerId, e, maxAttempts, delay)) {
+                notifyRoom(job);
+            }
+        }
+    }
+
+    private void notifyRoom(PdfSignJob job) {
+        if (job.getRoomId() == null || job.getRoomId().isBlank()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("jobId", job.getJobId());
+        payload.put("contractId", job.getContractId());
+        payload.put("status", job.getStatus());
+        payload.put("pdfId", job.getPdfId());
+        payload.put("filePath", job.getFilePath());
+        payload.put("lastError", job.getLastError());
+        try {
+            messagingTemplate.convertAndSend(RoomDestinations.topic(job.getRoomId(), "pdf/signed"), payload);
+        } catch (Exception e) {
+            log.warn("PDF 서명 결과 알림 실패. jobId: {} ({})", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "pdf-sign";
+        }
+    }
+}
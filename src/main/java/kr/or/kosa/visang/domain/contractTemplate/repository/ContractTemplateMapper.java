@@ -13,6 +13,7 @@ public interface ContractTemplateMapper {
     Long getNextTemplateId();
     List<ContractTemplate> selectAllContractTemplates(@Param("companyId") Long companyId);
     ContractTemplate getPathAndHash(Long contractTemplateId);
+    List<ContractTemplate> selectAllPathAndHash();
     ContractTemplate selectTemplateById(Long contractTemplateId);
     void insertTemplate(ContractTemplate template);
     void updateTemplate(ContractTemplate template);
@@ -0,0 +1,74 @@
+package kr.or.kosa.visang.domain.contractTemplate.service;
+
+import kr.or.kosa.visang.domain.contractTemplate.model.ContractTemplate;
+import kr.or.kosa.visang.domain.contractTemplate.repository.ContractTemplateMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 기동 시 모든 계약서 템플릿 파일을 병렬로 해시해 FileHashCache 를 채운다.
+ * 이후 템플릿 요청은 파일 속성만 확인하고 바로 파일을 보낸다. (기동은 기다리지 않음)
+ */
+@Slf4j
+@Component
+public class ContractTemplateHashWarmer {
+
+    private final ContractTemplateMapper contractTemplateMapper;
+    private final ContractTemplateService contractTemplateService;
+    private final int threads;
+
+    public ContractTemplateHashWarmer(ContractTemplateMapper contractTemplateMapper,
+                                      ContractTemplateService contractTemplateService,
+                                      @Value("${app.pdf.template-hash.warmup-threads:4}") int threads) {
+        this.contractTemplateMapper = contractTemplateMapper;
+        this.contractTemplateService = contractTemplateService;
+        this.threads = threads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (threads <= 0) {
+            return;
+        }
+        List<ContractTemplate> templates;
+        try {
+            templates = contractTemplateMapper.selectAllPathAndHash();
+        } catch (Exception e) {
+            log.warn("템플릿 해시 예열 생략: 템플릿 목록 조회 실패 ({})", e.getMessage());
+            return;
+        }
+        if (templates.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, templates.size()), r -> {
+            Thread t = new Thread(r, "template-hash-warmup-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        AtomicInteger verified = new AtomicInteger();
+        CompletableFuture<?>[] tasks = templates.stream()
+                .map(template -> CompletableFuture.runAsync(() -> {
+                    if (contractTemplateService.warmTemplateHash(template)) {
+                        verified.incrementAndGet();
+                    }
+                }, pool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).whenComplete((ignored, e) -> {
+            pool.shutdown();
+            log.info("템플릿 해시 예열 완료: {}/{} 건 검증 ({} ms)", verified.get(), templates.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+}
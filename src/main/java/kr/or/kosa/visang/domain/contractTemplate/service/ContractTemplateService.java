@@ -1,19 +1,16 @@
 package kr.or.kosa.visang.domain.contractTemplate.service;
 
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfReader;
-import com.itextpdf.signatures.PdfPKCS7;
-import com.itextpdf.signatures.SignatureUtil;
-import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.common.file.FileHashCache;
 import kr.or.kosa.visang.common.file.FileStorageService;
 import kr.or.kosa.visang.domain.contract.repository.PdfMapper;
 import kr.or.kosa.visang.domain.contractTemplate.model.ContractTemplate;
 import kr.or.kosa.visang.domain.contractTemplate.repository.ContractTemplateMapper;
 import kr.or.kosa.visang.domain.pdf.enums.PDFTYPE;
 import kr.or.kosa.visang.domain.pdf.model.PDF;
+import kr.or.kosa.visang.domain.pdf.model.PdfFile;
+import kr.or.kosa.visang.domain.pdf.service.PdfSignatureVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -24,7 +21,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
-import java.security.Security;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +31,8 @@ public class ContractTemplateService {
     private final ContractTemplateMapper contractTemplateMapper;
     private final FileStorageService fileStorageService;
     private final PdfMapper pdfMapper;
+    private final FileHashCache fileHashCache;
+    private final PdfSignatureVerifier pdfSignatureVerifier;
 
     @Value("${file.upload-dir.pdf}")
     private String uploadDirPdf;
@@ -52,59 +50,90 @@ public class ContractTemplateService {
     }
 
     public Resource getTemplateResource(Long contractTemplateId) {
+        return getVerifiedTemplate(contractTemplateId).getResource();
+    }
+
+    /**
+     * 해시 검증을 마친 템플릿 파일 (검증 실패 시 안내용 파일, 해시 null)
+     */
+    public PdfFile getVerifiedTemplate(Long contractTemplateId) {
         try {
             //1. DB에서 파일 경로 + 해시값 조회
             ContractTemplate template = contractTemplateMapper.getPathAndHash(contractTemplateId);
             if (template == null) {
                 log.warn("템플릿을 찾을 수 없음: contractTemplateId={}", contractTemplateId);
-                return createDefaultPdf("계약서 템플릿을 찾을 수 없습니다.");
+                return fallbackPdf("계약서 템플릿을 찾을 수 없습니다.");
             }
 
             String path = template.getFilePath();
             if (path == null || path.isEmpty()) {
                 log.warn("템플릿 파일 경로가 비어있음: contractTemplateId={}", contractTemplateId);
-                return createDefaultPdf("계약서 템플릿 파일 경로가 비어있습니다.");
+                return fallbackPdf("계약서 템플릿 파일 경로가 비어있습니다.");
             }
             String fileHash = template.getFileHash();
             if (fileHash == null || fileHash.isEmpty()) {
                 log.warn("템플릿 파일 해시값이 비어있음: contractTemplateId={}", contractTemplateId);
-                return createDefaultPdf("계약서 템플릿 파일 해시값이 비어있습니다.");
+                return fallbackPdf("계약서 템플릿 파일 해시값이 비어있습니다.");
             }
 
             //2. 파일 경로를 실제 경로로 변환
             Path filePath = Paths.get(uploadDirPdf, Paths.get(path).getFileName().toString());
             if (!Files.exists(filePath)) {
                 log.warn("템플릿 파일이 존재하지 않음: path={}", filePath);
-                return createDefaultPdf("계약서 템플릿 파일이 존재하지 않습니다.");
+                return fallbackPdf("계약서 템플릿 파일이 존재하지 않습니다.");
             }
 
-            //3. 해시값 검증
+            //3. 해시값 검증 (파일이 바뀌지 않았으면 캐시된 해시 사용)
             try {
-                String calculatedHash = HashUtil.sha256(filePath.toString());
+                String calculatedHash = fileHashCache.sha256(filePath);
 
                 if (!calculatedHash.equals(fileHash)) {
                     log.warn("템플릿 파일 해시 불일치: expected={}, actual={}", fileHash, calculatedHash);
-                    return createDefaultPdf("계약서 템플릿 파일이 위변조되었습니다.");
+                    return fallbackPdf("계약서 템플릿 파일이 위변조되었습니다.");
                 }
 
-            } catch (NoSuchAlgorithmException | IOException e) {
+            } catch (IOException e) {
                 log.warn("템플릿 파일 해시 검증 실패: {}", e.getMessage());
-                return createDefaultPdf("계약서 템플릿 파일 검증에 실패했습니다.");
+                return fallbackPdf("계약서 템플릿 파일 검증에 실패했습니다.");
             }
 
             // 정상적인 파일 제공
-            return fileStorageService.loadResource(path, PDFTYPE.TEMPLATE_PDF);
+            return new PdfFile(fileStorageService.loadResource(path, PDFTYPE.TEMPLATE_PDF), fileHash);
         } catch (Exception e) {
             log.error("템플릿 파일 제공 중 예외 발생: contractTemplateId={}", contractTemplateId, e);
-            return createDefaultPdf("계약서 템플릿 처리 중 오류가 발생했습니다.");
+            return fallbackPdf("계약서 템플릿 처리 중 오류가 발생했습니다.");
         }
     }
 
-    public Resource getSignedPdfResource(Long pdfId){
-        //1. DB에서 파일 경로 + 해시값 조회
-        //ContractTemplate template = contractTemplateMapper.getPathAndHash(contractTemplateId);
+    /**
+     * 템플릿에 저장된 해시 (ETag 비교용, 파일은 읽지 않음)
+     */
+    public String getTemplateHash(Long contractTemplateId) {
+        ContractTemplate template = contractTemplateMapper.getPathAndHash(contractTemplateId);
+        return template != null ? template.getFileHash() : null;
+    }
+
+    /**
+     * 서명 PDF 에 저장된 해시 (ETag 비교용, 파일은 읽지 않음)
+     */
+    public String getSignedPdfHash(Long pdfId) {
+        PDF pdf = pdfMapper.getPathAndHash(pdfId);
+        return pdf != null ? pdf.getFileHash() : null;
+    }
+
+    public Resource getSignedPdfResource(Long pdfId) {
+        return getSignedPdfResource(pdfId, false);
+    }
+
+    /**
+     * 서명 PDF 제공
+     *
+     * 서명 검증은 서명 시점에 한 번 수행해 pdf.sig_verified 에 기록해 두므로, 평소에는 파일 해시만 확인한다.
+     * 검증 기록이 없거나 reverify(감사용 강제 재검증)이면 전자서명을 다시 검증하고 결과를 갱신한다.
+     */
+    public Resource getSignedPdfResource(Long pdfId, boolean reverify) {
+        //1. DB에서 파일 경로 + 해시값 + 검증 결과 조회
         PDF pdf = pdfMapper.getPathAndHash(pdfId);
-        System.out.println("pdfId: " + pdfId + ", pdf: " + pdf);
         if (pdf == null) throw new RuntimeException("해당 계약서가 존재하지 않습니다.");
 
         String path = pdf.getFilePath();
@@ -118,30 +147,32 @@ public class ContractTemplateService {
 
         //2. 파일 경로를 실제 경로로 변환
         Path filePath = Paths.get(uploadDirSignedPdf, Paths.get(path).getFileName().toString());
-        System.out.println("filePath: " + filePath);
 
-        //3. 해시값 검증
+        //3. 해시값 검증 (파일이 바뀌지 않았으면 캐시된 해시 사용)
+        String calculatedHash;
         try {
-            String calculatedHash = HashUtil.sha256(filePath.toString());
-            System.out.println("calculatedHash: " + calculatedHash);
-            System.out.println("fileHash: " + fileHash);
-
-            if (!calculatedHash.equals(fileHash)) {
-                throw new SecurityException("❌ 템플릿 파일이 위변조되었습니다. 해시 불일치");
-            }
+            calculatedHash = fileHashCache.sha256(filePath);
+        } catch (IOException e) {
+            throw new RuntimeException("계약서 파일을 읽는 중 오류가 발생했습니다.", e);
+        }
+        if (!calculatedHash.equals(fileHash)) {
+            log.warn("서명 PDF 해시 불일치: pdfId={}, expected={}, actual={}", pdfId, fileHash, calculatedHash);
+            throw new SecurityException("❌ 계약서 파일이 위변조되었습니다. 해시 불일치");
+        }
 
-            // 전자서명 검증
-            if (!isPdfSignatureValid(filePath.toString())) {
-                throw new SecurityException("❌ PDF 서명이 유효하지 않습니다.");
+        //4. 전자서명 검증 (기록이 없거나 강제 재검증일 때만)
+        Boolean verified = pdf.getSignatureVerified();
+        if (verified == null || reverify) {
+            try {
+                verified = pdfSignatureVerifier.verify(filePath);
+            } catch (IOException e) {
+                throw new RuntimeException("PDF 서명 검증 중 오류가 발생했습니다.", e);
             }
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("해시값 계산 중 오류가 발생했습니다.", e);
-        } catch (IOException e) {
-            throw new RuntimeException("계약서 템플릿 파일을 읽는 중 오류가 발생했습니다.", e);
-        } catch (Exception e) {
-            System.out.println("PDF 서명 검증 중 오류 발생: " + e.getMessage());
-            throw new RuntimeException("PDF 서명 검증 중 오류가 발생했습니다.", e);
+            pdfMapper.updateSignatureVerification(pdfId, verified);
+            log.info("서명 PDF 재검증: pdfId={}, valid={}, reverify={}", pdfId, verified, reverify);
+        }
+        if (!verified) {
+            throw new SecurityException("❌ PDF 서명이 유효하지 않습니다.");
         }
 
         return fileStorageService.loadResource(path, PDFTYPE.SIGNED_PDF);
@@ -162,15 +193,38 @@ public class ContractTemplateService {
 
         //3. 해시값 검증
         try {
-            String calculatedHash = HashUtil.sha256(filePath.toString());
+            String calculatedHash = fileHashCache.sha256(filePath);
             return calculatedHash.equals(fileHash);
-        } catch (NoSuchAlgorithmException e1){
-            throw new RuntimeException("해시값 계산 중 오류가 발생했습니다.", e1);
         } catch(IOException e2) {
             throw new RuntimeException("파일을 읽던 도중 오류가 발생했습니다.", e2);
         }
     }
 
+    /**
+     * 템플릿 해시 캐시 예열 (기동 시 호출, 불일치/오류는 로그만 남김)
+     *
+     * @return 파일 해시가 DB 해시와 일치하면 true
+     */
+    public boolean warmTemplateHash(ContractTemplate template) {
+        String path = template.getFilePath();
+        String fileHash = template.getFileHash();
+        if (path == null || path.isEmpty() || fileHash == null || fileHash.isEmpty()) {
+            return false;
+        }
+        Path filePath = Paths.get(uploadDirPdf, Paths.get(path).getFileName().toString());
+        try {
+            String calculatedHash = fileHashCache.sha256(filePath);
+            if (!calculatedHash.equals(fileHash)) {
+                log.warn("템플릿 파일 해시 불일치: contractTemplateId={}, path={}", template.getContractTemplateId(), filePath);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("템플릿 해시 예열 실패: contractTemplateId={}, path={} ({})", template.getContractTemplateId(), filePath, e.getMessage());
+            return false;
+        }
+    }
+
     // 계약서 템플릿 생성
     public void createTemplate(ContractTemplate contractTemplate) throws IOException, NoSuchAlgorithmException {
         // 1. 먼저 ID 확보
@@ -188,7 +242,7 @@ public class ContractTemplateService {
         // 파일 경로를 실제 경로로 변환
         String fileName = Paths.get(savePath).getFileName().toString();
         Path path = Paths.get(uploadDirPdf, fileName);
-        String hash = HashUtil.sha256(path.toString());
+        String hash = fileHashCache.sha256(path);
 
         // 3. 해시 중복 확인
         Optional<ContractTemplate> existing = contractTemplateMapper.findByFileHash(hash);
@@ -217,7 +271,7 @@ public class ContractTemplateService {
             if (newPath == null || newPath.isEmpty()) {
                 throw new RuntimeException("새로운 PDF 파일이 비어있거나 저장에 실패했습니다.");
             }
-            String hash = HashUtil.sha256(Paths.get(uploadDirPdf, Paths.get(newPath).getFileName().toString()).toString());
+            String hash = fileHashCache.sha256(Paths.get(uploadDirPdf, Paths.get(newPath).getFileName().toString()));
 
             // 해시 중복 확인
             Optional<ContractTemplate> existing = contractTemplateMapper.findByFileHash(hash);
@@ -247,44 +301,7 @@ public class ContractTemplateService {
     }
 
     public boolean isPdfSignatureValid(String signedPdfPath) throws Exception {
-        try {
-            System.out.println("PDF 서명 검증 시작: " + signedPdfPath);
-            PdfDocument pdfDoc = new PdfDocument(new PdfReader(signedPdfPath));
-            SignatureUtil signUtil = new SignatureUtil(pdfDoc);
-
-            if (Security.getProvider("BC") == null) {
-                System.out.println("BouncyCastle 프로바이더가 등록되지 않았습니다. 등록합니다.");
-                Security.addProvider(new BouncyCastleProvider());
-            }
-
-            List<String> signatureNames = signUtil.getSignatureNames();
-            if (signatureNames.isEmpty()) {
-                throw new IllegalStateException("PDF에 전자서명 필드가 없습니다.");
-            }
-            for (String name : signatureNames) {
-                try {
-                    PdfPKCS7 pkcs7 = signUtil.readSignatureData(name);
-                    boolean verified = pkcs7.verifySignatureIntegrityAndAuthenticity();
-
-                    System.out.println("서명 필드: " + name);
-                    System.out.println("유효한 서명인가? " + verified);
-                    System.out.println("서명자 DN: " + pkcs7.getSigningCertificate().getSubjectDN());
-                    System.out.println("서명일: " + pkcs7.getSignDate().getTime());
-
-                    if (!verified) return false;
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    System.out.println("서명 필드 [" + name + "] 오류: " + e.getMessage());
-                    // 실제 유저에게 보여줄 안내:
-                    throw new IllegalStateException("PDF 서명 정보가 비정상적입니다. (서명 필드: " + name + ")");
-                }
-            }
-            return true;
-        } catch (Exception e) {
-            System.out.println("PDF 서명 검증 중 내부 오류: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        return pdfSignatureVerifier.verify(Paths.get(signedPdfPath));
     }
 
     /**
@@ -382,6 +399,10 @@ public class ContractTemplateService {
         }
     }
 
+    private PdfFile fallbackPdf(String message) {
+        return new PdfFile(createDefaultPdf(message), null);
+    }
+
     /**
      * 기본 PDF 리소스 생성
      */
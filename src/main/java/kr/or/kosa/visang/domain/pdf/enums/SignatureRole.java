@@ -0,0 +1,52 @@
+package kr.or.kosa.visang.domain.pdf.enums;
+
+/**
+ * 계약서 서명 주체 (선언 순서 = 서명 순서)
+ * 회사 직인은 최종 업로드 때 첫 리비전으로 찍고, 상담원/계약자 서명은 각자 요청할 때 그 뒤에 증분(append) 리비전으로 덧붙인다.
+ * 서명마다 별도 필드를 쓰며, 마지막으로 덧붙은 서명이 문서 전체를 덮는다.
+ */
+public enum SignatureRole {
+    COMPANY_SEAL("CompanySeal", "계약서 전자서명", 300, 50, 250, 80),
+    AGENT("AgentSignature", "상담원 서명", 40, 140, 250, 70),
+    CLIENT("ClientSignature", "계약자 서명", 300, 140, 250, 70);
+
+    private final String fieldName;
+    private final String reason;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+
+    SignatureRole(String fieldName, String reason, float x, float y, float width, float height) {
+        this.fieldName = fieldName;
+        this.reason = reason;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+}
@@ -2,6 +2,8 @@ package kr.or.kosa.visang.domain.pdf.model;
 
 import lombok.Data;
 
+import java.util.Date;
+
 @Data
 public class PDF {
     private Long pdfId; // PDF ID
@@ -9,4 +11,6 @@ public class PDF {
     private String fileHash; // 파일 해시값
     private String createdAt; // 생성 일시
     private Long contractId;
+    private Boolean signatureVerified; // 서명 검증 결과 (null: 미검증)
+    private Date signatureVerifiedAt; // 서명 검증 일시
 }
@@ -0,0 +1,15 @@
+package kr.or.kosa.visang.domain.pdf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.Resource;
+
+/**
+ * 검증을 마친 PDF 파일 리소스와 저장된 해시 (해시가 null 이면 안내용 대체 파일)
+ */
+@Getter
+@AllArgsConstructor
+public class PdfFile {
+    private final Resource resource;
+    private final String fileHash;
+}
@@ -0,0 +1,97 @@
+package kr.or.kosa.visang.domain.pdf.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.signatures.PdfPKCS7;
+import com.itextpdf.signatures.SignatureUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Security;
+import java.util.List;
+
+/**
+ * 서명 PDF 전자서명 검증 (모든 서명 필드의 무결성/서명자 확인)
+ *
+ * CPU 비용이 크므로 서명 직후 한 번 실행하고 결과는 pdf 테이블에 기록한다.
+ * 증분 서명 문서는 마지막 서명이 문서 전체를 덮어야 한다. (그 뒤에 덧붙은 수정이 없어야 함)
+ */
+@Slf4j
+@Component
+public class PdfSignatureVerifier {
+
+    static {
+        if (Security.getProvider("BC") == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    /**
+     * @return 서명 필드가 하나 이상 있고 모두 유효하며, 마지막 서명이 문서 전체를 덮으면 true
+     * @throws IOException PDF 를 읽을 수 없을 때
+     */
+    public boolean verify(Path signedPdf) throws IOException {
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfReader(signedPdf.toFile()))) {
+            SignatureUtil signUtil = new SignatureUtil(pdfDoc);
+            List<String> signatureNames = signUtil.getSignatureNames();
+            if (signatureNames.isEmpty()) {
+                log.warn("PDF 에 전자서명 필드가 없음: {}", signedPdf);
+                return false;
+            }
+            for (String name : signatureNames) {
+                PdfPKCS7 pkcs7 = signUtil.readSignatureData(name);
+                boolean verified;
+                try {
+                    verified = pkcs7.verifySignatureIntegrityAndAuthenticity();
+                } catch (GeneralSecurityException e) {
+                    log.warn("서명 필드 [{}] 검증 오류: {} ({})", name, signedPdf, e.getMessage());
+                    return false;
+                }
+                log.info("서명 필드 [{}] 검증: valid={}, 서명자={}", name, verified,
+                        pkcs7.getSigningCertificate().getSubjectX500Principal().getName());
+                if (!verified) {
+                    return false;
+                }
+            }
+            String last = signatureNames.get(signatureNames.size() - 1);
+            if (!signUtil.signatureCoversWholeDocument(last)) {
+                log.warn("마지막 서명 [{}] 이후 서명되지 않은 수정이 있음: {}", last, signedPdf);
+                return false;
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // iText 는 손상된 서명 사전을 런타임 예외로 알림
+            log.warn("PDF 서명 정보가 비정상적임: {} ({})", signedPdf, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 방금 덧붙인 서명 필드 하나만 검증 (앞선 서명은 이미 검증해 기록해 둔 경우)
+     * 앞 리비전 바이트는 바뀌지 않았으므로 앞선 서명의 결과는 그대로 유효하다.
+     *
+     * @return 해당 필드가 유효하고 문서 전체를 덮으면 true
+     * @throws IOException PDF 를 읽을 수 없을 때
+     */
+    public boolean verifyLatest(Path signedPdf, String fieldName) throws IOException {
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfReader(signedPdf.toFile()))) {
+            SignatureUtil signUtil = new SignatureUtil(pdfDoc);
+            if (!signUtil.signatureCoversWholeDocument(fieldName)) {
+                log.warn("서명 [{}] 이 문서 전체를 덮지 않음: {}", fieldName, signedPdf);
+                return false;
+            }
+            PdfPKCS7 pkcs7 = signUtil.readSignatureData(fieldName);
+            boolean verified = pkcs7.verifySignatureIntegrityAndAuthenticity();
+            log.info("서명 필드 [{}] 검증: valid={}, 서명자={}", fieldName, verified,
+                    pkcs7.getSigningCertificate().getSubjectX500Principal().getName());
+            return verified;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            log.warn("서명 필드 [{}] 검증 오류: {} ({})", fieldName, signedPdf, e.getMessage());
+            return false;
+        }
+    }
+}
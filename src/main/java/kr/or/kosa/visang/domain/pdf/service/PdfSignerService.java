@@ -1,35 +1,63 @@
 package kr.or.kosa.visang.domain.pdf.service;
 
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
-import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.Rectangle;
-import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.ReaderProperties;
 import com.itextpdf.kernel.pdf.StampingProperties;
 import com.itextpdf.signatures.*;
+import jakarta.annotation.PostConstruct;
 import kr.or.kosa.visang.common.config.key.KeystoreLoader;
 import kr.or.kosa.visang.domain.contract.model.ContractSingedDTO;
+import kr.or.kosa.visang.domain.pdf.enums.SignatureRole;
+import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.PrivateKey;
-import java.security.Provider;
 import java.security.Security;
 import java.security.cert.Certificate;
+import java.util.HexFormat;
+import java.util.Objects;
 
+/**
+ * 계약서 PDF 전자서명 엔진
+ *
+ * 키/인증서 체인, 서명 글꼴, 도장 이미지를 한 번 읽어 메모리에 두고 재사용한다.
+ * 최종 업로드 때는 회사 직인 하나만 찍고, 상담원/계약자 서명은 각자 요청할 때 증분(append) 리비전으로 덧붙인다.
+ * 개별 서명은 기존 파일 끝에 새 리비전 바이트만 이어 쓴다.
+ * 키스토어 파일의 수정 시각이 바뀌면 다음 서명 때 키를 다시 읽는다. (classpath 키스토어는 최초 1회만)
+ */
+@Slf4j
+@Service
 public class PdfSignerService {
 
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final IExternalDigest DIGEST = new BouncyCastleDigest();
+
     static {
         // BouncyCastle 프로바이더 등록
         if (Security.getProvider("BC") == null) {
@@ -37,83 +65,298 @@ public class PdfSignerService {
         }
     }
 
-    public static void signPdf(
-            InputStream inputStream,
-            String outputPdfPath,
-            String keystorePath,
-            String keystorePassword,
-            String alias,
-            String signedPdfPath,
-            ContractSingedDTO contractSingedDTO
-    ) throws Exception {
-        System.out.println("🔐 등록된 프로바이더 목록:");
-        for (Provider provider : Security.getProviders()) {
-            System.out.println(" - " + provider.getName());
-        }
+    private final String keystorePath;
+    private final String keystorePassword;
+    private final String alias;
+    private final String fontPath;
+    private final String stampLocation;
 
+    // 서명 글꼴 파일이 없을 때 쓰는 한글 글꼴 (font-asian, PDF 에 내장하지 않는 CID 글꼴)
+    private static final String FALLBACK_FONT = "HYGoThic-Medium";
+    private static final String FALLBACK_ENCODING = "UniKS-UCS2-H";
 
-        // 1. Keystore에서 키/인증서 가져오기
-        PrivateKey privateKey = KeystoreLoader.loadPrivateKey(keystorePath, keystorePassword, alias);
-        Certificate[] certChain = KeystoreLoader.loadCertificateChain(keystorePath, keystorePassword, alias);
+    private volatile KeyMaterial keyMaterial;
+    // 서명 글꼴과 인코딩 (글꼴 파일이 없으면 FALLBACK_FONT)
+    private volatile FontProgram fontProgram;
+    private volatile String fontEncoding;
+    private volatile ImageData stamp;
 
-        //2. PDF 열기 + 출력 경로 설정
-        Path uploadRoot = Paths.get(signedPdfPath);
-        Path outputPath = uploadRoot.resolve(outputPdfPath);
+    public PdfSignerService(@Value("${server.ssl.key-store}") String keystorePath,
+                            @Value("${server.ssl.key-store-password}") String keystorePassword,
+                            @Value("${app.pdf.sign.key-alias:contract-signing-key}") String alias,
+                            @Value("${app.pdf.sign.font:fonts/malgun.ttf}") String fontPath,
+                            @Value("${app.pdf.sign.stamp:static/images/stamp/visang_stamp.png}") String stampLocation) {
+        this.keystorePath = keystorePath;
+        this.keystorePassword = keystorePassword;
+        this.alias = alias;
+        this.fontPath = fontPath;
+        this.stampLocation = stampLocation;
+    }
 
+    @PostConstruct
+    void preload() {
+        try {
+            keyMaterial();
+            resources();
+        } catch (Exception e) {
+            // 기동은 막지 않고 첫 서명 때 다시 시도
+            log.warn("서명 키/리소스 미리 읽기 실패: {}", e.getMessage());
+        }
+    }
 
-        // 부모 디렉토리 얻기 (항상 uploadRoot가 있으므로 null 아님)
+    /**
+     * PDF 서명 후 outputPath 에 기록 (실패하면 쓰다 만 파일은 삭제)
+     *
+     * @return 기록한 파일의 SHA-256 (쓰면서 계산하므로 다시 읽지 않음)
+     */
+    public String signPdf(InputStream inputStream, Path outputPath, ContractSingedDTO contractSingedDTO)
+            throws IOException, GeneralSecurityException {
         Path parent = outputPath.getParent();
-
-        // 디렉토리가 존재하지 않으면 생성
-        if (parent != null && !Files.exists(parent)) {
-            Files.createDirectories(parent);  // 디렉토리 생성 (없을 경우)
+        if (parent != null) {
+            Files.createDirectories(parent);
         }
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(outputPath), sha256)) {
+            sign(inputStream, out, contractSingedDTO);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            Files.deleteIfExists(outputPath);
+            throw e;
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
 
-        // 1. InputStream을 복제 (바이트 배열로)
-        byte[] pdfBytes = inputStream.readAllBytes();
-
-        // 2. PDF 열고 signer 준비
-
-        PdfDocument pdfDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdfBytes)));
-        int totalPages = pdfDoc.getNumberOfPages();
-        pdfDoc.close();  // 닫아줘야 PdfSigner가 정상 작동함
-
-        PdfReader reader = new PdfReader(new ByteArrayInputStream(pdfBytes));
-        PdfSigner signer = new PdfSigner(reader, new FileOutputStream(outputPath.toFile()), new StampingProperties());
+    /**
+     * 이미 저장된 서명 PDF 에 서명 하나를 증분으로 덧붙임 (상담원/계약자 개별 서명)
+     * 기존 바이트는 건드리지 않고 새 리비전 바이트만 파일 끝에 이어 쓴다. (임시 파일 복사/교체 없음)
+     * 실패하면 서명 전 크기로 잘라 되돌리고, 저장(트랜잭션) 실패 시에도 같은 방식으로 되돌릴 수 있다.
+     * pdf.file_hash / sig_verified 갱신은 호출한 쪽(PdfService.signAsParty)에서 한다.
+     *
+     * @return 덧붙인 뒤 파일 전체의 SHA-256 (서명기가 내보내는 바이트로 계산하므로 파일을 다시 읽지 않음)
+     * @throws IllegalStateException 해당 주체가 이미 서명했을 때
+     */
+    public String appendSignature(Path signedPdf, SignatureRole role, ContractSingedDTO contractSingedDTO)
+            throws IOException, GeneralSecurityException {
+        long previousSize = Files.size(signedPdf);
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (RevisionOutputStream revision = new RevisionOutputStream(
+                Files.newOutputStream(signedPdf, StandardOpenOption.APPEND), previousSize);
+             OutputStream out = new DigestOutputStream(revision, sha256)) {
+            appendSignature(new PdfReader(signedPdf.toFile()), out, role, contractSingedDTO);
+            revision.checkPrefixSkipped();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            truncate(signedPdf, previousSize);
+            throw e;
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
 
-        // ✅ 3. 서명 외형 설정
-        Rectangle rect = new Rectangle(300, 50, 250, 80); // PDF 좌하단에 위치
+    /**
+     * 최종 업로드 서명: 회사 직인 하나 (상담원/계약자 서명은 appendSignature 로 따로 덧붙임)
+     */
+    public void sign(InputStream inputStream, OutputStream out, ContractSingedDTO contractSingedDTO)
+            throws IOException, GeneralSecurityException {
+        PdfReader reader = new PdfReader(
+                new RandomAccessSourceFactory().createSource(inputStream.readAllBytes()), new ReaderProperties());
+        appendSignature(reader, out, SignatureRole.COMPANY_SEAL, contractSingedDTO);
+    }
 
-        // 서명 폰트설정
-        PdfFont font = PdfFontFactory.createFont("fonts/malgun.ttf", PdfEncodings.IDENTITY_H);
+    /**
+     * 서명 하나를 증분(append) 모드로 추가 (문서는 한 번만 파싱)
+     * 출력은 원본 바이트 + 새 리비전 순서로 나온다.
+     *
+     * @throws IllegalStateException 해당 주체의 서명 필드가 이미 있을 때
+     */
+    private void appendSignature(PdfReader reader, OutputStream out, SignatureRole role, ContractSingedDTO contractSingedDTO)
+            throws IOException, GeneralSecurityException {
+        KeyMaterial key = keyMaterial();
+        resources();
 
-        // 이미지 리소스 불러오기
-        InputStream is = new ClassPathResource("static/images/stamp/visang_stamp.png").getInputStream();
-        ImageData imageData = ImageDataFactory.create(StreamUtil.inputStreamToArray(is));
+        PdfSigner signer = new PdfSigner(reader, out, new StampingProperties().useAppendMode());
+        if (new SignatureUtil(signer.getDocument()).getSignatureNames().contains(role.getFieldName())) {
+            reader.close();
+            throw new IllegalStateException("이미 서명된 문서입니다: " + role.getReason());
+        }
+        // 페이지 수는 서명기가 연 문서에서 바로 읽음 (별도 파싱 없음)
+        int totalPages = signer.getDocument().getNumberOfPages();
 
+        // 서명 외형 설정 (마지막 페이지 하단, 주체별 위치)
+        Rectangle rect = new Rectangle(role.getX(), role.getY(), role.getWidth(), role.getHeight());
+        PdfFont font = PdfFontFactory.createFont(fontProgram, fontEncoding);
 
         PdfSignatureAppearance appearance = signer.getSignatureAppearance()
-                .setReason("계약서 전자서명")
+                .setReason(role.getReason())
                 .setLocation("서울")
                 .setPageRect(rect)
                 .setPageNumber(totalPages)
-                .setLayer2Font(font) // ★ 폰트 적용
-                .setLayer2FontSize(12f) // 글씨 크기 조정
-                .setLayer2Text("전자서명자: VISANG" +
-                                "\n 상담원 : "+ contractSingedDTO.getAgentName()+
-                                "\n 계약자 : " + contractSingedDTO.getClientName() +
-                                "\n 서명일 : " + java.time.LocalDate.now() +
-                                "\n 문서 무결성 검증됨")
-                .setSignatureGraphic(imageData) // ★ 도장 이미지
-                .setRenderingMode(PdfSignatureAppearance.RenderingMode.GRAPHIC_AND_DESCRIPTION); // 텍스트로 서명 표시
-
-        signer.setFieldName("Signature1");
-
-        // 3. 서명 알고리즘 및 설정
-        IExternalSignature signature = new PrivateKeySignature(privateKey, "SHA256", "BC");
-        IExternalDigest digest = new BouncyCastleDigest();
-
-        // 4. 실제 서명 수행
-        signer.signDetached(digest, signature, certChain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+                .setLayer2Font(font)
+                .setLayer2FontSize(role == SignatureRole.COMPANY_SEAL ? 12f : 10f)
+                .setLayer2Text(description(role, contractSingedDTO));
+        if (role == SignatureRole.COMPANY_SEAL) {
+            appearance.setSignatureGraphic(stamp) // 도장 이미지
+                    .setRenderingMode(PdfSignatureAppearance.RenderingMode.GRAPHIC_AND_DESCRIPTION);
+        } else {
+            appearance.setRenderingMode(PdfSignatureAppearance.RenderingMode.DESCRIPTION);
+        }
+
+        signer.setFieldName(role.getFieldName());
+
+        // 서명 알고리즘 및 실제 서명 수행
+        IExternalSignature signature = new PrivateKeySignature(key.privateKey, "SHA256", "BC");
+        signer.signDetached(DIGEST, signature, key.chain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
+    // 실패한 증분 쓰기 되돌리기 (서명 전 크기로 자름)
+    private static void truncate(Path file, long size) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        } catch (IOException e) {
+            log.error("증분 서명 되돌리기 실패: {} ({})", file, e.getMessage());
+        }
+    }
+
+    private static String description(SignatureRole role, ContractSingedDTO contractSingedDTO) {
+        String today = java.time.LocalDate.now().toString();
+        switch (role) {
+            case AGENT:
+                return "상담원 서명" +
+                        "\n 상담원 : " + contractSingedDTO.getAgentName() +
+                        "\n 서명일 : " + today;
+            case CLIENT:
+                return "계약자 서명" +
+                        "\n 계약자 : " + contractSingedDTO.getClientName() +
+                        "\n 서명일 : " + today;
+            default:
+                return "전자서명자: VISANG" +
+                        "\n 상담원 : " + contractSingedDTO.getAgentName() +
+                        "\n 계약자 : " + contractSingedDTO.getClientName() +
+                        "\n 서명일 : " + today +
+                        "\n 문서 무결성 검증됨";
+        }
+    }
+
+    // 키스토어가 바뀌었으면 다시 읽음
+    private KeyMaterial keyMaterial() throws IOException, GeneralSecurityException {
+        FileTime modified = keystoreModifiedTime();
+        KeyMaterial current = keyMaterial;
+        if (current != null && Objects.equals(current.modified, modified)) {
+            return current;
+        }
+        synchronized (this) {
+            current = keyMaterial;
+            if (current != null && Objects.equals(current.modified, modified)) {
+                return current;
+            }
+            KeyStore keystore = KeystoreLoader.load(keystorePath, keystorePassword);
+            PrivateKey privateKey = (PrivateKey) keystore.getKey(alias, keystorePassword.toCharArray());
+            Certificate[] chain = keystore.getCertificateChain(alias);
+            if (privateKey == null || chain == null) {
+                throw new GeneralSecurityException("키스토어에 서명 키가 없습니다: alias=" + alias);
+            }
+            current = new KeyMaterial(privateKey, chain, modified);
+            keyMaterial = current;
+            log.info("서명 키스토어 로드: alias={}, 인증서 {}개", alias, chain.length);
+            return current;
+        }
+    }
+
+    private FileTime keystoreModifiedTime() throws IOException {
+        if (keystorePath.startsWith(CLASSPATH_PREFIX)) {
+            return null;
+        }
+        return Files.getLastModifiedTime(Paths.get(keystorePath));
+    }
+
+    private void resources() throws IOException {
+        if (stamp != null) {
+            return;
+        }
+        synchronized (this) {
+            if (stamp != null) {
+                return;
+            }
+            loadFont();
+            try (InputStream is = new ClassPathResource(stampLocation).getInputStream()) {
+                stamp = ImageDataFactory.create(is.readAllBytes());
+            }
+        }
+    }
+
+    // 서명 설명에는 이름 등 한글이 들어가므로 한글이 없는 기본 글꼴(Helvetica)로는 대체하지 않는다
+    private void loadFont() {
+        try {
+            fontProgram = FontProgramFactory.createFont(fontPath);
+            fontEncoding = PdfEncodings.IDENTITY_H;
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.warn("서명 글꼴을 읽을 수 없어 {} 사용: {} ({})", FALLBACK_FONT, fontPath, e.getMessage());
+        }
+        try {
+            fontProgram = FontProgramFactory.createFont(FALLBACK_FONT);
+            fontEncoding = FALLBACK_ENCODING;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("한글을 표시할 서명 글꼴이 없습니다: " + fontPath, e);
+        }
+    }
+
+    /**
+     * 증분 서명 출력 중 기존 파일과 같은 앞부분(prefixLength 바이트)은 버리고, 새 리비전 바이트만 파일 끝에 쓴다.
+     */
+    private static final class RevisionOutputStream extends OutputStream {
+        private final OutputStream appendTarget;
+        private long prefixRemaining;
+
+        private RevisionOutputStream(OutputStream appendTarget, long prefixLength) {
+            this.appendTarget = appendTarget;
+            this.prefixRemaining = prefixLength;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (prefixRemaining > 0) {
+                prefixRemaining--;
+                return;
+            }
+            appendTarget.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int skip = (int) Math.min(prefixRemaining, len);
+            prefixRemaining -= skip;
+            if (len > skip) {
+                appendTarget.write(b, off + skip, len - skip);
+            }
+        }
+
+        // 서명기 출력이 기존 파일보다 짧으면 증분 형식이 아니므로 실패 처리
+        private void checkPrefixSkipped() throws IOException {
+            if (prefixRemaining > 0) {
+                throw new IOException("증분 서명 출력이 기존 파일보다 짧습니다.");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            appendTarget.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            appendTarget.close();
+        }
+    }
+
+    private static final class KeyMaterial {
+        private final PrivateKey privateKey;
+        private final Certificate[] chain;
+        private final FileTime modified;
+
+        private KeyMaterial(PrivateKey privateKey, Certificate[] chain, FileTime modified) {
+            this.privateKey = privateKey;
+            this.chain = chain;
+            this.modified = modified;
+        }
     }
 }
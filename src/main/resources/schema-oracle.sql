@@ -130,6 +130,26 @@ EXCEPTION
 END;
 /
 
+BEGIN
+  EXECUTE IMMEDIATE 'DROP SEQUENCE chat_export_job_seq';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -2289 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'DROP SEQUENCE pdf_sign_job_seq';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -2289 THEN
+      RAISE;
+    END IF;
+END;
+/
+
 -- 시퀀스 생성
 CREATE SEQUENCE company_seq START WITH 2 INCREMENT BY 1
 /
@@ -164,6 +184,22 @@ NOCACHE
 NOCYCLE
 /
 
+-- Chat 내보내기 작업 시퀀스 생성
+CREATE SEQUENCE chat_export_job_seq
+START WITH 1
+INCREMENT BY 1
+NOCACHE
+NOCYCLE
+/
+
+-- PDF 서명 작업 시퀀스 생성
+CREATE SEQUENCE pdf_sign_job_seq
+START WITH 1
+INCREMENT BY 1
+NOCACHE
+NOCYCLE
+/
+
 -- 회사 테이블
 BEGIN
   EXECUTE IMMEDIATE '
@@ -406,7 +442,77 @@ BEGIN
       chat_content CLOB,
       chat_type VARCHAR2(20),
       send_time TIMESTAMP DEFAULT SYSDATE,
-      export_filepath VARCHAR2(500)
+      export_filepath VARCHAR2(500),
+      file_hash VARCHAR2(64),
+      sender VARCHAR2(50),
+      sender_name VARCHAR2(100)
+  )';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+-- Chat 테이블 컬럼 추가 (기존 테이블, 이미 있으면 무시)
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER TABLE chat ADD (file_hash VARCHAR2(64))';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -1430 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER TABLE chat ADD (sender VARCHAR2(50), sender_name VARCHAR2(100))';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -1430 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+-- Chat 테이블 인덱스 생성 (계약별 chat_id 키셋 페이지 조회, 단일 컬럼 인덱스는 대체)
+BEGIN
+  EXECUTE IMMEDIATE 'DROP INDEX idx_chat_contract_id';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -1418 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX idx_chat_contract_chat_id ON chat(contract_id, chat_id)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+-- Chat 내보내기 작업(아웃박스) 테이블 생성
+BEGIN
+  EXECUTE IMMEDIATE '
+  CREATE TABLE chat_export_job (
+      job_id NUMBER(19) PRIMARY KEY,
+      contract_id NUMBER(19) NOT NULL,
+      requested_by VARCHAR2(100),
+      status VARCHAR2(20) NOT NULL,
+      attempts NUMBER(5) DEFAULT 0 NOT NULL,
+      last_error VARCHAR2(1000),
+      file_path VARCHAR2(500),
+      file_hash VARCHAR2(64),
+      locked_by VARCHAR2(100),
+      next_attempt_at TIMESTAMP NOT NULL,
+      created_at TIMESTAMP NOT NULL,
+      updated_at TIMESTAMP NOT NULL
   )';
 EXCEPTION
   WHEN OTHERS THEN
@@ -416,9 +522,18 @@ EXCEPTION
 END;
 /
 
--- Chat 테이블 인덱스 생성
 BEGIN
-  EXECUTE IMMEDIATE 'CREATE INDEX idx_chat_contract_id ON chat(contract_id)';
+  EXECUTE IMMEDIATE 'CREATE INDEX idx_chat_export_job_status ON chat_export_job(status, next_attempt_at)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX idx_chat_export_job_contract ON chat_export_job(contract_id)';
 EXCEPTION
   WHEN OTHERS THEN
     IF SQLCODE != -955 THEN
@@ -435,4 +550,52 @@ EXCEPTION
       RAISE;
     END IF;
 END;
-/ 
\ No newline at end of file
+/
+
+-- 서명 PDF 검증 결과 컬럼 추가 (1: 유효, 0: 무효, NULL: 미검증 / 이미 있거나 pdf 테이블이 없으면 무시)
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER TABLE pdf ADD (sig_verified NUMBER(1), sig_verified_at TIMESTAMP)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-1430, -942) THEN
+      RAISE;
+    END IF;
+END;
+/
+
+-- PDF 서명 작업 테이블 생성 (/upload/final 비동기 처리)
+BEGIN
+  EXECUTE IMMEDIATE '
+  CREATE TABLE pdf_sign_job (
+      job_id NUMBER(19) PRIMARY KEY,
+      contract_id NUMBER(19) NOT NULL,
+      room_id VARCHAR2(100),
+      status VARCHAR2(20) NOT NULL,
+      attempts NUMBER(5) DEFAULT 0 NOT NULL,
+      last_error VARCHAR2(1000),
+      input_data BLOB,
+      original_name VARCHAR2(255),
+      pdf_id NUMBER(19),
+      file_path VARCHAR2(500),
+      locked_by VARCHAR2(100),
+      next_attempt_at TIMESTAMP NOT NULL,
+      created_at TIMESTAMP NOT NULL,
+      updated_at TIMESTAMP NOT NULL
+  )';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
+
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX idx_pdf_sign_job_status ON pdf_sign_job(status, next_attempt_at)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -955 THEN
+      RAISE;
+    END IF;
+END;
+/
@@ -4,6 +4,9 @@ let chatContainer = null;
 let chatMessages = null;
 let chatInput = null;
 let isMinimized = false;
+let chatHistoryCursor = null; // 더 오래된 기록 요청 기준 chat_id
+let chatHistoryHasMore = false;
+let chatHistoryLoading = false;
 
 // 채팅 UI 초기화
 function initializeChatUI() {
@@ -73,6 +76,18 @@ function initializeChatUI() {
     });
   }
   
+  // 재입장 시 최근 기록만 불러오고, 위로 스크롤하면 이전 기록을 이어서 불러온다
+  chatHistoryCursor = null;
+  chatHistoryHasMore = false;
+  if (chatMessages) {
+    chatMessages.addEventListener('scroll', function() {
+      if (chatMessages.scrollTop < 40 && chatHistoryHasMore) {
+        loadChatHistory();
+      }
+    });
+  }
+  loadChatHistory();
+  
   console.log("채팅 UI 초기화 완료");
 }
 
@@ -306,8 +321,48 @@ function addChatUIStyles() {
   document.head.appendChild(style);
 }
 
-// 채팅 메시지를 UI에 추가하는 함수
-function addChatMessageToUI(messageData) {
+// 저장된 채팅 기록 한 페이지 불러오기 (처음에는 최신, 이후에는 그 이전 페이지)
+async function loadChatHistory() {
+  const contractId = typeof currentContractId !== 'undefined' ? currentContractId : null;
+  if (!contractId || chatHistoryLoading || !chatMessages) {
+    return;
+  }
+  chatHistoryLoading = true;
+  try {
+    const params = new URLSearchParams({ limit: '50' });
+    if (chatHistoryCursor !== null) {
+      params.set('before', String(chatHistoryCursor));
+    }
+    const response = await fetch(`/api/chat/history/${contractId}?${params}`);
+    if (!response.ok) {
+      return;
+    }
+    const page = await response.json();
+    const firstLoad = chatHistoryCursor === null;
+    const previousHeight = chatMessages.scrollHeight;
+    // 오래된 메시지가 위로 가도록 역순으로 앞에 붙인다
+    for (let i = page.messages.length - 1; i >= 0; i--) {
+      if (page.messages[i].type !== 'SYSTEM') {
+        addChatMessageToUI(page.messages[i], true);
+      }
+    }
+    chatHistoryCursor = page.nextCursor;
+    chatHistoryHasMore = page.hasMore;
+    if (firstLoad) {
+      scrollChatToBottom();
+    } else {
+      // 이전 기록을 붙여도 보고 있던 위치 유지
+      chatMessages.scrollTop += chatMessages.scrollHeight - previousHeight;
+    }
+  } catch (error) {
+    console.warn("채팅 기록 불러오기 실패:", error);
+  } finally {
+    chatHistoryLoading = false;
+  }
+}
+
+// 채팅 메시지를 UI에 추가하는 함수 (prepend: 저장된 이전 기록을 위에 붙일 때)
+function addChatMessageToUI(messageData, prepend = false) {
   if (!chatMessages) {
     console.warn("채팅 메시지 컨테이너를 찾을 수 없습니다.");
     return;
@@ -345,6 +400,10 @@ function addChatMessageToUI(messageData) {
     </div>
   `;
   
+  if (prepend) {
+    chatMessages.insertAdjacentHTML('afterbegin', messageHTML);
+    return;
+  }
   chatMessages.insertAdjacentHTML('beforeend', messageHTML);
   scrollChatToBottom();
   
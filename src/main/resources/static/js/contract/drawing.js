@@ -4,6 +4,9 @@ let drawingContext = null;
 let lastX = 0;
 let lastY = 0;
 
+// 방 스냅샷으로 받았지만 아직 그리지 않은 페이지별 스트로크
+let snapshotStrokesPerPage = {};
+
 // 드로잉 초기화 함수
 function initDrawing() {
   drawingCanvas = document.getElementById('drawingCanvas');
@@ -239,8 +242,8 @@ function draw(e) {
       sender: userRole // 발신자 정보 추가
     };
     
-    // 정확한 토픽으로 메시지 전송
-    stompClient.send(`/topic/room/${sessionId}/draw`, {}, JSON.stringify(drawingData));
+    // 서버에서 이동 이벤트를 묶어 방 토픽으로 전송
+    stompClient.send(`/app/room/${sessionId}/draw`, {}, JSON.stringify(drawingData));
   }
   
   // 좌표 업데이트
@@ -332,8 +335,8 @@ function handleTouchMove(e) {
       sender: userRole // 발신자 정보 추가
     };
     
-    // 정확한 토픽으로 메시지 전송
-    stompClient.send(`/topic/room/${sessionId}/draw`, {}, JSON.stringify(drawingData));
+    // 서버에서 이동 이벤트를 묶어 방 토픽으로 전송
+    stompClient.send(`/app/room/${sessionId}/draw`, {}, JSON.stringify(drawingData));
   }
   
   lastX = currentX;
@@ -388,8 +391,8 @@ function handleTextPlacement(event) {
       sender: userRole // 발신자 정보 추가
     };
     
-    // 정확한 토픽으로 메시지 전송
-    stompClient.send(`/topic/room/${sessionId}/text`, {}, JSON.stringify(textMessage));
+    // 서버를 거쳐 방 토픽으로 전송 (방 스냅샷에 기록됨)
+    stompClient.send(`/app/room/${sessionId}/text`, {}, JSON.stringify(textMessage));
   }
   
   // 텍스트 입력 모드 초기화
@@ -841,6 +844,18 @@ function restoreDrawingData() {
   }
 }
 
+// 방 스냅샷으로 받은 스트로크 복원 (해당 페이지가 처음 렌더링될 때 한 번만 그림)
+function restoreSnapshotStrokes() {
+  const strokes = snapshotStrokesPerPage[currentPage];
+  if (!strokes) return;
+  delete snapshotStrokesPerPage[currentPage];
+  
+  strokes.forEach(stroke => {
+    // 본인 스트로크도 그려야 하므로 발신자 검사 없이 적용
+    handleRemoteDrawing({ ...stroke, page: currentPage, sender: null });
+  });
+}
+
 // 텍스트 데이터 복원
 function restoreTextData() {
   const textData = textDataPerPage[currentPage];
@@ -959,6 +974,20 @@ function handleRemoteDrawing(data) {
   drawingContext.lineJoin = 'round';
   drawingContext.lineCap = 'round';
   
+  // 서버에서 묶어 보낸 스트로크 (points: [x0, y0, x1, y1, ...])
+  if (Array.isArray(data.points)) {
+    if (data.points.length >= 4) {
+      drawingContext.beginPath();
+      drawingContext.moveTo(data.points[0], data.points[1]);
+      for (let i = 2; i + 1 < data.points.length; i += 2) {
+        drawingContext.lineTo(data.points[i], data.points[i + 1]);
+      }
+      drawingContext.stroke();
+      saveDrawingData();
+    }
+    return;
+  }
+  
   // 좌표 확인 (lastX/Y와 currentX/Y 또는 x/y 필드 모두 처리)
   const startX = data.lastX !== undefined ? data.lastX : (data.x || 0);
   const startY = data.lastY !== undefined ? data.lastY : (data.y || 0);
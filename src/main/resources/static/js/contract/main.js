@@ -1225,7 +1225,7 @@ async function endConsultation() {
                     };
                     
                     // 세션별 상담 종료 메시지 전송
-                    stompClient.send(`/app/sync/endConsult`, {}, JSON.stringify(endMessage));
+                    stompClient.send(`/app/room/${sessionId}/endConsult`, {}, JSON.stringify(endMessage));
                     console.log('WebSocket 상담 종료 메시지 전송 완료');
                 } catch (wsError) {
                     console.error('WebSocket 메시지 전송 오류:', wsError);
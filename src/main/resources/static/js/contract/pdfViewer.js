@@ -172,6 +172,11 @@ async function renderPage(pageNum) {
         restoreDrawingData();
       }
       
+      // 방 스냅샷 스트로크 복원
+      if (typeof restoreSnapshotStrokes === 'function') {
+        restoreSnapshotStrokes();
+      }
+      
       // 텍스트 데이터 복원
       if (typeof restoreTextData === 'function' && currentPage in textDataPerPage) {
         restoreTextData();
@@ -478,7 +483,7 @@ function sendPdfNotification(pdfUrl) {
     };
     
     // 메시지 전송
-    stompClient.send(`/topic/room/${sessionId}/pdf`, {}, JSON.stringify(message));
+    stompClient.send(`/app/room/${sessionId}/pdf`, {}, JSON.stringify(message));
     console.log("PDF 업로드 알림 전송 완료:", message);
     
     // 3초 후 재확인 메시지 전송 (안정성 향상)
@@ -486,7 +491,7 @@ function sendPdfNotification(pdfUrl) {
       if (stompClient && stompClient.connected) {
         message.timestamp = Date.now(); // 타임스탬프 갱신
         message.isRetry = true; // 재시도 표시
-        stompClient.send(`/topic/room/${sessionId}/pdf`, {}, JSON.stringify(message));
+        stompClient.send(`/app/room/${sessionId}/pdf`, {}, JSON.stringify(message));
         console.log("PDF 알림 재확인 메시지 전송");
       }
     }, 3000);
@@ -610,7 +615,7 @@ function sendScrollSync(scrollData) {
       timestamp: Date.now()
     };
 
-    stompClient.send(`/topic/room/${sessionId}/scroll`, {}, JSON.stringify(message));
+    stompClient.send(`/app/room/${sessionId}/scroll`, {}, JSON.stringify(message));
     console.log("스크롤 동기화 데이터 전송:", scrollData);
   } catch (error) {
     console.error("스크롤 동기화 전송 오류:", error);
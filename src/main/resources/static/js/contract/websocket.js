@@ -5,6 +5,12 @@ let reconnectAttempts = 0;
 let reconnectTimer = null;
 let isConnecting = false;
 
+// 방 이벤트 순번 (재연결 시 빠진 구간만 이어받기 위함)
+let roomEpoch = null;
+let lastRoomSeq = 0;
+let pendingLiveSeqs = null; // 이어받기 응답 대기 중 실시간으로 받은 순번
+const roomTopicHandlers = {}; // 방 토픽 → 구독 콜백 (이어받은 이벤트 재생용)
+
 // 세션 ID 확인 전역 함수 - 일관된 세션 ID 사용을 위한 유틸리티 함수
 function ensureValidSessionId() {
   // URL에서 세션 ID 가져오기 (항상 최우선)
@@ -112,6 +118,7 @@ function createStompConnection() {
   
   // Stomp 클라이언트 생성
   stompClient = Stomp.over(socket);
+  trackRoomSequence(stompClient);
   
   // 디버그 로그 활성화 (개발 중에는 활성화, 프로덕션에서는 null로 설정)
   stompClient.debug = function(str) {
@@ -137,6 +144,9 @@ function createStompConnection() {
       // 메시지 수신을 위한 토픽 구독
       subscribeToTopics();
       
+      // 구독 이후의 메시지는 토픽으로 받고, 그 이전 방 상태는 이어받기(재연결) 또는 서버 스냅샷으로 받음
+      resumeRoomOrSnapshot();
+      
       // 연결 성공 토스트 메시지
       showToast("연결 성공", "실시간 통신이 연결되었습니다.", "success");
       
@@ -199,40 +209,6 @@ function subscribeToTopics() {
   
   console.log("메시지 토픽 구독 시작:", sessionId);
   
-  // 전역 드로잉 이벤트 구독 (모든 방 공통)
-  stompClient.subscribe('/topic/draw', function(message) {
-    try {
-      const drawData = JSON.parse(message.body);
-      
-      // 같은 세션 ID의 메시지만 처리 (세션 ID가 없으면 모든 메시지 처리)
-      if (drawData.sessionId === sessionId || !drawData.sessionId) {
-        console.log("전역 드로잉 데이터 수신:", drawData);
-        
-        // 데이터 유형에 따라 적절한 핸들러 호출
-        if (drawData.type === 'highlight' || drawData.type === 'pen') {
-          handleRemoteDrawing(drawData);
-        }
-      }
-    } catch (e) {
-      console.error("전역 드로잉 데이터 처리 오류:", e, message.body);
-    }
-  });
-  
-  // 전역 텍스트 이벤트 구독 (모든 방 공통)
-  stompClient.subscribe('/topic/text', function(message) {
-    try {
-      const textData = JSON.parse(message.body);
-      
-      // 같은 세션 ID의 메시지만 처리 (세션 ID가 없으면 모든 메시지 처리)
-      if (textData.sessionId === sessionId || !textData.sessionId) {
-        console.log("전역 텍스트 데이터 수신:", textData);
-        handleRemoteText(textData);
-      }
-    } catch (e) {
-      console.error("전역 텍스트 데이터 처리 오류:", e, message.body);
-    }
-  });
-  
   // 방 단위 드로잉 이벤트 구독
   stompClient.subscribe(`/topic/room/${sessionId}/draw`, function(message) {
     try {
@@ -495,30 +471,30 @@ function subscribeToTopics() {
     }
   });
   
-  // 전역 상담 종료 메시지 구독
-  stompClient.subscribe('/topic/endConsult', function(message) {
+  // 세션별 상담 종료 메시지 구독
+  stompClient.subscribe(`/topic/room/${sessionId}/endConsult`, function(message) {
     try {
       const endData = JSON.parse(message.body);
-      console.log("상담 종료 메시지 수신:", endData);
+      console.log("세션별 상담 종료 메시지 수신:", endData);
       
       // 상담 종료 처리
       handleConsultationEnd(endData);
     } catch (e) {
-      console.error("상담 종료 메시지 처리 오류:", e);
+      console.error("세션별 상담 종료 메시지 처리 오류:", e);
       console.error("원본 메시지:", message.body);
     }
   });
   
-  // 세션별 상담 종료 메시지 구독
-  stompClient.subscribe(`/topic/room/${sessionId}/endConsult`, function(message) {
+  // 최종 PDF 서명(회사 직인) 완료 알림 구독 - 완료되면 본인 서명을 증분으로 덧붙임
+  stompClient.subscribe(`/topic/room/${sessionId}/pdf/signed`, function(message) {
     try {
-      const endData = JSON.parse(message.body);
-      console.log("세션별 상담 종료 메시지 수신:", endData);
-      
-      // 상담 종료 처리
-      handleConsultationEnd(endData);
+      const signedData = JSON.parse(message.body);
+      console.log("최종 PDF 서명 완료 알림 수신:", signedData);
+      if (signedData.status === 'DONE' && signedData.pdfId) {
+        signFinalPdfAsParty(signedData.pdfId);
+      }
     } catch (e) {
-      console.error("세션별 상담 종료 메시지 처리 오류:", e);
+      console.error("최종 PDF 서명 알림 처리 오류:", e);
       console.error("원본 메시지:", message.body);
     }
   });
@@ -1065,33 +1041,177 @@ function handlePageSync(pageData) {
   }
 }
 
-// 도장 및 서명 데이터 동기화 요청
+// 도장 및 서명 데이터 동기화 요청 (상대 브라우저 대신 서버 스냅샷 사용)
 function requestSyncStampAndSignature(page) {
+  console.log(`페이지 ${page} 동기화를 위해 방 스냅샷 요청`);
+  requestRoomSnapshot();
+}
+
+// 방 스냅샷 요청 - 서버가 구독한 세션에만 한 번 응답함
+function requestRoomSnapshot() {
   if (!stompClient || !stompClient.connected) {
-    console.error("WebSocket 연결이 없어 동기화 요청을 전송할 수 없습니다.");
+    console.error("WebSocket 연결이 없어 방 스냅샷을 요청할 수 없습니다.");
     return;
   }
   
-  try {
-    // 동기화 요청 메시지 구성
-    const message = {
-      type: 'sync_request',
-      page: page,
-      sessionId: sessionId,
-      sender: userRole,
-      timestamp: Date.now()
-    };
+  const subscription = stompClient.subscribe(`/app/room/${sessionId}/snapshot`, function(message) {
+    subscription.unsubscribe();
+    try {
+      applyRoomSnapshot(JSON.parse(message.body));
+    } catch (e) {
+      console.error("방 스냅샷 처리 오류:", e);
+    }
+  });
+}
+
+// 방 스냅샷 적용 - 없는 주석만 병합한 뒤 현재 페이지를 다시 그림
+async function applyRoomSnapshot(snapshot) {
+  if (!snapshot || snapshot.type !== 'room_snapshot') return;
+  
+  console.log(`방 스냅샷 수신: PDF=${snapshot.pdfUrl}, 페이지=${snapshot.currentPage}, 주석 페이지 수=${(snapshot.pages || []).length}`);
+  
+  // 이후 재연결은 스냅샷 시점 순번부터 이어받음
+  if (snapshot.epoch) {
+    lastRoomSeq = snapshot.epoch === roomEpoch ? Math.max(lastRoomSeq, snapshot.seq) : snapshot.seq;
+    roomEpoch = snapshot.epoch;
+  }
+  
+  // 다시 그리기 전에 현재 캔버스 상태 저장
+  if (pdfDoc && typeof saveDrawingData === 'function') {
+    saveDrawingData();
+  }
+  
+  (snapshot.pages || []).forEach(pageState => {
+    const page = pageState.page;
+    mergeSnapshotItems(stampDataPerPage, page, pageState.stamps);
+    mergeSnapshotItems(signatureDataPerPage, page, pageState.signatures);
+    mergeSnapshotItems(textDataPerPage, page, (pageState.texts || []).map(item => ({
+      text: item.text,
+      x: item.x,
+      y: item.y,
+      font: '16px Arial',
+      color: '#0064E1'
+    })));
+    
+    // 캔버스 이미지가 이미 있는 페이지는 스트로크가 포함되어 있으므로 건너뜀
+    if (pageState.strokes && pageState.strokes.length && !(page in drawingDataPerPage)) {
+      snapshotStrokesPerPage[page] = pageState.strokes;
+    }
+  });
+  
+  const targetPage = snapshot.currentPage || currentPage || 1;
+  if (snapshot.pdfUrl && snapshot.pdfUrl !== uploadedPdfUrl) {
+    uploadedPdfUrl = snapshot.pdfUrl;
+    await loadAndRenderPDF(uploadedPdfUrl, targetPage);
+  } else if (pdfDoc && typeof renderPage === 'function') {
+    await renderPage(targetPage);
+  }
+  
+  saveSessionData();
+}
+
+// 방 토픽 구독에 순번 추적을 끼워 넣음 (서버가 MESSAGE 마다 room-seq 헤더를 붙임)
+function trackRoomSequence(client) {
+  const subscribe = client.subscribe.bind(client);
+  
+  client.subscribe = function(destination, callback, headers) {
+    if (!destination.startsWith('/topic/room/')) {
+      return subscribe(destination, callback, headers);
+    }
+    
+    roomTopicHandlers[destination] = callback;
+    return subscribe(destination, function(message) {
+      const seq = parseInt(message.headers['room-seq'], 10);
+      if (!isNaN(seq)) {
+        // 순번이 건너뛰면 (느린 소비자 정리, 순서 뒤바뀜) 빠진 구간을 이어받음 - 순번을 올리기 전에 요청해야 빠진 구간부터 받음
+        if (!pendingLiveSeqs && roomEpoch && lastRoomSeq > 0 && seq > lastRoomSeq + 1) {
+          console.log(`방 이벤트 순번 누락 (${lastRoomSeq} 다음 ${seq}) - 빠진 구간 이어받기`);
+          resumeRoomOrSnapshot();
+        }
+        if (pendingLiveSeqs) {
+          pendingLiveSeqs.add(seq);
+        }
+        lastRoomSeq = Math.max(lastRoomSeq, seq);
+      }
+      callback(message);
+    }, headers);
+  };
+}
+
+// 재연결이면 마지막 순번 이후 이벤트만 이어받고, 처음 입장이거나 이어받을 수 없으면 스냅샷 요청
+function resumeRoomOrSnapshot() {
+  if (!roomEpoch) {
+    requestRoomSnapshot();
+    return;
+  }
+  
+  pendingLiveSeqs = new Set();
+  const subscription = stompClient.subscribe(`/app/room/${sessionId}/resume`, function(message) {
+    subscription.unsubscribe();
+    const liveSeqs = pendingLiveSeqs;
+    pendingLiveSeqs = null;
     
-    // 동기화 요청 전송
-    stompClient.send(`/app/room/${sessionId}/sync`, {
-      contentType: 'application/json',
-      sessionId: sessionId,
-      userRole: userRole
-    }, JSON.stringify(message));
-    console.log("도장 및 서명 데이터 동기화 요청 전송:", message);
-  } catch (e) {
-    console.error("동기화 요청 전송 오류:", e);
+    try {
+      const resume = JSON.parse(message.body);
+      if (!resume.complete) {
+        console.log(`이어받기 불가 (순번 ${lastRoomSeq}, 서버 ${resume.seq}) - 방 스냅샷으로 동기화`);
+        requestRoomSnapshot();
+        return;
+      }
+      
+      replayRoomEvents(resume.events || [], liveSeqs);
+      roomEpoch = resume.epoch;
+      lastRoomSeq = Math.max(lastRoomSeq, resume.seq);
+      console.log(`방 이벤트 이어받기 완료: ${(resume.events || []).length}건, 순번 ${lastRoomSeq}`);
+    } catch (e) {
+      console.error("방 이어받기 처리 오류:", e);
+      requestRoomSnapshot();
+    }
+  }, {
+    'room-epoch': roomEpoch,
+    'last-seq': String(lastRoomSeq)
+  });
+}
+
+// 이어받은 이벤트를 원래 구독 콜백으로 재생 (이미 실시간으로 받은 순번은 건너뜀)
+function replayRoomEvents(events, liveSeqs) {
+  events.forEach(event => {
+    if (liveSeqs && liveSeqs.has(event.seq)) return;
+    
+    const handler = roomTopicHandlers[event.destination];
+    if (!handler) return;
+    
+    try {
+      handler({
+        headers: { destination: event.destination, 'room-seq': String(event.seq) },
+        body: JSON.stringify(event.payload)
+      });
+    } catch (e) {
+      console.error("이어받은 이벤트 재생 오류:", event.destination, e);
+    }
+  });
+}
+
+// 위치/크기가 같은 항목이 이미 있으면 건너뛰고 병합
+function mergeSnapshotItems(dataPerPage, page, items) {
+  if (!items || !items.length) return;
+  
+  if (!dataPerPage[page]) {
+    dataPerPage[page] = [];
   }
+  
+  items.forEach(item => {
+    const isDuplicate = dataPerPage[page].some(existing =>
+      existing.x === item.x &&
+      existing.y === item.y &&
+      existing.width === item.width &&
+      existing.height === item.height &&
+      existing.text === item.text);
+    
+    if (!isDuplicate) {
+      dataPerPage[page].push(item);
+    }
+  });
 }
 
 // 페이지 변경 이벤트 전송 함수
@@ -1112,7 +1232,7 @@ function sendPageSync(targetPage) {
     };
     
     // 메시지 전송
-    stompClient.send(`/topic/room/${sessionId}/page`, {}, JSON.stringify(message));
+    stompClient.send(`/app/room/${sessionId}/page`, {}, JSON.stringify(message));
     console.log("페이지 동기화 메시지 전송 완료:", message);
   } catch (e) {
     console.error("페이지 동기화 메시지 전송 오류:", e);
@@ -1275,6 +1395,10 @@ async function uploadFinalPdfToServer(blob, fileName) {
       formData.append('sessionId', sessionId);
       console.log("FormData에 세션 ID 추가:", sessionId);
     }
+    // 서명 완료 알림을 받을 상담방 (/topic/room/{sessionId}/pdf/signed)
+    if (currentContractId && sessionId) {
+      formData.append('sessionId', sessionId);
+    }
     
     // 추가 정보 (디버깅 및 식별용)
     formData.append('uploadTime', new Date().toISOString());
@@ -1355,6 +1479,12 @@ async function uploadFinalPdfToServer(blob, fileName) {
       throw new Error("서버 응답을 처리할 수 없습니다: " + textError.message);
     }
     
+    // 서명은 서버에서 비동기로 처리되므로 완료될 때까지 상태 조회
+    result = await waitForSignJob(result);
+    if (result && result.pdfId) {
+      await signFinalPdfAsParty(result.pdfId);
+    }
+
     console.log("최종 PDF 서버 업로드 성공");
     showToast("PDF 저장 완료", "상담 문서가 서버에 저장되었습니다.", "success");
     
@@ -1680,6 +1810,9 @@ async function uploadFinalPdfToServer(blob, fileName) {
     if (typeof currentContractId !== 'undefined' && currentContractId) {
       formData.append('contractId', currentContractId);
     }
+    if (typeof sessionId !== 'undefined' && sessionId) {
+      formData.append('sessionId', sessionId);
+    }
     
     // CSRF 토큰 가져오기
     const token = document.querySelector("meta[name='_csrf']").getAttribute("content");
@@ -1698,8 +1831,11 @@ async function uploadFinalPdfToServer(blob, fileName) {
       throw new Error(`서버 업로드 실패: ${response.status}`);
     }
     
-    const result = await response.text();
+    const result = await waitForSignJob(await response.text());
     console.log("최종 PDF 서버 업로드 성공:", result);
+    if (result && result.pdfId) {
+      await signFinalPdfAsParty(result.pdfId);
+    }
     showToast("PDF 저장", "최종 상담 문서가 서버에 저장되었습니다.", "success");
     
     return result;
@@ -1710,6 +1846,65 @@ async function uploadFinalPdfToServer(blob, fileName) {
   }
 }
 
+// 로그인한 본인(상담원/계약자)의 서명을 최종 PDF 에 덧붙임 (이미 서명했으면 409 로 무시)
+const partySignedPdfIds = new Set();
+async function signFinalPdfAsParty(pdfId) {
+  if (!pdfId || partySignedPdfIds.has(pdfId)) {
+    return;
+  }
+  partySignedPdfIds.add(pdfId);
+  try {
+    const token = document.querySelector("meta[name='_csrf']");
+    const header = document.querySelector("meta[name='_csrf_header']");
+    const headers = {};
+    if (token && header) {
+      headers[header.getAttribute('content')] = token.getAttribute('content');
+    }
+    const response = await fetch(`/api/pdfs/${pdfId}/sign`, { method: 'POST', headers: headers });
+    if (response.ok) {
+      console.log("개별 서명 완료:", await response.json());
+      showToast("서명 완료", "계약서에 서명이 추가되었습니다.", "success");
+    } else if (response.status === 409) {
+      console.log("이미 서명된 계약서:", await response.text());
+    } else {
+      partySignedPdfIds.delete(pdfId);
+      console.error(`개별 서명 실패: ${response.status}`, await response.text());
+    }
+  } catch (error) {
+    partySignedPdfIds.delete(pdfId);
+    console.error("개별 서명 요청 오류:", error);
+  }
+}
+
+// 서명 작업 완료까지 상태 조회 (/upload/final 은 작업 ID 와 statusUrl 만 돌려줌)
+async function waitForSignJob(responseText, timeoutMs = 120000) {
+  let job;
+  try {
+    job = JSON.parse(responseText);
+  } catch (e) {
+    return responseText;
+  }
+  if (!job || !job.statusUrl) {
+    return responseText;
+  }
+  const deadline = Date.now() + timeoutMs;
+  while (Date.now() < deadline) {
+    await new Promise(resolve => setTimeout(resolve, 1000));
+    const response = await fetch(job.statusUrl, { cache: 'no-store' });
+    if (!response.ok) {
+      continue;
+    }
+    const status = await response.json();
+    if (status.status === 'DONE') {
+      return status;
+    }
+    if (status.status === 'FAILED') {
+      throw new Error(status.lastError || 'PDF 서명에 실패했습니다.');
+    }
+  }
+  throw new Error('PDF 서명 대기 시간이 초과되었습니다.');
+}
+
 // Blob을 Base64로 변환하는 함수
 function blobToBase64(blob) {
   return new Promise((resolve, reject) => {
@@ -0,0 +1,66 @@
+package kr.or.kosa.visang.common.config.redis;
+
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("채팅 메시지 Redis 코덱 테스트")
+class ChatMessageRedisSerializerTest {
+
+    @Test
+    @DisplayName("바이너리로 저장한 메시지를 그대로 복원한다")
+    void binaryRoundTrip() {
+        // given
+        ChatMessageRedisSerializer serializer = new ChatMessageRedisSerializer(true);
+        ChatMessage msg = ChatMessage.createSystemMessage("s1", 1042L, "상담이 종료되었습니다.");
+        msg.setMessageId(88213L);
+        msg.setFileHash("abc123");
+        msg.setRead(true);
+        msg.setTimestamp(LocalDateTime.of(2026, 5, 14, 15, 32, 7, 481_000_000));
+
+        // when
+        byte[] bytes = serializer.serialize(msg);
+        ChatMessage restored = serializer.deserialize(bytes);
+
+        // then
+        assertEquals(ChatMessageRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(msg, restored);
+        assertTrue(bytes.length < ChatMessageRedisSerializer.legacyJsonSerializer().serialize(msg).length);
+    }
+
+    @Test
+    @DisplayName("비어 있는 필드는 null 로 복원한다")
+    void keepsNullFields() {
+        // given
+        ChatMessageRedisSerializer serializer = new ChatMessageRedisSerializer(true);
+        ChatMessage msg = new ChatMessage();
+        msg.setContent("내용만");
+
+        // when
+        ChatMessage restored = serializer.deserialize(serializer.serialize(msg));
+
+        // then
+        assertEquals(msg, restored);
+        assertNull(restored.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("기존 JSON 형식 값도 읽는다")
+    void readsLegacyJson() {
+        // given
+        ChatMessageRedisSerializer serializer = new ChatMessageRedisSerializer(true);
+        ChatMessage msg = ChatMessage.createChatMessage("s1", 7L, "client", "홍길동", "안녕하세요");
+        msg.setTimestamp(LocalDateTime.of(2026, 5, 14, 15, 32, 7, 481_000_000));
+        byte[] legacy = ChatMessageRedisSerializer.legacyJsonSerializer().serialize(msg);
+
+        // when
+        ChatMessage restored = serializer.deserialize(legacy);
+
+        // then
+        assertEquals(msg, restored);
+    }
+}
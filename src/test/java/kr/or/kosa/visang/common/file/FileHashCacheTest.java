@@ -0,0 +1,44 @@
+package kr.or.kosa.visang.common.file;
+
+import kr.or.kosa.visang.common.config.hash.HashUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("파일 해시 캐시 테스트")
+class FileHashCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("크기/수정 시각이 그대로면 파일을 다시 읽지 않고, 수정 시각이 바뀌면 다시 계산한다")
+    void rehashesOnlyWhenChanged() throws Exception {
+        // given
+        FileHashCache cache = new FileHashCache();
+        Path file = dir.resolve("template.pdf");
+        Files.write(file, "first content".getBytes(StandardCharsets.UTF_8));
+        FileTime mtime = Files.getLastModifiedTime(file);
+        String first = cache.sha256(file);
+
+        // when (같은 크기의 다른 내용으로 바꾸고 수정 시각을 되돌리면 캐시 기준으로는 바뀌지 않은 파일)
+        Files.write(file, "other content".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, mtime);
+        String cached = cache.sha256(file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(mtime.toMillis() + 1000));
+        String changed = cache.sha256(file);
+
+        // then
+        assertEquals(first, cached);
+        assertNotEquals(HashUtil.sha256(file.toString()), cached);
+        assertEquals(HashUtil.sha256(file.toString()), changed);
+        assertEquals(1, cache.size());
+    }
+}
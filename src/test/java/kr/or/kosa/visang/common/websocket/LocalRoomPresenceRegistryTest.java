@@ -0,0 +1,90 @@
+package kr.or.kosa.visang.common.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("방 참여 세션 레지스트리 테스트")
+class LocalRoomPresenceRegistryTest {
+
+    private final LocalRoomPresenceRegistry registry = new LocalRoomPresenceRegistry("simple");
+
+    @Test
+    @DisplayName("입장/퇴장에 따라 방과 역할별 참여 수가 바뀐다")
+    void countsByRoomAndRole() {
+        // when
+        registry.join("room1", "s1", "agent");
+        registry.join("room1", "s2", "client");
+        registry.join("room2", "s3", "client");
+
+        // then
+        assertEquals(2, registry.count("room1"));
+        assertEquals(1, registry.count("room1", "agent"));
+        assertEquals(1, registry.count("room1", "client"));
+        assertEquals(1, registry.count("room2"));
+
+        registry.leave("s1");
+        assertEquals(1, registry.count("room1"));
+        assertEquals(0, registry.count("room1", "agent"));
+    }
+
+    @Test
+    @DisplayName("같은 세션의 중복 입장과 미등록 세션 퇴장은 무시된다")
+    void ignoresDuplicateJoinAndUnknownLeave() {
+        // when
+        registry.join("room1", "s1", "agent");
+        registry.join("room1", "s1", "agent");
+        registry.leave("unknown");
+        registry.leave("s1");
+        registry.leave("s1");
+
+        // then
+        assertEquals(0, registry.count("room1"));
+        assertEquals(0, registry.count("room1", "agent"));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 입장/퇴장해도 참여 수가 맞는다")
+    void concurrentJoinAndLeave() throws Exception {
+        // given
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String session = thread + "-" + i;
+                    registry.join("room1", session, i % 2 == 0 ? "agent" : "client");
+                    if (i % 4 != 0) {
+                        registry.leave(session);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        // then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(threads * perThread / 4, registry.count("room1"));
+        assertEquals(threads * perThread / 4, registry.count("room1", "agent"));
+        assertEquals(0, registry.count("room1", "client"));
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 브로커 모드 값은 기동 시 거부한다")
+    void rejectsUnknownMode() {
+        // when / then
+        assertThrows(IllegalStateException.class, () -> new LocalRoomPresenceRegistry("redsi"));
+    }
+}
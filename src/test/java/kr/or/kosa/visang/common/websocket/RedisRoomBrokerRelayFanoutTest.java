@@ -0,0 +1,161 @@
+package kr.or.kosa.visang.common.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 로컬 Redis 에 2~4개 노드를 띄워 방 토픽 중계 지연시간/처리량을 측정한다.
+ * Redis(REDIS_HOST:REDIS_PORT, 기본 localhost:6379)에 연결할 수 없으면 건너뛴다.
+ */
+@DisplayName("Redis 방 토픽 중계 fanout 테스트")
+class RedisRoomBrokerRelayFanoutTest {
+
+    private static final int MESSAGES = 2_000;
+
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+    private final List<RedisRoomBrokerRelay> relays = new ArrayList<>();
+
+    @BeforeEach
+    void checkRedis() {
+        LettuceConnectionFactory probe = newFactory();
+        try (RedisConnection connection = probe.getConnection()) {
+            connection.ping();
+        } catch (Exception e) {
+            Assumptions.abort("Redis 에 연결할 수 없어 건너뜀: " + e.getMessage());
+        } finally {
+            probe.destroy();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisRoomBrokerRelay relay : relays) {
+            relay.stop();
+        }
+        for (LettuceConnectionFactory factory : factories) {
+            factory.destroy();
+        }
+    }
+
+    @ParameterizedTest(name = "노드 {0}개")
+    @ValueSource(ints = {2, 3, 4})
+    @DisplayName("한 노드에서 발행한 방 메시지가 나머지 노드에 모두 전달된다")
+    void fanoutLatency(int nodes) throws Exception {
+        String roomId = "fanout-" + System.nanoTime();
+        String destination = RoomDestinations.ROOM_TOPIC_PREFIX + roomId + "/draw";
+        int receivers = nodes - 1;
+
+        CountDownLatch latch = new CountDownLatch(MESSAGES * receivers);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < nodes; i++) {
+            RedisRoomBrokerRelay relay = newRelay("node-" + i, (message, timeout) -> {
+                long sentAt = ByteBuffer.wrap((byte[]) message.getPayload()).getLong();
+                latencies.add(System.nanoTime() - sentAt);
+                latch.countDown();
+                return true;
+            });
+            relay.addLocalSubscription("session-" + i, "sub-0", destination);
+        }
+        // 구독 전파 대기
+        Thread.sleep(300);
+
+        long start = System.nanoTime();
+        RedisRoomBrokerRelay publisher = relays.get(0);
+        for (int i = 0; i < MESSAGES; i++) {
+            publisher.preSend(roomMessage(destination), null);
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "모든 노드에 메시지가 전달되어야 함");
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("[fanout] nodes=%d messages=%d delivered=%d p50=%.3fms p99=%.3fms max=%.3fms throughput=%.0f msg/s%n",
+                nodes, MESSAGES, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                sorted.length / (elapsedNanos / 1_000_000_000.0));
+
+        assertEquals(MESSAGES * receivers, sorted.length);
+    }
+
+    @Test
+    @DisplayName("해당 방 구독자가 없는 노드는 메시지를 받지 않는다")
+    void nodeWithoutSubscribersIsSkipped() throws Exception {
+        String roomId = "isolated-" + System.nanoTime();
+        String destination = RoomDestinations.ROOM_TOPIC_PREFIX + roomId + "/scroll";
+
+        CountDownLatch subscribed = new CountDownLatch(1);
+        CountDownLatch idle = new CountDownLatch(1);
+        RedisRoomBrokerRelay publisher = newRelay("node-a", (m, t) -> true);
+        RedisRoomBrokerRelay member = newRelay("node-b", (m, t) -> { subscribed.countDown(); return true; });
+        RedisRoomBrokerRelay outsider = newRelay("node-c", (m, t) -> { idle.countDown(); return true; });
+
+        member.addLocalSubscription("s1", "sub-0", destination);
+        outsider.addLocalSubscription("s2", "sub-0", RoomDestinations.ROOM_TOPIC_PREFIX + "other/scroll");
+        Thread.sleep(300);
+
+        publisher.preSend(roomMessage(destination), null);
+
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+        assertFalse(idle.await(500, TimeUnit.MILLISECONDS));
+
+        member.removeSession("s1");
+        assertFalse(member.isSubscribed(roomId));
+    }
+
+    private RedisRoomBrokerRelay newRelay(String nodeId, MessageChannel localBroker) {
+        LettuceConnectionFactory factory = newFactory();
+        factories.add(factory);
+        RedisRoomBrokerRelay relay = new RedisRoomBrokerRelay(factory, localBroker, nodeId);
+        relay.start();
+        relays.add(relay);
+        return relay;
+    }
+
+    private static LettuceConnectionFactory newFactory() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static Message<byte[]> roomMessage(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        byte[] payload = ByteBuffer.allocate(64).putLong(System.nanoTime()).array();
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,114 @@
+package kr.or.kosa.visang.common.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("방 이벤트 순번 / 이어받기 테스트")
+class RoomEventLogTest {
+
+    private RoomEventLog eventLog;
+
+    @BeforeEach
+    void setUp() {
+        eventLog = new RoomEventLog(4, 1024, 120);
+    }
+
+    @Test
+    @DisplayName("방 토픽 메시지마다 방 단위로 증가하는 순번이 붙는다")
+    void assignsPerRoomSequence() {
+        // when
+        long first = seqOf(send("/topic/room/r1/text", "{\"n\":1}"));
+        long second = seqOf(send("/topic/room/r1/stamp", "{\"n\":2}"));
+        long other = seqOf(send("/topic/room/r2/text", "{\"n\":1}"));
+        Message<?> global = send("/topic/text", "{}");
+
+        // then
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(1, other);
+        assertNull(SimpMessageHeaderAccessor.wrap(global).getFirstNativeHeader(RoomEventLog.SEQ_HEADER));
+    }
+
+    @Test
+    @DisplayName("마지막 순번 이후 이벤트만 이어받고 rtc 는 다시 보내지 않는다")
+    void resumesOnlyTheGap() {
+        // given
+        String epoch = eventLog.position("r1").getEpoch();
+        send("/topic/room/r1/text", "{\"n\":1}");
+        send("/topic/room/r1/rtc", "{\"type\":\"offer\"}");
+        send("/topic/room/r1/stamp", "{\"n\":3}");
+
+        // when
+        RoomResumeMessage resume = eventLog.resume("r1", epoch, 1);
+
+        // then
+        assertTrue(resume.isComplete());
+        assertEquals(3, resume.getSeq());
+        assertEquals(1, resume.getEvents().size());
+        assertEquals(3, resume.getEvents().get(0).getSeq());
+        assertEquals("{\"n\":3}", resume.getEvents().get(0).getPayload());
+    }
+
+    @Test
+    @DisplayName("scroll 처럼 최신 값만 의미 있는 목적지는 마지막 이벤트만 이어받는다")
+    void keepsOnlyLastValue() {
+        // given
+        String epoch = eventLog.position("r1").getEpoch();
+        send("/topic/room/r1/scroll", "{\"scrollTop\":1}");
+        send("/topic/room/r1/text", "{\"n\":1}");
+        send("/topic/room/r1/scroll", "{\"scrollTop\":2}");
+
+        // when
+        List<RoomResumeMessage.Event> events = eventLog.resume("r1", epoch, 0).getEvents();
+
+        // then
+        assertEquals(2, events.size());
+        assertEquals(2, events.get(0).getSeq());
+        assertEquals("{\"scrollTop\":2}", events.get(1).getPayload());
+    }
+
+    @Test
+    @DisplayName("구간이 링 버퍼에서 밀려났거나 epoch 가 다르면 이어받기 불가로 응답한다")
+    void incompleteWhenGapEvictedOrEpochChanged() {
+        // given
+        String epoch = eventLog.position("r1").getEpoch();
+        for (int i = 1; i <= 6; i++) {
+            send("/topic/room/r1/text", "{\"n\":" + i + "}");
+        }
+
+        // when
+        RoomResumeMessage evicted = eventLog.resume("r1", epoch, 1);
+        RoomResumeMessage covered = eventLog.resume("r1", epoch, 2);
+        RoomResumeMessage otherEpoch = eventLog.resume("r1", "unknown", 5);
+
+        // then
+        assertFalse(evicted.isComplete());
+        assertTrue(evicted.getEvents().isEmpty());
+        assertTrue(covered.isComplete());
+        assertEquals(4, covered.getEvents().size());
+        assertFalse(otherEpoch.isComplete());
+    }
+
+    private Message<?> send(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        Message<byte[]> message = MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+        return eventLog.preSend(message, null);
+    }
+
+    private static long seqOf(Message<?> message) {
+        return Long.parseLong(SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(RoomEventLog.SEQ_HEADER));
+    }
+}
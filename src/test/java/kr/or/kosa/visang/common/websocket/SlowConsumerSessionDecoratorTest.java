@@ -0,0 +1,234 @@
+package kr.or.kosa.visang.common.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("느린 클라이언트 송신 정책 테스트")
+class SlowConsumerSessionDecoratorTest {
+
+    private WebSocketSession delegate;
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("s1");
+        // 첫 전송이 막혀 있는 동안 나머지 프레임이 버퍼에 쌓이도록 한다
+        doAnswer(invocation -> {
+            firstSendStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            sent.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(delegate).sendMessage(any(WebSocketMessage.class));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("COALESCE: 같은 목적지의 scroll 프레임은 최신 값만 남는다")
+    void coalesceKeepsLatestScroll() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.COALESCE);
+        blockFirstSend(session);
+
+        // when
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(frame("/topic/room/r1/scroll", "{\"scrollTop\":" + i + "}"));
+        }
+
+        // then
+        assertTrue(session.getCoalescedCount() > 0);
+        assertTrue(session.getBufferSize() <= 200);
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(sent.get(sent.size() - 1).contains("\"scrollTop\":10"));
+    }
+
+    @Test
+    @DisplayName("DROP: 버퍼 한도를 넘으면 오래된 프레임부터 버린다")
+    void dropRemovesOldest() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.DROP);
+        blockFirstSend(session);
+
+        // when
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(frame("/topic/room/r1/draw", "{\"n\":" + i + "}"));
+        }
+
+        // then
+        assertTrue(session.getDroppedCount() > 0);
+        assertTrue(session.getBufferSize() <= 200);
+        assertEquals(0, session.getCoalescedCount());
+    }
+
+    @Test
+    @DisplayName("버린 프레임은 세션이 끊기기 전에도 바로 지표에 반영된다")
+    void recordsDroppedWhileSessionIsOpen() throws Exception {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WebSocketSessionMetrics metrics = new WebSocketSessionMetrics(registry);
+        SlowConsumerSessionDecorator session =
+                new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.DROP, metrics);
+        blockFirstSend(session);
+
+        // when
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(frame("/topic/room/r1/draw", "{\"n\":" + i + "}"));
+        }
+
+        // then
+        assertTrue(session.getDroppedCount() > 0);
+        assertEquals(session.getDroppedCount(),
+                registry.get("websocket.session.outbound.dropped").tag("policy", "drop").counter().count());
+    }
+
+    @Test
+    @DisplayName("DISCONNECT: 버퍼 한도를 넘으면 세션 한도 예외가 발생한다")
+    void disconnectThrows() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.DISCONNECT);
+        blockFirstSend(session);
+
+        // when & then
+        assertThrows(SessionLimitExceededException.class, () -> {
+            for (int i = 1; i <= 10; i++) {
+                session.sendMessage(frame("/topic/room/r1/text", "{\"n\":" + i + "}"));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("포화 상태에서도 도장/서명 프레임은 버리지 않고, 앞서 쌓인 프레임보다 먼저 보내지도 않는다")
+    void criticalFramesAreNeverDropped() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.DROP);
+        blockFirstSend(session);
+
+        // when
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(frame("/topic/room/r1/scroll", "{\"scrollTop\":" + i + "}"));
+            session.sendMessage(frame("/topic/room/r1/draw", "{\"n\":" + i + "}"));
+        }
+        for (int i = 1; i <= 3; i++) {
+            session.sendMessage(frame("/topic/room/r1/stamp", "{\"stamp\":" + i + "}"));
+        }
+        session.sendMessage(frame("/topic/room/r1/signature", "{\"signature\":1}"));
+
+        // then
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        List<String> critical = sent.stream()
+                .filter(payload -> payload.contains("/stamp\n") || payload.contains("/signature\n"))
+                .toList();
+        assertEquals(4, critical.size());
+        assertTrue(critical.get(0).contains("\"stamp\":1"));
+        assertTrue(critical.get(3).contains("\"signature\":1"));
+        assertEquals(critical.get(3), sent.get(sent.size() - 1));
+    }
+
+    @Test
+    @DisplayName("도장 프레임도 앞서 쌓인 일반 프레임을 앞지르지 않고 넣은 순서대로 전송한다")
+    void keepsFifoOrder() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 10_000, SlowConsumerPolicy.DROP);
+        blockFirstSend(session);
+
+        // when
+        session.sendMessage(frame("/topic/room/r1/text", "{\"n\":1}"));
+        session.sendMessage(frame("/topic/room/r1/stamp", "{\"stamp\":1}"));
+        session.sendMessage(frame("/topic/room/r1/text", "{\"n\":2}"));
+
+        // then
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(4, sent.size());
+        assertTrue(sent.get(1).contains("\"n\":1"));
+        assertTrue(sent.get(2).contains("\"stamp\":1"));
+        assertTrue(sent.get(3).contains("\"n\":2"));
+    }
+
+    @Test
+    @DisplayName("DROP: MESSAGE 가 아닌 STOMP 제어 프레임(RECEIPT/ERROR)은 버리지 않는다")
+    void controlFramesAreNeverDropped() throws Exception {
+        // given
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(delegate, 60_000, 200, SlowConsumerPolicy.DROP);
+        blockFirstSend(session);
+
+        // when
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:r-1\n\n\u0000"));
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(frame("/topic/room/r1/text", "{\"n\":" + i + "}"));
+        }
+        session.sendMessage(new TextMessage("ERROR\nmessage:denied\n\n\u0000"));
+
+        // then
+        assertTrue(session.getDroppedCount() > 0);
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(sent.stream().anyMatch(payload -> payload.startsWith("RECEIPT\n")));
+        assertTrue(sent.stream().anyMatch(payload -> payload.startsWith("ERROR\n")));
+    }
+
+    @Test
+    @DisplayName("목적지와 본문으로 메시지 우선순위를 분류한다")
+    void classifiesPriority() {
+        assertEquals(MessagePriority.CRITICAL, MessagePriority.of("/topic/room/r1/stamp", null));
+        assertEquals(MessagePriority.CRITICAL, MessagePriority.of("/app/room/r1/consultComplete", null));
+        assertEquals(MessagePriority.CRITICAL, MessagePriority.of("/topic/endConsult", null));
+        assertEquals(MessagePriority.REPLACEABLE, MessagePriority.of("/topic/room/r1/scroll", null));
+        assertEquals(MessagePriority.REPLACEABLE, MessagePriority.of("/topic/room/r1/rtc", "{\"type\":\"ice\",\"ice\":{}}"));
+        assertEquals(MessagePriority.NORMAL, MessagePriority.of("/topic/room/r1/rtc", "{\"type\":\"offer\"}"));
+        assertEquals(MessagePriority.NORMAL, MessagePriority.of("/topic/room/r1/text", null));
+    }
+
+    @Test
+    @DisplayName("STOMP 프레임에서 destination 헤더를 읽는다")
+    void parsesDestination() {
+        assertEquals("/topic/room/r1/page",
+                SlowConsumerSessionDecorator.destinationOf(frame("/topic/room/r1/page", "{}")));
+    }
+
+    private void blockFirstSend(SlowConsumerSessionDecorator session) throws Exception {
+        executor.submit(() -> {
+            session.sendMessage(frame("/topic/room/r1/draw", "{}"));
+            return null;
+        });
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n"
+                + "subscription:sub-0\nmessage-id:1\n\n" + body + "\u0000");
+    }
+}
@@ -0,0 +1,109 @@
+package kr.or.kosa.visang.domain.admin.controller;
+
+import kr.or.kosa.visang.domain.chat.service.ChatService;
+import kr.or.kosa.visang.domain.contract.service.ContractService;
+import kr.or.kosa.visang.domain.contractTemplate.service.ContractTemplateService;
+import kr.or.kosa.visang.domain.pdf.model.PdfFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("관리자 PDF 제공 ETag/Range 테스트")
+class AdminContractControllerPdfTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private ContractService contractService;
+    @Mock
+    private ContractTemplateService contractTemplateService;
+    @Mock
+    private ChatService chatService;
+
+    private MockMvc mockMvc;
+    private byte[] pdf;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new AdminContractController(contractService, contractTemplateService, chatService))
+                .build();
+        pdf = new byte[100];
+        for (int i = 0; i < pdf.length; i++) {
+            pdf[i] = (byte) i;
+        }
+    }
+
+    @Test
+    @DisplayName("If-None-Match 가 저장된 해시와 같으면 파일을 읽지 않고 304 를 반환한다")
+    void returnsNotModifiedWithoutLoadingFile() throws Exception {
+        // given
+        when(contractTemplateService.getTemplateHash(1L)).thenReturn(HASH);
+
+        // when / then
+        mockMvc.perform(get("/admin/files/1/preview").header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(content().bytes(new byte[0]));
+        verify(contractTemplateService, never()).getVerifiedTemplate(any());
+    }
+
+    @Test
+    @DisplayName("해시가 다르면 본문과 함께 해시 기반 ETag 를 내려준다")
+    void returnsBodyWithHashEtag() throws Exception {
+        // given
+        when(contractTemplateService.getTemplateHash(1L)).thenReturn(HASH);
+        when(contractTemplateService.getVerifiedTemplate(1L)).thenReturn(new PdfFile(new ByteArrayResource(pdf), HASH));
+
+        // when / then
+        mockMvc.perform(get("/admin/files/1/preview").header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(pdf));
+    }
+
+    @Test
+    @DisplayName("Range 요청에는 요청한 구간만 206 과 Content-Range 로 응답한다")
+    void returnsPartialContentForRange() throws Exception {
+        // given
+        when(contractTemplateService.getTemplateHash(1L)).thenReturn(HASH);
+        when(contractTemplateService.getVerifiedTemplate(1L)).thenReturn(new PdfFile(new ByteArrayResource(pdf), HASH));
+
+        // when / then
+        mockMvc.perform(get("/admin/files/1/preview").header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(pdf, 10, 20)));
+    }
+
+    @Test
+    @DisplayName("검증 실패로 안내용 대체 파일을 줄 때는 ETag 를 붙이지 않는다")
+    void servesFallbackWithoutEtag() throws Exception {
+        // given
+        when(contractTemplateService.getTemplateHash(1L)).thenReturn(null);
+        when(contractTemplateService.getVerifiedTemplate(1L))
+                .thenReturn(new PdfFile(new ByteArrayResource("템플릿을 찾을 수 없습니다.".getBytes()), null));
+
+        // when / then
+        mockMvc.perform(get("/admin/files/1/preview").header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,104 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.domain.chat.model.ChatExportFile;
+import kr.or.kosa.visang.domain.chat.model.ChatExportJob;
+import kr.or.kosa.visang.domain.chat.repository.ChatExportJobMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("채팅 내보내기 작업 실행기 테스트")
+class ChatExportWorkerTest {
+
+    @Mock
+    private ChatExportJobMapper chatExportJobMapper;
+    @Mock
+    private ChatExportJobService chatExportJobService;
+    @Mock
+    private ChatService chatService;
+
+    private ChatExportWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ChatExportWorker(chatExportJobMapper, chatExportJobService, chatService, 2, 1000, 3, 30, 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    @DisplayName("선점한 작업은 Redis 정리 → 파일 생성 → 완료 처리 순으로 실행된다")
+    void runsClaimedJob() {
+        // given
+        ChatExportJob job = job(1L, 0);
+        ChatExportFile export = new ChatExportFile("/tmp/chat_1.txt", "abc", 10);
+        when(chatExportJobMapper.findRunnable(600, 2)).thenReturn(List.of(job));
+        when(chatExportJobMapper.claim(eq(1L), anyString(), eq(600L))).thenReturn(1);
+        when(chatService.exportFile(10L)).thenReturn(export);
+
+        // when
+        worker.poll();
+
+        // then
+        verify(chatService, timeout(1000)).deleteFromRedis(10L);
+        verify(chatExportJobService, timeout(1000)).complete(eq(job), anyString(), eq(export));
+        verify(chatExportJobService, never()).fail(any(), anyString(), any(), anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 선점한 작업은 실행하지 않는다")
+    void skipsJobClaimedElsewhere() {
+        // given
+        when(chatExportJobMapper.findRunnable(600, 2)).thenReturn(List.of(job(1L, 0)));
+        when(chatExportJobMapper.claim(eq(1L), anyString(), eq(600L))).thenReturn(0);
+
+        // when
+        worker.poll();
+
+        // then
+        verifyNoInteractions(chatService);
+    }
+
+    @Test
+    @DisplayName("실패하면 시도 횟수에 따라 두 배씩 늘어난 지연으로 재시도를 기록한다")
+    void recordsRetryWithBackoff() {
+        // given
+        ChatExportJob job = job(1L, 2);
+        RuntimeException error = new RuntimeException("디스크 부족");
+        doThrow(error).when(chatService).exportFile(10L);
+
+        // when
+        worker.run(job);
+
+        // then
+        verify(chatExportJobService).fail(eq(job), anyString(), eq(error), eq(3), eq(60L));
+        verify(chatExportJobService, never()).complete(any(), anyString(), any());
+    }
+
+    private static ChatExportJob job(Long jobId, int attempts) {
+        ChatExportJob job = new ChatExportJob();
+        job.setJobId(jobId);
+        job.setContractId(10L);
+        job.setRequestedBy("시스템");
+        job.setStatus(ChatExportJob.PENDING);
+        job.setAttempts(attempts);
+        return job;
+    }
+}
@@ -0,0 +1,111 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.model.ChatSearchResult;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("채팅 전문 검색 색인 테스트")
+class ChatSearchIndexTest {
+
+    private ChatMapper chatMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        chatMapper = mock(ChatMapper.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new ChatSearchIndex(chatMapper, meterRegistry, 20, 2000, 60, 1000, 1_000_000);
+    }
+
+    @Test
+    @DisplayName("띄어쓰기와 관계없이 문구가 이어진 메시지만 찾고 원문 위치를 돌려준다")
+    void findsPhraseIgnoringSpaces() {
+        // given
+        index.addAll(List.of(
+                message(1L, "고객님 계약 해지 관련 안내드립니다"),
+                message(2L, "해지 전에 계약 내용을 확인해 주세요"),
+                message(3L, "계약해지는 언제든 가능합니다")));
+
+        // when
+        Map<Long, ChatSearchResult> results = index.search("계약해지");
+
+        // then
+        assertEquals(List.of(3L, 1L), List.copyOf(results.keySet()));
+        assertEquals(4, results.get(1L).getHits().get(0).getOffset());
+        assertEquals(0, results.get(3L).getHits().get(0).getOffset());
+    }
+
+    @Test
+    @DisplayName("한 글자 검색어나 색인에 없는 2-gram 은 결과가 없다")
+    void emptyForShortOrUnknownQuery() {
+        // given
+        index.addAll(List.of(message(1L, "보험료 납입 안내")));
+
+        // then
+        assertTrue(index.search("보").isEmpty());
+        assertTrue(index.search("해지").isEmpty());
+        assertEquals(1, index.search("납입").size());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 저장한 메시지도 chat 테이블에서 이어 읽어 색인하고, 다시 읽은 구간은 중복 색인하지 않는다")
+    void catchesUpFromChatTable() {
+        // given
+        when(chatMapper.findSearchableAfter(0L, 1000)).thenReturn(
+                List.of(row(1L, 7L, "청약 철회 기간은 15일입니다"), row(3L, 8L, "보험료 납입 안내")),
+                List.of(row(1L, 7L, "청약 철회 기간은 15일입니다"), row(2L, 8L, "청약 철회 문의"),
+                        row(3L, 8L, "보험료 납입 안내")));
+
+        // when
+        int first = index.catchUp();
+        int second = index.catchUp();
+
+        // then
+        assertEquals(2, first);
+        // 늦게 커밋된 chat_id 2 만 새로 색인된다
+        assertEquals(1, second);
+        assertEquals(3, index.size());
+        assertEquals(List.of(8L, 7L), List.copyOf(index.search("청약 철회").keySet()));
+    }
+
+    @Test
+    @DisplayName("색인 항목 수가 제한을 넘으면 오래된 메시지부터 색인에서 빼고 지표에 남긴다")
+    void evictsOldestMessagesOverEntryCap() {
+        // given
+        index = new ChatSearchIndex(chatMapper, meterRegistry, 20, 2000, 60, 1000, 12);
+
+        // when (항목 수 5 + 5 + 6 = 16, 제한 12 → 3/4 인 9 이하가 될 때까지 뺀다)
+        index.addAll(List.of(
+                message(1L, "계약 해지 안내"),
+                message(2L, "청약 철회 안내"),
+                message(3L, "보험료 납입 안내")));
+
+        // then
+        assertEquals(1, index.size());
+        assertEquals(6, index.entries());
+        assertEquals(List.of(3L), List.copyOf(index.search("안내").keySet()));
+        assertTrue(index.search("해지").isEmpty());
+        assertEquals(2.0, meterRegistry.get("chat.search.index.evictions").counter().count());
+    }
+
+    private static ChatMessage message(Long contractId, String content) {
+        return ChatMessage.createChatMessage("s1", contractId, "agent", "상담원", content);
+    }
+
+    private static ChatMessage row(Long chatId, Long contractId, String content) {
+        ChatMessage msg = message(contractId, content);
+        msg.setMessageId(chatId);
+        return msg;
+    }
+}
@@ -0,0 +1,126 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.domain.chat.model.ChatExportFile;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("채팅 기록 스트리밍 내보내기 테스트")
+class ChatServiceExportTest {
+
+    @Mock
+    private ChatMapper chatMapper;
+    @Mock
+    private RedisTemplate<String, ChatMessage> redis;
+    @Mock
+    private ChatStreamWriteBehind chatStreamWriteBehind;
+    @Mock
+    private ChatSearchIndex chatSearchIndex;
+    @Mock
+    private ChatWriteAheadLog chatWriteAheadLog;
+
+    @TempDir
+    Path tempDir;
+
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        chatService = new ChatService(chatMapper, redis, chatStreamWriteBehind, chatSearchIndex, chatWriteAheadLog);
+        ReflectionTestUtils.setField(chatService, "chatUploadDir", tempDir.toString());
+    }
+
+    @Test
+    @DisplayName("여러 페이지를 이어 쓰고 파일 바이트의 SHA-256 을 함께 반환한다")
+    void exportsPagesWithHash() throws Exception {
+        // given
+        when(chatMapper.findPageByContractId(eq(1L), anyLong(), anyInt()))
+                .thenReturn(page(1, 500), page(501, 1));
+
+        // when
+        ChatExportFile export = chatService.exportFile(1L);
+
+        // then
+        List<String> lines = Files.readAllLines(Paths.get(export.getFilePath()));
+        assertTrue(lines.contains("총 메시지 수: 501"));
+        assertTrue(lines.contains("[2025-01-01 10:00:00] 상담원: 메시지 501"));
+        assertEquals(HashUtil.sha256(export.getFilePath()), export.getSha256());
+        verify(chatMapper).findPageByContractId(1L, 500L, 500);
+    }
+
+    @Test
+    @DisplayName("gzip 설정이면 압축 파일로 쓰고 압축본 기준으로 해시를 계산한다")
+    void exportsGzip() throws Exception {
+        // given
+        ReflectionTestUtils.setField(chatService, "exportGzip", true);
+        when(chatMapper.findPageByContractId(eq(1L), anyLong(), anyInt())).thenReturn(page(1, 1));
+
+        // when
+        ChatExportFile export = chatService.exportFile(1L);
+
+        // then
+        assertTrue(export.getFilePath().endsWith(".txt.gz"));
+        assertEquals(HashUtil.sha256(export.getFilePath()), export.getSha256());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(export.getFilePath())))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("상담원: 메시지 1"));
+        }
+    }
+
+    @Test
+    @DisplayName("필수 값이 빠진 메시지는 건너뛰고, 푸터와 결과의 메시지 수는 실제 기록한 줄 수로 맞춘다")
+    void countsOnlyWrittenLines() throws Exception {
+        // given
+        List<ChatMessage> page = page(1, 3);
+        page.get(1).setContent(null);
+        when(chatMapper.findPageByContractId(eq(1L), anyLong(), anyInt())).thenReturn(page);
+
+        // when
+        ChatExportFile export = chatService.exportFile(1L);
+
+        // then
+        List<String> lines = Files.readAllLines(Paths.get(export.getFilePath()));
+        assertTrue(lines.contains("총 메시지 수: 2"));
+        assertEquals(2, lines.stream().filter(line -> line.startsWith("[")).count());
+        assertEquals(2, export.getMessageCount());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private static List<ChatMessage> page(long firstId, int size) {
+        List<ChatMessage> page = new ArrayList<>();
+        for (long id = firstId; id < firstId + size; id++) {
+            ChatMessage msg = ChatMessage.createChatMessage("s1", 1L, "agent", "상담원", "메시지 " + id);
+            msg.setMessageId(id);
+            msg.setTimestamp(LocalDateTime.of(2025, 1, 1, 10, 0));
+            page.add(msg);
+        }
+        return page;
+    }
+}
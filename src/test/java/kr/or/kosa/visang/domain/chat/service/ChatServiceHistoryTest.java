@@ -0,0 +1,99 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.domain.chat.model.ChatHistoryPage;
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("채팅 기록 키셋 페이지 조회 테스트")
+class ChatServiceHistoryTest {
+
+    @Mock
+    private ChatMapper chatMapper;
+    @Mock
+    private RedisTemplate<String, ChatMessage> redis;
+    @Mock
+    private ChatStreamWriteBehind chatStreamWriteBehind;
+    @Mock
+    private ChatSearchIndex chatSearchIndex;
+    @Mock
+    private ChatWriteAheadLog chatWriteAheadLog;
+
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        chatService = new ChatService(chatMapper, redis, chatStreamWriteBehind, chatSearchIndex, chatWriteAheadLog);
+    }
+
+    @Test
+    @DisplayName("after 조회는 limit+1 건을 읽어 다음 페이지 여부와 마지막 chat_id 를 돌려준다")
+    void pagesForward() {
+        // given
+        when(chatMapper.findPageByContractId(1L, 10L, 4)).thenReturn(rows(11, 12, 13, 14));
+
+        // when
+        ChatHistoryPage page = chatService.getHistory(1L, 10L, null, 3);
+
+        // then
+        assertEquals(List.of(11L, 12L, 13L), ids(page));
+        assertEquals(13L, page.getNextCursor());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    @DisplayName("커서가 없으면 최신 페이지를 오름차순으로 돌려주고 첫 chat_id 를 다음 before 로 쓴다")
+    void latestPageInAscendingOrder() {
+        // given
+        when(chatMapper.findPageBeforeByContractId(1L, null, 4)).thenReturn(rows(20, 19, 18));
+
+        // when
+        ChatHistoryPage page = chatService.getHistory(1L, null, null, 3);
+
+        // then
+        assertEquals(List.of(18L, 19L, 20L), ids(page));
+        assertEquals(18L, page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    @DisplayName("limit 는 최대 200 건으로 제한된다")
+    void clampsLimit() {
+        // given
+        when(chatMapper.findPageBeforeByContractId(1L, 50L, 201)).thenReturn(List.of());
+
+        // when
+        ChatHistoryPage page = chatService.getHistory(1L, null, 50L, 10_000);
+
+        // then
+        assertTrue(page.getMessages().isEmpty());
+        assertEquals(50L, page.getNextCursor());
+    }
+
+    private static List<ChatMessage> rows(long... ids) {
+        List<ChatMessage> rows = new ArrayList<>();
+        for (long id : ids) {
+            ChatMessage msg = ChatMessage.createChatMessage("s1", 1L, "agent", "상담원", "메시지 " + id);
+            msg.setMessageId(id);
+            rows.add(msg);
+        }
+        return rows;
+    }
+
+    private static List<Long> ids(ChatHistoryPage page) {
+        return page.getMessages().stream().map(ChatMessage::getMessageId).toList();
+    }
+}
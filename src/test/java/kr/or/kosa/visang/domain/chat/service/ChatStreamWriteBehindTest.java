@@ -0,0 +1,205 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import kr.or.kosa.visang.domain.chat.repository.ChatMapper;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("채팅 Redis Stream write-behind 테스트")
+class ChatStreamWriteBehindTest {
+
+    private static final String KEY = "chat:stream:1";
+
+    @Mock
+    private RedisTemplate<String, ChatMessage> redis;
+    @Mock
+    private StreamOperations<String, String, ChatMessage> streamOps;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private SetOperations<String, String> setOps;
+    @Mock
+    private SqlSessionFactory sqlSessionFactory;
+    @Mock
+    private SqlSession batchSession;
+    @Mock
+    private ChatMapper batchMapper;
+
+    private ChatStreamWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(streamOps).when(redis).opsForStream();
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOps);
+        writeBehind = new ChatStreamWriteBehind(redis, stringRedisTemplate, sqlSessionFactory, 100, 500, "node-1", 5, 1000);
+    }
+
+    @Test
+    @DisplayName("스트림에 쌓인 메시지를 한 번의 BATCH 세션으로 저장하고 확인 처리한다")
+    void drainsInOneBatch() {
+        // given
+        writeBehind.append(message("안녕하세요"));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records(3), List.of());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH)).thenReturn(batchSession);
+        when(batchSession.getMapper(ChatMapper.class)).thenReturn(batchMapper);
+
+        // when
+        writeBehind.drain();
+
+        // then
+        verify(batchMapper, times(3)).insertStreamMessage(any(ChatMessage.class));
+        verify(batchSession).commit();
+        verify(streamOps).acknowledge(eq(KEY), eq(ChatStreamWriteBehind.GROUP), any(RecordId[].class));
+        verify(streamOps).pending(KEY, ChatStreamWriteBehind.GROUP);
+        verify(stringRedisTemplate).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("DB 저장이 모두 실패하면 확인 처리하지 않고 다음 주기에 다시 읽는다")
+    void keepsPendingWhenDatabaseIsDown() {
+        // given
+        writeBehind.append(message("안녕하세요"));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records(2), List.of());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH)).thenReturn(batchSession);
+        when(batchSession.getMapper(ChatMapper.class)).thenReturn(batchMapper);
+        doThrow(new RuntimeException("DB 연결 실패")).when(batchSession).flushStatements();
+        SqlSession single = mock(SqlSession.class);
+        ChatMapper singleMapper = mock(ChatMapper.class);
+        when(sqlSessionFactory.openSession(true)).thenReturn(single);
+        when(single.getMapper(ChatMapper.class)).thenReturn(singleMapper);
+        doThrow(new RuntimeException("DB 연결 실패")).when(singleMapper).insertStreamMessage(any(ChatMessage.class));
+
+        // when
+        writeBehind.drain();
+
+        // then
+        verify(streamOps, never()).acknowledge(any(String.class), any(String.class), any(RecordId[].class));
+        verify(stringRedisTemplate, never()).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("일부만 저장되면 저장된 메시지만 확인 처리하고 실패한 메시지는 미확인으로 남긴다")
+    void acknowledgesOnlyInsertedRows() {
+        // given
+        writeBehind.append(message("안녕하세요"));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records(2), List.of());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH)).thenReturn(batchSession);
+        when(batchSession.getMapper(ChatMapper.class)).thenReturn(batchMapper);
+        doThrow(new RuntimeException("ORA-12899")).when(batchSession).flushStatements();
+        SqlSession single = mock(SqlSession.class);
+        ChatMapper singleMapper = mock(ChatMapper.class);
+        when(sqlSessionFactory.openSession(true)).thenReturn(single);
+        when(single.getMapper(ChatMapper.class)).thenReturn(singleMapper);
+        doNothing().doThrow(new RuntimeException("ORA-12899")).when(singleMapper).insertStreamMessage(any(ChatMessage.class));
+
+        // when
+        writeBehind.drain();
+
+        // then
+        verify(streamOps).acknowledge(KEY, ChatStreamWriteBehind.GROUP, RecordId.of("1-0"));
+        verify(singleMapper, times(2)).insertStreamMessage(any(ChatMessage.class));
+    }
+
+    @Test
+    @DisplayName("max-attempts 번 전달되어도 저장하지 못한 메시지는 dead-letter 로 옮긴 뒤 확인 처리한다")
+    void movesPoisonRowToDeadLetter() {
+        // given
+        writeBehind.append(message("안녕하세요"));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records(1), List.of());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH)).thenReturn(batchSession);
+        when(batchSession.getMapper(ChatMapper.class)).thenReturn(batchMapper);
+        doThrow(new RuntimeException("ORA-12899")).when(batchSession).flushStatements();
+        SqlSession single = mock(SqlSession.class);
+        ChatMapper singleMapper = mock(ChatMapper.class);
+        when(sqlSessionFactory.openSession(true)).thenReturn(single);
+        when(single.getMapper(ChatMapper.class)).thenReturn(singleMapper);
+        doThrow(new RuntimeException("ORA-12899")).when(singleMapper).insertStreamMessage(any(ChatMessage.class));
+        PendingMessage delivered = new PendingMessage(RecordId.of("1-0"),
+                Consumer.from(ChatStreamWriteBehind.GROUP, "node-1"), Duration.ofSeconds(1), 5);
+        when(streamOps.pending(eq(KEY), any(Consumer.class), any(Range.class), eq(1L)))
+                .thenReturn(new PendingMessages(ChatStreamWriteBehind.GROUP, List.of(delivered)));
+
+        // when
+        writeBehind.drain();
+
+        // then
+        verify(stringRedisTemplate, times(2)).execute(any(RedisCallback.class)); // dead-letter XADD + XTRIM
+        verify(streamOps).acknowledge(KEY, ChatStreamWriteBehind.GROUP, RecordId.of("1-0"));
+    }
+
+    @Test
+    @DisplayName("방 종료 시 다른 소비자의 미확인 메시지를 가져와 저장하고 미확인이 0 일 때 스트림을 지운다")
+    void flushRoomClaimsOtherConsumers() {
+        // given
+        writeBehind.append(message("안녕하세요"));
+        PendingMessage stuck = new PendingMessage(RecordId.of("1-0"),
+                Consumer.from(ChatStreamWriteBehind.GROUP, "node-2"), Duration.ofMinutes(5), 1);
+        when(streamOps.pending(eq(KEY), eq(ChatStreamWriteBehind.GROUP), any(Range.class), eq(1000L)))
+                .thenReturn(new PendingMessages(ChatStreamWriteBehind.GROUP, List.of(stuck)));
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records(1), List.of());
+        when(sqlSessionFactory.openSession(ExecutorType.BATCH)).thenReturn(batchSession);
+        when(batchSession.getMapper(ChatMapper.class)).thenReturn(batchMapper);
+        when(streamOps.pending(KEY, ChatStreamWriteBehind.GROUP))
+                .thenReturn(new PendingMessagesSummary(ChatStreamWriteBehind.GROUP, 0, Range.unbounded(), Map.of()));
+
+        // when
+        writeBehind.flushRoom(1L);
+
+        // then
+        verify(streamOps).claim(eq(KEY), eq(ChatStreamWriteBehind.GROUP), eq("node-1"), any(Duration.class), eq(RecordId.of("1-0")));
+        verify(streamOps).acknowledge(KEY, ChatStreamWriteBehind.GROUP, RecordId.of("1-0"));
+        verify(redis).delete(KEY);
+    }
+
+    private static List<MapRecord<String, String, ChatMessage>> records(int count) {
+        List<MapRecord<String, String, ChatMessage>> records = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            records.add(StreamRecords.newRecord()
+                    .in(KEY)
+                    .withId(RecordId.of(i + "-0"))
+                    .ofMap(Map.of(ChatStreamWriteBehind.FIELD, message("메시지 " + i))));
+        }
+        return records;
+    }
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.createChatMessage("s1", 1L, "agent", "상담원", content);
+    }
+}
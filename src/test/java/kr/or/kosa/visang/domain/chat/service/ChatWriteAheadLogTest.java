@@ -0,0 +1,103 @@
+package kr.or.kosa.visang.domain.chat.service;
+
+import kr.or.kosa.visang.domain.chat.model.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("채팅 로컬 WAL 테스트")
+class ChatWriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+    @Mock
+    private ChatStreamWriteBehind chatStreamWriteBehind;
+
+    private ChatWriteAheadLog wal;
+
+    @AfterEach
+    void tearDown() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Redis 가 복구되면 WAL 에 쌓인 메시지를 기록 순서대로 스트림에 넣고 Redis 저장으로 돌아간다")
+    void replaysInOrder() throws Exception {
+        // given
+        wal = open();
+        wal.append(message("첫 번째"));
+        assertTrue(wal.appendIfActive(message("두 번째")));
+
+        // when
+        boolean drained = wal.replay();
+
+        // then
+        assertTrue(drained);
+        assertFalse(wal.isActive());
+        ArgumentCaptor<ChatMessage> captor = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatStreamWriteBehind, times(2)).append(captor.capture());
+        assertEquals(List.of("첫 번째", "두 번째"), captor.getAllValues().stream().map(ChatMessage::getContent).toList());
+    }
+
+    @Test
+    @DisplayName("재전송 중 Redis 가 다시 실패하면 보낸 위치까지 기록하고 재기동 후 나머지를 보낸다")
+    void resumesAfterRestart() throws Exception {
+        // given
+        wal = open();
+        wal.append(message("첫 번째"));
+        wal.append(message("두 번째"));
+        doNothing().doThrow(new RedisConnectionFailureException("연결 끊김"))
+                .when(chatStreamWriteBehind).append(any(ChatMessage.class));
+        assertFalse(wal.replay());
+        wal.close();
+
+        // when
+        reset(chatStreamWriteBehind);
+        wal = open();
+        boolean drained = wal.replay();
+
+        // then
+        assertTrue(drained);
+        ArgumentCaptor<ChatMessage> captor = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatStreamWriteBehind).append(captor.capture());
+        assertEquals("두 번째", captor.getValue().getContent());
+    }
+
+    @Test
+    @DisplayName("WAL 모드가 아니면 기록하지 않는다")
+    void inactiveByDefault() throws Exception {
+        // given
+        wal = open();
+
+        // when & then
+        assertFalse(wal.appendIfActive(message("안녕하세요")));
+        verifyNoInteractions(chatStreamWriteBehind);
+    }
+
+    private ChatWriteAheadLog open() throws Exception {
+        // cooldown 0, 재전송 스레드는 테스트 중 돌지 않도록 주기를 길게
+        ChatWriteAheadLog created = new ChatWriteAheadLog(chatStreamWriteBehind, dir.toString(), 64 * 1024, 200, 0, 60_000);
+        created.open();
+        return created;
+    }
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.createChatMessage("s1", 1L, "agent", "상담원", content);
+    }
+}
@@ -0,0 +1,156 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import kr.or.kosa.visang.domain.contract.model.PageAnnotations;
+import kr.or.kosa.visang.domain.contract.model.RoomSnapshotMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import kr.or.kosa.visang.domain.contract.model.TextMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("방 동기화 상태 저장소 테스트")
+class ContractSessionServiceTest {
+
+    private ContractSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ContractSessionService(120);
+    }
+
+    @Test
+    @DisplayName("기록된 PDF/페이지/주석이 페이지 순서대로 스냅샷에 담긴다")
+    void snapshotContainsRecordedState() {
+        // given
+        service.recordPdf("room1", "/files/a.pdf");
+        service.recordPage("room1", 3);
+        service.recordStamp("room1", 3, item(10, 20));
+        service.recordSignature("room1", 1, item(30, 40));
+        service.recordText("room1", text(2, "확인"));
+        service.recordStroke("room1", stroke(3, 0, 0, 5, 5));
+
+        // when
+        RoomSnapshotMessage snapshot = service.snapshot("room1");
+
+        // then
+        assertEquals("/files/a.pdf", snapshot.getPdfUrl());
+        assertEquals(3, snapshot.getCurrentPage());
+        assertEquals(3, snapshot.getPages().size());
+        assertEquals(1, snapshot.getPages().get(0).getPage());
+        assertEquals(1, snapshot.getPages().get(0).getSignatures().size());
+        assertEquals("확인", snapshot.getPages().get(1).getTexts().get(0).getText());
+        PageAnnotations third = snapshot.getPages().get(2);
+        assertEquals(1, third.getStamps().size());
+        assertEquals(1, third.getStrokes().size());
+    }
+
+    @Test
+    @DisplayName("새 PDF 가 기록되면 이전 주석은 버리고 같은 URL 재전송은 무시한다")
+    void newPdfClearsAnnotations() {
+        // given
+        service.recordPdf("room1", "/files/a.pdf");
+        service.recordStamp("room1", 1, item(10, 20));
+
+        // when
+        service.recordPdf("room1", "/files/a.pdf");
+        int afterRetry = service.snapshot("room1").getPages().size();
+        service.recordPdf("room1", "/files/b.pdf");
+
+        // then
+        assertEquals(1, afterRetry);
+        assertTrue(service.snapshot("room1").getPages().isEmpty());
+        assertEquals("/files/b.pdf", service.snapshot("room1").getPdfUrl());
+    }
+
+    @Test
+    @DisplayName("범위를 벗어난 페이지는 기록하지 않고 스냅샷은 이후 기록과 분리된다")
+    void ignoresInvalidPagesAndCopiesSnapshot() {
+        // given
+        service.recordStamp("room1", 0, item(1, 1));
+        service.recordStamp("room1", ContractSessionService.MAX_PAGES + 1, item(1, 1));
+        service.recordStamp("room1", 5, item(1, 1));
+
+        // when
+        RoomSnapshotMessage snapshot = service.snapshot("room1");
+        service.recordStamp("room1", 5, item(2, 2));
+
+        // then
+        assertEquals(1, snapshot.getPages().size());
+        assertEquals(1, snapshot.getPages().get(0).getStamps().size());
+        assertEquals(2, service.snapshot("room1").getPages().get(0).getStamps().size());
+    }
+
+    @Test
+    @DisplayName("페이지당 상한을 넘으면 가장 오래된 항목부터 스냅샷에서 빠진다")
+    void evictsOldestItemsOverPageLimit() {
+        // given
+        for (int i = 0; i <= ContractSessionService.MAX_ITEMS_PER_PAGE; i++) {
+            service.recordStamp("room1", 1, item(i, i));
+        }
+
+        // when
+        PageAnnotations page = service.snapshot("room1").getPages().get(0);
+
+        // then
+        assertEquals(ContractSessionService.MAX_ITEMS_PER_PAGE, page.getStamps().size());
+        assertEquals(1, page.getStamps().get(0).get("x"));
+    }
+
+    @Test
+    @DisplayName("기록이 없는 방은 빈 스냅샷을 반환한다")
+    void emptySnapshotForUnknownRoom() {
+        // when
+        RoomSnapshotMessage snapshot = service.snapshot("unknown");
+
+        // then
+        assertEquals("unknown", snapshot.getSessionId());
+        assertNull(snapshot.getPdfUrl());
+        assertTrue(snapshot.getPages().isEmpty());
+    }
+
+    @Test
+    @DisplayName("종료 신호 없이 유휴 시간이 지난 방 상태는 정리되고, 최근에 쓰인 방은 남는다")
+    void sweepsIdleRooms() {
+        // given
+        service.recordPdf("room1", "/files/a.pdf");
+        service.recordPdf("room2", "/files/b.pdf");
+
+        // when
+        service.sweepIdleRooms(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(60));
+        boolean keptWithinTimeout = service.hasSessionData("room1");
+        service.sweepIdleRooms(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(121));
+
+        // then
+        assertTrue(keptWithinTimeout);
+        assertFalse(service.hasSessionData("room1"));
+        assertFalse(service.hasSessionData("room2"));
+    }
+
+    private static Map<String, Object> item(int x, int y) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("x", x);
+        item.put("y", y);
+        return item;
+    }
+
+    private static TextMessage text(int page, String value) {
+        TextMessage message = new TextMessage();
+        message.setPage(page);
+        message.setText(value);
+        return message;
+    }
+
+    private static StrokeBatchMessage stroke(int page, int... points) {
+        StrokeBatchMessage message = new StrokeBatchMessage();
+        message.setType("pen");
+        message.setPage(page);
+        message.setPoints(points);
+        return message;
+    }
+}
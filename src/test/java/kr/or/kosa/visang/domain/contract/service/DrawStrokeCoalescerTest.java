@@ -0,0 +1,112 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import kr.or.kosa.visang.domain.contract.model.DrawMessage;
+import kr.or.kosa.visang.domain.contract.model.StrokeBatchMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("드로잉 이동 이벤트 병합 테스트")
+class DrawStrokeCoalescerTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ContractSessionService contractSessionService;
+
+    private DrawStrokeCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new DrawStrokeCoalescer(messagingTemplate, contractSessionService, 50, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("이어지는 선분은 하나의 묶음으로 전송된다")
+    void continuousSegmentsAreBatched() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            coalescer.append("room1", move(i, i, i + 1, i + 1, 1));
+        }
+
+        // then
+        ArgumentCaptor<StrokeBatchMessage> captor = ArgumentCaptor.forClass(StrokeBatchMessage.class);
+        verify(messagingTemplate, timeout(1000).times(1))
+                .convertAndSend(eq("/topic/room/room1/draw"), captor.capture());
+
+        StrokeBatchMessage batch = captor.getValue();
+        assertEquals(11, batch.getPoints().length / 2);
+        assertEquals(0, batch.getPoints()[0]);
+        assertEquals(10, batch.getPoints()[21]);
+        assertEquals("pen", batch.getType());
+        assertEquals(1, batch.getPage());
+    }
+
+    @Test
+    @DisplayName("새 스트로크나 페이지 변경 시 이전 묶음이 분리된다")
+    void discontinuousSegmentsSplitBatches() {
+        // given
+        coalescer.append("room1", move(0, 0, 5, 5, 1));
+        coalescer.append("room1", move(100, 100, 105, 105, 1)); // 새 스트로크
+        coalescer.append("room1", move(105, 105, 110, 110, 2)); // 페이지 변경
+
+        // then
+        ArgumentCaptor<StrokeBatchMessage> captor = ArgumentCaptor.forClass(StrokeBatchMessage.class);
+        verify(messagingTemplate, timeout(1000).times(3))
+                .convertAndSend(eq("/topic/room/room1/draw"), captor.capture());
+
+        List<StrokeBatchMessage> batches = captor.getAllValues();
+        assertArrayEquals(new int[]{0, 0, 5, 5}, batches.get(0).getPoints());
+        assertArrayEquals(new int[]{100, 100, 105, 105}, batches.get(1).getPoints());
+        assertEquals(2, batches.get(2).getPage());
+    }
+
+    @Test
+    @DisplayName("최대 좌표 수에 도달하면 즉시 전송된다")
+    void flushesWhenBatchIsFull() {
+        // given
+        DrawStrokeCoalescer small = new DrawStrokeCoalescer(messagingTemplate, contractSessionService, 10_000, 4);
+        try {
+            for (int i = 0; i < 3; i++) {
+                small.append("room2", move(i, 0, i + 1, 0, 1));
+            }
+
+            // then
+            verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/room/room2/draw"), any(StrokeBatchMessage.class));
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    private static DrawMessage move(int lastX, int lastY, int currentX, int currentY, int page) {
+        DrawMessage message = new DrawMessage();
+        message.setType("pen");
+        message.setLastX(lastX);
+        message.setLastY(lastY);
+        message.setCurrentX(currentX);
+        message.setCurrentY(currentY);
+        message.setPage(page);
+        message.setSessionId("room1");
+        message.setSender("agent");
+        return message;
+    }
+}
@@ -0,0 +1,82 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("스크롤/페이지 최신 값 병합 테스트")
+class LastValueSyncCoalescerTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private LastValueSyncCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new LastValueSyncCoalescer(messagingTemplate, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("창 안에 들어온 스크롤 값은 마지막 값 하나만 전송된다")
+    void sendsOnlyLatestValue() {
+        // given
+        for (int i = 1; i <= 100; i++) {
+            coalescer.submit("room1", "scroll", "s1", Map.of("scrollTop", i));
+        }
+
+        // then
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(1000).times(1))
+                .convertAndSend(eq("/topic/room/room1/scroll"), captor.capture());
+        assertEquals(Map.of("scrollTop", 100), captor.getValue());
+    }
+
+    @Test
+    @DisplayName("종류와 발신자가 다르면 따로 전송된다")
+    void keysAreIndependent() {
+        // given
+        coalescer.submit("room1", "scroll", "s1", Map.of("scrollTop", 1));
+        coalescer.submit("room1", "scroll", "s2", Map.of("scrollTop", 2));
+        coalescer.submit("room1", "page", "s1", Map.of("page", 3));
+
+        // then
+        verify(messagingTemplate, timeout(1000).times(2)).convertAndSend(eq("/topic/room/room1/scroll"), any(Object.class));
+        verify(messagingTemplate, timeout(1000).times(1)).convertAndSend(eq("/topic/room/room1/page"), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("창이 0이면 병합하지 않고 바로 전송된다")
+    void zeroWindowSendsImmediately() {
+        // given
+        LastValueSyncCoalescer immediate = new LastValueSyncCoalescer(messagingTemplate, 0);
+        try {
+            immediate.submit("room2", "page", "s1", Map.of("page", 1));
+            immediate.submit("room2", "page", "s1", Map.of("page", 2));
+
+            // then
+            verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/room/room2/page"), any(Object.class));
+        } finally {
+            immediate.shutdown();
+        }
+    }
+}
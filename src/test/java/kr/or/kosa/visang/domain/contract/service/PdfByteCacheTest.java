@@ -0,0 +1,82 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("임시 PDF 바이트 예산 캐시 테스트")
+class PdfByteCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("바이트 예산을 넘으면 가장 오래 안 쓴 PDF 부터 내보낸다")
+    void evictsLeastRecentlyUsedByBytes() throws Exception {
+        // given
+        PdfByteCache cache = new PdfByteCache(registry, 300, "", 0);
+        cache.open();
+        cache.put("a.pdf", new byte[100]);
+        cache.put("b.pdf", new byte[100]);
+        cache.put("c.pdf", new byte[100]);
+        cache.get("a.pdf");
+
+        // when
+        cache.put("d.pdf", new byte[100]);
+
+        // then
+        assertNull(cache.get("b.pdf"));
+        assertNotNull(cache.get("a.pdf"));
+        assertNotNull(cache.get("d.pdf"));
+        assertEquals(300, cache.getMemoryBytes());
+        assertEquals(1.0, registry.get("pdf.cache.evictions").tag("tier", "memory").counter().count());
+        assertEquals(1.0, registry.get("pdf.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("밀려난 PDF 는 디스크 계층에서 다시 읽고 메모리로 올린다")
+    void spillsToDisk() throws Exception {
+        // given
+        PdfByteCache cache = new PdfByteCache(registry, 200, dir.toString(), 1000);
+        cache.open();
+        byte[] first = {1, 2, 3};
+        cache.put("a.pdf", first);
+        cache.put("b.pdf", new byte[150]);
+        cache.put("c.pdf", new byte[150]);
+
+        // when
+        byte[] restored = cache.get("a.pdf");
+
+        // then
+        assertArrayEquals(first, restored);
+        assertEquals(1.0, registry.get("pdf.cache.requests").tag("tier", "disk").counter().count());
+        assertNotNull(cache.get("b.pdf"));
+    }
+
+    @Test
+    @DisplayName("삭제하면 메모리와 디스크 모두에서 사라진다")
+    void removesFromBothTiers() throws Exception {
+        // given
+        PdfByteCache cache = new PdfByteCache(registry, 100, dir.toString(), 1000);
+        cache.open();
+        cache.put("a.pdf", new byte[80]);
+        cache.put("b.pdf", new byte[80]);
+
+        // when
+        cache.remove("a.pdf");
+        cache.remove("b.pdf");
+
+        // then
+        assertNull(cache.get("a.pdf"));
+        assertNull(cache.get("b.pdf"));
+        assertEquals(0, cache.getMemoryBytes());
+        assertEquals(0, cache.getDiskBytes());
+    }
+}
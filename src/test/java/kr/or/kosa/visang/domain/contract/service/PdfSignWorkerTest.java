@@ -0,0 +1,100 @@
+package kr.or.kosa.visang.domain.contract.service;
+
+import kr.or.kosa.visang.domain.contract.model.PdfDTO;
+import kr.or.kosa.visang.domain.contract.model.PdfSignJob;
+import kr.or.kosa.visang.domain.contract.repository.PdfSignJobMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.InputStream;
+import java.security.SignatureException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PDF 서명 작업 실행기 테스트")
+class PdfSignWorkerTest {
+
+    @Mock
+    private PdfSignJobMapper pdfSignJobMapper;
+    @Mock
+    private PdfSignJobService pdfSignJobService;
+    @Mock
+    private PdfService pdfService;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private PdfSignWorker worker;
+    private PdfSignJob job;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        worker = new PdfSignWorker(pdfSignJobMapper, pdfSignJobService, pdfService, messagingTemplate, 1, 1000, 3, 5, 300);
+        job = new PdfSignJob();
+        job.setJobId(7L);
+        job.setContractId(1L);
+        job.setRoomId("room-1");
+        job.setOriginalName("상담문서_1.pdf");
+        job.setAttempts(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    @DisplayName("DB 에 보관된 원본으로 서명하고, 성공하면 완료 처리 후 상담방에 알린다")
+    void completesAndNotifies() throws Exception {
+        // given
+        when(pdfSignJobMapper.findInput(7L)).thenReturn(new byte[]{'%', 'P', 'D', 'F'});
+        PdfDTO signed = new PdfDTO();
+        signed.setFilePath("files/signed_pdf/a.pdf");
+        when(pdfService.signFinalPdf(any(InputStream.class), eq("상담문서_1.pdf"), eq(1L))).thenReturn(signed);
+
+        // when
+        worker.run(job);
+
+        // then
+        verify(pdfSignJobService).complete(eq(job), anyString(), eq(signed));
+        verify(messagingTemplate).convertAndSend(eq("/topic/room/room-1/pdf/signed"), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("서명에 실패하고 시도 횟수가 남았으면 재시도를 기록하고 알리지 않는다")
+    void recordsRetry() throws Exception {
+        // given
+        when(pdfSignJobMapper.findInput(7L)).thenReturn(new byte[]{'%', 'P', 'D', 'F'});
+        when(pdfService.signFinalPdf(any(InputStream.class), anyString(), anyLong()))
+                .thenThrow(new SignatureException("키 오류"));
+        when(pdfSignJobService.fail(eq(job), anyString(), any(Exception.class), eq(3), eq(5L))).thenReturn(true);
+
+        // when
+        worker.run(job);
+
+        // then
+        verify(pdfSignJobService, never()).complete(any(), anyString(), any());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("원본이 비어 있으면 서명하지 않고 실패로 기록한다")
+    void failsWithoutInput() throws Exception {
+        // given
+        when(pdfSignJobMapper.findInput(7L)).thenReturn(null);
+
+        // when
+        worker.run(job);
+
+        // then
+        verify(pdfService, never()).signFinalPdf(any(InputStream.class), anyString(), anyLong());
+        verify(pdfSignJobService).fail(eq(job), anyString(), any(IllegalStateException.class), eq(3), eq(5L));
+    }
+}
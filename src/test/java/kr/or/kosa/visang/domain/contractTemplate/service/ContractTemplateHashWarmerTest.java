@@ -0,0 +1,100 @@
+package kr.or.kosa.visang.domain.contractTemplate.service;
+
+import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.common.file.FileHashCache;
+import kr.or.kosa.visang.common.file.FileStorageService;
+import kr.or.kosa.visang.domain.contract.repository.PdfMapper;
+import kr.or.kosa.visang.domain.contractTemplate.model.ContractTemplate;
+import kr.or.kosa.visang.domain.contractTemplate.repository.ContractTemplateMapper;
+import kr.or.kosa.visang.domain.pdf.service.PdfSignatureVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("템플릿 해시 예열 테스트")
+class ContractTemplateHashWarmerTest {
+
+    @TempDir
+    Path dir;
+
+    private ContractTemplateMapper contractTemplateMapper;
+    private FileHashCache fileHashCache;
+    private ContractTemplateService contractTemplateService;
+
+    @BeforeEach
+    void setUp() {
+        contractTemplateMapper = mock(ContractTemplateMapper.class);
+        fileHashCache = new FileHashCache();
+        contractTemplateService = new ContractTemplateService(contractTemplateMapper, mock(FileStorageService.class),
+                mock(PdfMapper.class), fileHashCache, mock(PdfSignatureVerifier.class));
+        ReflectionTestUtils.setField(contractTemplateService, "uploadDirPdf", dir.toString());
+    }
+
+    @Test
+    @DisplayName("기동 시 모든 템플릿 파일을 해시해 캐시를 채우고, 없는 파일은 건너뛴다")
+    void warmsCacheForEveryTemplateFile() throws Exception {
+        // given
+        when(contractTemplateMapper.selectAllPathAndHash()).thenReturn(List.of(
+                template(1L, "a.pdf", "템플릿 A"),
+                template(2L, "b.pdf", "템플릿 B"),
+                template(3L, "missing.pdf", null)));
+
+        // when
+        new ContractTemplateHashWarmer(contractTemplateMapper, contractTemplateService, 2).warmUp();
+
+        // then (예열은 기동을 기다리지 않으므로 완료될 때까지 대기)
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fileHashCache.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, fileHashCache.size());
+        assertEquals(HashUtil.sha256(dir.resolve("a.pdf").toString()), fileHashCache.sha256(dir.resolve("a.pdf")));
+    }
+
+    @Test
+    @DisplayName("예열 스레드 수가 0 이면 템플릿 목록을 조회하지 않는다")
+    void skipsWhenDisabled() {
+        // when
+        new ContractTemplateHashWarmer(contractTemplateMapper, contractTemplateService, 0).warmUp();
+
+        // then
+        verifyNoInteractions(contractTemplateMapper);
+        assertEquals(0, fileHashCache.size());
+    }
+
+    @Test
+    @DisplayName("템플릿 목록 조회가 실패해도 기동을 막지 않는다")
+    void ignoresMapperFailure() {
+        // given
+        when(contractTemplateMapper.selectAllPathAndHash()).thenThrow(new RuntimeException("DB 연결 실패"));
+
+        // when / then
+        assertDoesNotThrow(() -> new ContractTemplateHashWarmer(contractTemplateMapper, contractTemplateService, 2).warmUp());
+        assertEquals(0, fileHashCache.size());
+    }
+
+    // content 가 null 이면 파일을 만들지 않는다
+    private ContractTemplate template(Long id, String fileName, String content) throws Exception {
+        ContractTemplate template = new ContractTemplate();
+        template.setContractTemplateId(id);
+        template.setFilePath("files/pdf/" + fileName);
+        if (content != null) {
+            Path file = dir.resolve(fileName);
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            template.setFileHash(HashUtil.sha256(file.toString()));
+        } else {
+            template.setFileHash("0".repeat(64));
+        }
+        return template;
+    }
+}
@@ -0,0 +1,85 @@
+package kr.or.kosa.visang.domain.contractTemplate.service;
+
+import kr.or.kosa.visang.common.config.hash.HashUtil;
+import kr.or.kosa.visang.common.file.FileHashCache;
+import kr.or.kosa.visang.common.file.FileStorageService;
+import kr.or.kosa.visang.domain.contract.repository.PdfMapper;
+import kr.or.kosa.visang.domain.contractTemplate.repository.ContractTemplateMapper;
+import kr.or.kosa.visang.domain.pdf.model.PDF;
+import kr.or.kosa.visang.domain.pdf.service.PdfSignatureVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("서명 PDF 제공 시 검증 결과 재사용 테스트")
+class ContractTemplateServiceSignedPdfTest {
+
+    @TempDir
+    Path dir;
+    @Mock
+    private ContractTemplateMapper contractTemplateMapper;
+    @Mock
+    private FileStorageService fileStorageService;
+    @Mock
+    private PdfMapper pdfMapper;
+    @Mock
+    private PdfSignatureVerifier pdfSignatureVerifier;
+
+    private ContractTemplateService service;
+    private PDF pdf;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ContractTemplateService(contractTemplateMapper, fileStorageService, pdfMapper,
+                new FileHashCache(), pdfSignatureVerifier);
+        ReflectionTestUtils.setField(service, "uploadDirSignedPdf", dir.toString());
+
+        Path file = dir.resolve("signed.pdf");
+        Files.write(file, "서명된 PDF".getBytes(StandardCharsets.UTF_8));
+        pdf = new PDF();
+        pdf.setPdfId(1L);
+        pdf.setFilePath("files/signed_pdf/signed.pdf");
+        pdf.setFileHash(HashUtil.sha256(file.toString()));
+        when(pdfMapper.getPathAndHash(1L)).thenReturn(pdf);
+    }
+
+    @Test
+    @DisplayName("서명 시점 검증 결과가 있으면 해시만 확인하고 서명은 다시 검증하지 않는다")
+    void skipsSignatureCheckWhenRecorded() throws Exception {
+        // given
+        pdf.setSignatureVerified(true);
+
+        // when
+        service.getSignedPdfResource(1L);
+
+        // then
+        verifyNoInteractions(pdfSignatureVerifier);
+        verify(pdfMapper, never()).updateSignatureVerification(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("감사용 강제 재검증은 서명을 다시 검증하고 결과를 기록한다")
+    void reverifiesOnDemand() throws Exception {
+        // given
+        pdf.setSignatureVerified(true);
+        when(pdfSignatureVerifier.verify(dir.resolve("signed.pdf"))).thenReturn(false);
+
+        // when & then
+        assertThrows(SecurityException.class, () -> service.getSignedPdfResource(1L, true));
+        verify(pdfMapper).updateSignatureVerification(1L, false);
+    }
+}
@@ -0,0 +1,152 @@
+package kr.or.kosa.visang.domain.pdf.service;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.signatures.SignatureUtil;
+import kr.or.kosa.visang.domain.contract.model.ContractSingedDTO;
+import kr.or.kosa.visang.domain.pdf.enums.SignatureRole;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PDF 증분 서명 테스트")
+class PdfSignerServiceTest {
+
+    private static final String ALIAS = "contract-signing-key";
+    private static final String PASSWORD = "test-password";
+
+    @TempDir
+    Path dir;
+
+    private PdfSignerService signerService;
+    private PdfSignatureVerifier verifier;
+    private ContractSingedDTO info;
+    private byte[] original;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path keystore = createKeystore(dir.resolve("sign.p12"));
+        // 글꼴 파일이 없으면 font-asian 의 한글 글꼴로 서명 외형을 그린다
+        signerService = new PdfSignerService(keystore.toString(), PASSWORD, ALIAS,
+                dir.resolve("missing.ttf").toString(), "static/images/stamp/visang_stamp.png");
+        verifier = new PdfSignatureVerifier();
+        info = new ContractSingedDTO();
+        info.setAgentName("김상담");
+        info.setClientName("홍길동");
+        original = createPdf();
+    }
+
+    @Test
+    @DisplayName("최종 업로드는 회사 직인 하나만 찍고, 상담원/계약자 서명은 기존 바이트 뒤에 리비전으로 덧붙는다")
+    void appendsPartySignaturesAfterSeal() throws Exception {
+        // given
+        Path output = dir.resolve("signed.pdf");
+        signerService.signPdf(new ByteArrayInputStream(original), output, info);
+        byte[] sealed = Files.readAllBytes(output);
+
+        // when
+        signerService.appendSignature(output, SignatureRole.AGENT, info);
+        String hash = signerService.appendSignature(output, SignatureRole.CLIENT, info);
+
+        // then
+        byte[] signed = Files.readAllBytes(output);
+        assertArrayEquals(original, Arrays.copyOf(sealed, original.length));
+        assertArrayEquals(sealed, Arrays.copyOf(signed, sealed.length));
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(signed)), hash);
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfReader(output.toFile()))) {
+            List<String> names = new SignatureUtil(pdfDoc).getSignatureNames();
+            assertEquals(List.of("CompanySeal", "AgentSignature", "ClientSignature"), names);
+        }
+        assertTrue(verifier.verify(output));
+        assertTrue(verifier.verifyLatest(output, SignatureRole.CLIENT.getFieldName()));
+        assertFalse(verifier.verifyLatest(output, SignatureRole.AGENT.getFieldName()));
+    }
+
+    @Test
+    @DisplayName("같은 주체가 두 번 서명하면 거부하고 파일은 그대로 둔다")
+    void rejectsSecondSignatureOfSameRole() throws Exception {
+        // given
+        Path output = dir.resolve("signed.pdf");
+        signerService.signPdf(new ByteArrayInputStream(original), output, info);
+        signerService.appendSignature(output, SignatureRole.AGENT, info);
+        byte[] before = Files.readAllBytes(output);
+
+        // when / then
+        assertThrows(IllegalStateException.class, () -> signerService.appendSignature(output, SignatureRole.AGENT, info));
+        assertArrayEquals(before, Files.readAllBytes(output));
+    }
+
+    @Test
+    @DisplayName("마지막 서명 뒤에 서명되지 않은 수정이 붙으면 검증에 실패한다")
+    void rejectsUnsignedRevision() throws Exception {
+        // given
+        Path output = dir.resolve("signed.pdf");
+        signerService.signPdf(new ByteArrayInputStream(original), output, info);
+        Path tampered = dir.resolve("tampered.pdf");
+        try (PdfDocument pdfDoc = new PdfDocument(new PdfReader(output.toFile()), new PdfWriter(tampered.toFile()),
+                new StampingProperties().useAppendMode())) {
+            pdfDoc.getDocumentInfo().setTitle("수정됨");
+        }
+
+        // when
+        boolean verified = verifier.verify(tampered);
+
+        // then
+        assertFalse(verified);
+    }
+
+    private static Path createKeystore(Path file) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        X500Name subject = new X500Name("CN=VISANG Test");
+        long now = System.currentTimeMillis();
+        Certificate cert = new JcaX509CertificateConverter().getCertificate(
+                new JcaX509v3CertificateBuilder(subject, BigInteger.ONE, new Date(now - 86_400_000L),
+                        new Date(now + 86_400_000L), subject, keyPair.getPublic())
+                        .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())));
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry(ALIAS, keyPair.getPrivate(), PASSWORD.toCharArray(), new Certificate[]{cert});
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return file;
+    }
+
+    private static byte[] createPdf() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Document document = new Document(new PdfDocument(new PdfWriter(out)))) {
+            document.add(new Paragraph("Insurance contract"));
+        }
+        return out.toByteArray();
+    }
+}